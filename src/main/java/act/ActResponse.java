@@ -22,6 +22,7 @@ package act;
 
 import act.app.ActionContext;
 import act.conf.AppConfig;
+import act.util.ByteRange;
 import org.osgl.$;
 import org.osgl.http.H;
 import org.osgl.mvc.MvcConfig;
@@ -32,8 +33,17 @@ import org.osgl.util.E;
 import org.osgl.util.IO;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
 
 public abstract class ActResponse<T extends ActResponse> extends H.Response<T> {
 
@@ -80,6 +90,112 @@ public abstract class ActResponse<T extends ActResponse> extends H.Response<T> {
         return me();
     }
 
+    /**
+     * Send byte ranges of a file with `206 Partial Content`.
+     *
+     * A single range is sent as the response body with the `Content-Range`
+     * header, multiple ranges are sent as a `multipart/byteranges` body, each
+     * part carrying the content type of the file.
+     *
+     * @param file
+     *      the file
+     * @param ranges
+     *      the satisfiable ranges of the file, see {@link ByteRange#parse(String, long)}
+     * @return this response
+     */
+    public T send(File file, List<ByteRange> ranges) {
+        E.illegalArgumentIf(ranges.isEmpty(), "ranges expected");
+        long total = file.length();
+        status(H.Status.PARTIAL_CONTENT);
+        List<Object> segments = new ArrayList<>(ranges.size() * 2 + 1);
+        if (ranges.size() == 1) {
+            ByteRange range = ranges.get(0);
+            header(H.Header.Names.CONTENT_RANGE, range.contentRange(total));
+            contentLength(range.length());
+            segments.add(range);
+        } else {
+            String boundary = "act-" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+            String partType = _getContentType();
+            long len = 0;
+            for (ByteRange range : ranges) {
+                StringBuilder sb = new StringBuilder(len == 0 ? "--" : "\r\n--").append(boundary).append("\r\n");
+                if (null != partType) {
+                    sb.append(H.Header.Names.CONTENT_TYPE).append(": ").append(partType).append("\r\n");
+                }
+                sb.append(H.Header.Names.CONTENT_RANGE).append(": ").append(range.contentRange(total)).append("\r\n\r\n");
+                ByteBuffer partHeader = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.ISO_8859_1));
+                segments.add(partHeader);
+                segments.add(range);
+                len += partHeader.remaining() + range.length();
+            }
+            ByteBuffer closing = ByteBuffer.wrap(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            segments.add(closing);
+            len += closing.remaining();
+            contentType("multipart/byteranges; boundary=" + boundary);
+            header(H.Header.Names.CONTENT_TYPE, contentType);
+            contentLength(len);
+        }
+        sendSegments(file, segments);
+        return me();
+    }
+
+    /**
+     * Check if content could be written progressively to the
+     * {@link #outputStream() output stream} of this response from the
+     * current thread.
+     *
+     * Sub class shall return `false` when writing to the output stream
+     * would block a thread that must not be blocked, e.g. a non-blocking
+     * IO thread.
+     *
+     * @return `true` if the content could be streamed to this response
+     */
+    public boolean streamingSupported() {
+        return true;
+    }
+
+    /**
+     * Write the segments of a partial content response. A segment is either
+     * a `ByteBuffer` to be written as is or a {@link ByteRange} of the file.
+     *
+     * This implementation copies the file regions through the
+     * {@link #outputStream() output stream}. Sub class shall override it
+     * to transfer file regions without copying them into the heap.
+     *
+     * @param file
+     *      the file
+     * @param segments
+     *      the segments
+     */
+    protected void sendSegments(File file, List<?> segments) {
+        beforeWritingContent();
+        try (FileChannel channel = FileChannel.open(file.toPath())) {
+            WritableByteChannel out = Channels.newChannel(outputStream());
+            for (Object segment : segments) {
+                if (segment instanceof ByteBuffer) {
+                    ByteBuffer buffer = (ByteBuffer) segment;
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                } else {
+                    ByteRange range = (ByteRange) segment;
+                    long pos = range.start, remaining = range.length();
+                    while (remaining > 0) {
+                        long n = channel.transferTo(pos, remaining, out);
+                        if (n <= 0) {
+                            throw E.unexpected("file truncated: %s", file);
+                        }
+                        pos += n;
+                        remaining -= n;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
+        afterWritingContent();
+    }
+
     @Override
     public T sendError(int sc, String msg) {
         throw E.unsupport();
@@ -127,6 +243,19 @@ public abstract class ActResponse<T extends ActResponse> extends H.Response<T> {
         return closed;
     }
 
+    /**
+     * Abort this response after part of the content has been sent to
+     * the client. This is used when an error happens after the response
+     * has been committed and thus cannot be replaced with an error page.
+     *
+     * Sub class shall drop the underline connection so that the client
+     * could tell the content is incomplete. The base implementation marks
+     * this response as closed so no further content will be written.
+     */
+    public void abort() {
+        markClosed();
+    }
+
     protected void markClosed() {
         this.closed = true;
         ActionContext ctx = context();
@@ -25,6 +25,7 @@ import act.conf.AppConfig;
 import act.handler.RequestHandler;
 import org.osgl.$;
 import org.osgl.http.H;
+import org.osgl.util.C;
 import org.osgl.util.E;
 import org.osgl.util.S;
 
@@ -92,6 +93,18 @@ public abstract class RequestImplBase<T extends H.Request> extends H.Request<T>
 
     public abstract void receiveFullBytesAndProceed(final ActionContext context, final RequestHandler handler);
 
+    /**
+     * Returns the names of the headers carried by this request.
+     *
+     * Sub class shall override this method to allow the request
+     * being copied, e.g. into a {@link act.controller.DetachedRequest}.
+     *
+     * @return the header names
+     */
+    public Iterable<String> headerNames() {
+        return C.list();
+    }
+
     private boolean parseSecureXHeaders() {
         String s = header(H.Header.Names.X_FORWARDED_PROTO);
         if ("https".equals(s)) {
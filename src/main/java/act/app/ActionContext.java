@@ -25,10 +25,13 @@ import static org.osgl.http.H.Header.Names.*;
 
 import act.*;
 import act.conf.AppConfig;
+import act.controller.DetachedRequest;
+import act.controller.DetachedResponse;
 import act.controller.ResponseCache;
 import act.controller.captcha.CaptchaViolation;
 import act.data.MapUtil;
 import act.data.RequestBodyParser;
+import act.data.StreamingMultipart;
 import act.event.ActEvent;
 import act.event.SystemEvent;
 import act.handler.RequestHandler;
@@ -102,6 +105,8 @@ public class ActionContext extends ActContext.Base<ActionContext> implements Des
     private String urlContext;
     private boolean byPassImplicitTemplateVariable;
     private boolean isLargeResponse;
+    private boolean streamUpload;
+    private StreamingMultipart streamingMultipart;
     private boolean requireCaptcha;
     private int pathVarCount;
     private UrlPath urlPath;
@@ -604,6 +609,27 @@ public class ActionContext extends ActContext.Base<ActionContext> implements Des
         return this;
     }
 
+    /**
+     * Create a new context of the same request that is not bound to the
+     * network channel. The path, headers, parameters and cookies of the
+     * request are copied into a {@link DetachedRequest}, thus the detached
+     * context remains valid after the current request finished. Routing
+     * information and URL path variables are copied into the new context.
+     *
+     * @return a detached context of the current request
+     */
+    public ActionContext detach() {
+        ActionContext ctx = create(app(), new DetachedRequest(config(), request), new DetachedResponse(config()));
+        ctx.router = router;
+        ctx.handler = handler;
+        ctx.processedUrl = processedUrl;
+        ctx.urlPath = urlPath;
+        for (String name : pathVarNames) {
+            ctx.urlPathParam(name, extraParams.get(name));
+        }
+        return ctx;
+    }
+
     public void markRequireBodyParsing() {
         requireBodyParsing = true;
     }
@@ -685,6 +711,32 @@ public class ActionContext extends ActContext.Base<ActionContext> implements Des
         return isLargeResponse;
     }
 
+    /**
+     * Mark the request body shall be streamed to the handler, see
+     * {@link act.handler.StreamUpload}.
+     */
+    public void markAsStreamUpload() {
+        streamUpload = true;
+    }
+
+    public boolean isStreamUpload() {
+        return streamUpload;
+    }
+
+    /**
+     * Returns the parts of the multipart request body streamed to
+     * a {@link act.handler.StreamUpload} handler.
+     *
+     * @return the streaming multipart
+     */
+    public StreamingMultipart streamingMultipart() {
+        E.illegalStateIfNot(streamUpload, "request body is not streamed to handler");
+        if (null == streamingMultipart) {
+            streamingMultipart = new StreamingMultipart(request.inputStream(), request.header(H.Header.Names.CONTENT_TYPE), request.characterEncoding());
+        }
+        return streamingMultipart;
+    }
+
     public String username() {
         return session().get(sessionKeyUsername);
     }
@@ -774,7 +826,9 @@ public class ActionContext extends ActContext.Base<ActionContext> implements Des
         if (null == bodyParams) {
             Map<String, String[]> map = new HashMap<>();
             H.Method method = request.method();
-            if (H.Method.POST == method || H.Method.PUT == method || H.Method.PATCH == method || H.Method.DELETE == method) {
+            boolean hasBody = H.Method.POST == method || H.Method.PUT == method || H.Method.PATCH == method || H.Method.DELETE == method;
+            // the body of stream upload is left to the handler
+            if (hasBody && !streamUpload) {
                 RequestBodyParser parser = RequestBodyParser.get(request);
                 map = parser.parse(this);
             }
@@ -1362,6 +1416,10 @@ public class ActionContext extends ActContext.Base<ActionContext> implements Des
     @Override
     protected void releaseResources() {
         super.releaseResources();
+        if (null != streamingMultipart) {
+            streamingMultipart.close();
+            streamingMultipart = null;
+        }
         PropertySpec.current.remove();
         PropertySpec.currentSpec.remove();
         if (this.state != State.DESTROYED) {
@@ -62,6 +62,7 @@ public class ReflectedCommandExecutor extends CommandExecutor {
     private boolean isStatic;
     private CliContext.ParsingContext parsingContext;
     private boolean async;
+    private String asyncPool;
     private ReportProgress reportProgress;
     private String dateFormatPattern;
     private Class<? extends SerializeFilter> filters[];
@@ -77,7 +78,9 @@ public class ReflectedCommandExecutor extends CommandExecutor {
         this.commanderClass = app.classForName(methodMetaInfo.classInfo().className());
         try {
             this.method = commanderClass.getMethod(methodMetaInfo.methodName(), paramTypes);
-            this.async = null != ReflectedInvokerHelper.getAnnotation(Async.class, method);
+            Async asyncAnno = ReflectedInvokerHelper.getAnnotation(Async.class, method);
+            this.async = null != asyncAnno;
+            this.asyncPool = async ? asyncAnno.pool() : null;
             this.reportProgress = ReflectedInvokerHelper.getAnnotation(ReportProgress.class, method);
             FastJsonFilter filterAnno = ReflectedInvokerHelper.getAnnotation(FastJsonFilter.class, method);
             if (null != filterAnno) {
@@ -128,7 +131,7 @@ public class ReflectedCommandExecutor extends CommandExecutor {
         if (async) {
             final JobManager jobManager = context.app().jobManager();
             final String jobId = jobManager.randomJobId();
-            jobManager.prepare(jobId, new TrackableWorker() {
+            jobManager.prepare(jobId, asyncPool, new TrackableWorker() {
                 @Override
                 protected void run(ProgressGauge progressGauge) {
                     Object o = invoke(cmd, params);
@@ -93,6 +93,38 @@ public class ActConfig extends Config<ActConfigKey> {
         return xioStatistics;
     }
 
+    private Boolean xioHttp2;
+    public boolean xioHttp2() {
+        if (null == xioHttp2) {
+            xioHttp2 = get(XIO_HTTP2, false);
+        }
+        return xioHttp2;
+    }
+
+    private Integer xioHttp2MaxConcurrentStreams;
+    public int xioHttp2MaxConcurrentStreams() {
+        if (null == xioHttp2MaxConcurrentStreams) {
+            xioHttp2MaxConcurrentStreams = get(XIO_HTTP2_MAX_CONCURRENT_STREAMS, 100);
+        }
+        return xioHttp2MaxConcurrentStreams;
+    }
+
+    private Integer xioHttp2HeaderTableSize;
+    public int xioHttp2HeaderTableSize() {
+        if (null == xioHttp2HeaderTableSize) {
+            xioHttp2HeaderTableSize = get(XIO_HTTP2_HEADER_TABLE_SIZE, 4096);
+        }
+        return xioHttp2HeaderTableSize;
+    }
+
+    private Integer xioHttp2InitialWindowSize;
+    public int xioHttp2InitialWindowSize() {
+        if (null == xioHttp2InitialWindowSize) {
+            xioHttp2InitialWindowSize = get(XIO_HTTP2_INITIAL_WINDOW_SIZE, 65535);
+        }
+        return xioHttp2InitialWindowSize;
+    }
+
     private static void validateDir(File dir, String conf) {
         if (!dir.exists() || !dir.isDirectory() || !dir.canRead()) {
             E.invalidConfiguration("%s is not a valid directory: %s", conf, dir.getAbsolutePath());
@@ -90,6 +90,46 @@ public enum ActConfigKey implements ConfigKey {
      */
     XIO_STATISTICS("xio.statistics.enabled"),
 
+    /**
+     * `act.xio.http2.enabled`
+     *
+     * Enable/disable HTTP/2 (for undertow only). When enabled the secure
+     * port negotiates `h2` through ALPN, and the plain port accepts `h2c`
+     * through HTTP/1.1 upgrade or prior knowledge.
+     *
+     * Default value: `false`
+     */
+    XIO_HTTP2("xio.http2.enabled"),
+
+    /**
+     * `act.xio.http2.max_concurrent_streams`
+     *
+     * Specifies the maximum number of concurrent streams a client can
+     * open on a single HTTP/2 connection.
+     *
+     * Default value: `100`
+     */
+    XIO_HTTP2_MAX_CONCURRENT_STREAMS("xio.http2.max_concurrent_streams.int"),
+
+    /**
+     * `act.xio.http2.header_table_size`
+     *
+     * Specifies the HPACK header table size in bytes of HTTP/2 connections.
+     *
+     * Default value: `4096`
+     */
+    XIO_HTTP2_HEADER_TABLE_SIZE("xio.http2.header_table_size.int"),
+
+    /**
+     * `act.xio.http2.initial_window_size`
+     *
+     * Specifies the initial flow-control window size in bytes of HTTP/2
+     * streams.
+     *
+     * Default value: `65535`
+     */
+    XIO_HTTP2_INITIAL_WINDOW_SIZE("xio.http2.initial_window_size.int"),
+
     /**
      * {@code act.xio.impl} specifies the implementation for the network stack implementation
      */
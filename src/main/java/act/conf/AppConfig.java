@@ -30,15 +30,18 @@ import act.app.conf.AppConfigurator;
 import act.app.event.SysEventId;
 import act.app.util.NamedPort;
 import act.cli.CliOverHttpAuthority;
+import act.controller.builtin.ThrottleFilter;
 import act.crypto.HMAC;
 import act.crypto.RotateSecretHMAC;
 import act.data.DateTimeStyle;
 import act.data.DateTimeType;
+import act.event.RingBufferEventDispatcher;
 import act.db.util.SequenceNumberGenerator;
 import act.db.util._SequenceNumberGenerator;
 import act.handler.*;
 import act.handler.event.ResultEvent;
 import act.i18n.I18n;
+import act.job.MisfirePolicy;
 import act.internal.util.StrBufRetentionLimitCalculator;
 import act.security.CSRFProtector;
 import act.session.*;
@@ -50,6 +53,8 @@ import act.view.View;
 import act.ws.DefaultSecureTicketCodec;
 import act.ws.SecureTicketCodec;
 import act.ws.UsernameSecureTicketCodec;
+import act.ws.WebSocketSendQueue;
+import act.xio.ResponseCompression;
 import org.osgl.$;
 import org.osgl.OsglConfig;
 import org.osgl.cache.CacheService;
@@ -321,6 +326,48 @@ public class AppConfig<T extends AppConfig> extends Config<AppConfigKey> impleme
         }
     }
 
+    private Integer cacheForKeyIndexLimit;
+
+    protected T cacheForKeyIndexLimit(int limit) {
+        E.illegalArgumentIf(limit < 0, "cacheFor key index limit must not be negative");
+        cacheForKeyIndexLimit = limit;
+        return me();
+    }
+
+    public int cacheForKeyIndexLimit() {
+        if (null == cacheForKeyIndexLimit) {
+            cacheForKeyIndexLimit = get(CACHE_FOR_KEY_INDEX_LIMIT, 10000);
+        }
+        return cacheForKeyIndexLimit;
+    }
+
+    private void _mergeCacheForKeyIndexLimit(AppConfig config) {
+        if (!hasConfiguration(CACHE_FOR_KEY_INDEX_LIMIT)) {
+            cacheForKeyIndexLimit = config.cacheForKeyIndexLimit;
+        }
+    }
+
+    private Integer cacheForSingleFlightTimeout;
+
+    protected T cacheForSingleFlightTimeout(int seconds) {
+        E.illegalArgumentIf(seconds < 0, "cacheFor single flight timeout must not be negative");
+        cacheForSingleFlightTimeout = seconds;
+        return me();
+    }
+
+    public int cacheForSingleFlightTimeout() {
+        if (null == cacheForSingleFlightTimeout) {
+            cacheForSingleFlightTimeout = get(CACHE_FOR_SINGLE_FLIGHT_TIMEOUT, 10);
+        }
+        return cacheForSingleFlightTimeout;
+    }
+
+    private void _mergeCacheForSingleFlightTimeout(AppConfig config) {
+        if (!hasConfiguration(CACHE_FOR_SINGLE_FLIGHT_TIMEOUT)) {
+            cacheForSingleFlightTimeout = config.cacheForSingleFlightTimeout;
+        }
+    }
+
     private Integer captchaWidth;
 
     protected T captchaWidth(int w) {
@@ -1689,6 +1736,90 @@ public class AppConfig<T extends AppConfig> extends Config<AppConfigKey> impleme
         }
     }
 
+    private Boolean eventAsyncRingBuffer;
+
+    protected T eventAsyncRingBuffer(boolean enabled) {
+        this.eventAsyncRingBuffer = enabled;
+        return me();
+    }
+
+    public boolean eventAsyncRingBufferEnabled() {
+        if (null == eventAsyncRingBuffer) {
+            eventAsyncRingBuffer = get(EVENT_ASYNC_RING_BUFFER, false);
+        }
+        return eventAsyncRingBuffer;
+    }
+
+    private void _mergeEventAsyncRingBuffer(AppConfig conf) {
+        if (!hasConfiguration(EVENT_ASYNC_RING_BUFFER)) {
+            eventAsyncRingBuffer = conf.eventAsyncRingBuffer;
+        }
+    }
+
+    private Integer eventAsyncRingBufferConsumers;
+
+    protected T eventAsyncRingBufferConsumers(int consumers) {
+        E.illegalArgumentIf(consumers < 1, "event ring buffer consumers must be positive integer");
+        this.eventAsyncRingBufferConsumers = consumers;
+        return me();
+    }
+
+    public int eventAsyncRingBufferConsumers() {
+        if (null == eventAsyncRingBufferConsumers) {
+            int n = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+            eventAsyncRingBufferConsumers = get(EVENT_ASYNC_RING_BUFFER_CONSUMERS, n);
+        }
+        return eventAsyncRingBufferConsumers;
+    }
+
+    private void _mergeEventAsyncRingBufferConsumers(AppConfig conf) {
+        if (!hasConfiguration(EVENT_ASYNC_RING_BUFFER_CONSUMERS)) {
+            eventAsyncRingBufferConsumers = conf.eventAsyncRingBufferConsumers;
+        }
+    }
+
+    private Integer eventAsyncRingBufferSize;
+
+    protected T eventAsyncRingBufferSize(int size) {
+        E.illegalArgumentIf(size < 2, "event ring buffer size must be greater than 1");
+        this.eventAsyncRingBufferSize = size;
+        return me();
+    }
+
+    public int eventAsyncRingBufferSize() {
+        if (null == eventAsyncRingBufferSize) {
+            eventAsyncRingBufferSize = get(EVENT_ASYNC_RING_BUFFER_SIZE, 1024);
+        }
+        return eventAsyncRingBufferSize;
+    }
+
+    private void _mergeEventAsyncRingBufferSize(AppConfig conf) {
+        if (!hasConfiguration(EVENT_ASYNC_RING_BUFFER_SIZE)) {
+            eventAsyncRingBufferSize = conf.eventAsyncRingBufferSize;
+        }
+    }
+
+    private RingBufferEventDispatcher.WaitStrategy eventAsyncRingBufferWaitStrategy;
+
+    protected T eventAsyncRingBufferWaitStrategy(RingBufferEventDispatcher.WaitStrategy strategy) {
+        this.eventAsyncRingBufferWaitStrategy = $.requireNotNull(strategy);
+        return me();
+    }
+
+    public RingBufferEventDispatcher.WaitStrategy eventAsyncRingBufferWaitStrategy() {
+        if (null == eventAsyncRingBufferWaitStrategy) {
+            String s = get(EVENT_ASYNC_RING_BUFFER_WAIT_STRATEGY, "blocking");
+            eventAsyncRingBufferWaitStrategy = RingBufferEventDispatcher.WaitStrategy.valueOfIgnoreCase(s);
+        }
+        return eventAsyncRingBufferWaitStrategy;
+    }
+
+    private void _mergeEventAsyncRingBufferWaitStrategy(AppConfig conf) {
+        if (!hasConfiguration(EVENT_ASYNC_RING_BUFFER_WAIT_STRATEGY)) {
+            eventAsyncRingBufferWaitStrategy = conf.eventAsyncRingBufferWaitStrategy;
+        }
+    }
+
     private int jobPoolSize = -1;
 
     protected T jobPoolSize(int size) {
@@ -1710,6 +1841,190 @@ public class AppConfig<T extends AppConfig> extends Config<AppConfigKey> impleme
         }
     }
 
+    private Boolean jobJournalEnabled;
+
+    protected T jobJournalEnabled(boolean enabled) {
+        this.jobJournalEnabled = enabled;
+        return me();
+    }
+
+    public boolean jobJournalEnabled() {
+        if (null == jobJournalEnabled) {
+            jobJournalEnabled = get(JOB_JOURNAL_ENABLED, false);
+        }
+        return jobJournalEnabled;
+    }
+
+    private void _mergeJobJournalEnabled(AppConfig conf) {
+        if (!hasConfiguration(JOB_JOURNAL_ENABLED)) {
+            jobJournalEnabled = conf.jobJournalEnabled;
+        }
+    }
+
+    private String jobJournalFile;
+
+    protected T jobJournalFile(String file) {
+        this.jobJournalFile = $.requireNotNull(file);
+        return me();
+    }
+
+    public String jobJournalFile() {
+        if (null == jobJournalFile) {
+            jobJournalFile = get(JOB_JOURNAL_FILE, "job.journal");
+        }
+        return jobJournalFile;
+    }
+
+    private void _mergeJobJournalFile(AppConfig conf) {
+        if (!hasConfiguration(JOB_JOURNAL_FILE)) {
+            jobJournalFile = conf.jobJournalFile;
+        }
+    }
+
+    private MisfirePolicy jobMisfirePolicy;
+
+    protected T jobMisfirePolicy(MisfirePolicy policy) {
+        this.jobMisfirePolicy = $.requireNotNull(policy);
+        return me();
+    }
+
+    public MisfirePolicy jobMisfirePolicy() {
+        if (null == jobMisfirePolicy) {
+            String s = get(JOB_MISFIRE_POLICY, "skip");
+            jobMisfirePolicy = MisfirePolicy.valueOf(s.trim().toUpperCase().replace('-', '_'));
+        }
+        return jobMisfirePolicy;
+    }
+
+    private void _mergeJobMisfirePolicy(AppConfig conf) {
+        if (!hasConfiguration(JOB_MISFIRE_POLICY)) {
+            jobMisfirePolicy = conf.jobMisfirePolicy;
+        }
+    }
+
+    private Boolean handlerVirtualThread;
+
+    protected T handlerVirtualThread(boolean enabled) {
+        this.handlerVirtualThread = enabled;
+        return me();
+    }
+
+    public boolean handlerVirtualThread() {
+        if (null == handlerVirtualThread) {
+            handlerVirtualThread = get(HANDLER_VIRTUAL_THREAD, false);
+        }
+        return handlerVirtualThread;
+    }
+
+    private void _mergeHandlerVirtualThread(AppConfig conf) {
+        if (!hasConfiguration(HANDLER_VIRTUAL_THREAD)) {
+            handlerVirtualThread = conf.handlerVirtualThread;
+        }
+    }
+
+    private Boolean jobVirtualThread;
+
+    protected T jobVirtualThread(boolean enabled) {
+        this.jobVirtualThread = enabled;
+        return me();
+    }
+
+    public boolean jobVirtualThread() {
+        if (null == jobVirtualThread) {
+            jobVirtualThread = get(JOB_VIRTUAL_THREAD, false);
+        }
+        return jobVirtualThread;
+    }
+
+    private void _mergeJobVirtualThread(AppConfig conf) {
+        if (!hasConfiguration(JOB_VIRTUAL_THREAD)) {
+            jobVirtualThread = conf.jobVirtualThread;
+        }
+    }
+
+    private int virtualThreadFallbackPoolSize = -1;
+
+    protected T virtualThreadFallbackPoolSize(int size) {
+        E.illegalArgumentIf(size < 1, "virtual thread fallback pool size shall be positive number: %s", size);
+        this.virtualThreadFallbackPoolSize = size;
+        return me();
+    }
+
+    public int virtualThreadFallbackPoolSize() {
+        if (-1 == virtualThreadFallbackPoolSize) {
+            virtualThreadFallbackPoolSize = getInteger(VIRTUAL_THREAD_FALLBACK_POOL_SIZE, 256);
+        }
+        return virtualThreadFallbackPoolSize;
+    }
+
+    private void _mergeVirtualThreadFallbackPoolSize(AppConfig conf) {
+        if (!hasConfiguration(VIRTUAL_THREAD_FALLBACK_POOL_SIZE)) {
+            virtualThreadFallbackPoolSize = conf.virtualThreadFallbackPoolSize;
+        }
+    }
+
+    private Boolean jobTimerWheelEnabled;
+
+    protected T jobTimerWheelEnabled(boolean enabled) {
+        this.jobTimerWheelEnabled = enabled;
+        return me();
+    }
+
+    public boolean jobTimerWheelEnabled() {
+        if (null == jobTimerWheelEnabled) {
+            jobTimerWheelEnabled = get(JOB_TIMER_WHEEL_ENABLED, false);
+        }
+        return jobTimerWheelEnabled;
+    }
+
+    private void _mergeJobTimerWheelEnabled(AppConfig conf) {
+        if (!hasConfiguration(JOB_TIMER_WHEEL_ENABLED)) {
+            jobTimerWheelEnabled = conf.jobTimerWheelEnabled;
+        }
+    }
+
+    private int jobTimerTick = -1;
+
+    protected T jobTimerTick(int ms) {
+        E.illegalArgumentIf(ms < 1, "job timer tick shall be positive number: %s", ms);
+        this.jobTimerTick = ms;
+        return me();
+    }
+
+    public int jobTimerTick() {
+        if (-1 == jobTimerTick) {
+            jobTimerTick = getInteger(JOB_TIMER_TICK, 10);
+        }
+        return jobTimerTick;
+    }
+
+    private void _mergeJobTimerTick(AppConfig conf) {
+        if (!hasConfiguration(JOB_TIMER_TICK)) {
+            jobTimerTick = conf.jobTimerTick;
+        }
+    }
+
+    private int jobTimerWheelSize = -1;
+
+    protected T jobTimerWheelSize(int size) {
+        E.illegalArgumentIf(size < 1, "job timer wheel size shall be positive number: %s", size);
+        this.jobTimerWheelSize = size;
+        return me();
+    }
+
+    public int jobTimerWheelSize() {
+        if (-1 == jobTimerWheelSize) {
+            jobTimerWheelSize = getInteger(JOB_TIMER_WHEEL_SIZE, 512);
+        }
+        return jobTimerWheelSize;
+    }
+
+    private void _mergeJobTimerWheelSize(AppConfig conf) {
+        if (!hasConfiguration(JOB_TIMER_WHEEL_SIZE)) {
+            jobTimerWheelSize = conf.jobTimerWheelSize;
+        }
+    }
+
     private int httpExternalPort = -1;
 
     protected T httpExternalPort(int port) {
@@ -2480,6 +2795,27 @@ public class AppConfig<T extends AppConfig> extends Config<AppConfigKey> impleme
         }
     }
 
+    private Integer templateStreamThreshold;
+
+    protected T templateStreamThreshold(int threshold) {
+        E.illegalArgumentIf(threshold < 0, "template stream threshold cannot be negative");
+        templateStreamThreshold = threshold;
+        return me();
+    }
+
+    public int templateStreamThreshold() {
+        if (null == templateStreamThreshold) {
+            templateStreamThreshold = get(TEMPLATE_STREAM_THRESHOLD, 1024 * 32);
+        }
+        return templateStreamThreshold;
+    }
+
+    private void _mergeTemplateStreamThreshold(AppConfig conf) {
+        if (!hasConfiguration(TEMPLATE_STREAM_THRESHOLD)) {
+            templateStreamThreshold = conf.templateStreamThreshold;
+        }
+    }
+
     private boolean pingPathResolved = false;
     private String pingPath = null;
 
@@ -2545,6 +2881,88 @@ public class AppConfig<T extends AppConfig> extends Config<AppConfigKey> impleme
         }
     }
 
+    private Integer reqThrottleBurst;
+
+    protected T requestThrottleBurst(final int burst) {
+        E.illegalArgumentIf(burst < 1, "request throttle burst must be positive integer");
+        this.reqThrottleBurst = burst;
+        return me();
+    }
+
+    public int requestThrottleBurst() {
+        if (null == reqThrottleBurst) {
+            reqThrottleBurst = get(REQUEST_THROTTLE_BURST, requestThrottle());
+        }
+        return reqThrottleBurst;
+    }
+
+    private void _mergeReqThrottleBurst(AppConfig config) {
+        if (!hasConfiguration(REQUEST_THROTTLE_BURST)) {
+            this.reqThrottleBurst = config.reqThrottleBurst;
+        }
+    }
+
+    private List<ThrottleFilter.KeyDimension> reqThrottleKey;
+
+    protected T requestThrottleKey(final String key) {
+        this.reqThrottleKey = ThrottleFilter.KeyDimension.parse(key);
+        return me();
+    }
+
+    public List<ThrottleFilter.KeyDimension> requestThrottleKey() {
+        if (null == reqThrottleKey) {
+            reqThrottleKey = ThrottleFilter.KeyDimension.parse(get(REQUEST_THROTTLE_KEY, "route,ip"));
+        }
+        return reqThrottleKey;
+    }
+
+    private void _mergeReqThrottleKey(AppConfig config) {
+        if (!hasConfiguration(REQUEST_THROTTLE_KEY)) {
+            this.reqThrottleKey = config.reqThrottleKey;
+        }
+    }
+
+    private Integer reqThrottleMaxKeys;
+
+    protected T requestThrottleMaxKeys(final int maxKeys) {
+        E.illegalArgumentIf(maxKeys < 1, "request throttle max keys must be positive integer");
+        this.reqThrottleMaxKeys = maxKeys;
+        return me();
+    }
+
+    public int requestThrottleMaxKeys() {
+        if (null == reqThrottleMaxKeys) {
+            reqThrottleMaxKeys = get(REQUEST_THROTTLE_MAX_KEYS, 100000);
+        }
+        return reqThrottleMaxKeys;
+    }
+
+    private void _mergeReqThrottleMaxKeys(AppConfig config) {
+        if (!hasConfiguration(REQUEST_THROTTLE_MAX_KEYS)) {
+            this.reqThrottleMaxKeys = config.reqThrottleMaxKeys;
+        }
+    }
+
+    private Boolean reqThrottleShared;
+
+    protected T requestThrottleShared(final boolean enabled) {
+        this.reqThrottleShared = enabled;
+        return me();
+    }
+
+    public boolean requestThrottleShared() {
+        if (null == reqThrottleShared) {
+            reqThrottleShared = get(REQUEST_THROTTLE_SHARED, false);
+        }
+        return reqThrottleShared;
+    }
+
+    private void _mergeReqThrottleShared(AppConfig config) {
+        if (!hasConfiguration(REQUEST_THROTTLE_SHARED)) {
+            this.reqThrottleShared = config.reqThrottleShared;
+        }
+    }
+
     private $.Func0<H.Format> jsonContentTypeProvider = null;
     private Boolean renderJsonIeFix = null;
     private H.Format jsonIE;
@@ -2837,6 +3255,49 @@ public class AppConfig<T extends AppConfig> extends Config<AppConfigKey> impleme
         }
     }
 
+    private Integer sessionDecodeCacheSize;
+
+    protected T sessionDecodeCacheSize(int size) {
+        sessionDecodeCacheSize = size;
+        return me();
+    }
+
+    public int sessionDecodeCacheSize() {
+        if (null == sessionDecodeCacheSize) {
+            sessionDecodeCacheSize = get(AppConfigKey.SESSION_DECODE_CACHE_SIZE, 1024);
+        }
+        return sessionDecodeCacheSize;
+    }
+
+    private void _mergeSessionDecodeCacheSize(AppConfig config) {
+        if (!hasConfiguration(AppConfigKey.SESSION_DECODE_CACHE_SIZE)) {
+            sessionDecodeCacheSize = config.sessionDecodeCacheSize;
+        }
+    }
+
+    private Integer sessionRefreshThreshold;
+
+    protected T sessionRefreshThreshold(int percent) {
+        E.illegalArgumentIf(percent < 0 || percent > 100, "session refresh threshold shall be between 0 and 100");
+        sessionRefreshThreshold = percent;
+        return me();
+    }
+
+    public int sessionRefreshThreshold() {
+        if (null == sessionRefreshThreshold) {
+            int percent = get(AppConfigKey.SESSION_REFRESH_THRESHOLD, 0);
+            E.invalidConfigurationIf(percent < 0 || percent > 100, "session.refresh_threshold shall be between 0 and 100");
+            sessionRefreshThreshold = percent;
+        }
+        return sessionRefreshThreshold;
+    }
+
+    private void _mergeSessionRefreshThreshold(AppConfig config) {
+        if (!hasConfiguration(AppConfigKey.SESSION_REFRESH_THRESHOLD)) {
+            sessionRefreshThreshold = config.sessionRefreshThreshold;
+        }
+    }
+
     private act.session.SessionMapper sessionMapper = null;
 
     protected void sessionMapper(act.session.SessionMapper sessionMapper) {
@@ -2882,6 +3343,71 @@ public class AppConfig<T extends AppConfig> extends Config<AppConfigKey> impleme
         }
     }
 
+    private SessionStore sessionStore = null;
+
+    protected void sessionStore(SessionStore store) {
+        this.sessionStore = $.requireNotNull(store);
+    }
+
+    @Lazy
+    public SessionStore sessionStore() {
+        if (null == sessionStore && null != app.injector()) {
+            sessionStore = get(SESSION_STORE, null);
+            if (null == sessionStore) {
+                sessionStore = app.getInstance(OffHeapSessionStore.class);
+            }
+        }
+        return sessionStore;
+    }
+
+    private void _mergeSessionStore(AppConfig config) {
+        if (!hasConfiguration(AppConfigKey.SESSION_STORE)) {
+            sessionStore = config.sessionStore;
+        }
+    }
+
+    private Integer sessionStoreMaxEntries;
+
+    protected T sessionStoreMaxEntries(int max) {
+        E.illegalArgumentIf(max < 1, "session store max entries must be positive");
+        sessionStoreMaxEntries = max;
+        return me();
+    }
+
+    public int sessionStoreMaxEntries() {
+        if (null == sessionStoreMaxEntries) {
+            sessionStoreMaxEntries = get(SESSION_STORE_MAX_ENTRIES, 100000);
+        }
+        return sessionStoreMaxEntries;
+    }
+
+    private void _mergeSessionStoreMaxEntries(AppConfig config) {
+        if (!hasConfiguration(SESSION_STORE_MAX_ENTRIES)) {
+            sessionStoreMaxEntries = config.sessionStoreMaxEntries;
+        }
+    }
+
+    private Long sessionStoreMaxSize;
+
+    protected T sessionStoreMaxSize(long max) {
+        E.illegalArgumentIf(max < 1, "session store max size must be positive");
+        sessionStoreMaxSize = max;
+        return me();
+    }
+
+    public long sessionStoreMaxSize() {
+        if (null == sessionStoreMaxSize) {
+            sessionStoreMaxSize = get(SESSION_STORE_MAX_SIZE, 64L * 1024 * 1024);
+        }
+        return sessionStoreMaxSize;
+    }
+
+    private void _mergeSessionStoreMaxSize(AppConfig config) {
+        if (!hasConfiguration(SESSION_STORE_MAX_SIZE)) {
+            sessionStoreMaxSize = config.sessionStoreMaxSize;
+        }
+    }
+
     private Boolean sessionOutputExpiration;
 
     protected T sessionOutputExpiration(boolean enabled) {
@@ -3363,6 +3889,191 @@ public class AppConfig<T extends AppConfig> extends Config<AppConfigKey> impleme
         }
     }
 
+    private Boolean resourcePrecompressed;
+
+    protected T resourcePrecompressed(boolean enabled) {
+        resourcePrecompressed = enabled;
+        return me();
+    }
+
+    public boolean resourcePrecompressed() {
+        if (null == resourcePrecompressed) {
+            resourcePrecompressed = get(RESOURCE_PRECOMPRESSED, false);
+        }
+        return resourcePrecompressed;
+    }
+
+    private void _mergeResourcePrecompressed(AppConfig conf) {
+        if (!hasConfiguration(RESOURCE_PRECOMPRESSED)) {
+            this.resourcePrecompressed = conf.resourcePrecompressed;
+        }
+    }
+
+    private Long resourceCacheSizeLimit;
+
+    protected T resourceCacheSizeLimit(long limit) {
+        resourceCacheSizeLimit = limit;
+        return me();
+    }
+
+    public long resourceCacheSizeLimit() {
+        if (null == resourceCacheSizeLimit) {
+            resourceCacheSizeLimit = get(RESOURCE_CACHE_SIZE_LIMIT, 1024L * 1024 * 32);
+        }
+        return resourceCacheSizeLimit;
+    }
+
+    private void _mergeResourceCacheSizeLimit(AppConfig conf) {
+        if (!hasConfiguration(RESOURCE_CACHE_SIZE_LIMIT)) {
+            this.resourceCacheSizeLimit = conf.resourceCacheSizeLimit;
+        }
+    }
+
+    private Integer resourceCacheNegativeLimit;
+
+    protected T resourceCacheNegativeLimit(int limit) {
+        resourceCacheNegativeLimit = limit;
+        return me();
+    }
+
+    public int resourceCacheNegativeLimit() {
+        if (null == resourceCacheNegativeLimit) {
+            resourceCacheNegativeLimit = get(RESOURCE_CACHE_NEGATIVE_LIMIT, 1024);
+        }
+        return resourceCacheNegativeLimit;
+    }
+
+    private void _mergeResourceCacheNegativeLimit(AppConfig conf) {
+        if (!hasConfiguration(RESOURCE_CACHE_NEGATIVE_LIMIT)) {
+            this.resourceCacheNegativeLimit = conf.resourceCacheNegativeLimit;
+        }
+    }
+
+    private Boolean respCompression;
+
+    protected T responseCompression(boolean enabled) {
+        respCompression = enabled;
+        return me();
+    }
+
+    public boolean responseCompressionEnabled() {
+        if (null == respCompression) {
+            respCompression = get(RESP_COMPRESSION, false);
+        }
+        return respCompression;
+    }
+
+    private void _mergeRespCompression(AppConfig conf) {
+        if (!hasConfiguration(RESP_COMPRESSION)) {
+            this.respCompression = conf.respCompression;
+        }
+    }
+
+    private String respCompressionContentTypes;
+
+    protected T responseCompressionContentTypes(String contentTypes) {
+        respCompressionContentTypes = contentTypes;
+        return me();
+    }
+
+    public String responseCompressionContentTypes() {
+        if (null == respCompressionContentTypes) {
+            respCompressionContentTypes = get(RESP_COMPRESSION_CONTENT_TYPES,
+                    "text/*,application/json,application/javascript,application/xml,image/svg+xml");
+        }
+        return respCompressionContentTypes;
+    }
+
+    private void _mergeRespCompressionContentTypes(AppConfig conf) {
+        if (!hasConfiguration(RESP_COMPRESSION_CONTENT_TYPES)) {
+            this.respCompressionContentTypes = conf.respCompressionContentTypes;
+        }
+    }
+
+    private Integer respCompressionLevel;
+
+    protected T responseCompressionLevel(int level) {
+        E.illegalArgumentIf(level < 1 || level > 9, "compression level shall be between 1 and 9");
+        respCompressionLevel = level;
+        return me();
+    }
+
+    public int responseCompressionLevel() {
+        if (null == respCompressionLevel) {
+            respCompressionLevel = get(RESP_COMPRESSION_LEVEL, 6);
+        }
+        return respCompressionLevel;
+    }
+
+    private void _mergeRespCompressionLevel(AppConfig conf) {
+        if (!hasConfiguration(RESP_COMPRESSION_LEVEL)) {
+            this.respCompressionLevel = conf.respCompressionLevel;
+        }
+    }
+
+    private Integer respCompressionMinSize;
+
+    protected T responseCompressionMinSize(int minSize) {
+        respCompressionMinSize = minSize;
+        return me();
+    }
+
+    public int responseCompressionMinSize() {
+        if (null == respCompressionMinSize) {
+            respCompressionMinSize = get(RESP_COMPRESSION_MIN_SIZE, 1024);
+        }
+        return respCompressionMinSize;
+    }
+
+    private void _mergeRespCompressionMinSize(AppConfig conf) {
+        if (!hasConfiguration(RESP_COMPRESSION_MIN_SIZE)) {
+            this.respCompressionMinSize = conf.respCompressionMinSize;
+        }
+    }
+
+    private volatile ResponseCompression responseCompression;
+
+    /**
+     * Returns the {@link ResponseCompression} built from the response
+     * compression configurations.
+     *
+     * @return the response compression or `null` if response compression is not enabled
+     */
+    public ResponseCompression responseCompression() {
+        if (!responseCompressionEnabled()) {
+            return null;
+        }
+        if (null == responseCompression) {
+            synchronized (this) {
+                if (null == responseCompression) {
+                    responseCompression = new ResponseCompression(responseCompressionLevel(),
+                            responseCompressionMinSize(), responseCompressionContentTypes());
+                }
+            }
+        }
+        return responseCompression;
+    }
+
+    private Boolean compiledRouter;
+
+    protected T enableCompiledRouter(boolean b) {
+        compiledRouter = b;
+        return me();
+    }
+
+    public boolean compiledRouterEnabled() {
+        if (null == compiledRouter) {
+            compiledRouter = get(ROUTER_COMPILED, true);
+        }
+        return compiledRouter;
+    }
+
+    private void _mergeCompiledRouter(AppConfig conf) {
+        if (!hasConfiguration(ROUTER_COMPILED)) {
+            this.compiledRouter = conf.compiledRouter;
+        }
+    }
+
     private Integer uploadInMemoryCacheThreshold;
 
     protected T uploadInMemoryCacheThreshold(int l) {
@@ -3443,6 +4154,48 @@ public class AppConfig<T extends AppConfig> extends Config<AppConfigKey> impleme
         }
     }
 
+    private Integer wsSendQueueLimit;
+
+    protected T wsSendQueueLimit(int limit) {
+        E.illegalArgumentIf(limit < 1, "websocket send queue limit shall be positive");
+        this.wsSendQueueLimit = limit;
+        return me();
+    }
+
+    public int wsSendQueueLimit() {
+        if (null == wsSendQueueLimit) {
+            wsSendQueueLimit = get(WS_SEND_QUEUE_LIMIT, 1024);
+        }
+        return wsSendQueueLimit;
+    }
+
+    private void _mergeWsSendQueueLimit(AppConfig config) {
+        if (!hasConfiguration(WS_SEND_QUEUE_LIMIT)) {
+            wsSendQueueLimit = config.wsSendQueueLimit;
+        }
+    }
+
+    private WebSocketSendQueue.OverflowPolicy wsSendQueueOverflowPolicy;
+
+    protected T wsSendQueueOverflowPolicy(WebSocketSendQueue.OverflowPolicy policy) {
+        this.wsSendQueueOverflowPolicy = $.requireNotNull(policy);
+        return me();
+    }
+
+    public WebSocketSendQueue.OverflowPolicy wsSendQueueOverflowPolicy() {
+        if (null == wsSendQueueOverflowPolicy) {
+            String s = get(WS_SEND_QUEUE_OVERFLOW, "drop_oldest");
+            wsSendQueueOverflowPolicy = WebSocketSendQueue.OverflowPolicy.valueOfIgnoreCase(s);
+        }
+        return wsSendQueueOverflowPolicy;
+    }
+
+    private void _mergeWsSendQueueOverflowPolicy(AppConfig config) {
+        if (!hasConfiguration(WS_SEND_QUEUE_OVERFLOW)) {
+            wsSendQueueOverflowPolicy = config.wsSendQueueOverflowPolicy;
+        }
+    }
+
     private Set<AppConfigurator> mergeTracker = C.newSet();
 
     public void loadJarProperties(Map<String, Properties> jarProperties) {
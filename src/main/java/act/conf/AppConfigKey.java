@@ -131,6 +131,28 @@ public enum AppConfigKey implements ConfigKey {
      */
     CACHE_FOR_ON_DEV("cacheFor.dev.enabled"),
 
+    /**
+     * `cacheFor.key_index.limit`
+     *
+     * Specify the maximum number of cache keys tracked by a `@CacheFor`
+     * request handler for cache reset. Once the limit is reached the
+     * cache reset is done by switching to a new cache key generation.
+     *
+     * Default value: `10000`
+     */
+    CACHE_FOR_KEY_INDEX_LIMIT("cacheFor.key_index.limit.int"),
+
+    /**
+     * `cacheFor.single_flight.timeout`
+     *
+     * Specify the maximum time in seconds a request waits for the in-flight
+     * computation of the same cache key when {@link act.util.CacheFor#singleFlight()}
+     * is enabled. Once timed out the request will be handled by itself.
+     *
+     * Default value: `10`
+     */
+    CACHE_FOR_SINGLE_FLIGHT_TIMEOUT("cacheFor.single_flight.timeout.int"),
+
     /**
      * `captcha.width`
      *
@@ -422,6 +444,48 @@ public enum AppConfigKey implements ConfigKey {
      */
     ENCODING("encoding"),
 
+    /**
+     * `event.async.ring_buffer.enabled` specifies whether async event
+     * listeners shall be called through pre-allocated ring buffers
+     * drained by dedicated consumer threads instead of submitting a
+     * task per listener per event to the job manager.
+     *
+     * A listener is always called by the same consumer thread, thus
+     * it receives events in the order they are emitted.
+     *
+     * Default value: `false`
+     */
+    EVENT_ASYNC_RING_BUFFER("event.async.ring_buffer.enabled"),
+
+    /**
+     * `event.async.ring_buffer.consumers` specifies the number of
+     * consumer threads, each one owns a ring buffer.
+     *
+     * Default value: half of the available processors, at least `1` and at most `4`
+     */
+    EVENT_ASYNC_RING_BUFFER_CONSUMERS("event.async.ring_buffer.consumers.int"),
+
+    /**
+     * `event.async.ring_buffer.size` specifies the number of slots of each
+     * ring buffer. The value is rounded up to power of two.
+     *
+     * Default value: `1024`
+     */
+    EVENT_ASYNC_RING_BUFFER_SIZE("event.async.ring_buffer.size.int"),
+
+    /**
+     * `event.async.ring_buffer.wait_strategy` specifies how consumer threads
+     * wait for events:
+     *
+     * * `blocking` - park until an event is published
+     * * `sleeping` - spin, yield then park for a short time
+     * * `yielding` - yield the CPU between checks
+     * * `busy_spin` - busy spin
+     *
+     * Default value: `blocking`
+     */
+    EVENT_ASYNC_RING_BUFFER_WAIT_STRATEGY("event.async.ring_buffer.wait_strategy"),
+
     /**
      * `act.enum.resolving.case_sensitive` specifies whether it
      * allow enum resolving for request parameters to ignore case
@@ -688,13 +752,111 @@ public enum AppConfigKey implements ConfigKey {
      */
     ID_GEN_LONG_ENCODER("idgen.encoder.impl"),
 
+    /**
+     * `handler.virtual_thread.enabled` specifies whether all blocking action
+     * handlers shall be executed on virtual threads instead of the network
+     * layer's worker threads.
+     *
+     * Handlers can opt in individually with {@link act.handler.VirtualThread}.
+     *
+     * When the running JDK does not support virtual threads, an elastic thread
+     * pool sized by {@link #VIRTUAL_THREAD_FALLBACK_POOL_SIZE} is used instead.
+     *
+     * Default value: `false`
+     */
+    HANDLER_VIRTUAL_THREAD("handler.virtual_thread.enabled"),
+
+    /**
+     * `virtual_thread.fallback_pool.size.int` specifies the max number of threads
+     * of the elastic pool used in place of virtual threads when the running JDK
+     * does not support them.
+     *
+     * Default value: `256`
+     */
+    VIRTUAL_THREAD_FALLBACK_POOL_SIZE("virtual_thread.fallback_pool.size.int"),
+
     /**
      * {@code job.pool.size} specifies the maximum number of threads
      * can exists in the application's job manager's thread pool
      * <p>Default value: {@code 10}</p>
+     * <p>Named {@link act.job.JobPool job pools} can be configured with
+     * {@code job.pool.<name>.size}, {@code job.pool.<name>.queue_size} and
+     * {@code job.pool.<name>.rejection}. The size of a named pool defaults to
+     * this setting</p>
      */
     JOB_POOL_SIZE("job.pool.size"),
 
+    /**
+     * `job.journal.enabled` turns on the persistent job journal.
+     *
+     * When enabled {@link act.job.JobManager} records serializable one-off jobs
+     * and the last fire time of cron jobs in a {@link act.job.JobJournal} so
+     * that they can be recovered after application restarted.
+     *
+     * Default value: `false`
+     */
+    JOB_JOURNAL_ENABLED("job.journal.enabled"),
+
+    /**
+     * `job.journal.file` specifies the file of the {@link act.job.FileJobJournal}.
+     *
+     * A relative path is resolved against the application base dir.
+     *
+     * Default value: `job.journal`
+     */
+    JOB_JOURNAL_FILE("job.journal.file"),
+
+    /**
+     * `job.misfire_policy` specifies the {@link act.job.MisfirePolicy} applied
+     * to jobs that should have been fired while the application was not running.
+     *
+     * Available options:
+     *
+     * * `skip` - skip the missed executions
+     * * `fire_once` - fire the job once right after application started
+     *
+     * Default value: `skip`
+     */
+    JOB_MISFIRE_POLICY("job.misfire_policy"),
+
+    /**
+     * `job.timer.wheel.enabled` turns on the hashed timing wheel scheduler.
+     *
+     * When enabled {@link act.job.JobManager} schedules delayed jobs and
+     * jobs run at fixed rate or with fixed delay into a {@link act.job.HashedWheelTimer}
+     * instead of the scheduled thread pool, which makes scheduling and cancelling
+     * jobs O(1) at the cost of the fire time being rounded up to the next tick.
+     *
+     * Default value: `false`
+     */
+    JOB_TIMER_WHEEL_ENABLED("job.timer.wheel.enabled"),
+
+    /**
+     * `job.timer.tick.int` specifies the tick duration in milliseconds of the
+     * timing wheel.
+     *
+     * Default value: `10`
+     */
+    JOB_TIMER_TICK("job.timer.tick.int"),
+
+    /**
+     * `job.timer.wheel.size.int` specifies the number of buckets in the
+     * timing wheel. It will be rounded up to power of 2.
+     *
+     * Default value: `512`
+     */
+    JOB_TIMER_WHEEL_SIZE("job.timer.wheel.size.int"),
+
+    /**
+     * `job.virtual_thread.enabled` specifies whether jobs submitted to run
+     * immediately in the default job pool shall be executed on virtual threads.
+     *
+     * See {@link #HANDLER_VIRTUAL_THREAD} for JDK without virtual thread support.
+     *
+     * Default value: `false`
+     */
+    JOB_VIRTUAL_THREAD("job.virtual_thread.enabled"),
+
     /**
      * `jwt.enabled`, toggle JWT (JSON Web Token) support.
      *
@@ -855,6 +1017,48 @@ public enum AppConfigKey implements ConfigKey {
      */
     REQUEST_THROTTLE_EXPIRE_SCALE("req.throttle.expire.scale.enabled"),
 
+    /**
+     * `req.throttle.burst` specifies the maximum number of requests
+     * from the same throttle key that can be handled at once before
+     * the {@link #REQUEST_THROTTLE} rate applies.
+     *
+     * Default value: the value of {@link #REQUEST_THROTTLE}
+     */
+    REQUEST_THROTTLE_BURST("req.throttle.burst.int"),
+
+    /**
+     * `req.throttle.key` specifies the comma separated dimensions
+     * a throttle key is built from:
+     *
+     * * `ip` - the remote address
+     * * `session` - the session id
+     * * `user` - the username stored in session, falls back to ip for anonymous requests
+     * * `route` - the request method and path
+     *
+     * Default value: `route,ip`
+     */
+    REQUEST_THROTTLE_KEY("req.throttle.key"),
+
+    /**
+     * `req.throttle.max_keys` specifies the maximum number of throttle keys
+     * tracked per throttled handler by the in process rate limiter.
+     *
+     * Default value: `100000`
+     */
+    REQUEST_THROTTLE_MAX_KEYS("req.throttle.max_keys.int"),
+
+    /**
+     * `req.throttle.shared` - whether to keep request throttle counters
+     * in the application cache service so they can be shared by all
+     * nodes of a cluster when the cache service is a distributed one.
+     *
+     * When disabled request throttle is checked by an in process token
+     * bucket rate limiter.
+     *
+     * Default value: `false`
+     */
+    REQUEST_THROTTLE_SHARED("req.throttle.shared.enabled"),
+
     /**
      * `render.json.output_charset`
      *
@@ -905,6 +1109,88 @@ public enum AppConfigKey implements ConfigKey {
      */
     RESOURCE_PRELOAD_SIZE_LIMIT("resource.preload.size.limit.int"),
 
+    /**
+     * `resource.precompressed.enabled`
+     *
+     * When enabled, static resources and files are served from their
+     * precompressed `.br` or `.gz` sibling (e.g. `app.js.br` for `app.js`)
+     * if the sibling exists and the request `Accept-Encoding` allows it.
+     *
+     * Default value: `false`
+     */
+    RESOURCE_PRECOMPRESSED("resource.precompressed.enabled"),
+
+    /**
+     * `resource.cache.size.limit.long`
+     *
+     * Specifies the maximum number of bytes of static resources kept in
+     * direct buffers by {@link act.handler.builtin.StaticResourceCache}.
+     * Least recently used resources are evicted once the limit is reached.
+     *
+     * Default value: `1024 * 1024 * 32`, i.e. 32MB
+     */
+    RESOURCE_CACHE_SIZE_LIMIT("resource.cache.size.limit.long"),
+
+    /**
+     * `resource.cache.negative.limit.int`
+     *
+     * Specifies the maximum number of missing resource paths remembered
+     * by {@link act.handler.builtin.StaticResourceCache}. The oldest paths
+     * are forgotten once the limit is reached.
+     *
+     * Default value: `1024`
+     */
+    RESOURCE_CACHE_NEGATIVE_LIMIT("resource.cache.negative.limit.int"),
+
+    /**
+     * `resp.compression.enabled`
+     *
+     * Specifies whether response content shall be compressed with `gzip` or
+     * `deflate` when the request `Accept-Encoding` allows it.
+     *
+     * Default value: `false`
+     */
+    RESP_COMPRESSION("resp.compression.enabled"),
+
+    /**
+     * `resp.compression.content_types`
+     *
+     * Specifies the comma separated content types subject to response
+     * compression. A type ends with `*` matches all types start with it.
+     *
+     * Default value: `text/*,application/json,application/javascript,application/xml,image/svg+xml`
+     */
+    RESP_COMPRESSION_CONTENT_TYPES("resp.compression.content_types"),
+
+    /**
+     * `resp.compression.level`
+     *
+     * Specifies the deflate compression level, `1` (fastest) to `9` (best compression).
+     *
+     * Default value: `6`
+     */
+    RESP_COMPRESSION_LEVEL("resp.compression.level.int"),
+
+    /**
+     * `resp.compression.min_size`
+     *
+     * Specifies the minimum number of bytes of a response to be compressed.
+     *
+     * Default value: `1024`
+     */
+    RESP_COMPRESSION_MIN_SIZE("resp.compression.min_size.int"),
+
+    /**
+     * `router.compiled.enabled`
+     *
+     * When enabled the router compiles the route tree into a flattened
+     * read-only structure which matches directly against the request
+     * path chars without allocating String for static path elements.
+     *
+     * Default value: `true`
+     */
+    ROUTER_COMPILED("router.compiled.enabled"),
+
     /**
      * {@code scan_package}
      * Specify the app package in which all classes is subject
@@ -1058,6 +1344,31 @@ public enum AppConfigKey implements ConfigKey {
      */
     SESSION_ENCRYPT_ENABLED("session.encrypt.enabled"),
 
+    /**
+     * `session.decode_cache.size` specifies the maximum number of
+     * recently verified session cookies to be cached along with the
+     * decoded session data. Requests carrying a cached cookie value skip
+     * the decryption and signature verification.
+     *
+     * Set this to `0` to disable the cache.
+     *
+     * Default value: `1024`
+     */
+    SESSION_DECODE_CACHE_SIZE("session.decode_cache.size.int"),
+
+    /**
+     * `session.refresh_threshold` specifies the percentage of the
+     * {@link #SESSION_TTL session TTL} that must elapse before the session
+     * expiration get refreshed. Until then the session cookie is not
+     * signed (and encrypted) again unless the session data changed.
+     *
+     * E.g. with `session.ttl` set to `1800` and this setting set to `10`
+     * the session expiration is refreshed at most once every three minutes.
+     *
+     * Default value: `0`, i.e. refresh session expiration on every request
+     */
+    SESSION_REFRESH_THRESHOLD("session.refresh_threshold.int"),
+
     /**
      * `act.session.key.username` specifies the session key for username
      *
@@ -1079,6 +1390,35 @@ public enum AppConfigKey implements ConfigKey {
      */
     SESSION_CODEC("session.codec.impl"),
 
+    /**
+     * `session.store.impl` specifies the implementation of {@link act.session.SessionStore}
+     * used by {@link act.session.ServerSideSessionCodec}.
+     *
+     * Use {@link act.session.CacheServiceSessionStore} to share sessions among
+     * application instances through the session cache service.
+     *
+     * Default value: {@link act.session.OffHeapSessionStore}
+     */
+    SESSION_STORE("session.store.impl"),
+
+    /**
+     * `session.store.max_entries` specifies the maximum number of sessions
+     * kept by {@link act.session.OffHeapSessionStore}. When exceeded the
+     * least recently used sessions are evicted.
+     *
+     * Default value: `100000`
+     */
+    SESSION_STORE_MAX_ENTRIES("session.store.max_entries.int"),
+
+    /**
+     * `session.store.max_size` specifies the maximum number of bytes of
+     * session data kept by {@link act.session.OffHeapSessionStore}. When
+     * exceeded the least recently used sessions are evicted.
+     *
+     * Default value: `64 * 1024 * 1024`, i.e. 64MB
+     */
+    SESSION_STORE_MAX_SIZE("session.store.max_size.long"),
+
     /**
      * `session.mapper.header.prefix`
      *
@@ -1178,6 +1518,22 @@ public enum AppConfigKey implements ConfigKey {
      */
     TEMPLATE_HOME("template.home"),
 
+    /**
+     * `template.stream.threshold` specifies the number of characters a
+     * template could render before the content is flushed to the response.
+     * Large pages are streamed to the client in chunks of this size instead
+     * of being buffered entirely in memory.
+     *
+     * This only applies to template engines that write the content
+     * progressively while rendering. Pages smaller than the threshold are
+     * written with content length as usual.
+     *
+     * Set this to `0` to disable streaming rendering.
+     *
+     * Default value: `32 * 1024`, i.e. 32KB
+     */
+    TEMPLATE_STREAM_THRESHOLD("template.stream.threshold.int"),
+
     /**
      * `trace.handler.enabled` turn on/off handle invocation calls.
      *
@@ -1262,6 +1618,31 @@ public enum AppConfigKey implements ConfigKey {
      */
     WS_PURGE_CLOSED_CONN_PERIOD("ws.purge-closed-conn.period"),
 
+    /**
+     * `ws.send-queue.limit`
+     *
+     * Specifies the maximum number of messages queued for sending on
+     * a websocket connection while the previous messages are still
+     * being written to a slow client
+     *
+     * Default value: `1024`
+     */
+    WS_SEND_QUEUE_LIMIT("ws.send-queue.limit"),
+
+    /**
+     * `ws.send-queue.overflow`
+     *
+     * Specifies what to do when a message is sent to a websocket connection
+     * whose send queue is full:
+     *
+     * * `drop_oldest` - discard the oldest queued message
+     * * `drop_newest` - discard the new message
+     * * `close` - close the connection
+     *
+     * Default value: `drop_oldest`
+     */
+    WS_SEND_QUEUE_OVERFLOW("ws.send-queue.overflow"),
+
     /**
      * `x_forward_protocol`
      *
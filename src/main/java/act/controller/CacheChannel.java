@@ -20,7 +20,16 @@ package act.controller;
  * #L%
  */
 
+import java.nio.ByteBuffer;
+
 public interface CacheChannel {
     boolean isCommitted();
     void commit();
+
+    /**
+     * Returns the committed content.
+     *
+     * @return the content buffer or `null` if the channel is not committed yet
+     */
+    ByteBuffer buffer();
 }
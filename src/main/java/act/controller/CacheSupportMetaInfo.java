@@ -32,6 +32,9 @@ public class CacheSupportMetaInfo {
     public boolean supportPost;
     public boolean usePrivate;
     public boolean noCacheControl;
+    public boolean singleFlight;
+    public int staleWhileRevalidate;
+    public int staleIfError;
 
     private CacheSupportMetaInfo() {}
 
@@ -39,12 +42,31 @@ public class CacheSupportMetaInfo {
         return keyGenerator.apply(context);
     }
 
+    /**
+     * Returns the number of seconds a cached response shall be kept in
+     * the cache, which is the `ttl` plus the longest stale window.
+     */
+    public int storeTtl() {
+        return ttl + Math.max(staleWhileRevalidate, staleIfError);
+    }
+
+    public CacheSupportMetaInfo stale(int staleWhileRevalidate, int staleIfError) {
+        this.staleWhileRevalidate = Math.max(0, staleWhileRevalidate);
+        this.staleIfError = Math.max(0, staleIfError);
+        return this;
+    }
+
     public static CacheSupportMetaInfo disabled() {
         return new CacheSupportMetaInfo();
     }
 
     public static CacheSupportMetaInfo enabled($.Function<ActionContext, String> keyGenerator, String cacheForId, int ttl, boolean supportPost, boolean usePrivate, boolean noCacheControl) {
+        return enabled(keyGenerator, cacheForId, ttl, supportPost, usePrivate, noCacheControl, false);
+    }
+
+    public static CacheSupportMetaInfo enabled($.Function<ActionContext, String> keyGenerator, String cacheForId, int ttl, boolean supportPost, boolean usePrivate, boolean noCacheControl, boolean singleFlight) {
         CacheSupportMetaInfo meta = new CacheSupportMetaInfo();
+        meta.singleFlight = singleFlight;
         meta.enabled = true;
         meta.id = cacheForId;
         meta.ttl = ttl;
@@ -0,0 +1,196 @@
+package act.controller;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.RequestImplBase;
+import act.app.ActionContext;
+import act.conf.AppConfig;
+import act.handler.RequestHandler;
+import org.osgl.http.H;
+import org.osgl.util.C;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable copy of a request that is not bound to any network
+ * channel.
+ *
+ * The path, headers, parameters and cookies are copied from the origin
+ * request when this request is created. So it is safe to use this request
+ * in a background job after the network exchange of the origin request
+ * has been completed and recycled. The request body is not copied.
+ *
+ * @see DetachedResponse
+ */
+public class DetachedRequest extends RequestImplBase<DetachedRequest> {
+
+    private static final byte[] NO_BODY = new byte[0];
+
+    private final String path;
+    private final String contextPath;
+    private final String query;
+    private final H.Method method;
+    private final boolean secure;
+    private final String ip;
+    private final Map<String, List<String>> headers;
+    private final Map<String, String[]> params;
+    private final List<H.Cookie> cookies;
+
+    public DetachedRequest(AppConfig config, H.Request<?> origin) {
+        super(config);
+        this.path = origin.path();
+        this.contextPath = origin.contextPath();
+        this.query = origin.query();
+        this.method = origin.method();
+        this.secure = origin.secure();
+        this.ip = origin.ip();
+        this.headers = copyHeaders(origin);
+        this.params = copyParams(origin);
+        this.cookies = C.list(origin.cookies());
+        accept(origin.accept());
+    }
+
+    @Override
+    protected Class<DetachedRequest> _impl() {
+        return DetachedRequest.class;
+    }
+
+    @Override
+    public String path() {
+        return path;
+    }
+
+    @Override
+    public String contextPath() {
+        return contextPath;
+    }
+
+    @Override
+    public String query() {
+        return query;
+    }
+
+    @Override
+    protected String methodName() {
+        return method.name();
+    }
+
+    @Override
+    public H.Method method() {
+        return method;
+    }
+
+    @Override
+    public boolean secure() {
+        return secure;
+    }
+
+    @Override
+    public String header(String name) {
+        List<String> vals = headers.get(name.toLowerCase());
+        return null == vals ? null : vals.get(0);
+    }
+
+    @Override
+    public Iterable<String> headers(String name) {
+        List<String> vals = headers.get(name.toLowerCase());
+        return null == vals ? Collections.<String>emptyList() : vals;
+    }
+
+    @Override
+    public Iterable<String> headerNames() {
+        return headers.keySet();
+    }
+
+    @Override
+    public String paramVal(String name) {
+        String[] vals = params.get(name);
+        return null == vals ? null : vals[0];
+    }
+
+    @Override
+    public String[] paramVals(String name) {
+        String[] vals = params.get(name);
+        return null == vals ? null : vals.clone();
+    }
+
+    @Override
+    public Iterable<String> paramNames() {
+        return params.keySet();
+    }
+
+    @Override
+    protected String _ip() {
+        return ip;
+    }
+
+    @Override
+    protected void _initCookieMap() {
+        for (H.Cookie cookie : cookies) {
+            _setCookie(cookie.name(), cookie);
+        }
+    }
+
+    @Override
+    protected InputStream createInputStream() {
+        return new ByteArrayInputStream(NO_BODY);
+    }
+
+    @Override
+    public void receiveFullBytesAndProceed(ActionContext context, RequestHandler handler) {
+        context.saveLocal();
+        handler.handle(context);
+    }
+
+    private static Map<String, List<String>> copyHeaders(H.Request<?> origin) {
+        Map<String, List<String>> map = new LinkedHashMap<>();
+        if (origin instanceof RequestImplBase) {
+            for (String name : ((RequestImplBase<?>) origin).headerNames()) {
+                List<String> vals = new ArrayList<>();
+                for (String val : origin.headers(name)) {
+                    vals.add(val);
+                }
+                if (!vals.isEmpty()) {
+                    map.put(name.toLowerCase(), Collections.unmodifiableList(vals));
+                }
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static Map<String, String[]> copyParams(H.Request<?> origin) {
+        Map<String, String[]> map = new LinkedHashMap<>();
+        for (String name : origin.paramNames()) {
+            String[] vals = origin.paramVals(name);
+            if (null != vals && vals.length > 0) {
+                map.put(name, vals.clone());
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+}
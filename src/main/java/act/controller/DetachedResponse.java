@@ -0,0 +1,134 @@
+package act.controller;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActResponse;
+import act.conf.AppConfig;
+import org.osgl.http.H;
+import org.osgl.util.Output;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A response that is not bound to any network channel. Everything
+ * written to this response is discarded.
+ *
+ * It is used to run a request handler in the background for
+ * refreshing a {@link ResponseCache}, where the content is
+ * recorded by the response cache wrapping this response.
+ */
+public class DetachedResponse extends ActResponse<DetachedResponse> {
+
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private Set<String> headerNames = new HashSet<>();
+
+    public DetachedResponse(AppConfig config) {
+        super(config);
+    }
+
+    @Override
+    protected Class<DetachedResponse> _impl() {
+        return DetachedResponse.class;
+    }
+
+    @Override
+    protected OutputStream createOutputStream() {
+        return DISCARD;
+    }
+
+    @Override
+    protected Output createOutput() {
+        return Output.Adaptors.of(DISCARD);
+    }
+
+    @Override
+    public DetachedResponse contentLength(long len) {
+        return this;
+    }
+
+    @Override
+    protected void _setLocale(Locale loc) {
+        this.locale = loc;
+    }
+
+    @Override
+    public Locale locale() {
+        return locale;
+    }
+
+    @Override
+    public void addCookie(H.Cookie cookie) {
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headerNames.contains(name);
+    }
+
+    @Override
+    public DetachedResponse header(String name, String value) {
+        headerNames.add(name);
+        return this;
+    }
+
+    @Override
+    public DetachedResponse addHeader(String name, String value) {
+        headerNames.add(name);
+        return this;
+    }
+
+    @Override
+    protected void _setStatusCode(int sc) {
+    }
+
+    @Override
+    public DetachedResponse writeContent(String s) {
+        beforeWritingContent();
+        afterWritingContent();
+        return this;
+    }
+
+    @Override
+    public DetachedResponse writeContent(ByteBuffer buffer) {
+        beforeWritingContent();
+        afterWritingContent();
+        return this;
+    }
+
+    @Override
+    public void commit() {
+        markClosed();
+    }
+
+}
@@ -123,6 +123,11 @@ public class OutputCache implements Output, CacheChannel {
         return Output.Adaptors.asWriter(this);
     }
 
+    @Override
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
     void apply(ActResponse resp) {
         resp.writeContent(buffer.duplicate());
     }
@@ -78,6 +78,11 @@ class OutputStreamCache extends OutputStream implements CacheChannel {
         }
     }
 
+    @Override
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
     void apply(ActResponse resp) {
         resp.writeContent(buffer.duplicate());
     }
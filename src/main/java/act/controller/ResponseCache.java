@@ -50,6 +50,15 @@ public class ResponseCache extends ActResponse implements Serializable {
     private OutputCache outputCache;
     private boolean wroteDirectly;
 
+    // the timestamp (ms) after which this cached response is stale
+    private long expires;
+
+    // the frozen form, see `freeze()`
+    private String[] headerBlock;
+    private H.Cookie[] cookieBlock;
+    // serialized as bytes by `writeObject` and rebuilt by `readObject`
+    private transient ByteBuffer body;
+
     private transient ActResponse realResponse;
 
     public ResponseCache() {}
@@ -62,7 +71,112 @@ public class ResponseCache extends ActResponse implements Serializable {
         return this.etag;
     }
 
+    /**
+     * Set the time to live of this cached response.
+     *
+     * @param ttl the time to live in seconds
+     * @return this cache
+     */
+    public ResponseCache expiresIn(int ttl) {
+        this.expires = $.ms() + ttl * 1000L;
+        return this;
+    }
+
+    /**
+     * Returns milliseconds elapsed since this cached response expired.
+     *
+     * If the cached response is still fresh then a non-positive number is returned.
+     *
+     * @return the stale time in milliseconds
+     */
+    public long staleFor() {
+        return 0 == expires ? 0 : $.ms() - expires;
+    }
+
+    /**
+     * Freeze this cached response once the content has been committed.
+     *
+     * The headers, including `Content-Type` and `Content-Length`, are
+     * collected into a single header block and the content is kept in
+     * a read-only direct buffer. After frozen, replaying the cached
+     * response is a single content write without any map iteration or
+     * content encoding.
+     *
+     * @return this cache
+     */
+    public ResponseCache freeze() {
+        if (null != body || !isValid()) {
+            return this;
+        }
+        ByteBuffer content = buffer;
+        if (null == content) {
+            CacheChannel channel = channel();
+            content = null == channel ? null : channel.buffer();
+        }
+        if (null == content) {
+            return this;
+        }
+        List<String> block = new ArrayList<>(headers.size() * 2 + 4);
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            String name = entry.getKey();
+            if (!H.Header.Names.CONTENT_TYPE.equalsIgnoreCase(name) && !H.Header.Names.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                block.add(name);
+                block.add(entry.getValue());
+            }
+        }
+        String contentType = _getContentType();
+        if (null != contentType) {
+            block.add(H.Header.Names.CONTENT_TYPE);
+            block.add(contentType);
+        }
+        block.add(H.Header.Names.CONTENT_LENGTH);
+        block.add(String.valueOf(content.remaining()));
+        headerBlock = block.toArray(new String[block.size()]);
+        cookieBlock = cookies.values().toArray(new H.Cookie[cookies.size()]);
+        body = content.asReadOnlyBuffer();
+        // release the intermediate states
+        buffer = null;
+        osCache = null;
+        writerCache = null;
+        outputCache = null;
+        return this;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        if (null == body) {
+            out.writeInt(-1);
+        } else {
+            ByteBuffer content = body.duplicate();
+            byte[] ba = new byte[content.remaining()];
+            content.get(ba);
+            out.writeInt(ba.length);
+            out.write(ba);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int len = in.readInt();
+        if (len >= 0) {
+            byte[] ba = new byte[len];
+            in.readFully(ba);
+            ByteBuffer content = ByteBuffer.allocateDirect(len);
+            content.put(ba);
+            content.flip();
+            body = content.asReadOnlyBuffer();
+        }
+    }
+
+    public boolean isFrozen() {
+        return null != body;
+    }
+
     public void applyTo(ActResponse response) {
+        if (null != body) {
+            replay(response);
+            return;
+        }
         for (H.Cookie cookie : cookies.values()) {
             response.addCookie(cookie);
         }
@@ -96,8 +210,36 @@ public class ResponseCache extends ActResponse implements Serializable {
         }
     }
 
+    private void replay(ActResponse response) {
+        String[] block = headerBlock;
+        for (int i = 0, n = block.length; i < n; i += 2) {
+            response.header(block[i], block[i + 1]);
+        }
+        for (H.Cookie cookie : cookieBlock) {
+            response.addCookie(cookie);
+        }
+        if (null != locale) {
+            response.locale(locale);
+        }
+        if (null != status) {
+            response.status(status);
+        }
+        response.writeContent(body.duplicate());
+    }
+
+    private CacheChannel channel() {
+        if (null != outputCache) {
+            return outputCache;
+        } else if (null != osCache) {
+            return osCache;
+        }
+        return writerCache;
+    }
+
     public boolean isValid() {
-        if (wroteDirectly) {
+        if (null != body) {
+            return true;
+        } else if (wroteDirectly) {
             return true;
         } else if (null != osCache) {
             return osCache.isCommitted();
@@ -125,6 +267,17 @@ public class ResponseCache extends ActResponse implements Serializable {
         return realResponse.writerCreated();
     }
 
+    @Override
+    public boolean streamingSupported() {
+        return realResponse.streamingSupported();
+    }
+
+    @Override
+    public void abort() {
+        realResponse.abort();
+        markClosed();
+    }
+
     @Override
     public OutputStream outputStream() throws IllegalStateException, UnexpectedIOException {
         osCache = new OutputStreamCache(realResponse.outputStream());
@@ -38,8 +38,8 @@ public class WriterCache extends Writer implements CacheChannel {
     }
 
     @Override
-    public void write(char[] cbuf, int off, int len) throws IOException {
-        out.write(cbuf, off, len);
+    public void write(char[] cbuf, int off, int len) {
+        tee.write(cbuf, off, len);
     }
 
     @Override
@@ -70,6 +70,11 @@ public class WriterCache extends Writer implements CacheChannel {
         return committed;
     }
 
+    @Override
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
     void apply(ActResponse resp) {
         resp.writeContent(buffer.duplicate());
     }
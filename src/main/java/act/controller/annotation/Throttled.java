@@ -77,4 +77,15 @@ public @interface Throttled {
      * @return should we turn on request throttle reset timeout scale
      */
     ExpireScale expireScale() default ExpireScale.DEFAULT;
+
+    /**
+     * The maximum number of requests that can be handled at once from the
+     * same throttle key before the {@link #value()} rate applies.
+     *
+     * Default value: `-1`, i.e. use {@link act.conf.AppConfigKey#REQUEST_THROTTLE_BURST}
+     * or {@link #value()} whichever is greater
+     *
+     * @return the request throttle burst
+     */
+    int burst() default -1;
 }
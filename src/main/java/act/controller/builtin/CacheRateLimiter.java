@@ -0,0 +1,67 @@
+package act.controller.builtin;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.app.App;
+import act.app.event.SysEventId;
+import org.osgl.cache.CacheService;
+
+/**
+ * {@link RateLimiter} backed by the application {@link CacheService}.
+ *
+ * This counts requests in a one second window with the cache `incr`
+ * operation. It is slower than {@link TokenBucketRateLimiter} but when
+ * the cache service is a distributed one (e.g. memcached or redis) the
+ * limit is shared across all nodes of the cluster.
+ */
+public class CacheRateLimiter implements RateLimiter {
+
+    public static final String CACHE_NAME = "act.throttle";
+
+    private final int throttle;
+    private CacheService cache;
+
+    public CacheRateLimiter(final App app, int throttle) {
+        this.throttle = throttle;
+        app.jobManager().on(SysEventId.CLASS_LOADER_INITIALIZED, "CacheRateLimiter:initCache", new Runnable() {
+            @Override
+            public void run() {
+                cache = app.cache(CACHE_NAME);
+            }
+        }, true);
+    }
+
+    @Override
+    public boolean tryAcquire(long key, boolean penalize) {
+        String cacheKey = Long.toHexString(key);
+        if (!penalize) {
+            return throttle > cache.incr(cacheKey, 1);
+        }
+        Integer curReqCnt = cache.get(cacheKey);
+        if (null == curReqCnt) {
+            curReqCnt = 0;
+        }
+        int timeout = curReqCnt + 1;
+        cache.incr(cacheKey, timeout);
+        return curReqCnt < throttle;
+    }
+
+}
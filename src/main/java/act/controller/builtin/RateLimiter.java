@@ -0,0 +1,43 @@
+package act.controller.builtin;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Decides whether a request identified by a key shall be admitted.
+ *
+ * The key is a compact 64 bit hash of the dimensions the request is
+ * throttled on, see {@link ThrottleFilter}.
+ */
+public interface RateLimiter {
+
+    /**
+     * Try to acquire a permit for the given key.
+     *
+     * @param key
+     *      the hashed throttle key
+     * @param penalize
+     *      if `true` then a rejected request still consumes a permit so
+     *      that clients which keep hitting the limit stay locked out longer
+     * @return `true` if the request is admitted or `false` otherwise
+     */
+    boolean tryAcquire(long key, boolean penalize);
+
+}
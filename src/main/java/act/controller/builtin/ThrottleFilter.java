@@ -23,8 +23,7 @@ package act.controller.builtin;
 import act.Act;
 import act.app.ActionContext;
 import act.app.App;
-import act.app.event.SysEventId;
-import org.osgl.cache.CacheService;
+import act.conf.AppConfig;
 import org.osgl.http.H;
 import org.osgl.inject.annotation.Configuration;
 import org.osgl.mvc.result.Result;
@@ -32,14 +31,66 @@ import org.osgl.mvc.result.TooManyRequests;
 import org.osgl.util.E;
 import org.osgl.util.S;
 
+import java.util.ArrayList;
+import java.util.List;
 import javax.inject.Singleton;
 
 @Singleton
 public class ThrottleFilter {
 
-    public static final String CACHE_NAME = "act.throttle";
+    public static final String CACHE_NAME = CacheRateLimiter.CACHE_NAME;
 
-    private CacheService cache;
+    /**
+     * The dimensions a throttle key can be built from.
+     *
+     * @see act.conf.AppConfigKey#REQUEST_THROTTLE_KEY
+     */
+    public enum KeyDimension {
+        IP() {
+            @Override
+            long hash(long h, ActionContext context) {
+                return ThrottleFilter.hash(h, context.req().ip());
+            }
+        },
+        SESSION() {
+            @Override
+            long hash(long h, ActionContext context) {
+                return ThrottleFilter.hash(h, context.session().id());
+            }
+        },
+        USER() {
+            @Override
+            long hash(long h, ActionContext context) {
+                String username = context.username();
+                return S.blank(username) ? IP.hash(h, context) : ThrottleFilter.hash(h, username);
+            }
+        },
+        ROUTE() {
+            @Override
+            long hash(long h, ActionContext context) {
+                H.Request req = context.req();
+                h = (h ^ req.method().ordinal()) * FNV_PRIME;
+                return ThrottleFilter.hash(h, req.path());
+            }
+        };
+
+        abstract long hash(long h, ActionContext context);
+
+        public static List<KeyDimension> parse(String s) {
+            List<KeyDimension> list = new ArrayList<>();
+            for (String dimension : S.fastSplit(s, ",")) {
+                dimension = dimension.trim();
+                if (S.notBlank(dimension)) {
+                    list.add(valueOf(dimension.toUpperCase()));
+                }
+            }
+            E.illegalArgumentIf(list.isEmpty(), "request throttle key cannot be empty");
+            return list;
+        }
+    }
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
 
     @Configuration("act.req.throttle")
     private int throttle;
@@ -47,51 +98,91 @@ public class ThrottleFilter {
     @Configuration("req.throttle.expire.scale.enabled")
     private boolean expireScale;
 
+    private int burst;
+
+    private KeyDimension[] dimensions;
+
+    private volatile RateLimiter limiter;
+
     public ThrottleFilter() {
-        final App app = Act.app();
-        app.jobManager().on(SysEventId.CLASS_LOADER_INITIALIZED, "ThrottleFilter:initCache", new Runnable() {
-            @Override
-            public void run() {
-                cache = app.cache(CACHE_NAME);
-            }
-        }, true);
     }
 
     public ThrottleFilter(int throttle, boolean expireScale) {
+        this(throttle, -1, expireScale);
+    }
+
+    /**
+     * Construct a throttle filter.
+     *
+     * @param throttle
+     *      the number of requests per second allowed per throttle key
+     * @param burst
+     *      the maximum number of requests per throttle key that can be
+     *      handled at once. If not positive then
+     *      {@link AppConfig#requestThrottleBurst()} is used when it is
+     *      greater than `throttle`, otherwise `throttle` is used.
+     * @param expireScale
+     *      whether rejected requests shall extend the time a client is locked out
+     */
+    public ThrottleFilter(int throttle, int burst, boolean expireScale) {
         E.illegalArgumentIf(throttle < 1);
         this.throttle = throttle;
+        this.burst = burst;
         this.expireScale = expireScale;
-        final App app = Act.app();
-        app.jobManager().on(SysEventId.CLASS_LOADER_INITIALIZED, "ThrottleFilter:initCache", new Runnable() {
-            @Override
-            public void run() {
-                cache = app.cache(CACHE_NAME);
-            }
-        }, true);
+        this.limiter = createLimiter();
     }
 
     public Result handle(ActionContext actionContext) {
-        String key = cacheKey(actionContext);
-        if (!expireScale) {
-            if (throttle <= cache.incr(key, 1)) {
-                return TooManyRequests.get();
-            }
-        } else {
-            Integer curReqCnt = cache.get(key);
-            if (null == curReqCnt) {
-                curReqCnt = 0;
-            }
-            int timeout = curReqCnt + 1;
-            cache.incr(key, timeout);
-            if (curReqCnt >= throttle) {
-                return TooManyRequests.get();
+        RateLimiter limiter = limiter();
+        return limiter.tryAcquire(key(actionContext), expireScale) ? null : TooManyRequests.get();
+    }
+
+    private RateLimiter limiter() {
+        RateLimiter limiter = this.limiter;
+        if (null == limiter) {
+            synchronized (this) {
+                limiter = this.limiter;
+                if (null == limiter) {
+                    limiter = createLimiter();
+                    this.limiter = limiter;
+                }
             }
         }
-        return null;
+        return limiter;
     }
 
-    private String cacheKey(ActionContext context) {
-        H.Request req = context.req();
-        return S.concat(req.method(), req.url(), req.ip());
+    private RateLimiter createLimiter() {
+        App app = Act.app();
+        AppConfig config = app.config();
+        if (throttle < 1) {
+            throttle = config.requestThrottle();
+        }
+        if (burst < 1) {
+            burst = Math.max(throttle, config.requestThrottleBurst());
+        }
+        List<KeyDimension> key = config.requestThrottleKey();
+        dimensions = key.toArray(new KeyDimension[key.size()]);
+        return config.requestThrottleShared() ?
+                new CacheRateLimiter(app, throttle) :
+                new TokenBucketRateLimiter(throttle, burst, config.requestThrottleMaxKeys());
+    }
+
+    private long key(ActionContext context) {
+        long h = FNV_OFFSET;
+        for (KeyDimension dimension : dimensions) {
+            h = dimension.hash(h, context);
+        }
+        return h;
+    }
+
+    // FNV-1a, chars are hashed in place to avoid building a key string
+    private static long hash(long h, String s) {
+        if (null != s) {
+            for (int i = 0, len = s.length(); i < len; ++i) {
+                h = (h ^ s.charAt(i)) * FNV_PRIME;
+            }
+        }
+        // separator so that ("ab", "c") and ("a", "bc") are different keys
+        return (h ^ 0xFF) * FNV_PRIME;
     }
 }
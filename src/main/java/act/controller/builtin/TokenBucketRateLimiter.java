@@ -0,0 +1,238 @@
+package act.controller.builtin;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+import org.osgl.util.E;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In process token bucket {@link RateLimiter}.
+ *
+ * Each bucket is a single `AtomicLong` keeping the theoretical arrival
+ * time of the next request (the generic cell rate algorithm). Admitting
+ * a request is one CAS on that cell, there is no lock and no background
+ * refill: tokens are replenished continuously as time goes, which gives
+ * sliding window semantic instead of the fixed one second window of
+ * the cache based implementation.
+ *
+ * A bucket whose arrival time is in the past is full and carries no
+ * state, thus it is dropped by the sweep that runs at most once per
+ * burst period. The number of buckets is capped by `maxKeys`: when the
+ * cap is reached, buckets are evicted in one batch, closest to be full
+ * first, down to three quarters of the cap so the cost is amortized over
+ * the following new keys. Buckets in debt are never evicted. If an
+ * eviction cannot reach the low water mark, i.e. most tracked buckets
+ * are in debt, the next one is deferred and meanwhile new keys are
+ * hashed onto a fixed set of overflow buckets.
+ */
+public class TokenBucketRateLimiter implements RateLimiter {
+
+    // the maximum time a penalized key could be locked out
+    private static final long MAX_PENALTY = TimeUnit.HOURS.toNanos(1);
+
+    // the minimum time between evictions once one failed to free room
+    private static final long EVICT_BACKOFF = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // time to generate one token
+    private final long interval;
+    // interval * burst
+    private final long tolerance;
+    private final int maxKeys;
+    // number of buckets left after an eviction
+    private final int lowWater;
+    private final long sweepPeriod;
+    private final AtomicLong nextSweep;
+    // the earliest time the next eviction could run
+    private final AtomicLong nextEvict;
+    private final ConcurrentMap<Long, AtomicLong> buckets;
+    // used by new keys when tracked buckets are in debt, indexed by key hash
+    private final AtomicLong[] overflow;
+
+    /**
+     * Construct a token bucket rate limiter.
+     *
+     * @param permitsPerSecond
+     *      the sustained number of requests per second per key
+     * @param burst
+     *      the maximum number of requests that can be admitted at once per key
+     * @param maxKeys
+     *      the maximum number of keys tracked
+     */
+    public TokenBucketRateLimiter(int permitsPerSecond, int burst, int maxKeys) {
+        E.illegalArgumentIf(permitsPerSecond < 1, "permits per second must be positive integer");
+        E.illegalArgumentIf(burst < 1, "burst must be positive integer");
+        E.illegalArgumentIf(maxKeys < 1, "max keys must be positive integer");
+        this.interval = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.tolerance = interval * burst;
+        this.maxKeys = maxKeys;
+        this.lowWater = maxKeys - Math.max(1, maxKeys / 4);
+        this.sweepPeriod = Math.max(tolerance, TimeUnit.SECONDS.toNanos(1));
+        long now = $.ns();
+        this.nextSweep = new AtomicLong(now + sweepPeriod);
+        this.nextEvict = new AtomicLong(now);
+        this.buckets = new ConcurrentHashMap<>(Math.min(maxKeys, 1024));
+        int stripes = Integer.highestOneBit(Math.min(maxKeys, 1024));
+        this.overflow = new AtomicLong[stripes];
+        for (int i = 0; i < stripes; ++i) {
+            overflow[i] = new AtomicLong(now);
+        }
+    }
+
+    @Override
+    public boolean tryAcquire(long key, boolean penalize) {
+        return tryAcquire(key, penalize, $.ns());
+    }
+
+    boolean tryAcquire(long key, boolean penalize, long now) {
+        AtomicLong tat = bucket(key, now);
+        for (;;) {
+            long cur = tat.get();
+            long next = Math.max(cur, now) + interval;
+            if (next - now > tolerance) {
+                if (penalize && next - now <= tolerance + MAX_PENALTY) {
+                    tat.compareAndSet(cur, next);
+                }
+                return false;
+            }
+            if (tat.compareAndSet(cur, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of keys currently tracked.
+     * @return the number of buckets
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucket(long key, long now) {
+        Long k = key;
+        AtomicLong tat = buckets.get(k);
+        if (null == tat) {
+            if (now - nextSweep.get() > 0) {
+                sweep(now);
+            }
+            if (buckets.size() >= maxKeys) {
+                evict(now);
+                if (buckets.size() >= maxKeys) {
+                    return overflow(key);
+                }
+            }
+            tat = new AtomicLong(now);
+            AtomicLong existing = buckets.putIfAbsent(k, tat);
+            if (null != existing) {
+                tat = existing;
+            }
+        }
+        return tat;
+    }
+
+    private AtomicLong overflow(long key) {
+        int h = (int) (key ^ (key >>> 32));
+        h ^= h >>> 16;
+        return overflow[h & (overflow.length - 1)];
+    }
+
+    /**
+     * Evict buckets that still have tokens, starting from the one closest
+     * to be full, until the low water mark is reached. Buckets in debt, i.e.
+     * throttled or penalized, are never evicted so a flood of new keys cannot
+     * reset their lockout.
+     *
+     * Only one thread evicts at a time. If the low water mark cannot be
+     * reached, evictions are suspended for {@link #EVICT_BACKOFF}.
+     */
+    private void evict(long now) {
+        long expected = nextEvict.get();
+        if (now - expected < 0 || !nextEvict.compareAndSet(expected, now + EVICT_BACKOFF)) {
+            return;
+        }
+        long debt = tolerance - interval;
+        List<Candidate> candidates = new ArrayList<>();
+        for (Map.Entry<Long, AtomicLong> entry : buckets.entrySet()) {
+            AtomicLong tat = entry.getValue();
+            long t = tat.get();
+            if (t - now <= debt) {
+                candidates.add(new Candidate(entry.getKey(), tat, t - now));
+            }
+        }
+        int count = buckets.size() - lowWater;
+        if (candidates.size() > count) {
+            Collections.sort(candidates);
+        }
+        for (Candidate candidate : candidates) {
+            if (count <= 0) {
+                break;
+            }
+            if (candidate.tat.get() - now <= debt && buckets.remove(candidate.key, candidate.tat)) {
+                count--;
+            }
+        }
+        if (count <= 0) {
+            // room made, let the next eviction run as soon as needed
+            nextEvict.compareAndSet(now + EVICT_BACKOFF, now);
+        }
+    }
+
+    private static class Candidate implements Comparable<Candidate> {
+        final Long key;
+        final AtomicLong tat;
+        final long ahead;
+
+        Candidate(Long key, AtomicLong tat, long ahead) {
+            this.key = key;
+            this.tat = tat;
+            this.ahead = ahead;
+        }
+
+        @Override
+        public int compareTo(Candidate o) {
+            return ahead < o.ahead ? -1 : ahead == o.ahead ? 0 : 1;
+        }
+    }
+
+    void sweep(long now) {
+        long expected = nextSweep.get();
+        if (now - expected <= 0) {
+            return;
+        }
+        if (!nextSweep.compareAndSet(expected, now + sweepPeriod)) {
+            // another thread is sweeping
+            return;
+        }
+        Iterator<Map.Entry<Long, AtomicLong>> itr = buckets.entrySet().iterator();
+        while (itr.hasNext()) {
+            if (itr.next().getValue().get() - now <= 0) {
+                itr.remove();
+            }
+        }
+    }
+
+}
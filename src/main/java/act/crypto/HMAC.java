@@ -47,7 +47,7 @@ public class HMAC {
 
         Mac macOf(String key) {
             try {
-                SecretKeySpec spec = new SecretKeySpec(key.getBytes(Charset.forName("UTF-8")), javaName);
+                SecretKeySpec spec = new SecretKeySpec(key.getBytes(UTF_8), javaName);
                 Mac mac = Mac.getInstance(javaName);
                 mac.init(spec);
                 return mac;
@@ -62,10 +62,16 @@ public class HMAC {
 
     }
 
-    private Mac mac;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * The maximum number of idle `Mac` instances kept for a secret.
+     */
+    protected static final int MAX_IDLE_MAC = Runtime.getRuntime().availableProcessors() * 4;
+
+    private MacPool macPool;
     private String algoName;
     protected Algorithm algo;
-    private final Charset UTF_8 = Charset.forName("UTF-8");
 
     protected HMAC(String algoKey) {
         algo = algoLookup.get(algoKey.toUpperCase());
@@ -80,12 +86,12 @@ public class HMAC {
 
     public HMAC(String key, String algoKey) {
         this(algoKey);
-        mac = algo.macOf(key);
+        macPool = new MacPool(algo, key, MAX_IDLE_MAC);
     }
 
     public HMAC(String key, Algorithm algo) {
         this(algo);
-        mac = algo.macOf(key);
+        macPool = new MacPool(algo, key, MAX_IDLE_MAC);
     }
 
     public String toString(JWT.Token token) {
@@ -111,13 +117,22 @@ public class HMAC {
     }
 
     protected byte[] doHash(byte[] bytes) {
-        return doHash(bytes, mac);
+        return doHash(bytes, macPool);
     }
 
     protected final byte[] doHash(byte[] bytes, Mac mac) {
         return mac.doFinal(bytes);
     }
 
+    final byte[] doHash(byte[] bytes, MacPool pool) {
+        Mac mac = pool.borrow();
+        try {
+            return doHash(bytes, mac);
+        } finally {
+            pool.release(mac);
+        }
+    }
+
     public boolean verifyHash(String content, String hash) {
         int len = hash.length();
         int padding = 4 - len % 4;
@@ -129,7 +144,7 @@ public class HMAC {
     }
 
     protected boolean verifyHash(byte[] payload, byte[] hash) {
-        return verifyHash(payload, hash, mac);
+        return verifyHash(payload, hash, macPool);
     }
 
     protected final boolean verifyHash(byte[] payload, byte[] hash, Mac mac) {
@@ -137,6 +152,11 @@ public class HMAC {
         return MessageDigest.isEqual(myHash, hash);
     }
 
+    final boolean verifyHash(byte[] payload, byte[] hash, MacPool pool) {
+        byte[] myHash = doHash(payload, pool);
+        return MessageDigest.isEqual(myHash, hash);
+    }
+
     public boolean verifyArgo(String algoName) {
         Algorithm algorithm = algoLookup.get(algoName);
         return null != algorithm && S.eq(this.algoName, algorithm.jwtName());
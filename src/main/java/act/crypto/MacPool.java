@@ -0,0 +1,113 @@
+package act.crypto;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.Mac;
+
+/**
+ * A bounded pool of {@link Mac} instances initialized with the same
+ * algorithm and secret.
+ *
+ * `Mac` is not thread safe, while creating one involves a provider lookup
+ * and a key schedule. New instances are cloned from an initialized
+ * prototype which copies the key schedule instead of recomputing it.
+ */
+final class MacPool {
+
+    private final HMAC.Algorithm algo;
+    private final String secret;
+    private final Mac prototype;
+    private final int maxIdle;
+    private final Queue<Mac> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private boolean cloneable = true;
+
+    MacPool(HMAC.Algorithm algo, String secret, int maxIdle) {
+        this.algo = algo;
+        this.secret = secret;
+        this.prototype = algo.macOf(secret);
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Returns the secret the pooled instances are initialized with.
+     */
+    String secret() {
+        return secret;
+    }
+
+    /**
+     * Borrow a `Mac` from the pool. The instance must be returned
+     * with {@link #release(Mac)}.
+     *
+     * @return an initialized `Mac`
+     */
+    Mac borrow() {
+        Mac mac = idle.poll();
+        if (null == mac) {
+            return create();
+        }
+        idleCount.decrementAndGet();
+        return mac;
+    }
+
+    /**
+     * Return a `Mac` to the pool.
+     *
+     * @param mac
+     *      the `Mac` borrowed from this pool
+     */
+    void release(Mac mac) {
+        mac.reset();
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offer(mac);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Drop all idle instances.
+     */
+    void clear() {
+        while (null != idle.poll()) {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    private Mac create() {
+        if (cloneable) {
+            try {
+                synchronized (prototype) {
+                    return (Mac) prototype.clone();
+                }
+            } catch (CloneNotSupportedException e) {
+                // the provider does not support clone, fall back to initialize new instances
+                cloneable = false;
+            }
+        }
+        return algo.macOf(secret);
+    }
+
+}
@@ -53,6 +53,19 @@ public class RotateSecretCrypto extends AppCrypto {
                 || S.eq(signature, next().sign(message));
     }
 
+    /**
+     * Returns an object that is replaced whenever the secret is rotated.
+     *
+     * Callers caching results of {@link #decrypt(String)} or
+     * {@link #verifySignature(String, String)} can compare the epoch by
+     * identity to find out if the cached results shall be discarded.
+     *
+     * @return the current secret epoch
+     */
+    public Object secretEpoch() {
+        return rotationEnabled ? secretProvider.curSecret() : this;
+    }
+
     @Override
     public char[] passwordHash(char[] password) {
         return super.passwordHash(password);
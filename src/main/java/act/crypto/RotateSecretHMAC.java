@@ -22,13 +22,28 @@ package act.crypto;
 
 import act.session.RotationSecretProvider;
 import org.osgl.$;
-
-import javax.crypto.Mac;
+import org.osgl.util.S;
 
 public class RotateSecretHMAC extends HMAC {
 
+    /**
+     * Mac pools of the current, previous and next secrets.
+     */
+    private static class MacPools {
+        final MacPool cur;
+        final MacPool prev;
+        final MacPool next;
+
+        MacPools(MacPool cur, MacPool prev, MacPool next) {
+            this.cur = cur;
+            this.prev = prev;
+            this.next = next;
+        }
+    }
+
     private RotationSecretProvider secretProvider;
     private boolean rotateEnabled;
+    private volatile MacPools macPools;
 
     public RotateSecretHMAC(String algoKey, RotationSecretProvider secretProvider) {
         super(secretProvider.rawSecret(), algoKey);
@@ -38,7 +53,8 @@ public class RotateSecretHMAC extends HMAC {
 
     public RotateSecretHMAC(Algorithm algo, RotationSecretProvider secretProvider) {
         super(secretProvider.rawSecret(), algo);
-        this.secretProvider = secretProvider;
+        this.secretProvider = $.requireNotNull(secretProvider);
+        this.rotateEnabled = secretProvider.isRotateEnabled();
     }
 
     @Override
@@ -46,25 +62,60 @@ public class RotateSecretHMAC extends HMAC {
         if (!rotateEnabled) {
             return super.verifyHash(payload, hash);
         }
-        return verifyHash(payload, hash, curMac())
-                || verifyHash(payload, hash, prevMac())
-                || verifyHash(payload, hash, nextMac());
+        MacPools pools = macPools();
+        return verifyHash(payload, hash, pools.cur)
+                || (pools.prev != pools.cur && verifyHash(payload, hash, pools.prev))
+                || verifyHash(payload, hash, pools.next);
     }
 
     @Override
     protected byte[] doHash(byte[] bytes) {
-        return rotateEnabled ? doHash(bytes, curMac()) : super.doHash(bytes);
-    }
-
-    private Mac curMac() {
-        return algo.macOf(secretProvider.curSecret());
+        return rotateEnabled ? doHash(bytes, macPools().cur) : super.doHash(bytes);
     }
 
-    private Mac prevMac() {
-        return algo.macOf(secretProvider.lastSecret());
+    /*
+     * Returns the mac pools of the current secrets. When the secret has been
+     * rotated the pools are rebuilt, reusing the pools of secrets that are
+     * still in use, i.e. the previous "next" becomes "current" and the previous
+     * "current" becomes "previous".
+     */
+    private MacPools macPools() {
+        String cur = secretProvider.curSecret();
+        MacPools pools = macPools;
+        if (null != pools && S.eq(cur, pools.cur.secret())) {
+            return pools;
+        }
+        synchronized (this) {
+            pools = macPools;
+            if (null != pools && S.eq(cur, pools.cur.secret())) {
+                return pools;
+            }
+            String prev = secretProvider.lastSecret();
+            String next = secretProvider.nextSecret();
+            MacPool curPool = pool(cur, pools);
+            MacPool prevPool = S.eq(prev, cur) ? curPool : pool(prev, pools);
+            MacPool nextPool = pool(next, pools);
+            if (null != pools) {
+                for (MacPool old : new MacPool[]{pools.cur, pools.prev, pools.next}) {
+                    if (old != curPool && old != prevPool && old != nextPool) {
+                        old.clear();
+                    }
+                }
+            }
+            pools = new MacPools(curPool, prevPool, nextPool);
+            macPools = pools;
+            return pools;
+        }
     }
 
-    private Mac nextMac() {
-        return algo.macOf(secretProvider.nextSecret());
+    private MacPool pool(String secret, MacPools existing) {
+        if (null != existing) {
+            for (MacPool pool : new MacPool[]{existing.cur, existing.prev, existing.next}) {
+                if (S.eq(secret, pool.secret())) {
+                    return pool;
+                }
+            }
+        }
+        return new MacPool(algo, secret, MAX_IDLE_MAC);
     }
 }
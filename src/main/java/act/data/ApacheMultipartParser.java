@@ -21,6 +21,7 @@ package act.data;
  */
 
 import act.app.ActionContext;
+import act.util.ByteArrayPool;
 import act.util.UploadFileStorageService;
 import org.apache.commons.fileupload.*;
 import org.apache.commons.fileupload.util.Closeable;
@@ -50,8 +51,9 @@ public class ApacheMultipartParser extends RequestBodyParser {
         H.Request request = context.req();
         InputStream body = request.inputStream();
         Map<String, String[]> result = new HashMap<>();
+        byte[] buffer = ByteArrayPool.SHARED.borrow();
         try {
-            FileItemIteratorImpl iter = new FileItemIteratorImpl(body, request.header("content-type"), request.characterEncoding());
+            FileItemIteratorImpl iter = new FileItemIteratorImpl(body, request.header("content-type"), request.characterEncoding(), buffer);
             while (iter.hasNext()) {
                 FileItemStream item = iter.next();
                 ISObject sobj = UploadFileStorageService.store(item, context.app());
@@ -86,8 +88,26 @@ public class ApacheMultipartParser extends RequestBodyParser {
             throw e;
         } catch (Exception e) {
             throw new UnexpectedException(e);
+        } finally {
+            ByteArrayPool.SHARED.release(buffer);
         }
         return result;
+    }
+
+    /**
+     * Returns an iterator of the parts of a multipart request body. The parts
+     * are read from the input stream on iteration.
+     *
+     * @param body        the request body
+     * @param contentType the request content type, including the boundary
+     * @param encoding    the request character encoding
+     * @param buffer      the buffer used to read the body
+     * @return the parts iterator
+     * @throws FileUploadException if the content type is not a multipart one
+     * @throws IOException         if error reading the body
+     */
+    FileItemIterator iterator(InputStream body, String contentType, String encoding, byte[] buffer) throws FileUploadException, IOException {
+        return new FileItemIteratorImpl(body, contentType, encoding, buffer);
     }    // ---------------------------------------------------------- Class methods
     // ----------------------------------------------------- Manifest constants
     /**
@@ -494,7 +514,7 @@ public class ApacheMultipartParser extends RequestBodyParser {
          * @throws FileUploadException An error occurred while parsing the request.
          * @throws IOException         An I/O error occurred.
          */
-        FileItemIteratorImpl(InputStream input, String contentType, String charEncoding) throws FileUploadException, IOException {
+        FileItemIteratorImpl(InputStream input, String contentType, String charEncoding, byte[] buffer) throws FileUploadException, IOException {
 
             if ((null == contentType) || (!contentType.toLowerCase().startsWith(MULTIPART))) {
                 throw new InvalidContentTypeException("the request doesn't contain a " + MULTIPART_FORM_DATA + " or " + MULTIPART_MIXED + " stream, content type header is " + contentType);
@@ -518,7 +538,7 @@ public class ApacheMultipartParser extends RequestBodyParser {
                 throw new FileUploadException("the request was rejected because " + "no multipart boundary was found");
             }
 
-            multi = new MultipartStream(input, boundary, 4096, null);
+            multi = new MultipartStream(input, boundary, buffer, null);
             multi.setHeaderEncoding(charEncoding);
 
             skipPreamble = true;
@@ -297,9 +297,27 @@ public class MultipartStream {
                     byte[] boundary,
                     int bufSize,
                     ProgressNotifier pNotifier) {
+        this(input, boundary, new byte[bufSize], pNotifier);
+    }
+
+    /**
+     * <p> Constructs a <code>MultipartStream</code> with the buffer supplied,
+     * e.g. a buffer borrowed from a pool.
+     *
+     * @param input    The <code>InputStream</code> to serve as a data source.
+     * @param boundary The token used for dividing the stream into
+     *                 <code>encapsulations</code>.
+     * @param buffer   The buffer to be used.
+     * @param pNotifier The notifier, which is used for calling the
+     *                  progress listener, if any.
+     */
+    MultipartStream(InputStream input,
+                    byte[] boundary,
+                    byte[] buffer,
+                    ProgressNotifier pNotifier) {
         this.input = input;
-        this.bufSize = bufSize;
-        this.buffer = new byte[bufSize];
+        this.bufSize = buffer.length;
+        this.buffer = buffer;
         this.notifier = pNotifier;
 
         // We prepend CR/LF to the boundary to chop trailng CR/LF from
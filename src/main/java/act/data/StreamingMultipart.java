@@ -0,0 +1,356 @@
+package act.data;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.util.ByteArrayPool;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadException;
+import org.osgl.$;
+import org.osgl.logging.LogManager;
+import org.osgl.logging.Logger;
+import org.osgl.util.E;
+import org.osgl.util.IO;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams the parts of a multipart request body to the action handler one
+ * by one instead of storing every part with the upload storage service.
+ *
+ * Each part must be consumed before moving to the next part, as the parts
+ * are read from the request body on iteration. The unread content of a part
+ * is skipped when moving to the next part.
+ *
+ * IO buffers are borrowed from {@link ByteArrayPool#SHARED} and returned
+ * when the request finished.
+ *
+ * Sample usage:
+ *
+ * ```java
+ * {@literal @}PostAction("/bulk")
+ * {@literal @}StreamUpload
+ * public void bulkUpload(StreamingMultipart parts) {
+ *     for (StreamingMultipart.Part part : parts) {
+ *         if (!part.isFormField()) {
+ *             part.transferTo(new File(dir, part.filename()));
+ *         }
+ *     }
+ * }
+ * ```
+ *
+ * @see act.handler.StreamUpload
+ */
+public class StreamingMultipart implements Iterable<StreamingMultipart.Part>, Closeable {
+
+    private static final Logger LOGGER = LogManager.get(StreamingMultipart.class);
+
+    /**
+     * A part of the multipart request body
+     */
+    public class Part {
+
+        private final FileItemStream item;
+
+        private Part(FileItemStream item) {
+            this.item = item;
+        }
+
+        /**
+         * @return the form field name of the part
+         */
+        public String fieldName() {
+            return item.getFieldName();
+        }
+
+        /**
+         * @return the file name of the part or `null` if the part is a form field
+         */
+        public String filename() {
+            return item.getName();
+        }
+
+        /**
+         * @return the content type of the part or `null` if not specified
+         */
+        public String contentType() {
+            return item.getContentType();
+        }
+
+        public boolean isFormField() {
+            return item.isFormField();
+        }
+
+        /**
+         * Returns the content stream of the part. The stream can only
+         * be opened once.
+         *
+         * @return the content stream
+         */
+        public InputStream stream() {
+            try {
+                return item.openStream();
+            } catch (IOException e) {
+                throw E.ioException(e);
+            }
+        }
+
+        /**
+         * Read the content of the part as a string, decoded with the charset
+         * of the part content type if specified or the request encoding otherwise.
+         *
+         * @return the content string
+         */
+        public String string() {
+            String charset = encoding;
+            String contentType = contentType();
+            if (null != contentType) {
+                ContentTypeWithEncoding contentTypeEncoding = ContentTypeWithEncoding.parse(contentType);
+                if (null != contentTypeEncoding.encoding) {
+                    charset = contentTypeEncoding.encoding;
+                }
+            }
+            return new String(IO.readContent(stream()), Charset.forName(charset));
+        }
+
+        /**
+         * Write the content of the part into a channel.
+         *
+         * @param channel
+         *      the channel, e.g. a `FileChannel` or a socket channel
+         * @return the number of bytes written
+         */
+        public long transferTo(WritableByteChannel channel) {
+            InputStream is = stream();
+            byte[] ba = ByteArrayPool.SHARED.borrow();
+            ByteBuffer buffer = ByteBuffer.wrap(ba);
+            long n = 0;
+            try {
+                for (int len = is.read(ba); len >= 0; len = is.read(ba)) {
+                    buffer.clear();
+                    buffer.limit(len);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    n += len;
+                }
+            } catch (IOException e) {
+                throw E.ioException(e);
+            } finally {
+                ByteArrayPool.SHARED.release(ba);
+            }
+            return n;
+        }
+
+        /**
+         * Write the content of the part into a file. The file will be created
+         * if not exists or truncated otherwise.
+         *
+         * @param file
+         *      the file
+         * @return the number of bytes written
+         */
+        public long transferTo(File file) {
+            try (FileChannel channel = FileChannel.open(file.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                return transferTo(channel);
+            } catch (IOException e) {
+                throw E.ioException(e);
+            }
+        }
+    }
+
+    /*
+     * Counts the bytes read from the request body
+     */
+    private class CountingInputStream extends FilterInputStream {
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                bytesRead++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                bytesRead += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            bytesRead += skipped;
+            return skipped;
+        }
+    }
+
+    private final String encoding;
+    private final long startNanos;
+    private byte[] buffer;
+    private FileItemIterator iterator;
+    private boolean iterated;
+    private long bytesRead;
+    private int partCount;
+    private long endNanos;
+
+    /**
+     * Construct a streaming multipart on a request body.
+     *
+     * @param body
+     *      the request body
+     * @param contentType
+     *      the request content type, including the boundary
+     * @param encoding
+     *      the request character encoding
+     */
+    public StreamingMultipart(InputStream body, String contentType, String encoding) {
+        this.encoding = encoding;
+        this.startNanos = $.ns();
+        this.buffer = ByteArrayPool.SHARED.borrow();
+        try {
+            this.iterator = new ApacheMultipartParser().iterator(new CountingInputStream(body), contentType, encoding, buffer);
+        } catch (FileUploadException | IOException e) {
+            close();
+            throw E.ioException("Error when handling upload", e);
+        }
+    }
+
+    /**
+     * Returns the iterator of the parts. The parts can only be iterated once.
+     *
+     * @return the parts iterator
+     */
+    @Override
+    public Iterator<Part> iterator() {
+        E.illegalStateIf(iterated, "parts can only be iterated once");
+        iterated = true;
+        return new Iterator<Part>() {
+            @Override
+            public boolean hasNext() {
+                if (null == iterator) {
+                    return false;
+                }
+                try {
+                    if (iterator.hasNext()) {
+                        return true;
+                    }
+                } catch (FileUploadException | IOException e) {
+                    throw E.ioException("Error when handling upload", e);
+                }
+                finish();
+                return false;
+            }
+
+            @Override
+            public Part next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    Part part = new Part(iterator.next());
+                    partCount++;
+                    return part;
+                } catch (FileUploadException | IOException e) {
+                    throw E.ioException("Error when handling upload", e);
+                }
+            }
+
+            @Override
+            public void remove() {
+                throw E.unsupport();
+            }
+        };
+    }
+
+    /**
+     * @return the number of bytes read from the request body so far
+     */
+    public long bytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * @return the number of parts iterated so far
+     */
+    public int partCount() {
+        return partCount;
+    }
+
+    /**
+     * @return the time elapsed in milliseconds since the upload started till
+     *         the last part is read or now if there are parts not read yet
+     */
+    public long elapsedMillis() {
+        long end = 0 == endNanos ? $.ns() : endNanos;
+        return (end - startNanos) / 1000000L;
+    }
+
+    /**
+     * @return the upload throughput in bytes per second
+     */
+    public long throughput() {
+        long ms = elapsedMillis();
+        return 0 == ms ? bytesRead * 1000L : bytesRead * 1000L / ms;
+    }
+
+    /**
+     * Return the IO buffer to the pool. This is called by the
+     * framework once the request is finished.
+     */
+    @Override
+    public void close() {
+        if (null == buffer) {
+            return;
+        }
+        finish();
+        iterator = null;
+        ByteArrayPool.SHARED.release(buffer);
+        buffer = null;
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("streamed %s parts, %s bytes in %sms, %s bytes/s", partCount, bytesRead, elapsedMillis(), throughput());
+        }
+    }
+
+    private void finish() {
+        if (0 == endNanos) {
+            endNanos = $.ns();
+        }
+    }
+
+}
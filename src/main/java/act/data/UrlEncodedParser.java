@@ -26,9 +26,7 @@ import org.osgl.http.H;
 import org.osgl.mvc.result.ErrorResult;
 import org.osgl.mvc.result.Result;
 import org.osgl.util.C;
-import org.osgl.util.Codec;
 
-import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.HashMap;
@@ -37,7 +35,27 @@ import java.util.Map;
 
 // Disclaim the source code is copied from Play!Framework 1.3
 public class UrlEncodedParser extends RequestBodyParser {
-    
+
+    /**
+     * Scratch buffers larger than this are not kept by the thread
+     */
+    static final int MAX_SCRATCH_SIZE = 1024 * 64;
+
+    private static final int INIT_SCRATCH_SIZE = 1024;
+
+    private static final String CHARSET_PARAM = "_charset_";
+
+    /**
+     * Per thread scratch buffers: `[0]` holds the request body and
+     * `[1]` holds the percent decoded bytes of a key or value
+     */
+    private static final ThreadLocal<byte[][]> scratch = new ThreadLocal<byte[][]>() {
+        @Override
+        protected byte[][] initialValue() {
+            return new byte[][]{new byte[INIT_SCRATCH_SIZE], new byte[INIT_SCRATCH_SIZE]};
+        }
+    };
+
     boolean forQueryString = false;
 
     @Override
@@ -46,113 +64,177 @@ public class UrlEncodedParser extends RequestBodyParser {
         // Encoding is either retrieved from contentType or it is the default encoding
         final String encoding = request.characterEncoding();
         InputStream is = request.inputStream();
+        byte[][] buffers = scratch.get();
         try {
-            Map<String, String[]> params = new LinkedHashMap<String, String[]>();
-            ByteArrayOutputStream os = new ByteArrayOutputStream();
-            byte[] buffer = new byte[1024];
+            byte[] data = buffers[0];
+            int len = 0;
             int bytesRead;
-            while ((bytesRead = is.read(buffer)) > 0) {
-                os.write(buffer, 0, bytesRead);
+            while ((bytesRead = is.read(data, len, data.length - len)) > 0) {
+                len += bytesRead;
+                if (len == data.length) {
+                    data = grow(data, len);
+                }
             }
-
-            String data = new String(os.toByteArray(), encoding);
-            if (data.length() == 0) {
+            if (len == 0) {
                 //data is empty - can skip the rest
                 return new HashMap<>(0);
             }
+            if (data.length <= MAX_SCRATCH_SIZE) {
+                buffers[0] = data;
+            }
 
             // check if data is in JSON format
-            if (data.startsWith("{") && data.endsWith("}") || data.startsWith("[") && data.endsWith("]")) {
-                return C.Map(ActionContext.REQ_BODY, new String[]{data});
+            byte first = data[0], last = data[len - 1];
+            if (first == '{' && last == '}' || first == '[' && last == ']') {
+                return C.Map(ActionContext.REQ_BODY, new String[]{new String(data, 0, len, encoding)});
             }
 
-            // data is o the form:
-            // a=b&b=c%12...
-
-            // Let us lookup in two phases - we wait until everything is parsed before
-            // we decoded it - this makes it possible for use to look for the
-            // special _charset_ param which can hold the charset the form is encoded in.
-            //
-            // http://www.crazysquirrel.com/computing/general/form-encoding.jspx
-            // https://bugzilla.mozilla.org/show_bug.cgi?id=18643
-            //
-            // NB: _charset_ must always be used with accept-charset and it must have the same value
-
-            String[] keyValues = data.split("&");
-
-            int httpMaxParams = context.app().config().httpMaxParams();
-            // to prevent the server from being vulnerable to POST hash collision DOS-attack (Denial of Service through hash table multi-collisions),
-            // we should by default not lookup the params into HashMap if the count exceeds a maximum limit
-            if (httpMaxParams != 0 && keyValues.length > httpMaxParams) {
-                logger.warn("Number of request parameters %d is higher than maximum of %d, aborting. Can be configured using 'act.http.params.max'", keyValues.length, httpMaxParams);
-                throw new ErrorResult(H.Status.valueOf(413)); //413 Request Entity Too Large
+            Map<String, String[]> params = parse(data, len, Charset.forName(encoding), context.app().config().httpMaxParams());
+
+            // add the complete body as a parameters
+            if (!forQueryString) {
+                params.put(ActionContext.REQ_BODY, new String[]{new String(data, 0, len, encoding)});
             }
 
-            for (String keyValue : keyValues) {
-                // split this key-value on the first '='
-                int i = keyValue.indexOf('=');
-                String key = null;
-                String value = null;
-                if (i > 0) {
-                    key = keyValue.substring(0, i);
-                    value = keyValue.substring(i + 1);
-                } else {
-                    key = keyValue;
-                }
-                if (key.length() > 0) {
-                    MapUtil.mergeValueInMap(params, key, value);
-                }
+            return params;
+        } catch (Result s) {
+            // just pass it along
+            throw s;
+        } catch (Exception e) {
+            throw new UnexpectedException(e);
+        }
+    }
+
+    /**
+     * Parse url encoded form data of the form `a=b&b=c%12...` in a single pass,
+     * decoding keys and values directly from the bytes into the param map.
+     *
+     * The special `_charset_` param holds the charset the form is encoded in.
+     * In case it is found and different from `charset`, the data is parsed again
+     * with the provided charset.
+     *
+     * http://www.crazysquirrel.com/computing/general/form-encoding.jspx
+     * https://bugzilla.mozilla.org/show_bug.cgi?id=18643
+     *
+     * NB: _charset_ must always be used with accept-charset and it must have the same value
+     *
+     * @param data
+     *      the buffer contains the form data
+     * @param len
+     *      the length of the form data in the buffer
+     * @param charset
+     *      the charset to decode keys and values
+     * @param httpMaxParams
+     *      the maximum number of params allowed, `0` means no limit
+     * @return the decoded params
+     */
+    public static Map<String, String[]> parse(byte[] data, int len, Charset charset, int httpMaxParams) {
+        Map<String, String[]> params = doParse(data, len, charset, httpMaxParams);
+        String[] providedCharset = params.get(CHARSET_PARAM);
+        if (null != providedCharset) {
+            // The form contains a _charset_ param - When this is used together
+            // with accept-charset, we can use _charset_ to extract the encoding.
+            // PS: When rendering the view/form, _charset_ and accept-charset must be given the
+            // same value - since only Firefox and sometimes IE actually sets it when Posting
+            Charset provided = null;
+            try {
+                provided = Charset.forName(providedCharset[0]);
+            } catch (Exception e) {
+                logger.debug("Got invalid _charset_ in form: " + providedCharset[0]);
+                // lets just use the default one..
             }
+            if (null != provided && !provided.equals(charset)) {
+                params = doParse(data, len, provided, httpMaxParams);
+            }
+        }
+        return params;
+    }
 
-            // Second phase - look for _charset_ param and do the encoding
-            Charset charset = Charset.forName(encoding);
-            if (params.containsKey("_charset_")) {
-                // The form contains a _charset_ param - When this is used together
-                // with accept-charset, we can use _charset_ to extract the encoding.
-                // PS: When rendering the view/form, _charset_ and accept-charset must be given the
-                // same value - since only Firefox and sometimes IE actually sets it when Posting
-                String providedCharset = params.get("_charset_")[0];
-                // Must be sure the providedCharset is a valid encoding..
-                try {
-                    "test".getBytes(providedCharset);
-                    charset = Charset.forName(providedCharset); // it works..
-                } catch (Exception e) {
-                    logger.debug("Got invalid _charset_ in form: " + providedCharset);
-                    // lets just use the default one..
+    private static Map<String, String[]> doParse(byte[] data, int len, Charset charset, int httpMaxParams) {
+        Map<String, String[]> params = new LinkedHashMap<>();
+        int count = 0;
+        int start = 0;
+        while (start < len) {
+            int end = start, eq = -1;
+            for (; end < len; ++end) {
+                byte b = data[end];
+                if (b == '&') {
+                    break;
+                } else if (b == '=' && eq < 0) {
+                    eq = end;
                 }
             }
-
-            // We're ready to decode the params
-            Map<String, String[]> decodedParams = new LinkedHashMap<String, String[]>(params.size());
-            for (Map.Entry<String, String[]> e : params.entrySet()) {
-                String key = e.getKey();
-                try {
-                    key = Codec.decodeUrl(e.getKey(), charset);
-                } catch (Throwable z) {
-                    // Nothing we can do about, ignore
+            if (end > start) {
+                // to prevent the server from being vulnerable to POST hash collision DOS-attack (Denial of Service through hash table multi-collisions),
+                // we should by default not lookup the params into HashMap if the count exceeds a maximum limit
+                if (httpMaxParams != 0 && ++count > httpMaxParams) {
+                    logger.warn("Number of request parameters is higher than maximum of %d, aborting. Can be configured using 'act.http.params.max'", httpMaxParams);
+                    throw new ErrorResult(H.Status.valueOf(413)); //413 Request Entity Too Large
                 }
-                for (String value : e.getValue()) {
-                    try {
-                        MapUtil.mergeValueInMap(decodedParams, key, (value == null ? null : Codec.decodeUrl(value, charset)));
-                    } catch (Throwable z) {
-                        // Nothing we can do about, lets fill in with the non decoded value
-                        MapUtil.mergeValueInMap(decodedParams, key, value);
-                    }
+                // split this key-value on the first '='
+                String key, value;
+                if (eq > start) {
+                    key = decode(data, start, eq, charset);
+                    value = decode(data, eq + 1, end, charset);
+                } else {
+                    key = decode(data, start, end, charset);
+                    value = null;
                 }
+                MapUtil.mergeValueInMap(params, key, value);
             }
+            start = end + 1;
+        }
+        return params;
+    }
 
-            // add the complete body as a parameters
-            if (!forQueryString) {
-                decodedParams.put(ActionContext.REQ_BODY, new String[]{data});
+    /**
+     * Decode `+` and percent escapes in `data[from, to)`. The bytes are used
+     * as is if there is malformed escape sequence.
+     */
+    private static String decode(byte[] data, int from, int to, Charset charset) {
+        int i = from;
+        for (; i < to; ++i) {
+            byte b = data[i];
+            if (b == '%' || b == '+') {
+                break;
+            }
+        }
+        if (i == to) {
+            // nothing to decode
+            return new String(data, from, to - from, charset);
+        }
+        byte[][] buffers = scratch.get();
+        byte[] buf = buffers[1];
+        if (buf.length < to - from) {
+            buf = new byte[to - from];
+            if (buf.length <= MAX_SCRATCH_SIZE) {
+                buffers[1] = buf;
+            }
+        }
+        int n = i - from;
+        System.arraycopy(data, from, buf, 0, n);
+        for (; i < to; ++i) {
+            byte b = data[i];
+            if (b == '+') {
+                buf[n++] = ' ';
+            } else if (b == '%') {
+                int hi, lo;
+                if (i + 2 >= to || (hi = Character.digit(data[i + 1], 16)) < 0 || (lo = Character.digit(data[i + 2], 16)) < 0) {
+                    return new String(data, from, to - from, charset);
+                }
+                buf[n++] = (byte) ((hi << 4) + lo);
+                i += 2;
+            } else {
+                buf[n++] = b;
             }
-
-            return decodedParams;
-        } catch (Result s) {
-            // just pass it along
-            throw s;
-        } catch (Exception e) {
-            throw new UnexpectedException(e);
         }
+        return new String(buf, 0, n, charset);
+    }
+
+    private static byte[] grow(byte[] data, int len) {
+        byte[] newData = new byte[data.length << 1];
+        System.arraycopy(data, 0, newData, 0, len);
+        return newData;
     }
 
 }
@@ -0,0 +1,50 @@
+package act.event;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.Act;
+import act.cli.Command;
+import act.cli.Optional;
+import org.osgl.util.S;
+
+/**
+ * Provide admin service to act {@link EventBus}
+ */
+@SuppressWarnings("unused")
+public class EventAdmin {
+
+    @Command(name = "act.event.async", help = "report async event ring buffer statistics")
+    public String asyncStats(@Optional("reset the counters after report") boolean reset) {
+        RingBufferEventDispatcher dispatcher = Act.app().eventBus().asyncDispatcher();
+        if (null == dispatcher) {
+            return "async event ring buffer not enabled";
+        }
+        RingBufferEventDispatcher.Stats stats = dispatcher.stats();
+        String report = S.fmt("depth: %s, published: %s, dispatched: %s, failed: %s, overflowed: %s, avg wait: %sns, max wait: %sns",
+                dispatcher.depth(), dispatcher.published(), stats.dispatched(), stats.failed(), stats.overflowed(),
+                stats.avgWaitNs(), stats.maxWaitNs());
+        if (reset) {
+            stats.reset();
+        }
+        return report;
+    }
+
+}
@@ -20,16 +20,20 @@ package act.event;
  * #L%
  */
 
+import act.Act;
 import act.Destroyable;
 import act.app.App;
 import act.app.AppServiceBase;
 import act.app.event.SysEvent;
 import act.app.event.SysEventId;
 import act.app.event.SysEventListener;
+import act.conf.AppConfig;
 import act.inject.DependencyInjectionBinder;
 import act.inject.DependencyInjector;
 import act.inject.util.Sorter;
 import act.job.JobManager;
+import act.metric.MetricInfo;
+import act.util.Async;
 import org.osgl.$;
 import org.osgl.logging.LogManager;
 import org.osgl.logging.Logger;
@@ -43,6 +47,7 @@ import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -449,9 +454,18 @@ public class EventBus extends AppServiceBase<EventBus> {
     private final Set<String> stringsWithAdhocListeners = new HashSet<>();
     private final Set<Class<? extends EventObject>> eventsWithActListeners = new HashSet<>();
 
+    // job pool specified by `@Async` on the listener class, resolved on bind,
+    // NO_POOL if not specified
+    private final ConcurrentMap<ActEventListener, String> asyncPools = new ConcurrentHashMap<>();
+    private static final String NO_POOL = "";
+
     // is this event bus for one time event listeners?
     private EventBus onceBus;
 
+    // async listener dispatcher, see act.conf.AppConfigKey#EVENT_ASYNC_RING_BUFFER
+    private volatile RingBufferEventDispatcher asyncDispatcher;
+    private volatile boolean asyncDispatcherResolved;
+
     private EventBus(App app, boolean once) {
         super(app, true);
         sysEventLookup = initSysEventLookup(app);
@@ -482,10 +496,15 @@ public class EventBus extends AppServiceBase<EventBus> {
         if (null != onceBus) {
             onceBus.releaseResources();
         }
+        if (null != asyncDispatcher) {
+            asyncDispatcher.destroy();
+            asyncDispatcher = null;
+        }
         releaseSysEventListeners(sysEventListeners);
         releaseSysEventListeners(asyncSysEventListeners);
         releaseActEventListeners(actEventListeners);
         releaseActEventListeners(asyncActEventListeners);
+        asyncPools.clear();
         releaseAdhocEventListeners(adhocEventListeners);
         releaseAdhocEventListeners(asyncAdhocEventListeners);
     }
@@ -1160,7 +1179,9 @@ public class EventBus extends AppServiceBase<EventBus> {
             return this;
         }
         List<SysEventListener> list = listeners[sysEventId.ordinal()];
-        addIntoListWithOrder(list, l);
+        if (addIntoListWithOrder(list, l)) {
+            resolveAsyncPool(l);
+        }
         return this;
     }
 
@@ -1175,6 +1196,7 @@ public class EventBus extends AppServiceBase<EventBus> {
             }
         }
         if (addIntoListWithOrder(list, listener)) {
+            resolveAsyncPool(listener);
             if (ttl > 0) {
                 app().jobManager().delay(new Runnable() {
                     @Override
@@ -1274,9 +1296,12 @@ public class EventBus extends AppServiceBase<EventBus> {
             return;
         }
         final Object[] args = key.args;
-        JobManager jobManager = async ? app().jobManager() : null;
+        RingBufferEventDispatcher dispatcher = async ? asyncDispatcher() : null;
+        JobManager jobManager = async && null == dispatcher ? app().jobManager() : null;
         for (final SimpleEventListener listener: list) {
-            if (async) {
+            if (null != dispatcher) {
+                dispatcher.dispatch(listener, args);
+            } else if (async) {
                 jobManager.now(new Runnable() {
                     @Override
                     public void run() {
@@ -1289,6 +1314,41 @@ public class EventBus extends AppServiceBase<EventBus> {
         }
     }
 
+    /**
+     * Returns the ring buffer dispatcher for async listeners or `null` if
+     * async listeners shall be submitted to the job manager.
+     *
+     * The one time event bus always uses the job manager.
+     *
+     * @return the async event dispatcher or `null`
+     */
+    public RingBufferEventDispatcher asyncDispatcher() {
+        if (asyncDispatcherResolved) {
+            return asyncDispatcher;
+        }
+        synchronized (this) {
+            if (!asyncDispatcherResolved) {
+                AppConfig config = app().config();
+                if (!once && config.eventAsyncRingBufferEnabled()) {
+                    final JobManager jobManager = app().jobManager();
+                    asyncDispatcher = new RingBufferEventDispatcher(
+                            config.eventAsyncRingBufferConsumers(),
+                            config.eventAsyncRingBufferSize(),
+                            config.eventAsyncRingBufferWaitStrategy(),
+                            Act.metricPlugin().metric(MetricInfo.EVENT_HANDLER),
+                            new Executor() {
+                                @Override
+                                public void execute(Runnable command) {
+                                    jobManager.now(command);
+                                }
+                            });
+                }
+                asyncDispatcherResolved = true;
+            }
+            return asyncDispatcher;
+        }
+    }
+
     private EventBus _emitWithOnceBus(StringEventContext context) {
         if (isDestroyed()) {
             return this;
@@ -1337,6 +1397,8 @@ public class EventBus extends AppServiceBase<EventBus> {
         if (null != list) {
             list.remove(l);
         }
+        // re-resolved on next dispatch in case it is still bound elsewhere
+        asyncPools.remove(l);
         return this;
     }
 
@@ -1366,7 +1428,10 @@ public class EventBus extends AppServiceBase<EventBus> {
             return;
         }
         JobManager jobManager = null;
+        RingBufferEventDispatcher dispatcher = null;
         if (async) {
+            // sys events are emitted during app bootstrap, keep them on the job manager
+            dispatcher = event instanceof SysEvent ? null : asyncDispatcher();
             jobManager = app().jobManager();
         }
         Set<ActEventListener> toBeRemoved = C.newSet();
@@ -1378,12 +1443,22 @@ public class EventBus extends AppServiceBase<EventBus> {
                         toBeRemoved.add(l);
                     }
                 } else {
-                    jobManager.now(new Runnable() {
+                    String pool = asyncPool(l);
+                    if (null != dispatcher && null == pool) {
+                        dispatcher.dispatch(l, event);
+                        continue;
+                    }
+                    Runnable runnable = new Runnable() {
                         @Override
                         public void run() {
                             callOn(event, l);
                         }
-                    }, event instanceof SysEvent);
+                    };
+                    if (null != pool) {
+                        jobManager.nowIn(pool, runnable);
+                    } else {
+                        jobManager.now(runnable, event instanceof SysEvent);
+                    }
                 }
             }
         } catch (ConcurrentModificationException e) {
@@ -1568,6 +1643,25 @@ public class EventBus extends AppServiceBase<EventBus> {
         return false;
     }
 
+    /**
+     * Returns the job pool specified by `@Async` annotation on the listener class
+     * or `null` if not specified.
+     */
+    private String asyncPool(ActEventListener listener) {
+        String pool = asyncPools.get(listener);
+        if (null == pool) {
+            pool = resolveAsyncPool(listener);
+        }
+        return NO_POOL.equals(pool) ? null : pool;
+    }
+
+    private String resolveAsyncPool(ActEventListener listener) {
+        Async async = listener.getClass().getAnnotation(Async.class);
+        String pool = null == async || S.blank(async.pool()) ? NO_POOL : async.pool();
+        String existing = asyncPools.putIfAbsent(listener, pool);
+        return null == existing ? pool : existing;
+    }
+
     private static boolean _isAsync(Object eventId) {
         return eventId instanceof Class && isAsync((Class) eventId);
     }
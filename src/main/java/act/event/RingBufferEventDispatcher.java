@@ -0,0 +1,477 @@
+package act.event;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.app.AppThreadFactory;
+import act.metric.Metric;
+import act.metric.MetricHandle;
+import act.metric.MetricInfo;
+import act.metric.Timer;
+import act.util.LogSupportedDestroyableBase;
+import act.util.StripedCounter;
+import org.osgl.$;
+import org.osgl.util.E;
+import org.osgl.util.S;
+
+import java.util.EventObject;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Dispatches async event listener calls through pre-allocated ring buffers
+ * instead of submitting one task per listener per event to the job executor.
+ *
+ * The dispatcher runs a fixed number of consumer threads, each of which owns
+ * a ring buffer. A listener is always routed to the same ring, so calls to a
+ * listener happen in the order the events were emitted. Consumers drain every
+ * published slot in one batch before going back to the wait strategy.
+ *
+ * When a ring is full the emitting thread waits until the consumer frees a
+ * slot, for at most {@link #PUBLISH_TIMEOUT_NS}. If the wait times out, or the
+ * emitting thread is the consumer of that ring and thus cannot wait for
+ * itself, the call is handed over to the overflow executor, or run in the
+ * emitting thread if there is none. Such calls are not ordered with the
+ * ones going through the ring.
+ *
+ * @see act.conf.AppConfigKey#EVENT_ASYNC_RING_BUFFER
+ */
+public class RingBufferEventDispatcher extends LogSupportedDestroyableBase {
+
+    /**
+     * Defines how a consumer waits for events when its ring buffer is empty.
+     */
+    public enum WaitStrategy {
+        /**
+         * Spin shortly then park until an event is published. Lowest CPU
+         * usage at the cost of wake up latency.
+         */
+        BLOCKING() {
+            @Override
+            void idle(Ring ring, int round) {
+                if (round < 64) {
+                    return;
+                }
+                ring.sleeping = true;
+                if (!ring.available()) {
+                    LockSupport.parkNanos(ring, PARK_NS);
+                }
+                ring.sleeping = false;
+            }
+        },
+
+        /**
+         * Spin, then yield, then park for a short time without being
+         * signalled by producers.
+         */
+        SLEEPING() {
+            @Override
+            void idle(Ring ring, int round) {
+                if (round < 64) {
+                    return;
+                }
+                if (round < 128) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(100 * 1000);
+                }
+            }
+        },
+
+        /**
+         * Yield the CPU between checks.
+         */
+        YIELDING() {
+            @Override
+            void idle(Ring ring, int round) {
+                Thread.yield();
+            }
+        },
+
+        /**
+         * Busy spin. Lowest latency, burns one CPU per consumer.
+         */
+        BUSY_SPIN() {
+            @Override
+            void idle(Ring ring, int round) {
+            }
+        };
+
+        abstract void idle(Ring ring, int round);
+
+        public static WaitStrategy valueOfIgnoreCase(String s) {
+            return valueOf(s.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    /**
+     * Dispatching statistics.
+     */
+    public static class Stats {
+        private final StripedCounter dispatched = new StripedCounter();
+        private final StripedCounter failed = new StripedCounter();
+        private final StripedCounter overflowed = new StripedCounter();
+        private final StripedCounter waitNs = new StripedCounter();
+        private final AtomicLong maxWaitNs = new AtomicLong();
+
+        public long dispatched() {
+            return dispatched.sum();
+        }
+
+        public long failed() {
+            return failed.sum();
+        }
+
+        /**
+         * Returns the number of calls that did not go through the ring
+         * buffer because it was full.
+         * @return the number of overflowed calls
+         */
+        public long overflowed() {
+            return overflowed.sum();
+        }
+
+        /**
+         * Returns the average time in nanoseconds an event waited in
+         * the ring buffer before its listener was called.
+         * @return the average queue latency in ns
+         */
+        public long avgWaitNs() {
+            long n = dispatched.sum();
+            return 0 == n ? 0 : waitNs.sum() / n;
+        }
+
+        public long maxWaitNs() {
+            return maxWaitNs.get();
+        }
+
+        public void reset() {
+            dispatched.reset();
+            failed.reset();
+            overflowed.reset();
+            waitNs.reset();
+            maxWaitNs.set(0);
+        }
+
+        void onDispatched(long count, long waited, long maxWaited) {
+            dispatched.add(count);
+            waitNs.add(waited);
+            long max = maxWaitNs.get();
+            while (maxWaited > max && !maxWaitNs.compareAndSet(max, maxWaited)) {
+                max = maxWaitNs.get();
+            }
+        }
+    }
+
+    private static final long PARK_NS = 10L * 1000 * 1000;
+
+    /**
+     * The maximum time an emitting thread waits for a slot of a full ring.
+     */
+    public static final long PUBLISH_TIMEOUT_NS = 100L * 1000 * 1000;
+
+    // pad the sequence so that producer and consumer sequences
+    // do not share a cache line
+    @SuppressWarnings("unused")
+    private static final class Sequence extends AtomicLong {
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    private static final class Slot {
+        volatile long seq = -1;
+        Object listener;
+        Object payload;
+        boolean adhoc;
+        long publishedAt;
+    }
+
+    final class Ring implements Runnable {
+        private final Slot[] slots;
+        private final int mask;
+        // the next sequence to be claimed by producers
+        private final Sequence cursor = new Sequence();
+        // the next sequence to be consumed
+        private final Sequence consumed = new Sequence();
+        // last seen value of consumed, saves producers reading
+        // the consumer's cache line on every publish
+        private long gate;
+        volatile boolean sleeping;
+        private Thread thread;
+
+        Ring(int size) {
+            slots = new Slot[size];
+            for (int i = 0; i < size; ++i) {
+                slots[i] = new Slot();
+            }
+            mask = size - 1;
+        }
+
+        boolean available() {
+            long next = consumed.get();
+            return slots[(int) next & mask].seq == next;
+        }
+
+        int depth() {
+            return (int) (cursor.get() - consumed.get());
+        }
+
+        /*
+         * Returns `false` if the ring is full and the caller is the consumer
+         * or the wait for a free slot timed out
+         */
+        boolean publish(Object listener, Object payload, boolean adhoc) {
+            long seq;
+            long deadline = 0;
+            for (;;) {
+                seq = cursor.get();
+                if (seq - gate >= slots.length && seq - (gate = consumed.get()) >= slots.length) {
+                    E.illegalStateIf(!running, "event dispatcher stopped");
+                    if (Thread.currentThread() == thread) {
+                        return false;
+                    }
+                    if (sleeping) {
+                        LockSupport.unpark(thread);
+                    }
+                    long now = $.ns();
+                    if (0 == deadline) {
+                        deadline = now + PUBLISH_TIMEOUT_NS;
+                    } else if (now - deadline > 0) {
+                        return false;
+                    }
+                    Thread.yield();
+                    continue;
+                }
+                if (cursor.compareAndSet(seq, seq + 1)) {
+                    break;
+                }
+            }
+            Slot slot = slots[(int) seq & mask];
+            slot.listener = listener;
+            slot.payload = payload;
+            slot.adhoc = adhoc;
+            slot.publishedAt = $.ns();
+            slot.seq = seq;
+            if (sleeping) {
+                LockSupport.unpark(thread);
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            long next = 0;
+            int round = 0;
+            while (running) {
+                Slot slot = slots[(int) next & mask];
+                if (slot.seq != next) {
+                    waitStrategy.idle(this, round++);
+                    continue;
+                }
+                round = 0;
+                // drain all published slots in one batch
+                long batchStart = next;
+                long waitNs = 0;
+                long maxWaitNs = 0;
+                do {
+                    Object listener = slot.listener;
+                    Object payload = slot.payload;
+                    boolean adhoc = slot.adhoc;
+                    long waited = $.ns() - slot.publishedAt;
+                    slot.listener = null;
+                    slot.payload = null;
+                    consumed.lazySet(++next);
+                    waitNs += waited;
+                    if (waited > maxWaitNs) {
+                        maxWaitNs = waited;
+                    }
+                    dispatch(listener, payload, adhoc);
+                    slot = slots[(int) next & mask];
+                } while (slot.seq == next && running);
+                stats.onDispatched(next - batchStart, waitNs, maxWaitNs);
+            }
+        }
+    }
+
+    private final Ring[] rings;
+    private final WaitStrategy waitStrategy;
+    private final MetricHandle metricHandle;
+    private final Executor overflowExecutor;
+    private final Stats stats = new Stats();
+    private volatile boolean running = true;
+
+    /**
+     * Construct a ring buffer event dispatcher and start its consumer threads.
+     *
+     * @param consumers
+     *      the number of consumer threads
+     * @param ringSize
+     *      the number of slots of each ring buffer, rounded up to power of two
+     * @param waitStrategy
+     *      the strategy consumers use to wait for events
+     * @param metric
+     *      the metric used to time listener calls
+     */
+    public RingBufferEventDispatcher(int consumers, int ringSize, WaitStrategy waitStrategy, Metric metric) {
+        this(consumers, ringSize, waitStrategy, metric, null);
+    }
+
+    /**
+     * Construct a ring buffer event dispatcher and start its consumer threads.
+     *
+     * @param consumers
+     *      the number of consumer threads
+     * @param ringSize
+     *      the number of slots of each ring buffer, rounded up to power of two
+     * @param waitStrategy
+     *      the strategy consumers use to wait for events
+     * @param metric
+     *      the metric used to time listener calls
+     * @param overflowExecutor
+     *      runs listener calls that cannot be published to a full ring,
+     *      `null` to run them in the emitting thread
+     */
+    public RingBufferEventDispatcher(int consumers, int ringSize, WaitStrategy waitStrategy, Metric metric, Executor overflowExecutor) {
+        E.illegalArgumentIf(consumers < 1, "consumers must be positive integer");
+        E.illegalArgumentIf(ringSize < 2, "ring size must be greater than 1");
+        this.waitStrategy = $.requireNotNull(waitStrategy);
+        this.metricHandle = Metric.Util.handle(metric, S.concat(MetricInfo.EVENT_HANDLER, Metric.PATH_SEPARATOR, "async"));
+        this.overflowExecutor = overflowExecutor;
+        int size = Integer.highestOneBit(ringSize - 1) << 1;
+        AppThreadFactory threadFactory = new AppThreadFactory("event", true);
+        rings = new Ring[consumers];
+        for (int i = 0; i < consumers; ++i) {
+            Ring ring = new Ring(size);
+            ring.thread = threadFactory.newThread(ring);
+            rings[i] = ring;
+        }
+        for (Ring ring : rings) {
+            ring.thread.start();
+        }
+    }
+
+    /**
+     * Schedule an {@link ActEventListener} call.
+     *
+     * @param listener
+     *      the listener
+     * @param event
+     *      the event
+     */
+    public void dispatch(ActEventListener listener, EventObject event) {
+        publish(listener, event, false);
+    }
+
+    /**
+     * Schedule an {@link SimpleEventListener} call.
+     *
+     * @param listener
+     *      the listener
+     * @param args
+     *      the arguments to call the listener
+     */
+    public void dispatch(SimpleEventListener listener, Object[] args) {
+        publish(listener, args, true);
+    }
+
+    /**
+     * Returns the number of events published since the dispatcher started.
+     * @return the number of published events
+     */
+    public long published() {
+        long published = 0;
+        for (Ring ring : rings) {
+            published += ring.cursor.get();
+        }
+        return published;
+    }
+
+    /**
+     * Returns the number of events waiting in all ring buffers.
+     * @return the queue depth
+     */
+    public int depth() {
+        int depth = 0;
+        for (Ring ring : rings) {
+            depth += ring.depth();
+        }
+        return depth;
+    }
+
+    public Stats stats() {
+        return stats;
+    }
+
+    @Override
+    protected void releaseResources() {
+        running = false;
+        for (Ring ring : rings) {
+            LockSupport.unpark(ring.thread);
+        }
+    }
+
+    private void publish(final Object listener, final Object payload, final boolean adhoc) {
+        if (ringOf(listener).publish(listener, payload, adhoc)) {
+            return;
+        }
+        stats.overflowed.increment();
+        if (null != overflowExecutor) {
+            try {
+                overflowExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        dispatch(listener, payload, adhoc);
+                    }
+                });
+                return;
+            } catch (RejectedExecutionException e) {
+                // fall through to run it in the emitting thread
+            }
+        }
+        dispatch(listener, payload, adhoc);
+    }
+
+    private Ring ringOf(Object listener) {
+        int h = System.identityHashCode(listener);
+        h ^= (h >>> 16);
+        return rings[(h & 0x7FFFFFFF) % rings.length];
+    }
+
+    @SuppressWarnings("unchecked")
+    private void dispatch(Object listener, Object payload, boolean adhoc) {
+        Timer timer = metricHandle.startTimer();
+        try {
+            if (adhoc) {
+                ((SimpleEventListener) listener).invoke((Object[]) payload);
+            } else if (listener instanceof OnceEventListener) {
+                ((OnceEventListener) listener).tryHandle((EventObject) payload);
+            } else {
+                ((ActEventListener) listener).on((EventObject) payload);
+            }
+        } catch (Throwable e) {
+            stats.failed.increment();
+            error(e, "error calling async event listener: %s", listener);
+        } finally {
+            timer.stop();
+        }
+    }
+
+}
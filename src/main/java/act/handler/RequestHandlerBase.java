@@ -21,12 +21,16 @@ package act.handler;
  */
 
 import act.app.ActionContext;
+import act.metric.Metric;
+import act.metric.MetricHandle;
+import act.metric.MetricInfo;
 import act.security.CORS;
 import act.security.CSRF;
 import org.osgl.$;
 import org.osgl.exception.NotAppliedException;
 import org.osgl.logging.LogManager;
 import org.osgl.logging.Logger;
+import org.osgl.util.S;
 
 import java.lang.annotation.Annotation;
 import javax.enterprise.context.ApplicationScoped;
@@ -39,6 +43,7 @@ public abstract class RequestHandlerBase extends $.F1<ActionContext, Void> imple
     private boolean sessionFree;
     private boolean requireContextResolving;
     private boolean express;
+    private volatile CachedMetricHandle metricHandle;
 
     public RequestHandlerBase() {
         this.express = this instanceof ExpressHandler;
@@ -94,6 +99,37 @@ public abstract class RequestHandlerBase extends $.F1<ActionContext, Void> imple
         return this;
     }
 
+    /**
+     * Returns the {@link MetricHandle} of this handler with the metric specified.
+     *
+     * The handle is resolved once and cached by the handler along with
+     * the metric, it is resolved again if called with another metric.
+     *
+     * @param metric the metric
+     * @return the metric handle of this request handler
+     */
+    public MetricHandle metricHandle(Metric metric) {
+        if (Metric.NULL_METRIC == metric) {
+            return Metric.Util.handle(metric, MetricInfo.HTTP_HANDLER);
+        }
+        CachedMetricHandle cached = this.metricHandle;
+        if (null == cached || cached.metric != metric) {
+            cached = new CachedMetricHandle(metric, Metric.Util.handle(metric, S.concat(MetricInfo.HTTP_HANDLER, Metric.PATH_SEPARATOR, toString())));
+            this.metricHandle = cached;
+        }
+        return cached.handle;
+    }
+
+    private static final class CachedMetricHandle {
+        final Metric metric;
+        final MetricHandle handle;
+
+        CachedMetricHandle(Metric metric, MetricHandle handle) {
+            this.metric = metric;
+            this.handle = handle;
+        }
+    }
+
     public RequestHandler realHandler() {
         return this;
     }
@@ -0,0 +1,42 @@
+package act.handler;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Mark an action handler method to receive multipart uploads as a
+ * {@link act.data.StreamingMultipart} instead of having every part
+ * stored with the upload storage service before the handler is called.
+ *
+ * The request body is not parsed into parameters, thus the handler shall
+ * not bind form fields or uploads as parameters. Interceptors shall not
+ * read body parameters either, as that consumes the request body.
+ *
+ * @see act.data.StreamingMultipart
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface StreamUpload {
+}
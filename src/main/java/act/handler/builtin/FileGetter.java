@@ -20,22 +20,33 @@ package act.handler.builtin;
  * #L%
  */
 
+import act.Act;
 import act.ActResponse;
 import act.app.ActionContext;
 import act.app.App;
 import act.controller.ParamNames;
 import act.handler.builtin.controller.FastRequestHandler;
+import act.util.ByteRange;
+import act.xio.ResponseCompression;
 import org.osgl.$;
 import org.osgl.http.H;
 import org.osgl.util.FastStr;
 import org.osgl.util.S;
 
 import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
 
 public class FileGetter extends FastRequestHandler {
 
     private File base;
     private FastRequestHandler delegate;
+    private volatile StaticResourceCache cache;
 
     public FileGetter(String base, App app) {
         this(app.file(base));
@@ -96,7 +107,128 @@ public class FileGetter extends FastRequestHandler {
         fmt = contentType(file.getPath());
         resp.contentType(fmt);
         context.applyCorsSpec().applyContentSecurityPolicy().applyContentType();
-        resp.send(file);
+        // byte ranges refer to the identity encoding, see `send(...)`
+        if (context.config().resourcePrecompressed() && null == context.req().header(H.Header.Names.RANGE)) {
+            file = precompressed(file, context, resp);
+        }
+        StaticResourceCache.Entry entry = Act.isProd() ? cachedEntry(file, fmt, context) : null;
+        send(file, entry, null, context, resp);
+    }
+
+    private StaticResourceCache.Entry cachedEntry(File file, H.Format fmt, ActionContext context) {
+        if (null == cache) {
+            cache = context.app().getInstance(StaticResourceCache.class);
+        }
+        String key = file.getAbsolutePath();
+        StaticResourceCache.Entry entry = cache.get(key);
+        if (null == entry) {
+            try {
+                // files might be changed after cached, thus validate them on each hit
+                entry = cache.load(key, file, fmt, true);
+            } catch (IOException e) {
+                logger.warn(e, "Error loading file: %s", file);
+            }
+        }
+        return entry;
+    }
+
+    static void send(File file, String etag, ActionContext context, ActResponse resp) {
+        send(file, null, etag, context, resp);
+    }
+
+    /*
+     * Send the file, or the byte ranges of the file requested with the `Range`
+     * header. Ranges are ignored if the `If-Range` precondition fails or if the
+     * response is encoded with a precompressed variant. The whole file is sent
+     * from the cache entry if there is one.
+     */
+    static void send(File file, StaticResourceCache.Entry entry, String etag, ActionContext context, ActResponse resp) {
+        if (resp.containsHeader(H.Header.Names.CONTENT_ENCODING)) {
+            sendAll(file, entry, resp);
+            return;
+        }
+        H.Request req = context.req();
+        String range = req.header(H.Header.Names.RANGE);
+        resp.header(H.Header.Names.ACCEPT_RANGES, "bytes");
+        if (null == etag) {
+            // the validator of `If-Range` when there is no entity tag
+            resp.header(H.Header.Names.LAST_MODIFIED, httpDateFormat().format(new Date(file.lastModified())));
+        }
+        if (null == range || !ifRange(req.header(H.Header.Names.IF_RANGE), etag, file)) {
+            sendAll(file, entry, resp);
+            return;
+        }
+        long len = file.length();
+        List<ByteRange> ranges = ByteRange.parse(range, len);
+        if (null == ranges) {
+            sendAll(file, entry, resp);
+        } else if (ranges.isEmpty()) {
+            resp.status(H.Status.RANGE_NOT_SATISFIABLE);
+            resp.header(H.Header.Names.CONTENT_RANGE, "bytes */" + len);
+            resp.writeContent("");
+        } else {
+            resp.send(file, ranges);
+        }
+    }
+
+    private static void sendAll(File file, StaticResourceCache.Entry entry, ActResponse resp) {
+        if (null == entry) {
+            resp.send(file);
+        } else {
+            resp.writeContent(entry.content());
+        }
+    }
+
+    /*
+     * Check the `If-Range` precondition. It is satisfied with the entity tag
+     * of the resource or with a date equal to the file modification time.
+     */
+    private static boolean ifRange(String ifRange, String etag, File file) {
+        if (null == ifRange) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (null != etag && (ifRange.equals(etag) || ifRange.equals("\"" + etag + "\""))) {
+            return true;
+        }
+        try {
+            // HTTP dates have a precision of seconds
+            return httpDateFormat().parse(ifRange).getTime() / 1000 == file.lastModified() / 1000;
+        } catch (ParseException e) {
+            return false;
+        }
+    }
+
+    private static SimpleDateFormat httpDateFormat() {
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return format;
+    }
+
+    private static File precompressed(File file, ActionContext context, ActResponse resp) {
+        String acceptEncoding = context.req().header(H.Header.Names.ACCEPT_ENCODING);
+        if (null == acceptEncoding) {
+            return file;
+        }
+        if (ResponseCompression.accepts(acceptEncoding, ResponseCompression.BROTLI)) {
+            File br = new File(file.getPath() + ".br");
+            if (br.isFile() && br.canRead()) {
+                return encoded(br, ResponseCompression.BROTLI, resp);
+            }
+        }
+        if (ResponseCompression.accepts(acceptEncoding, ResponseCompression.GZIP)) {
+            File gz = new File(file.getPath() + ".gz");
+            if (gz.isFile() && gz.canRead()) {
+                return encoded(gz, ResponseCompression.GZIP, resp);
+            }
+        }
+        return file;
+    }
+
+    private static File encoded(File file, String encoding, ActResponse resp) {
+        resp.header(H.Header.Names.CONTENT_ENCODING, encoding);
+        resp.header(H.Header.Names.VARY, H.Header.Names.ACCEPT_ENCODING);
+        return file;
     }
 
     // for unit test
@@ -21,7 +21,7 @@ package act.handler.builtin;
  */
 
 import static org.osgl.http.H.Format.*;
-import static org.osgl.http.H.Header.Names.CACHE_CONTROL;
+import static org.osgl.http.H.Header.Names.*;
 
 import act.Act;
 import act.ActResponse;
@@ -32,6 +32,7 @@ import act.conf.AppConfig;
 import act.controller.ParamNames;
 import act.handler.RequestHandler;
 import act.handler.builtin.controller.FastRequestHandler;
+import act.xio.ResponseCompression;
 import org.osgl.$;
 import org.osgl.http.H;
 import org.osgl.mvc.result.NotFound;
@@ -52,6 +53,8 @@ public class ResourceGetter extends FastRequestHandler {
 
     private static final char SEP = '/';
 
+    private static final String[] ENCODINGS = {ResponseCompression.BROTLI, ResponseCompression.GZIP};
+
     private FastRequestHandler delegate;
 
     private App app;
@@ -67,18 +70,16 @@ public class ResourceGetter extends FastRequestHandler {
     private volatile RequestHandler indexHandler;
     private ConcurrentMap<String, RequestHandler> subFolderIndexHandlers = new ConcurrentHashMap<>();
 
-    private Set<URL> folders = new HashSet<>();
-    private Map<String, String> etags = new HashMap<>();
-    private Map<String, ByteBuffer> cachedBuffers = new HashMap<>();
-    private Map<String, H.Format> cachedContentType = new HashMap<>();
-    private Map<String, Boolean> cachedFailures = new HashMap<>();
-    private Set<String> largeResource = new HashSet<>();
+    private StaticResourceCache cache;
+    // etags of resources that are served without being cached
+    private ConcurrentMap<String, String> largeResources = new ConcurrentHashMap<>();
 
     public ResourceGetter(String base) {
         E.illegalArgumentIf(S.blank(base), "empty resource string encountered");
         String path = base.charAt(0) == SEP ? base.substring(1) : base;
         this.base = path;
         this.app = Act.app();
+        this.cache = app.getInstance(StaticResourceCache.class);
         this.baseUrl = app.getResource(path);
         this.delegate = verifyBase(this.baseUrl, base);
         if (null == delegate) {
@@ -105,10 +106,11 @@ public class ResourceGetter extends FastRequestHandler {
             return true;
         }
         String path = context.paramVal(ParamNames.PATH);
+        String key = cacheKey(path);
         return Act.isProd() &&
-                (cachedBuffers.containsKey(path)
-                        || cachedFailures.containsKey(path)
-                        || (null != context.req().etag() && context.req().etagMatches(etags.get(path))));
+                (cache.contains(key)
+                        || cache.isMissing(key)
+                        || (null != context.req().etag() && context.req().etagMatches(largeResources.get(path))));
     }
 
     /**
@@ -153,47 +155,40 @@ public class ResourceGetter extends FastRequestHandler {
                         resp.header(CACHE_CONTROL, "max-age=86400").etag(this.etag);
                         AlwaysNotModified.INSTANCE.handle(context);
                     } else {
-                        H.Format contentType = cachedContentType.get(path);
-                        if (null == contentType) {
-                            contentType = req.contentType();
-                        }
                         resp
-                                .contentType(contentType)
                                 .header(CACHE_CONTROL, "max-age=86400")
-                                .etag(this.etag)
-                                .writeContent(buffer.duplicate());
+                                .etag(this.etag);
+                        writeContent(buffer, base, preloadedContentType, context);
                     }
                 }
                 return;
             }
 
-            if (cachedFailures.containsKey(path)) {
+            String key = cacheKey(path);
+            if (cache.isMissing(key)) {
                 AlwaysNotFound.INSTANCE.handle(context);
                 return;
             }
 
+            StaticResourceCache.Entry entry = cache.get(key);
             final String reqEtag = req.etag();
-            if (null != reqEtag && req.etagMatches(etags.get(path))) {
-                H.Format contentType = cachedContentType.get(path);
-                if (null == contentType) {
-                    contentType = req.contentType();
-                }
+            if (null != reqEtag && req.etagMatches(null == entry ? largeResources.get(path) : entry.etag())) {
+                H.Format contentType = null == entry ? req.contentType() : entry.contentType();
                 // still need to generates the headers
                 // see https://stackoverflow.com/questions/1587667/should-http-304-not-modified-responses-contain-cache-control-headers
                 resp.contentType(contentType).header(CACHE_CONTROL, "max-age=86400").etag(reqEtag);
                 AlwaysNotModified.INSTANCE.handle(context);
                 return;
             }
-        }
-        ByteBuffer buffer = cachedBuffers.get(path);
-        if (null != buffer) {
-            context.resp()
-                    .contentType(cachedContentType.get(path))
-                    .commitContentType()
-                    .header(CACHE_CONTROL, "public, max-age=7200")
-                    .etag(etags.get(path))
-                    .writeContent(buffer.duplicate());
-            return;
+            if (null != entry) {
+                resp
+                        .contentType(entry.contentType())
+                        .commitContentType()
+                        .header(CACHE_CONTROL, "public, max-age=7200")
+                        .etag(entry.etag());
+                writeContent(entry, key, context);
+                return;
+            }
         }
         try {
             URL target;
@@ -218,6 +213,9 @@ public class ResourceGetter extends FastRequestHandler {
                 loadPath = S.pathConcat(base, SEP, path);
                 target = app.getResource(loadPath);
                 if (null == target) {
+                    if (isProd) {
+                        cache.markMissing(loadPath);
+                    }
                     throw NotFound.get();
                 }
             }
@@ -225,22 +223,13 @@ public class ResourceGetter extends FastRequestHandler {
                 return;
             }
             ActResponse resp = context.prepareRespForResultEvaluation();
-            H.Format contentType;
-            if (isProd) {
-                contentType = cachedContentType.get(path);
-                if (null == contentType) {
-                    contentType = FileGetter.contentType(target.getPath());
-                    cachedContentType.put(path, contentType);
-                }
-            } else {
-                contentType = FileGetter.contentType(target.getPath());
-            }
+            H.Format contentType = FileGetter.contentType(target.getPath());
             resp.contentType(contentType).commitContentType();
+            String largeResourceEtag = largeResources.get(path);
             if (isProd) {
                 resp.header(CACHE_CONTROL, "max-age=86400");
-                String etag = etags.get(path);
-                if (null != etag) {
-                    resp.etag(etag);
+                if (null != largeResourceEtag) {
+                    resp.etag(largeResourceEtag);
                 }
             }
             context.applyCorsSpec().applyContentSecurityPolicy().applyContentType();
@@ -248,50 +237,41 @@ public class ResourceGetter extends FastRequestHandler {
             boolean isFile = "file".equals(target.getProtocol());
             if (isFile) {
                 File file = new File(target.getPath());
-                long len = file.length();
-                if (Act.isProd()) {
-                    etags.put(path, String.valueOf(len));
-                }
-                if (Act.isProd()) {
-                    boolean smallResource = len < config.resourcePreloadSizeLimit();
-                    if (smallResource) {
-                        $.Var<String> etagBag = $.var();
-                        buffer = doPreload(target, etagBag);
-                        if (null == buffer) {
-                            cachedFailures.put(path, true);
-                            return;
-                        }
-                        cachedBuffers.put(path, buffer);
-                        resp.writeContent(buffer.duplicate());
+                if (isProd) {
+                    StaticResourceCache.Entry entry;
+                    try {
+                        entry = cache.load(loadPath, file, contentType, false);
+                    } catch (IOException e) {
+                        cache.markMissing(loadPath);
+                        throw e;
+                    }
+                    if (null != entry) {
+                        resp.etag(entry.etag());
+                        writeContent(entry, loadPath, context);
                         return;
                     }
+                    largeResourceEtag = String.valueOf(file.length());
+                    largeResources.put(path, largeResourceEtag);
                 }
-                resp.send(file);
-            } else if (largeResource.contains(path)) {
+                FileGetter.send(file, largeResourceEtag, context, resp);
+            } else if (null != largeResourceEtag) {
                 resp.send(target);
             } else {
                 try {
                     int n = IO.copy(target.openStream(), resp.outputStream());
                     boolean smallResource = n < config.resourcePreloadSizeLimit();
                     if (!smallResource) {
-                        largeResource.add(path);
-                    }
-                    if (Act.isProd()) {
-                        etags.put(path, String.valueOf(n));
-                        if (smallResource) {
-                            $.Var<String> etagBag = $.var();
-                            buffer = doPreload(target, etagBag);
-                            if (null == buffer) {
-                                cachedFailures.put(path, true);
-                            } else {
-                                cachedBuffers.put(path, buffer);
-                                cachedContentType.put(path, contentType);
-                            }
+                        largeResources.put(path, String.valueOf(n));
+                    } else if (isProd) {
+                        try {
+                            cache.load(loadPath, target, contentType);
+                        } catch (IOException e) {
+                            logger.warn(e, "Error loading resource: %s", loadPath);
+                            cache.markMissing(loadPath);
                         }
                     }
                 } catch (NullPointerException e) {
                     // this is caused by accessing folder inside jar URL
-                    folders.add(target);
                     AlwaysForbidden.INSTANCE.handle(context);
                 }
             }
@@ -301,6 +281,83 @@ public class ResourceGetter extends FastRequestHandler {
         }
     }
 
+    /*
+     * Write the cached resource buffer, or an encoded variant of it when the
+     * client accepts one. The encoded variant is loaded from the precompressed
+     * sibling resource, e.g. `app.js.br`, `app.js.gz`, or gzipped once with
+     * the response compression setting and cached along with the buffer.
+     */
+    private void writeContent(StaticResourceCache.Entry entry, String loadPath, ActionContext context) {
+        File file = entry.file();
+        if (null != file && null != context.req().header(RANGE)) {
+            FileGetter.send(file, entry.etag(), context, context.resp());
+            return;
+        }
+        if (null != file) {
+            context.resp().header(ACCEPT_RANGES, "bytes");
+        }
+        writeContent(entry.content(), loadPath, entry.contentType(), context);
+    }
+
+    private void writeContent(ByteBuffer buffer, String loadPath, H.Format contentType, ActionContext context) {
+        ActResponse resp = context.resp();
+        String acceptEncoding = context.req().header(ACCEPT_ENCODING);
+        if (null != acceptEncoding) {
+            for (String encoding : ENCODINGS) {
+                if (!ResponseCompression.accepts(acceptEncoding, encoding)) {
+                    continue;
+                }
+                StaticResourceCache.Entry encoded = encodedBuffer(encoding, buffer, loadPath, contentType, context.config());
+                if (null != encoded) {
+                    resp.header(CONTENT_ENCODING, encoding).header(VARY, ACCEPT_ENCODING);
+                    resp.writeContent(encoded.content());
+                    return;
+                }
+            }
+        }
+        resp.writeContent(buffer.duplicate());
+    }
+
+    private StaticResourceCache.Entry encodedBuffer(String encoding, ByteBuffer buffer, String loadPath, H.Format contentType, AppConfig config) {
+        String key = S.concat(encoding, ":", loadPath);
+        StaticResourceCache.Entry encoded = cache.get(key);
+        if (null == encoded && !cache.isMissing(key)) {
+            byte[] ba = loadEncoded(encoding, buffer, loadPath, contentType, config);
+            if (null == ba) {
+                cache.markMissing(key);
+            } else {
+                encoded = cache.put(key, ba, null, contentType);
+            }
+        }
+        return encoded;
+    }
+
+    private byte[] loadEncoded(String encoding, ByteBuffer buffer, String loadPath, H.Format contentType, AppConfig config) {
+        if (config.resourcePrecompressed()) {
+            String ext = ResponseCompression.BROTLI.equals(encoding) ? ".br" : ".gz";
+            URL url = app.getResource(loadPath + ext);
+            if (null != url) {
+                try {
+                    return IO.readContent(url.openStream());
+                } catch (IOException e) {
+                    logger.warn(e, "Error loading precompressed resource: %s%s", loadPath, ext);
+                }
+            }
+        }
+        ResponseCompression compression = config.responseCompression();
+        if (ResponseCompression.GZIP.equals(encoding)
+                && null != compression
+                && null != contentType
+                && buffer.remaining() >= compression.minSize()
+                && compression.compressible(contentType.contentType())) {
+            ByteBuffer encoded = compression.compress(buffer.duplicate(), encoding);
+            byte[] ba = new byte[encoded.remaining()];
+            encoded.get(ba);
+            return ba;
+        }
+        return null;
+    }
+
     private boolean preventFolderAccess(URL target, String path, ActionContext context) {
         RequestHandler folderHandler = subFolderIndexHandlers.get(path);
         if (null != folderHandler) {
@@ -373,9 +430,8 @@ public class ResourceGetter extends FastRequestHandler {
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
             IO.copy(target.openStream(), baos);
             byte[] ba = baos.toByteArray();
-            buffer = ByteBuffer.wrap(ba);
             etagBag.set(String.valueOf(Arrays.hashCode(ba)));
-            return buffer;
+            return ByteBuffer.wrap(ba);
         } catch (IOException e) {
             Act.LOGGER.warn(e, "Error loading resource: %s", baseUrl.getPath());
         }
@@ -393,6 +449,10 @@ public class ResourceGetter extends FastRequestHandler {
         return false;
     }
 
+    private String cacheKey(String path) {
+        return S.blank(path) ? base : S.pathConcat(base, SEP, path);
+    }
+
     @Override
     public boolean supportPartialPath() {
         return isFolder;
@@ -0,0 +1,433 @@
+package act.handler.builtin;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.cli.Command;
+import act.conf.AppConfig;
+import act.util.LogSupportedDestroyableBase;
+import com.alibaba.fastjson.JSONObject;
+import org.osgl.http.H;
+import org.osgl.util.IO;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * The static asset cache shared by {@link ResourceGetter}, {@link FixedResourceGetter}
+ * and {@link FileGetter}.
+ *
+ * Small resources are kept in read-only direct buffers within a byte budget
+ * and are evicted with the CLOCK algorithm, an approximation of LRU that does
+ * not need a lock on cache hit: entries hit since the clock hand last passed
+ * get a second chance, the others are evicted in insertion order. Large files
+ * are not cached, they are sent from disk with `sendfile`.
+ *
+ * Paths of missing resources are remembered up to a limit, after which the oldest
+ * ones are forgotten.
+ */
+@Singleton
+public class StaticResourceCache extends LogSupportedDestroyableBase {
+
+    /**
+     * A cached resource
+     */
+    public static final class Entry {
+        private final String key;
+        private final ByteBuffer buffer;
+        private final String etag;
+        private final H.Format contentType;
+        private final File file;
+        private final long lastModified;
+        private final boolean validate;
+        // the CLOCK reference bit
+        private volatile boolean referenced;
+
+        private Entry(String key, ByteBuffer buffer, String etag, H.Format contentType, File file, boolean validate) {
+            this.key = key;
+            this.buffer = buffer.asReadOnlyBuffer();
+            this.etag = etag;
+            this.contentType = contentType;
+            this.file = file;
+            this.lastModified = null == file ? 0 : file.lastModified();
+            this.validate = validate;
+        }
+
+        /**
+         * @return a read-only view of the content that can be written to the response
+         */
+        public ByteBuffer content() {
+            return buffer.duplicate();
+        }
+
+        public long size() {
+            return buffer.capacity();
+        }
+
+        public String etag() {
+            return etag;
+        }
+
+        public H.Format contentType() {
+            return contentType;
+        }
+
+        /**
+         * @return the file of the resource or `null` if the resource is not a file
+         */
+        public File file() {
+            return file;
+        }
+
+        private boolean isStale() {
+            return validate && (file.lastModified() != lastModified || file.length() != buffer.capacity());
+        }
+    }
+
+    /*
+     * The CLOCK ring of entries sharing a byte budget, the hand is the head
+     */
+    private final class Clock {
+        private final long capacity;
+        private final ArrayDeque<Entry> ring = new ArrayDeque<>();
+        private long size;
+
+        Clock(long capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized void add(Entry entry) {
+            ring.addLast(entry);
+            size += entry.size();
+            while (size > capacity) {
+                Entry head = ring.pollFirst();
+                if (head.referenced) {
+                    head.referenced = false;
+                    ring.addLast(head);
+                } else {
+                    size -= head.size();
+                    entries.remove(head.key, head);
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+
+        synchronized void remove(Entry entry) {
+            if (ring.remove(entry)) {
+                size -= entry.size();
+            }
+        }
+
+        synchronized long size() {
+            return size;
+        }
+
+        synchronized int count() {
+            return ring.size();
+        }
+
+        synchronized void clear() {
+            ring.clear();
+            size = 0;
+        }
+    }
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Clock direct;
+    private final int smallResourceLimit;
+
+    private final int negativeLimit;
+    private final ConcurrentMap<String, Boolean> missing = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> missingOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger missingCount = new AtomicInteger();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+
+    @Inject
+    public StaticResourceCache(AppConfig config) {
+        this(config.resourceCacheSizeLimit(), config.resourcePreloadSizeLimit(), config.resourceCacheNegativeLimit());
+    }
+
+    /**
+     * Construct a static resource cache.
+     *
+     * @param sizeLimit
+     *      the byte budget of direct buffers
+     * @param smallResourceLimit
+     *      files smaller than this are loaded into direct buffers, the others are not cached
+     * @param negativeLimit
+     *      the maximum number of missing resource paths remembered
+     */
+    public StaticResourceCache(long sizeLimit, int smallResourceLimit, int negativeLimit) {
+        this.direct = new Clock(sizeLimit);
+        this.smallResourceLimit = smallResourceLimit;
+        this.negativeLimit = negativeLimit;
+    }
+
+    @Override
+    protected void releaseResources() {
+        clear();
+    }
+
+    /**
+     * Returns the cached resource.
+     *
+     * An entry of a file that has been modified since it was cached is
+     * evicted and `null` is returned.
+     *
+     * @param key
+     *      the resource key
+     * @return the entry or `null` if not cached
+     */
+    public Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (null != entry && entry.isStale()) {
+            invalidate(entry);
+            entry = null;
+        }
+        if (null == entry) {
+            misses.incrementAndGet();
+            return null;
+        }
+        entry.referenced = true;
+        hits.incrementAndGet();
+        bytesServed.addAndGet(entry.size());
+        return entry;
+    }
+
+    /**
+     * Check if a resource is cached without affecting metrics and eviction.
+     *
+     * @param key
+     *      the resource key
+     * @return `true` if the resource is cached
+     */
+    public boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Load a file and cache it.
+     *
+     * @param key
+     *      the resource key
+     * @param file
+     *      the file
+     * @param contentType
+     *      the content type of the file
+     * @param validate
+     *      whether to check the file modification on each hit
+     * @return the entry or `null` if the file is too large to be cached,
+     *      in which case it shall be sent from disk
+     * @throws IOException
+     *      if the file cannot be read
+     */
+    public Entry load(String key, File file, H.Format contentType, boolean validate) throws IOException {
+        if (file.length() >= smallResourceLimit) {
+            return null;
+        }
+        byte[] ba = Files.readAllBytes(file.toPath());
+        return admit(new Entry(key, toDirect(ba), etag(ba), contentType, file, validate));
+    }
+
+    /**
+     * Load a resource that is not a file, e.g. a resource inside a jar, and cache it.
+     *
+     * @param key
+     *      the resource key
+     * @param url
+     *      the resource URL
+     * @param contentType
+     *      the content type of the resource
+     * @return the entry
+     * @throws IOException
+     *      if the resource cannot be read
+     */
+    public Entry load(String key, URL url, H.Format contentType) throws IOException {
+        byte[] ba;
+        try (InputStream is = url.openStream()) {
+            ba = IO.readContent(is);
+        }
+        return put(key, ba, etag(ba), contentType);
+    }
+
+    /**
+     * Cache content, e.g. an encoded variant of a resource.
+     *
+     * @param key
+     *      the resource key
+     * @param content
+     *      the content
+     * @param etag
+     *      the entity tag of the content
+     * @param contentType
+     *      the content type
+     * @return the entry
+     */
+    public Entry put(String key, byte[] content, String etag, H.Format contentType) {
+        return admit(new Entry(key, toDirect(content), etag, contentType, null, false));
+    }
+
+    public void invalidate(String key) {
+        Entry entry = entries.get(key);
+        if (null != entry) {
+            invalidate(entry);
+        }
+    }
+
+    /**
+     * Check if a resource is known to be missing.
+     *
+     * @param key
+     *      the resource key
+     * @return `true` if the resource has been marked as missing
+     */
+    public boolean isMissing(String key) {
+        if (missing.containsKey(key)) {
+            negativeHits.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remember a resource is missing.
+     *
+     * @param key
+     *      the resource key
+     */
+    public void markMissing(String key) {
+        if (negativeLimit <= 0 || null != missing.putIfAbsent(key, Boolean.TRUE)) {
+            return;
+        }
+        missingOrder.offer(key);
+        if (missingCount.incrementAndGet() > negativeLimit) {
+            String eldest = missingOrder.poll();
+            if (null != eldest && null != missing.remove(eldest)) {
+                missingCount.decrementAndGet();
+            }
+        }
+    }
+
+    public void clear() {
+        direct.clear();
+        entries.clear();
+        missing.clear();
+        missingOrder.clear();
+        missingCount.set(0);
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public long evictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * @return the number of bytes in direct buffers
+     */
+    public long size() {
+        return direct.size();
+    }
+
+    /**
+     * Returns the status of the cache, including hit, miss, eviction counts and sizes.
+     *
+     * @return the cache status
+     */
+    public JSONObject status() {
+        JSONObject json = new JSONObject();
+        json.put("# of hits", hits.get());
+        json.put("# of misses", misses.get());
+        json.put("# of negative hits", negativeHits.get());
+        json.put("# of evictions", evictions.get());
+        json.put("bytes served", bytesServed.get());
+        json.put("# of buffers", direct.count());
+        json.put("buffer bytes", direct.size());
+        json.put("buffer bytes limit", direct.capacity);
+        json.put("# of missing paths", missingCount.get());
+        return json;
+    }
+
+    @Command(value = "act.resource.cache", help = "Show static resource cache status")
+    public String getStatus() {
+        return status().toJSONString();
+    }
+
+    @Command(value = "act.resource.cache.clear", help = "Clear static resource cache")
+    public String clearCache() {
+        clear();
+        return "static resource cache cleared";
+    }
+
+    private Entry admit(Entry entry) {
+        // an entry taking more than half of the budget would flush everything else
+        if (entry.size() > direct.capacity / 2) {
+            return entry;
+        }
+        Entry existing = entries.putIfAbsent(entry.key, entry);
+        if (null != existing) {
+            return existing;
+        }
+        direct.add(entry);
+        return entry;
+    }
+
+    private void invalidate(Entry entry) {
+        if (entries.remove(entry.key, entry)) {
+            direct.remove(entry);
+        }
+    }
+
+    private static ByteBuffer toDirect(byte[] ba) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(ba.length);
+        buffer.put(ba);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static String etag(byte[] ba) {
+        return String.valueOf(Arrays.hashCode(ba));
+    }
+
+}
@@ -22,6 +22,7 @@ package act.handler.builtin.controller;
 
 import act.app.ActionContext;
 import act.controller.CacheSupportMetaInfo;
+import act.handler.builtin.controller.impl.ReflectedHandlerInvoker;
 import act.security.CORS;
 import act.security.CSRF;
 import act.util.MissingAuthenticationHandler;
@@ -105,6 +106,10 @@ public class ControllerAction extends ActionHandler<ControllerAction> {
         return handlerInvoker.express();
     }
 
+    public boolean virtualThread() {
+        return handlerInvoker instanceof ReflectedHandlerInvoker && ((ReflectedHandlerInvoker) handlerInvoker).virtualThread();
+    }
+
     @Override
     public boolean skipEvents() {
         return handlerInvoker.skipEvents();
@@ -52,6 +52,8 @@ import org.osgl.util.S;
 
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -84,7 +86,19 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
     private String actionMethodName;
     private String actionPath;
     private Method actionMethod;
-    private Set<String> cacheKeys = new HashSet<>();
+    // tracks cache keys for cache reset, bounded by `cacheFor.key_index.limit`
+    private Set<String> cacheKeys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private int cacheKeyIndexLimit;
+    private volatile boolean cacheKeyIndexOverflow;
+    // once the cache key index overflowed, cache reset is done by bumping
+    // the generation which is appended to the cache key
+    private AtomicInteger cacheGeneration = new AtomicInteger();
+    // in-flight computations when `@CacheFor(singleFlight = true)`
+    private ConcurrentMap<String, CountDownLatch> cacheFlights = new ConcurrentHashMap<>();
+    // cache keys being refreshed by background jobs, see `@CacheFor(staleWhileRevalidate)`
+    private Set<String> cacheRevalidations = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private String cacheControl;
+    private long singleFlightTimeout;
 
     private volatile ControllerAction actionHandler = null;
     private List<BeforeInterceptor> beforeInterceptors = new ArrayList<>();
@@ -95,6 +109,7 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
     private boolean sessionFree;
     private boolean express;
     private boolean skipEvents;
+    private boolean virtualThread;
     private boolean supportCache;
     private CacheSupportMetaInfo cacheSupport;
     private MissingAuthenticationHandler missingAuthenticationHandler;
@@ -184,22 +199,56 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
             webSocketConnectionHandler.handle(context);
             return;
         }
+        handle(context, null);
+    }
+
+    /**
+     * Handle the request.
+     *
+     * @param context the action context
+     * @param revalidateKey the cache key to be refreshed when called from a
+     *                      background revalidation job, or `null` for a normal request
+     */
+    private void handle(ActionContext context, String revalidateKey) {
         Result result = null;
+        String cacheKey = revalidateKey;
+        CountDownLatch cacheFlight = null;
+        ResponseCache stale = null;
         try {
             H.Method method = context.req().method();
             boolean supportCache = this.supportCache && method == GET || (cacheSupport.supportPost && method == POST);
-            String cacheKey = null;
             if (supportCache) {
-                cacheKey = cacheSupport.cacheKey(context);
-                ResponseCache cached = this.cache.get(cacheKey);
-                if (null != cached && cached.isValid()) {
-                    String etag = cached.etag();
-                    if (null != etag && context.req().etagMatches(etag)) {
-                        NotModified.of(etag).apply(context.req(), context.resp());
-                    } else {
-                        cached.applyTo(context.prepareRespForResultEvaluation());
+                if (null == cacheKey) {
+                    cacheKey = cacheKey(context);
+                    ResponseCache cached = cached(cacheKey);
+                    if (null != cached) {
+                        long staleFor = cached.staleFor();
+                        if (staleFor <= 0) {
+                            applyCache(cached, context);
+                            return;
+                        }
+                        if (staleFor <= cacheSupport.staleWhileRevalidate * 1000L) {
+                            applyCache(cached, context);
+                            revalidate(cacheKey, context);
+                            return;
+                        }
+                        if (staleFor <= cacheSupport.staleIfError * 1000L) {
+                            stale = cached;
+                        }
+                    }
+                    if (cacheSupport.singleFlight) {
+                        CountDownLatch latch = new CountDownLatch(1);
+                        CountDownLatch inFlight = cacheFlights.putIfAbsent(cacheKey, latch);
+                        if (null == inFlight) {
+                            cacheFlight = latch;
+                        } else if (awaitCacheFlight(inFlight)) {
+                            cached = cached(cacheKey);
+                            if (null != cached && cached.staleFor() <= 0) {
+                                applyCache(cached, context);
+                                return;
+                            }
+                        }
                     }
-                    return;
                 }
                 context.enableCache();
             }
@@ -223,17 +272,30 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
                 result = context.nullValueResult();
             }
             if (supportCache) {
-                String s = cacheSupport.usePrivate ? "private, max-age=" : "public, max-age=";
                 if (!cacheSupport.noCacheControl) {
-                    context.resp().addHeaderIfNotAdded(H.Header.Names.CACHE_CONTROL, s + cacheSupport.ttl);
+                    context.resp().addHeaderIfNotAdded(H.Header.Names.CACHE_CONTROL, cacheControl);
                 }
             }
             onResult(result, context);
             if (supportCache) {
-                this.cache.put(cacheKey, context.resp(), cacheSupport.ttl);
-                cacheKeys.add(cacheKey);
+                ResponseCache cache = (ResponseCache) context.resp();
+                this.cache.put(cacheKey, cache.expiresIn(cacheSupport.ttl).freeze(), cacheSupport.storeTtl());
+                trackCacheKey(cacheKey);
             }
         } catch (Exception e) {
+            if (null != revalidateKey) {
+                logger.warn(e, "error revalidating cache: " + revalidateKey);
+                return;
+            }
+            if (context.resp().isClosed()) {
+                logger.error(e, "error handling request after response committed: " + context.req());
+                return;
+            }
+            if (null != stale && !(e instanceof Result)) {
+                logger.warn(e, "error handling request, serve stale cache instead: " + context.req());
+                applyCache(stale, context);
+                return;
+            }
             try {
                 result = handleException(e, context);
             } catch (Exception e0) {
@@ -251,6 +313,10 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
                 onResult(ActErrorResult.of(e2), context);
             }
         } finally {
+            if (null != cacheFlight) {
+                cacheFlights.remove(cacheKey, cacheFlight);
+                cacheFlight.countDown();
+            }
             try {
                 handleFinally(context);
             } catch (Exception e) {
@@ -259,6 +325,86 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
         }
     }
 
+    private String cacheKey(ActionContext context) {
+        String key = cacheSupport.cacheKey(context);
+        int generation = cacheGeneration.get();
+        return 0 == generation ? key : S.concat(key, "#", S.string(generation));
+    }
+
+    private static String cacheControl(CacheSupportMetaInfo cacheSupport) {
+        S.Buffer buf = S.buffer(cacheSupport.usePrivate ? "private, max-age=" : "public, max-age=").a(cacheSupport.ttl);
+        if (cacheSupport.staleWhileRevalidate > 0) {
+            buf.a(", stale-while-revalidate=").a(cacheSupport.staleWhileRevalidate);
+        }
+        if (cacheSupport.staleIfError > 0) {
+            buf.a(", stale-if-error=").a(cacheSupport.staleIfError);
+        }
+        return buf.toString();
+    }
+
+    private ResponseCache cached(String cacheKey) {
+        ResponseCache cached = this.cache.get(cacheKey);
+        return null == cached || !cached.isValid() ? null : cached;
+    }
+
+    private void applyCache(ResponseCache cached, ActionContext context) {
+        String etag = cached.etag();
+        if (null != etag && context.req().etagMatches(etag)) {
+            NotModified.of(etag).apply(context.req(), context.resp());
+        } else {
+            cached.applyTo(context.prepareRespForResultEvaluation());
+        }
+    }
+
+    /*
+     * Re-run the handler in a background job to refresh the stale
+     * cached response. At most one revalidation job runs per cache key.
+     */
+    private void revalidate(final String cacheKey, ActionContext context) {
+        if (!cacheRevalidations.add(cacheKey)) {
+            return;
+        }
+        final ActionContext detached;
+        try {
+            detached = context.detach();
+        } catch (RuntimeException e) {
+            cacheRevalidations.remove(cacheKey);
+            throw e;
+        }
+        app.jobManager().now(S.concat("RequestHandlerProxy[", actionMethodName, "]:revalidate"), new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    detached.saveLocal();
+                    detached.handlerMethod(actionMethod);
+                    detached.resolve();
+                    handle(detached, cacheKey);
+                } finally {
+                    cacheRevalidations.remove(cacheKey);
+                    detached.destroy();
+                    ActionContext.clearCurrent();
+                }
+            }
+        });
+    }
+
+    private boolean awaitCacheFlight(CountDownLatch inFlight) {
+        try {
+            return inFlight.await(singleFlightTimeout, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void trackCacheKey(String cacheKey) {
+        if (cacheKeys.size() < cacheKeyIndexLimit) {
+            cacheKeys.add(cacheKey);
+        } else if (!cacheKeys.contains(cacheKey)) {
+            cacheKeyIndexOverflow = true;
+        }
+    }
+
     @Override
     public boolean sessionFree() {
         ensureAgentsReady();
@@ -281,6 +427,17 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
         return express;
     }
 
+    /**
+     * Check if the request handler shall be executed on virtual threads.
+     *
+     * @param context the action context
+     * @return `true` if the action handler is marked with {@link act.handler.VirtualThread}
+     */
+    public boolean virtualThread(ActionContext context) {
+        ensureAgentsReady();
+        return virtualThread;
+    }
+
     @Override
     public boolean skipEvents(ActionContext context) {
         ensureAgentsReady();
@@ -289,8 +446,17 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
 
     public void resetCache() {
         if (supportCache) {
-            for (String cacheKey : cacheKeys) {
-                cache.evict(cacheKey);
+            if (cacheKeyIndexOverflow) {
+                // not all cache keys are tracked, thus switch to
+                // a new generation to make sure all cached responses
+                // become invisible
+                cacheKeyIndexOverflow = false;
+                cacheGeneration.incrementAndGet();
+            }
+            Iterator<String> itr = cacheKeys.iterator();
+            while (itr.hasNext()) {
+                cache.evict(itr.next());
+                itr.remove();
             }
         }
     }
@@ -425,12 +591,16 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
         csrfFailureHandler = actionHandler.csrfFailureHandler();
         express = actionHandler.express();
         skipEvents = actionHandler.skipEvents();
+        virtualThread = actionHandler.virtualThread();
         cacheSupport = actionHandler.cacheSupport();
         supportCache = cacheSupport.enabled;
 
         App app = this.app;
         if (supportCache) {
             cache = app.cache();
+            cacheKeyIndexLimit = app.config().cacheForKeyIndexLimit();
+            singleFlightTimeout = app.config().cacheForSingleFlightTimeout();
+            cacheControl = cacheControl(cacheSupport);
             cacheForManager = app.getInstance(CacheFor.Manager.class);
             cacheForManager.register(actionPath, this);
             String cacheForId = cacheSupport.id;
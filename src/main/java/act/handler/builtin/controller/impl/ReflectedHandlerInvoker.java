@@ -108,6 +108,8 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends Lo
     private boolean sessionFree;
     private boolean express;
     private boolean skipEvents;
+    private boolean virtualThread;
+    private boolean streamUpload;
     private List<BeanSpec> paramSpecs;
     private CORS.Spec corsSpec;
     private CSRF.Spec csrfSpec;
@@ -133,6 +135,7 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends Lo
     private MissingAuthenticationHandler csrfFailureHandler;
     private ThrottleFilter throttleFilter;
     private boolean async;
+    private String asyncPool;
     private boolean byPassImplicityTemplateVariable;
     private boolean forceDataBinding;
     private boolean isLargeResponse;
@@ -223,7 +226,9 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends Lo
         this.pluginAfterHandler = ControllerPlugin.Manager.INST.afterHandler(controllerClass, method);
         this.disabled = this.disabled || !Env.matches(method);
         this.forceDataBinding = ReflectedInvokerHelper.isAnnotationPresent(RequireDataBind.class, method);
-        this.async = null != ReflectedInvokerHelper.getAnnotation(Async.class, method);
+        Async asyncAnno = ReflectedInvokerHelper.getAnnotation(Async.class, method);
+        this.async = null != asyncAnno;
+        this.asyncPool = async ? asyncAnno.pool() : null;
         this.isStatic = handlerMetaInfo.isStatic();
         if (!this.isStatic) {
             //constructorAccess = ConstructorAccess.get(controllerClass);
@@ -262,7 +267,7 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends Lo
                 throttle = app.config().requestThrottle();
             }
             Throttled.ExpireScale expireScale = throttleControl.expireScale();
-            throttleFilter = new ThrottleFilter(throttle, expireScale.enabled());
+            throttleFilter = new ThrottleFilter(throttle, throttleControl.burst(), expireScale.enabled());
         }
 
         this.isLargeResponse = ReflectedInvokerHelper.getAnnotation(LargeResponse.class, method) != null;
@@ -304,6 +309,8 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends Lo
             express = hasAnnotation(NonBlock.class);
             skipEvents = hasAnnotation(SkipBuiltInEvents.class);
         }
+        virtualThread = hasAnnotation(VirtualThread.class);
+        streamUpload = method.isAnnotationPresent(StreamUpload.class);
         noTemplateCache = method.isAnnotationPresent(Template.NoCache.class);
 
         paramCount = handler.paramCount();
@@ -535,6 +542,10 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends Lo
             context.setLargeResponse();
         }
 
+        if (streamUpload) {
+            context.markAsStreamUpload();
+        }
+
         if (null != filters) {
             context.fastjsonFilters(filters);
         }
@@ -630,7 +641,7 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends Lo
         if (async) {
             final JobManager jobManager = context.app().jobManager();
             final String jobId = jobManager.randomJobId();
-            jobManager.prepare(jobId, new TrackableWorker() {
+            jobManager.prepare(jobId, asyncPool, new TrackableWorker() {
                 @Override
                 protected void run(ProgressGauge progressGauge) {
                     try {
@@ -679,6 +690,15 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends Lo
         return express;
     }
 
+    /**
+     * Check if the handler shall be executed on virtual threads.
+     *
+     * @return `true` if {@link VirtualThread} is presented on the handler method or controller class
+     */
+    public boolean virtualThread() {
+        return virtualThread;
+    }
+
     @Override
     public boolean skipEvents() {
         return skipEvents;
@@ -879,8 +899,9 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends Lo
                 cacheFor.value(),
                 cacheFor.supportPost(),
                 cacheFor.usePrivate(),
-                cacheFor.noCacheControl()
-        );
+                cacheFor.noCacheControl(),
+                cacheFor.singleFlight()
+        ).stale(cacheFor.staleWhileRevalidate(), cacheFor.staleIfError());
     }
 
     private void fillOutputVariables(Object controller, Object[] params, ActionContext context) {
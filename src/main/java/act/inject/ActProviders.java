@@ -28,6 +28,7 @@ import act.cli.CliOverHttpContext;
 import act.cli.CliSession;
 import act.conf.AppConfig;
 import act.crypto.AppCrypto;
+import act.data.StreamingMultipart;
 import act.db.Dao;
 import act.event.EventBus;
 import act.job.JobContext;
@@ -140,6 +141,13 @@ public final class ActProviders {
         }
     };
 
+    public static final Provider<StreamingMultipart> STREAMING_MULTIPART = new Provider<StreamingMultipart>() {
+        @Override
+        public StreamingMultipart get() {
+            return ActionContext.current().streamingMultipart();
+        }
+    };
+
     public static final Provider<CliContext> CLI_CONTEXT = new Provider<CliContext>() {
         @Override
         public CliContext get() {
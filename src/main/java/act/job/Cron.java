@@ -43,4 +43,14 @@ public @interface Cron {
      * @return the job id
      */
     String id() default "";
+
+    /**
+     * Specify the name of the {@link JobPool} the job shall run in.
+     *
+     * Default value: empty string, i.e. the default job pool
+     *
+     * @return the job pool name
+     */
+    String pool() default "";
+
 }
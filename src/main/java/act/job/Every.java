@@ -70,4 +70,13 @@ public @interface Every {
      */
     boolean startImmediately() default true;
 
+    /**
+     * Specify the name of the {@link JobPool} the job shall run in.
+     *
+     * Default value: empty string, i.e. the default job pool
+     *
+     * @return the job pool name
+     */
+    String pool() default "";
+
 }
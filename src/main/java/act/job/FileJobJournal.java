@@ -0,0 +1,248 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+import org.osgl.logging.LogManager;
+import org.osgl.logging.Logger;
+import org.osgl.util.*;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Implement {@link JobJournal} with an append-only local file.
+ *
+ * Each change is appended to the file as a line and flushed. The file is
+ * compacted, i.e. rewritten with the live records only, when it is opened
+ * and when the number of obsolete records grows beyond a threshold.
+ * A truncated last line, e.g. caused by a crash, is ignored when loading.
+ */
+public class FileJobJournal implements JobJournal {
+
+    private static final Logger LOGGER = LogManager.get(FileJobJournal.class);
+
+    private static final char SCHEDULED = 'S';
+    private static final char DONE = 'D';
+    private static final char FIRED = 'F';
+    private static final char SEP = '\t';
+
+    private static final int COMPACT_THRESHOLD = 1000;
+
+    private final File file;
+    private final Map<String, Entry> pending = new LinkedHashMap<>();
+    private final Map<String, Long> lastFires = new HashMap<>();
+    private Writer writer;
+    private int records;
+
+    public FileJobJournal(File file) {
+        this.file = $.requireNotNull(file);
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw E.ioException("Cannot create job journal dir: %s", dir);
+        }
+        load();
+        compact();
+    }
+
+    @Override
+    public synchronized void scheduled(String jobId, long fireAt, byte[] payload) {
+        pending.put(jobId, new Entry(jobId, fireAt, payload));
+        append(S.concat(String.valueOf(SCHEDULED), escape(jobId), String.valueOf(SEP), String.valueOf(fireAt), String.valueOf(SEP), Codec.encodeUrlSafeBase64(payload)));
+    }
+
+    @Override
+    public synchronized void done(String jobId) {
+        if (null != pending.remove(jobId)) {
+            append(S.concat(String.valueOf(DONE), escape(jobId)));
+        }
+    }
+
+    @Override
+    public synchronized void fired(String jobId, long time) {
+        lastFires.put(jobId, time);
+        append(S.concat(String.valueOf(FIRED), escape(jobId), String.valueOf(SEP), String.valueOf(time)));
+    }
+
+    @Override
+    public synchronized long lastFire(String jobId) {
+        Long time = lastFires.get(jobId);
+        return null == time ? -1 : time;
+    }
+
+    @Override
+    public synchronized List<Entry> pending() {
+        return new ArrayList<>(pending.values());
+    }
+
+    @Override
+    public synchronized void close() {
+        IO.close(writer);
+        writer = null;
+    }
+
+    private void append(String record) {
+        if (null == writer) {
+            LOGGER.warn("job journal closed, record dropped: %s", record);
+            return;
+        }
+        try {
+            writer.write(record);
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            LOGGER.error(e, "Error writing job journal: %s", file);
+            return;
+        }
+        if (++records > COMPACT_THRESHOLD && records > 2 * (pending.size() + lastFires.size())) {
+            compact();
+        }
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), Charsets.UTF_8))) {
+            String line;
+            while (null != (line = reader.readLine())) {
+                if (!line.isEmpty()) {
+                    apply(line);
+                }
+            }
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
+    }
+
+    private void apply(String record) {
+        try {
+            char type = record.charAt(0);
+            String[] parts = record.substring(1).split(String.valueOf(SEP));
+            parts[0] = unescape(parts[0]);
+            switch (type) {
+                case SCHEDULED:
+                    pending.put(parts[0], new Entry(parts[0], Long.parseLong(parts[1]), Codec.decodeUrlSafeBase64(parts[2])));
+                    break;
+                case DONE:
+                    pending.remove(parts[0]);
+                    break;
+                case FIRED:
+                    lastFires.put(parts[0], Long.parseLong(parts[1]));
+                    break;
+                default:
+                    LOGGER.warn("unknown job journal record ignored: %s", record);
+            }
+        } catch (RuntimeException e) {
+            // could be the last record truncated by crash
+            LOGGER.warn("malformed job journal record ignored: %s", record);
+        }
+    }
+
+    /**
+     * Escape the separator, line breaks and the escape char itself in a
+     * job ID so that the ID cannot break the record format.
+     */
+    static String escape(String jobId) {
+        StringBuilder sb = null;
+        for (int i = 0, n = jobId.length(); i < n; ++i) {
+            char c = jobId.charAt(i);
+            String replacement;
+            switch (c) {
+                case '\\':
+                    replacement = "\\\\";
+                    break;
+                case '\t':
+                    replacement = "\\t";
+                    break;
+                case '\n':
+                    replacement = "\\n";
+                    break;
+                case '\r':
+                    replacement = "\\r";
+                    break;
+                default:
+                    if (null != sb) {
+                        sb.append(c);
+                    }
+                    continue;
+            }
+            if (null == sb) {
+                sb = new StringBuilder(n + 8).append(jobId, 0, i);
+            }
+            sb.append(replacement);
+        }
+        return null == sb ? jobId : sb.toString();
+    }
+
+    static String unescape(String s) {
+        if (s.indexOf('\\') < 0) {
+            return s;
+        }
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0, n = s.length(); i < n; ++i) {
+            char c = s.charAt(i);
+            if (c == '\\' && i + 1 < n) {
+                char next = s.charAt(++i);
+                switch (next) {
+                    case 't':
+                        c = '\t';
+                        break;
+                    case 'n':
+                        c = '\n';
+                        break;
+                    case 'r':
+                        c = '\r';
+                        break;
+                    default:
+                        c = next;
+                }
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private void compact() {
+        IO.close(writer);
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            try (Writer w = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), Charsets.UTF_8))) {
+                for (Entry entry : pending.values()) {
+                    w.write(S.concat(String.valueOf(SCHEDULED), escape(entry.id), String.valueOf(SEP), String.valueOf(entry.fireAt), String.valueOf(SEP), Codec.encodeUrlSafeBase64(entry.payload)));
+                    w.write('\n');
+                }
+                for (Map.Entry<String, Long> entry : lastFires.entrySet()) {
+                    w.write(S.concat(String.valueOf(FIRED), escape(entry.getKey()), String.valueOf(SEP), String.valueOf(entry.getValue())));
+                    w.write('\n');
+                }
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            records = pending.size() + lastFires.size();
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), Charsets.UTF_8));
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
+    }
+
+}
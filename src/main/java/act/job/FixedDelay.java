@@ -64,4 +64,14 @@ public @interface FixedDelay {
      * @return whether the job shall start immediately after the app started
      */
     boolean startImmediately() default true;
+
+    /**
+     * Specify the name of the {@link JobPool} the job shall run in.
+     *
+     * Default value: empty string, i.e. the default job pool
+     *
+     * @return the job pool name
+     */
+    String pool() default "";
+
 }
@@ -0,0 +1,392 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.app.AppThreadFactory;
+import org.osgl.logging.LogManager;
+import org.osgl.logging.Logger;
+import org.osgl.util.E;
+
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A hashed timing wheel used to schedule large number of delayed and
+ * periodical tasks.
+ *
+ * Tasks are hashed into the bucket of the tick they expire at, the number
+ * of full wheel rotations left is kept in the task. Scheduling and cancelling
+ * a task is O(1), the price is the expiration time is rounded up to the
+ * next tick.
+ *
+ * The timer thread only moves tasks around, expired tasks are dispatched
+ * to the {@link Executor} they are scheduled with.
+ */
+public class HashedWheelTimer {
+
+    private static final Logger LOGGER = LogManager.get(HashedWheelTimer.class);
+
+    // max number of new tasks transferred into the wheel per tick
+    private static final int MAX_TRANSFER_PER_TICK = 100000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final Thread worker;
+    private final long startTime;
+    private volatile boolean stopped;
+    private long tick;
+
+    /**
+     * Construct a timer.
+     *
+     * @param name the name of the timer thread
+     * @param tickDuration the duration of a tick
+     * @param unit the time unit of `tickDuration`
+     * @param wheelSize the number of buckets in the wheel, will be rounded up to power of 2
+     */
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int wheelSize) {
+        E.illegalArgumentIf(tickDuration < 1, "tick duration shall be positive number: %s", tickDuration);
+        E.illegalArgumentIf(wheelSize < 1 || wheelSize > (1 << 30), "invalid wheel size: %s", wheelSize);
+        this.tickNanos = Math.max(unit.toNanos(tickDuration), TimeUnit.MILLISECONDS.toNanos(1));
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        size = Math.max(1, size);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; ++i) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startTime = System.nanoTime();
+        this.worker = new AppThreadFactory(name, true).newThread(new Runnable() {
+            @Override
+            public void run() {
+                work();
+            }
+        });
+        this.worker.start();
+    }
+
+    /**
+     * Schedule a task to be dispatched to executor after delay.
+     *
+     * @param task the task
+     * @param delay the delay
+     * @param unit the time unit of `delay`
+     * @param executor the executor to run the task
+     * @return the timeout that can be used to cancel the task
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit, Executor executor) {
+        return add(new Timeout(task, executor, 0), unit.toNanos(delay));
+    }
+
+    /**
+     * Schedule a task to be dispatched to executor periodically at fixed rate.
+     *
+     * A fire is skipped if the previous execution is still running, thus
+     * executions of the task never overlap.
+     *
+     * @see ScheduledExecutorService#scheduleAtFixedRate(Runnable, long, long, TimeUnit)
+     */
+    public Timeout scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit, Executor executor) {
+        E.illegalArgumentIf(period < 1, "period shall be positive number: %s", period);
+        return add(new Timeout(task, executor, unit.toNanos(period)), unit.toNanos(initialDelay));
+    }
+
+    /**
+     * Schedule a task to be dispatched to executor periodically with fixed delay
+     * between the end of an execution and the start of the next one.
+     *
+     * @see ScheduledExecutorService#scheduleWithFixedDelay(Runnable, long, long, TimeUnit)
+     */
+    public Timeout scheduleWithFixedDelay(Runnable task, long initialDelay, long delay, TimeUnit unit, Executor executor) {
+        E.illegalArgumentIf(delay < 1, "delay shall be positive number: %s", delay);
+        return add(new Timeout(task, executor, -unit.toNanos(delay)), unit.toNanos(initialDelay));
+    }
+
+    /**
+     * Returns the number of tasks scheduled and not expired or cancelled yet.
+     */
+    public long pendingTimeouts() {
+        return pending.get();
+    }
+
+    /**
+     * Stop the timer. Pending tasks will not be dispatched.
+     */
+    public void stop() {
+        stopped = true;
+        worker.interrupt();
+    }
+
+    private Timeout add(Timeout timeout, long delayInNanos) {
+        E.illegalStateIf(stopped, "timer stopped");
+        timeout.deadline = System.nanoTime() + Math.max(0, delayInNanos) - startTime;
+        pending.incrementAndGet();
+        newTimeouts.add(timeout);
+        return timeout;
+    }
+
+    private void work() {
+        while (!stopped) {
+            if (!waitForNextTick()) {
+                continue;
+            }
+            removeCancelled();
+            transferNewTimeouts();
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    private boolean waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        for (;;) {
+            long current = System.nanoTime() - startTime;
+            long sleepMillis = (deadline - current + 999999) / 1000000;
+            if (sleepMillis <= 0) {
+                return true;
+            }
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                if (stopped) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private void transferNewTimeouts() {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; ++i) {
+            Timeout timeout = newTimeouts.poll();
+            if (null == timeout) {
+                return;
+            }
+            if (timeout.state != Timeout.ST_INIT) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // ensure task not scheduled into the past
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelled() {
+        for (;;) {
+            Timeout timeout = cancelledTimeouts.poll();
+            if (null == timeout) {
+                return;
+            }
+            Bucket bucket = timeout.bucket;
+            if (null != bucket) {
+                bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void reschedule(Timeout timeout, long deadline) {
+        timeout.deadline = deadline;
+        newTimeouts.add(timeout);
+    }
+
+    /**
+     * A task scheduled in the timer.
+     *
+     * Note {@link #get()} is not supported as the timer does not
+     * keep the result of tasks.
+     */
+    public final class Timeout implements Future<Void>, Runnable {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final Runnable task;
+        private final Executor executor;
+        // > 0: fixed rate, < 0: fixed delay, 0: one shot
+        private final long period;
+        volatile int state;
+        // 1 while a fixed rate execution is in flight
+        volatile int running;
+        private long deadline;
+        private long remainingRounds;
+        private Timeout next;
+        private Timeout prev;
+        private Bucket bucket;
+
+        private Timeout(Runnable task, Executor executor, long period) {
+            this.task = task;
+            this.executor = executor;
+            this.period = period;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (!STATE_UPDATER.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            pending.decrementAndGet();
+            cancelledTimeouts.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return ST_CANCELLED == state;
+        }
+
+        @Override
+        public boolean isDone() {
+            return ST_INIT != state;
+        }
+
+        @Override
+        public Void get() {
+            throw E.unsupport("timeout does not support get");
+        }
+
+        @Override
+        public Void get(long timeout, TimeUnit unit) {
+            throw E.unsupport("timeout does not support get");
+        }
+
+        /**
+         * Run the task and schedule the next fire for fixed delay task.
+         */
+        @Override
+        public void run() {
+            try {
+                task.run();
+            } finally {
+                if (period > 0) {
+                    running = 0;
+                } else if (period < 0 && ST_INIT == state && !stopped) {
+                    reschedule(this, System.nanoTime() - startTime - period);
+                }
+            }
+        }
+
+        private void expire() {
+            if (0 == period) {
+                if (!STATE_UPDATER.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                    return;
+                }
+                pending.decrementAndGet();
+                dispatch(task);
+            } else if (period > 0) {
+                reschedule(this, deadline + period);
+                // skip this fire if the previous execution has not finished yet
+                if (RUNNING_UPDATER.compareAndSet(this, 0, 1) && !dispatch(this)) {
+                    running = 0;
+                }
+            } else {
+                // next fire scheduled after task finished
+                dispatch(this);
+            }
+        }
+
+        private boolean dispatch(Runnable runnable) {
+            try {
+                executor.execute(runnable);
+                return true;
+            } catch (RuntimeException e) {
+                LOGGER.warn(e, "error dispatching timer task: %s", task);
+                return false;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return task.toString();
+        }
+    }
+
+    private static final AtomicIntegerFieldUpdater<Timeout> STATE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+    private static final AtomicIntegerFieldUpdater<Timeout> RUNNING_UPDATER = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "running");
+
+    /**
+     * A doubly linked list of timeouts, only accessed by the timer thread.
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (null == head) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire() {
+            Timeout timeout = head;
+            while (null != timeout) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            Timeout next = timeout.next;
+            if (null != timeout.prev) {
+                timeout.prev.next = next;
+            }
+            if (null != next) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                if (timeout == tail) {
+                    tail = null;
+                    head = null;
+                } else {
+                    head = next;
+                }
+            } else if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
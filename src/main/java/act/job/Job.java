@@ -141,6 +141,7 @@ public class Job extends DestroyableBase implements Runnable {
     Exception callableException;
     private Method method;
     private boolean sysJob;
+    private String pool;
     // progress percentage
     private SimpleProgressGauge progress = new SimpleProgressGauge();
     private LockableJobList parallelJobs = new LockableJobList(this);
@@ -285,6 +286,20 @@ public class Job extends DestroyableBase implements Runnable {
         return method;
     }
 
+    /**
+     * Returns the name of the {@link JobPool} this job runs in.
+     *
+     * @return the pool name or `null` if the job runs in the default pool
+     */
+    public String pool() {
+        return pool;
+    }
+
+    final Job pool(String pool) {
+        this.pool = S.blank(pool) ? null : pool;
+        return this;
+    }
+
     private static void printSubJobs(Collection<? extends Job> subJobs, String label, S.Buffer sb) {
         if (null != subJobs && !subJobs.isEmpty()) {
             sb.append("\n").append(label);
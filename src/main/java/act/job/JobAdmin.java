@@ -28,6 +28,7 @@ import act.util.CsvView;
 import act.util.JsonView;
 import act.util.*;
 import act.ws.*;
+import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 import org.osgl.$;
 import org.osgl.exception.UnexpectedException;
@@ -96,7 +97,10 @@ public class JobAdmin {
     }
 
     @Command(value = "act.job.scheduler", help = "Show Job manager scheduler status")
-    public String getSchedulerStatus(JobManager jobManager) {
+    public String getSchedulerStatus(@Optional(lead = "-p", help = "specify job pool name") String pool, JobManager jobManager) {
+        if (S.notBlank(pool)) {
+            return jobManager.pool(pool).status().toJSONString();
+        }
         ScheduledThreadPoolExecutor executor = jobManager.executor();
         JSONObject json = new JSONObject();
         json.put("is terminating", executor.isTerminating());
@@ -110,6 +114,15 @@ public class JobAdmin {
         return json.toJSONString();
     }
 
+    @Command(value = "act.job.pools", help = "Show job pools status")
+    public String getPoolsStatus(JobManager jobManager) {
+        JSONArray array = new JSONArray();
+        for (JobPool pool : jobManager.pools()) {
+            array.add(pool.status());
+        }
+        return array.toJSONString();
+    }
+
     @GetAction("jobs/{jobId}/result")
     @Command(value = "act.job.result", help = "Retrieve async job result")
     public Object getAsyncResult(@Required("specify job id") String jobId, JobManager jobManager, ActContext context) {
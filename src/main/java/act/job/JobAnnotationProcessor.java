@@ -64,6 +64,9 @@ public class JobAnnotationProcessor extends AppHolderBase<JobAnnotationProcessor
             return;
         }
         Job job = getOrCreateMethodJob(method);
+        if (S.notBlank(info.pool)) {
+            job.pool(info.pool);
+        }
         String value = info.value;
         if (Cron.class.isAssignableFrom(anno)) {
             registerCron(job, evaluateExpression(value, anno));
@@ -0,0 +1,113 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.List;
+
+/**
+ * A `JobJournal` records scheduled one-off jobs and the last fire time
+ * of cron jobs so that {@link JobManager} can recover them after the
+ * application restarted.
+ *
+ * Implementations shall be thread safe.
+ *
+ * @see FileJobJournal
+ */
+public interface JobJournal {
+
+    /**
+     * A one-off job recorded in the journal.
+     */
+    class Entry {
+        /**
+         * The job ID.
+         */
+        public final String id;
+
+        /**
+         * The time in milliseconds the job is scheduled to run at.
+         */
+        public final long fireAt;
+
+        /**
+         * The serialized job.
+         */
+        public final byte[] payload;
+
+        public Entry(String id, long fireAt, byte[] payload) {
+            this.id = id;
+            this.fireAt = fireAt;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * Record a one-off job scheduled.
+     *
+     * @param jobId
+     *      the job ID
+     * @param fireAt
+     *      the time in milliseconds the job is scheduled to run at
+     * @param payload
+     *      the serialized job
+     */
+    void scheduled(String jobId, long fireAt, byte[] payload);
+
+    /**
+     * Record a one-off job finished or cancelled.
+     *
+     * @param jobId
+     *      the job ID
+     */
+    void done(String jobId);
+
+    /**
+     * Record a recurring job fired.
+     *
+     * @param jobId
+     *      the job ID
+     * @param time
+     *      the fire time in milliseconds
+     */
+    void fired(String jobId, long time);
+
+    /**
+     * Returns the last fire time of a recurring job.
+     *
+     * @param jobId
+     *      the job ID
+     * @return the last fire time in milliseconds or `-1` if not recorded
+     */
+    long lastFire(String jobId);
+
+    /**
+     * Returns the one-off jobs scheduled but not done yet.
+     *
+     * @return the pending jobs
+     */
+    List<Entry> pending();
+
+    /**
+     * Release the resources held by this journal.
+     */
+    void close();
+
+}
@@ -26,11 +26,14 @@ import act.Act;
 import act.Destroyable;
 import act.app.*;
 import act.app.event.SysEventId;
+import act.conf.AppConfig;
 import act.event.OnceEventListenerBase;
 import act.event.SysEventListenerBase;
 import act.mail.MailerContext;
 import act.util.ProgressGauge;
 import act.util.SimpleProgressGauge;
+import act.util.VirtualThreads;
+import fc.cron.CronExpression;
 import org.joda.time.DateTime;
 import org.joda.time.Seconds;
 import org.osgl.$;
@@ -41,9 +44,12 @@ import org.osgl.logging.Logger;
 import org.osgl.util.*;
 import org.rythmengine.utils.Time;
 
+import java.io.*;
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.EventObject;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.*;
 
 public class JobManager extends AppServiceBase<JobManager> {
@@ -52,11 +58,17 @@ public class JobManager extends AppServiceBase<JobManager> {
 
     private static final Logger LOGGER = LogManager.get(JobManager.class);
 
-    private ScheduledThreadPoolExecutor executor;
+    private JobPool defaultPool;
+    private ConcurrentMap<String, JobPool> pools = new ConcurrentHashMap<>();
     private ConcurrentMap<String, Job> jobs = new ConcurrentHashMap<String, Job>();
     private ConcurrentMap<Method, Job> methodIndex = new ConcurrentHashMap<>();
-    private ConcurrentMap<String, ScheduledFuture> scheduled = new ConcurrentHashMap<>();
+    private ConcurrentMap<String, Future> scheduled = new ConcurrentHashMap<>();
     private CacheService jobResultCache;
+    private JobJournal journal;
+    private MisfirePolicy misfirePolicy;
+    private HashedWheelTimer timer;
+    // classes besides application classes allowed to be restored from journal
+    private Set<String> journalClasses = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
     static String sysEventJobId(SysEventId eventId) {
         return S.concat(SYS_JOB_MARKER, eventId.toString().toLowerCase());
@@ -65,6 +77,7 @@ public class JobManager extends AppServiceBase<JobManager> {
     public JobManager(final App app) {
         super(app);
         initExecutor(app);
+        initTimer(app);
         for (SysEventId sysEventId : SysEventId.values()) {
             createSysEventListener(sysEventId);
         }
@@ -74,6 +87,7 @@ public class JobManager extends AppServiceBase<JobManager> {
                 jobResultCache = app.cache("job_result_cache");
             }
         });
+        initJournal(app);
     }
 
     @Override
@@ -83,8 +97,51 @@ public class JobManager extends AppServiceBase<JobManager> {
             job.destroy();
         }
         jobs.clear();
-        executor.getQueue().clear();
-        executor.shutdownNow();
+        if (null != timer) {
+            timer.stop();
+        }
+        for (JobPool pool : pools.values()) {
+            pool.shutdown();
+        }
+        pools.clear();
+        if (null != journal) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    /**
+     * Allow classes that are not defined by the application class loader,
+     * e.g. job classes provided by a plugin library, to be restored from
+     * the {@link JobJournal}.
+     *
+     * Note classes shall be registered before application started in order
+     * to recover the jobs journaled in the previous run.
+     *
+     * @param classes the job classes
+     */
+    public void allowJournalClass(Class<?>... classes) {
+        for (Class<?> c : classes) {
+            journalClasses.add(c.getName());
+        }
+    }
+
+    /**
+     * Set the {@link JobJournal} used to persist scheduled jobs.
+     *
+     * This allows application to plugin a journal backed by other
+     * storage than local file, e.g. database.
+     *
+     * Note the journal shall be set before application started in order
+     * to get pending jobs recovered
+     *
+     * @param journal the job journal
+     */
+    public void journal(JobJournal journal) {
+        if (null != this.journal && this.journal != journal) {
+            this.journal.close();
+        }
+        this.journal = journal;
     }
 
     public <T> Future<T> now(Callable<T> callable) {
@@ -93,7 +150,7 @@ public class JobManager extends AppServiceBase<JobManager> {
 
     public <T> Future<T> now(String jobId, final Callable<T> callable) {
         final Job job = wrap(jobId, callable);
-        return executor().submit(new Callable<T>() {
+        return defaultPool.submit(new Callable<T>() {
             @Override
             public T call() throws Exception {
                 job.run();
@@ -122,7 +179,21 @@ public class JobManager extends AppServiceBase<JobManager> {
     }
 
     public void now(String jobId, Runnable runnable, boolean sysJob) {
-        executor().submit(wrap(jobId, runnable, sysJob));
+        Job job = wrap(jobId, runnable, sysJob);
+        if (runnable instanceof Job) {
+            job.pool(((Job) runnable).pool());
+        }
+        submit(job);
+    }
+
+    /**
+     * Run a runnable now in the {@link JobPool} specified.
+     *
+     * @param pool the pool name, `null` or blank for the default pool
+     * @param runnable the runnable
+     */
+    public void nowIn(String pool, Runnable runnable) {
+        submit(wrap(runnable).pool(pool));
     }
 
     public String now($.Function<ProgressGauge, ?> worker) {
@@ -131,7 +202,7 @@ public class JobManager extends AppServiceBase<JobManager> {
 
     public String now(String jobId, $.Function<ProgressGauge, ?> worker) {
         Job job = wrap(jobId, worker);
-        executor().submit(job);
+        submit(job);
         return job.id();
     }
 
@@ -152,6 +223,17 @@ public class JobManager extends AppServiceBase<JobManager> {
         wrap(jobId, worker);
     }
 
+    /**
+     * Prepare a job from worker to be run in the {@link JobPool} specified.
+     *
+     * @param jobId the job ID
+     * @param pool the pool name, `null` or blank for the default pool
+     * @param worker the worker
+     */
+    public void prepare(String jobId, String pool, $.Function<ProgressGauge, ?> worker) {
+        wrap(jobId, worker).pool(pool);
+    }
+
     /**
      * Run a job by ID now
      * @param jobId the job ID
@@ -159,25 +241,40 @@ public class JobManager extends AppServiceBase<JobManager> {
      */
     public void now(String jobId) {
         Job job = $.requireNotNull(jobById(jobId));
-        executor().submit(job);
+        submit(job);
     }
 
     public <T> Future<T> delay(Callable<T> callable, long delay, TimeUnit timeUnit) {
-        return executor().schedule(callable, delay, timeUnit);
+        return schedule(callable, timeUnit.toMillis(delay));
     }
 
-    public void delay(Runnable runnable, long delay, TimeUnit timeUnit) {
-        executor().schedule(wrap(runnable), delay, timeUnit);
+    /**
+     * Run the runnable after the delay specified.
+     *
+     * @param runnable the runnable
+     * @param delay the delay
+     * @param timeUnit the time unit of `delay`
+     * @return a future that could be used to cancel the runnable
+     */
+    public Future<?> delay(Runnable runnable, long delay, TimeUnit timeUnit) {
+        return schedule(runnable, timeUnit.toMillis(delay));
     }
 
     public <T> Future<T> delay(Callable<T> callable, String delay) {
         int seconds = parseTime(delay);
-        return executor().schedule(callable, seconds, TimeUnit.SECONDS);
+        return schedule(callable, TimeUnit.SECONDS.toMillis(seconds));
     }
 
-    public void delay(Runnable runnable, String delay) {
+    /**
+     * Run the runnable after the delay specified.
+     *
+     * @param runnable the runnable
+     * @param delay the delay, e.g. `5mn`, `1h`
+     * @return a future that could be used to cancel the runnable
+     */
+    public Future<?> delay(Runnable runnable, String delay) {
         int seconds = parseTime(delay);
-        executor().schedule(wrap(runnable), seconds, TimeUnit.SECONDS);
+        return schedule(runnable, TimeUnit.SECONDS.toMillis(seconds));
     }
 
     public void every(String id, Runnable runnable, String interval) {
@@ -226,7 +323,71 @@ public class JobManager extends AppServiceBase<JobManager> {
         DateTime now = DateTime.now();
         E.illegalArgumentIf(instant.isBefore(now));
         Seconds seconds = Seconds.secondsBetween(now, instant);
-        executor().schedule(wrap(runnable), seconds.getSeconds(), TimeUnit.SECONDS);
+        schedule(runnable, TimeUnit.SECONDS.toMillis(seconds.getSeconds()));
+    }
+
+    private Future<?> schedule(Runnable runnable, long delayInMillis) {
+        if (null != timer && !(null != journal && runnable instanceof Serializable)) {
+            return timer.schedule(new ContextualTask(runnable), delayInMillis, TimeUnit.MILLISECONDS, defaultPool);
+        }
+        final String jobId = randomJobId();
+        if (null != journal && runnable instanceof Serializable) {
+            byte[] payload = serialize(runnable);
+            if (null != payload) {
+                journal.scheduled(jobId, System.currentTimeMillis() + delayInMillis, payload);
+                runnable = new JournaledJob(jobId, runnable);
+            }
+        }
+        Job job = wrap(jobId, runnable, false);
+        Future<?> future = null != timer ?
+                timer.schedule(job, delayInMillis, TimeUnit.MILLISECONDS, defaultPool) :
+                executor().schedule(job, delayInMillis, TimeUnit.MILLISECONDS);
+        futureScheduled(jobId, future);
+        return new JobFuture(jobId, future);
+    }
+
+    private <T> Future<T> schedule(Callable<T> callable, long delayInMillis) {
+        if (null == timer) {
+            return executor().schedule(callable, delayInMillis, TimeUnit.MILLISECONDS);
+        }
+        FutureTask<T> task = new FutureTask<>(callable);
+        HashedWheelTimer.Timeout timeout = timer.schedule(new ContextualTask(task), delayInMillis, TimeUnit.MILLISECONDS, defaultPool);
+        return new TimerFuture<>(task, timeout);
+    }
+
+    /**
+     * Check if a cron job missed executions while application was not running.
+     *
+     * @param jobId the job ID
+     * @param cron the cron expression of the job
+     * @param now the current time
+     * @return `true` if the job shall be fired now according to the misfire policy
+     */
+    boolean misfired(String jobId, CronExpression cron, DateTime now) {
+        if (null == journal) {
+            return false;
+        }
+        long lastFire = journal.lastFire(jobId);
+        if (lastFire < 0) {
+            return false;
+        }
+        DateTime missed = cron.nextTimeAfter(new DateTime(lastFire));
+        if (!missed.isBefore(now)) {
+            return false;
+        }
+        LOGGER.warn("job[%s] misfired at %s, apply misfire policy: %s", jobId, missed, misfirePolicy);
+        return MisfirePolicy.FIRE_ONCE == misfirePolicy;
+    }
+
+    /**
+     * Record a recurring job fired.
+     *
+     * @param jobId the job ID
+     */
+    void fired(String jobId) {
+        if (null != journal) {
+            journal.fired(jobId, System.currentTimeMillis());
+        }
     }
 
     public <T> Future<T> on(DateTime instant, Callable<T> callable) {
@@ -236,7 +397,7 @@ public class JobManager extends AppServiceBase<JobManager> {
         DateTime now = DateTime.now();
         E.illegalArgumentIf(instant.isBefore(now));
         Seconds seconds = Seconds.secondsBetween(now, instant);
-        return executor().schedule(callable, seconds.getSeconds(), TimeUnit.SECONDS);
+        return schedule(callable, TimeUnit.SECONDS.toMillis(seconds.getSeconds()));
     }
 
     public void on(SysEventId sysEvent, final Runnable runnable) {
@@ -331,7 +492,7 @@ public class JobManager extends AppServiceBase<JobManager> {
         if (null != job) {
             removeJob(job);
         } else {
-            ScheduledFuture future = scheduled.remove(jobId);
+            Future future = scheduled.remove(jobId);
             if (null != future) {
                 future.cancel(true);
             }
@@ -380,15 +541,15 @@ public class JobManager extends AppServiceBase<JobManager> {
 
     C.List<Job> virtualJobs() {
         final JobManager jobManager = Act.jobManager();
-        return C.list(scheduled.entrySet()).map(new $.Transformer<Map.Entry<String, ScheduledFuture>, Job>() {
+        return C.list(scheduled.entrySet()).map(new $.Transformer<Map.Entry<String, Future>, Job>() {
             @Override
-            public Job transform(Map.Entry<String, ScheduledFuture> entry) {
+            public Job transform(Map.Entry<String, Future> entry) {
                 return Job.virtualJob(entry.getKey(), jobManager);
             }
         });
     }
 
-    void futureScheduled(String id, ScheduledFuture future) {
+    void futureScheduled(String id, Future future) {
         scheduled.putIfAbsent(id, future);
     }
 
@@ -399,7 +560,7 @@ public class JobManager extends AppServiceBase<JobManager> {
     public Job jobById(String id, boolean warn) {
         Job job = jobs.get(id);
         if (null == job) {
-            ScheduledFuture future = scheduled.get(id);
+            Future future = scheduled.get(id);
             if (null != future) {
                 return new Job(id, Act.jobManager());
             }
@@ -423,7 +584,7 @@ public class JobManager extends AppServiceBase<JobManager> {
     void removeJob(Job job) {
         String id = job.id();
         jobs.remove(id);
-        ScheduledFuture future = scheduled.remove(id);
+        Future future = scheduled.remove(id);
         if (null != future) {
             future.cancel(true);
         }
@@ -431,6 +592,10 @@ public class JobManager extends AppServiceBase<JobManager> {
         if (null != method) {
             methodIndex.remove(method);
         }
+        if (null != journal) {
+            // a cancelled job shall not be recovered from journal
+            journal.done(id);
+        }
     }
 
     public void cacheResult(String jobId, Object result, Object meta) {
@@ -447,15 +612,304 @@ public class JobManager extends AppServiceBase<JobManager> {
     }
 
     ScheduledThreadPoolExecutor executor() {
-        return executor;
+        return defaultPool.executor();
+    }
+
+    ScheduledThreadPoolExecutor executor(Job job) {
+        return pool(job.pool()).executor();
+    }
+
+    Future<?> scheduleAtFixedRate(Job job, long period, TimeUnit timeUnit) {
+        if (null != timer) {
+            return timer.scheduleAtFixedRate(job, period, period, timeUnit, pool(job.pool()));
+        }
+        return executor(job).scheduleAtFixedRate(job, period, period, timeUnit);
+    }
+
+    Future<?> scheduleWithFixedDelay(Job job, long delay, TimeUnit timeUnit) {
+        if (null != timer) {
+            return timer.scheduleWithFixedDelay(job, delay, delay, timeUnit, pool(job.pool()));
+        }
+        return executor(job).scheduleWithFixedDelay(job, delay, delay, timeUnit);
+    }
+
+    /**
+     * Returns the {@link JobPool} by name. The pool will be created
+     * on demand by the configuration of the pool.
+     *
+     * @param name the pool name, `null` or blank for the default pool
+     * @return the job pool
+     */
+    public JobPool pool(String name) {
+        if (S.blank(name)) {
+            return defaultPool;
+        }
+        JobPool pool = pools.get(name);
+        if (null == pool) {
+            synchronized (pools) {
+                pool = pools.get(name);
+                if (null == pool) {
+                    pool = createPool(app().config(), name);
+                    pools.put(name, pool);
+                }
+            }
+        }
+        return pool;
+    }
+
+    C.List<JobPool> pools() {
+        return C.list(pools.values());
+    }
+
+    private void submit(Job job) {
+        pool(job.pool()).submit(job);
     }
 
     private void initExecutor(App app) {
-        int poolSize = app.config().jobPoolSize();
-        executor = new ScheduledThreadPoolExecutor(poolSize, new AppThreadFactory("jobs"), new ThreadPoolExecutor.AbortPolicy());
-        executor.setRemoveOnCancelPolicy(true);
+        AppConfig config = app.config();
+        defaultPool = createPool(config, JobPool.DEFAULT);
+        if (config.jobVirtualThread()) {
+            defaultPool.immediateExecutor(VirtualThreads.newExecutor("jobs", config.virtualThreadFallbackPoolSize()));
+        }
+        pools.put(JobPool.DEFAULT, defaultPool);
+    }
+
+    private void initTimer(App app) {
+        AppConfig config = app.config();
+        if (config.jobTimerWheelEnabled()) {
+            timer = new HashedWheelTimer("jobs-timer", config.jobTimerTick(), TimeUnit.MILLISECONDS, config.jobTimerWheelSize());
+        }
+    }
+
+    private static JobPool createPool(AppConfig config, String name) {
+        String prefix = S.concat("job.pool.", name, ".");
+        int size = poolSetting(config, prefix, "size", config.jobPoolSize());
+        int queueSize = poolSetting(config, prefix, "queue_size", 0);
+        Object rejection = config.get(S.concat(prefix, "rejection"));
+        JobPool.RejectionPolicy policy = null == rejection ? JobPool.RejectionPolicy.ABORT : JobPool.RejectionPolicy.valueOfIgnoreCase(S.string(rejection));
         if (LOGGER.isTraceEnabled()) {
-            LOGGER.trace("init executor with thread pool: %s", poolSize);
+            LOGGER.trace("init job pool[%s] with thread pool: %s, queue size: %s", name, size, queueSize);
+        }
+        return new JobPool(name, size, queueSize, policy);
+    }
+
+    private static int poolSetting(AppConfig config, String prefix, String key, int def) {
+        Object v = config.get(S.concat(prefix, key));
+        if (null == v) {
+            return def;
+        }
+        try {
+            return v instanceof Number ? ((Number) v).intValue() : Integer.parseInt(S.string(v).trim());
+        } catch (NumberFormatException e) {
+            throw E.invalidConfiguration("Invalid job pool configuration %s%s: %s", prefix, key, v);
+        }
+    }
+
+    private void initJournal(final App app) {
+        AppConfig config = app.config();
+        misfirePolicy = config.jobMisfirePolicy();
+        if (config.jobJournalEnabled()) {
+            File file = new File(config.jobJournalFile());
+            if (!file.isAbsolute()) {
+                file = app.file(config.jobJournalFile());
+            }
+            journal = new FileJobJournal(file);
+        }
+        app.eventBus().bind(SysEventId.POST_START, new SysEventListenerBase(S.concat(SYS_JOB_MARKER, "recover_journaled_jobs")) {
+            @Override
+            public void on(EventObject event) {
+                recover();
+            }
+        });
+    }
+
+    private void recover() {
+        if (null == journal) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (JobJournal.Entry entry : journal.pending()) {
+            Runnable runnable = deserialize(entry.payload);
+            if (null == runnable) {
+                journal.done(entry.id);
+                continue;
+            }
+            long delay = entry.fireAt - now;
+            if (delay < 0) {
+                LOGGER.warn("job[%s] misfired at %s, apply misfire policy: %s", entry.id, new DateTime(entry.fireAt), misfirePolicy);
+                if (MisfirePolicy.SKIP == misfirePolicy) {
+                    journal.done(entry.id);
+                    continue;
+                }
+                delay = 0;
+            }
+            executor().schedule(wrap(entry.id, new JournaledJob(entry.id, runnable), false), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static byte[] serialize(Runnable runnable) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(runnable);
+        } catch (IOException e) {
+            LOGGER.warn(e, "cannot serialize job, it will not be journaled: %s", runnable);
+            return null;
+        }
+        return baos.toByteArray();
+    }
+
+    private Runnable deserialize(byte[] payload) {
+        try (ObjectInputStream ois = new JournalObjectInputStream(new ByteArrayInputStream(payload), app().classLoader(), journalClasses)) {
+            return (Runnable) ois.readObject();
+        } catch (Exception e) {
+            LOGGER.warn(e, "cannot recover journaled job");
+            return null;
+        }
+    }
+
+    /**
+     * A light weight job scheduled into the timing wheel, which carries
+     * the job context of the scheduling thread.
+     */
+    private static class ContextualTask implements Runnable {
+        private final JobContext origin = JobContext.copy();
+        private final Runnable runnable;
+
+        ContextualTask(Runnable runnable) {
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            JobContext.init(origin);
+            try {
+                runnable.run();
+            } catch (RuntimeException e) {
+                LOGGER.error(e, "error running job: %s", runnable);
+            } finally {
+                JobContext.clear();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return runnable.toString();
+        }
+    }
+
+    /**
+     * The result of a callable scheduled into the timing wheel.
+     *
+     * Cancelling the future also removes the task from the wheel.
+     */
+    private static class TimerFuture<T> implements Future<T> {
+        private final FutureTask<T> task;
+        private final HashedWheelTimer.Timeout timeout;
+
+        TimerFuture(FutureTask<T> task, HashedWheelTimer.Timeout timeout) {
+            this.task = task;
+            this.timeout = timeout;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            timeout.cancel(false);
+            return task.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return task.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return task.isDone();
+        }
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            return task.get();
+        }
+
+        @Override
+        public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return task.get(timeout, unit);
+        }
+    }
+
+    /**
+     * The handle of a delayed job registered by ID.
+     *
+     * Cancelling the future {@link #cancel(String) cancels} the job so
+     * that it is removed from the job registry and the journal as well.
+     */
+    private class JobFuture implements Future<Object> {
+        private final String id;
+        private final Future<?> future;
+
+        JobFuture(String id, Future<?> future) {
+            this.id = id;
+            this.future = future;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = future.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                JobManager.this.cancel(id);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return future.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return future.isDone();
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            return future.get();
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return future.get(timeout, unit);
+        }
+    }
+
+    /**
+     * Remove the job from journal once it is done.
+     */
+    private class JournaledJob implements Runnable {
+        private final String id;
+        private final Runnable runnable;
+
+        JournaledJob(String id, Runnable runnable) {
+            this.id = id;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            try {
+                runnable.run();
+            } finally {
+                JobJournal journal = JobManager.this.journal;
+                if (null != journal) {
+                    journal.done(id);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return runnable.toString();
         }
     }
 
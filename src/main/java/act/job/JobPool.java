@@ -0,0 +1,236 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.app.AppThreadFactory;
+import com.alibaba.fastjson.JSONObject;
+import org.osgl.logging.LogManager;
+import org.osgl.logging.Logger;
+import org.osgl.util.S;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A named executor pool that isolates a group of jobs from the others,
+ * so a slow group cannot starve jobs in other pools.
+ *
+ * The pool is configured with
+ *
+ * * `job.pool.<name>.size` - the number of threads
+ * * `job.pool.<name>.queue_size` - the maximum number of tasks submitted for
+ *   immediate execution that are waiting to run. Scheduled tasks are not
+ *   counted. `0` means unbounded
+ * * `job.pool.<name>.rejection` - the {@link RejectionPolicy} applied when
+ *   the queue is full
+ */
+public class JobPool implements Executor {
+
+    private static final Logger LOGGER = LogManager.get(JobPool.class);
+
+    /**
+     * The default pool name.
+     */
+    public static final String DEFAULT = "default";
+
+    /**
+     * Specifies what to do with a task submitted when the pool queue is full.
+     */
+    public enum RejectionPolicy {
+        /**
+         * Throw out {@link RejectedExecutionException}.
+         */
+        ABORT,
+
+        /**
+         * Run the task in the submitting thread.
+         */
+        CALLER_RUNS,
+
+        /**
+         * Drop the task silently.
+         */
+        DISCARD;
+
+        public static RejectionPolicy valueOfIgnoreCase(String s) {
+            return valueOf(s.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    private final String name;
+    private final int queueSize;
+    private final RejectionPolicy rejectionPolicy;
+    private final ScheduledThreadPoolExecutor executor;
+    private final AtomicLong rejected = new AtomicLong();
+    // number of tasks submitted for immediate execution and not started yet
+    private final AtomicInteger queued = new AtomicInteger();
+    // run tasks submitted for immediate execution, e.g. on virtual threads
+    private volatile ExecutorService immediateExecutor;
+
+    JobPool(String name, int size, int queueSize, RejectionPolicy rejectionPolicy) {
+        this.name = name;
+        this.queueSize = queueSize;
+        this.rejectionPolicy = rejectionPolicy;
+        String threadPoolName = DEFAULT.equals(name) ? "jobs" : S.concat("jobs-", name);
+        this.executor = new ScheduledThreadPoolExecutor(size, new AppThreadFactory(threadPoolName), new RejectedExecutionHandler() {
+            @Override
+            public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                rejected.incrementAndGet();
+                throw new RejectedExecutionException(S.concat("job pool[", JobPool.this.name, "] is shutdown"));
+            }
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns the status of the pool, including queue depth, active count and
+     * rejection count.
+     *
+     * @return the pool status
+     */
+    public JSONObject status() {
+        JSONObject json = new JSONObject();
+        json.put("name", name);
+        json.put("is shutdown", executor.isShutdown());
+        json.put("# of runnable in the queue", executor.getQueue().size());
+        json.put("# of queued immediate tasks", queued.get());
+        json.put("queue size", queueSize);
+        json.put("active count", executor.getActiveCount());
+        json.put("# of completed tasks", executor.getCompletedTaskCount());
+        json.put("# of rejected tasks", rejected.get());
+        json.put("rejection policy", rejectionPolicy);
+        json.put("core pool size", executor.getCorePoolSize());
+        json.put("pool size", executor.getPoolSize());
+        json.put("immediate executor", null == immediateExecutor ? null : immediateExecutor.getClass().getName());
+        return json;
+    }
+
+    public long rejectedCount() {
+        return rejected.get();
+    }
+
+    ScheduledThreadPoolExecutor executor() {
+        return executor;
+    }
+
+    /**
+     * Set the executor to run the tasks submitted for immediate execution.
+     * Scheduled tasks are still dispatched by the pool's own executor.
+     *
+     * @param immediateExecutor the executor
+     */
+    void immediateExecutor(ExecutorService immediateExecutor) {
+        this.immediateExecutor = immediateExecutor;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        submit(command);
+    }
+
+    Future<?> submit(Runnable task) {
+        return submit(Executors.callable(task));
+    }
+
+    <T> Future<T> submit(Callable<T> task) {
+        ExecutorService immediateExecutor = this.immediateExecutor;
+        if (null != immediateExecutor) {
+            return immediateExecutor.submit(task);
+        }
+        if (queueSize <= 0) {
+            return executor.submit(task);
+        }
+        if (queued.incrementAndGet() > queueSize) {
+            queued.decrementAndGet();
+            rejected.incrementAndGet();
+            FutureTask<T> future = new FutureTask<>(task);
+            switch (rejectionPolicy) {
+                case CALLER_RUNS:
+                    future.run();
+                    break;
+                case DISCARD:
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("job pool[%s] is full, task discarded: %s", name, task);
+                    }
+                    future.cancel(false);
+                    break;
+                default:
+                    throw new RejectedExecutionException(S.concat("job pool[", name, "] is full"));
+            }
+            return future;
+        }
+        QueuedTask<T> future = new QueuedTask<>(task);
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            future.dequeue();
+            throw e;
+        }
+        return future;
+    }
+
+    /**
+     * A task counted in the queue until it starts running or is cancelled.
+     */
+    private class QueuedTask<T> extends FutureTask<T> {
+        private final AtomicBoolean dequeued = new AtomicBoolean();
+
+        QueuedTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        @Override
+        public void run() {
+            dequeue();
+            super.run();
+        }
+
+        @Override
+        protected void done() {
+            dequeue();
+        }
+
+        void dequeue() {
+            if (dequeued.compareAndSet(false, true)) {
+                queued.decrementAndGet();
+            }
+        }
+    }
+
+    void shutdown() {
+        if (null != immediateExecutor) {
+            immediateExecutor.shutdownNow();
+        }
+        executor.getQueue().clear();
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return S.concat("job pool[", name, "]");
+    }
+}
@@ -40,8 +40,8 @@ import org.osgl.util.S;
 import org.rythmengine.utils.Time;
 
 import java.util.EventObject;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -249,6 +249,7 @@ public abstract class JobTrigger {
 
     static class _Cron extends JobTrigger {
         private CronExpression cronExpr;
+        private volatile boolean firstSchedule = true;
         _Cron(String expression) {
             cronExpr = new CronExpression(expression);
         }
@@ -276,15 +277,22 @@ public abstract class JobTrigger {
 
         private void delayedSchedule(JobManager manager, Job job) {
             DateTime now = DateTime.now();
-            // add one seconds to prevent the next time be the current time (now)
-            DateTime next = cronExpr.nextTimeAfter(now.plusSeconds(1));
-            Seconds seconds = Seconds.secondsBetween(now, next);
-            ScheduledFuture future = manager.executor().schedule(job, seconds.getSeconds(), TimeUnit.SECONDS);
+            long delay;
+            if (firstSchedule && manager.misfired(job.id(), cronExpr, now)) {
+                delay = 0;
+            } else {
+                // add one seconds to prevent the next time be the current time (now)
+                DateTime next = cronExpr.nextTimeAfter(now.plusSeconds(1));
+                delay = Seconds.secondsBetween(now, next).getSeconds();
+            }
+            firstSchedule = false;
+            ScheduledFuture future = manager.executor(job).schedule(job, delay, TimeUnit.SECONDS);
             manager.futureScheduled(job.id(), future);
         }
 
         @Override
         void scheduleFollowingCalls(JobManager manager, Job job) {
+            manager.fired(job.id());
             schedule(manager, job);
         }
     }
@@ -346,8 +354,7 @@ public abstract class JobTrigger {
 
         @Override
         protected void delayedSchedule(JobManager manager, Job job) {
-            ScheduledThreadPoolExecutor executor = manager.executor();
-            ScheduledFuture future = executor.scheduleWithFixedDelay(job, seconds, seconds, TimeUnit.SECONDS);
+            Future<?> future = manager.scheduleWithFixedDelay(job, seconds, TimeUnit.SECONDS);
             manager.futureScheduled(job.id(), future);
         }
     }
@@ -368,8 +375,7 @@ public abstract class JobTrigger {
 
         @Override
         protected void delayedSchedule(JobManager manager, Job job) {
-            ScheduledThreadPoolExecutor executor = manager.executor();
-            ScheduledFuture future = executor.scheduleAtFixedRate(job, seconds, seconds, TimeUnit.SECONDS);
+            Future<?> future = manager.scheduleAtFixedRate(job, seconds, TimeUnit.SECONDS);
             manager.futureScheduled(job.id(), future);
         }
     }
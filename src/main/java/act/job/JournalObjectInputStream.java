@@ -0,0 +1,108 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.util.C;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.util.Set;
+
+/**
+ * Deserialize journaled jobs with a restricted set of classes.
+ *
+ * A class is accepted if
+ *
+ * * it is defined by the application class loader, or
+ * * it is registered as a journaled job class, or
+ * * it is one of the common value and collection types of the JDK.
+ *
+ * Any other class, e.g. a class of some library on the classpath, is
+ * rejected before any object of it is created, so a tampered journal cannot
+ * instantiate arbitrary serializable classes.
+ */
+class JournalObjectInputStream extends ObjectInputStream {
+
+    private static final Set<String> JDK_CLASSES = C.set(
+            "java.lang.String", "java.lang.Boolean", "java.lang.Character", "java.lang.Number",
+            "java.lang.Byte", "java.lang.Short", "java.lang.Integer", "java.lang.Long",
+            "java.lang.Float", "java.lang.Double", "java.lang.Enum",
+            "java.math.BigInteger", "java.math.BigDecimal", "java.util.Date",
+            "java.util.ArrayList", "java.util.LinkedList", "java.util.HashMap", "java.util.LinkedHashMap",
+            "java.util.HashSet", "java.util.LinkedHashSet"
+    );
+
+    private final ClassLoader appClassLoader;
+    private final Set<String> jobClasses;
+
+    /**
+     * Construct a journal object input stream
+     *
+     * @param in
+     *      the input stream
+     * @param appClassLoader
+     *      the application class loader
+     * @param jobClasses
+     *      the names of classes registered as journaled jobs
+     * @throws IOException
+     *      if the stream header cannot be read
+     */
+    JournalObjectInputStream(InputStream in, ClassLoader appClassLoader, Set<String> jobClasses) throws IOException {
+        super(in);
+        this.appClassLoader = appClassLoader;
+        this.jobClasses = jobClasses;
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+        String name = desc.getName();
+        String component = componentName(name);
+        if (null == component) {
+            // array of primitives
+            return super.resolveClass(desc);
+        }
+        if (JDK_CLASSES.contains(component) || jobClasses.contains(component)) {
+            return Class.forName(name, false, appClassLoader);
+        }
+        Class<?> type = Class.forName(component, false, appClassLoader);
+        if (type.getClassLoader() != appClassLoader) {
+            throw new InvalidClassException(name, "class not allowed in job journal");
+        }
+        return Class.forName(name, false, appClassLoader);
+    }
+
+    /**
+     * Returns the element class name of an array class name, or the
+     * name itself if it is not an array. `null` is returned for
+     * primitive arrays.
+     */
+    private static String componentName(String name) {
+        if (!name.startsWith("[")) {
+            return name;
+        }
+        int i = name.lastIndexOf('[') + 1;
+        return name.charAt(i) == 'L' ? name.substring(i + 1, name.length() - 1) : null;
+    }
+
+}
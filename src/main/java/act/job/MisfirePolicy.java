@@ -0,0 +1,42 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Specifies what to do with a job that should have been fired while
+ * the application was not running.
+ *
+ * @see JobJournal
+ */
+public enum MisfirePolicy {
+
+    /**
+     * Skip the missed executions, the job is fired at the next scheduled time.
+     */
+    SKIP,
+
+    /**
+     * Fire the job once right after the application started, no matter
+     * how many executions were missed.
+     */
+    FIRE_ONCE
+
+}
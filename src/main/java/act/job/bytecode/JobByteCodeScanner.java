@@ -235,6 +235,8 @@ public class JobByteCodeScanner extends AppByteCodeScannerBase {
                         this.currentInfo.startImmediately = Boolean.parseBoolean(value.toString());
                     } else if ("delayInSeconds".equals(name)) {
                         this.currentInfo.delayInSeconds = Integer.parseInt(value.toString());
+                    } else if ("pool".equals(name)) {
+                        this.currentInfo.pool = S.string(value);
                     }
                     super.visit(name, value);
                 }
@@ -0,0 +1,336 @@
+package act.metric;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.util.StripedCounter;
+import org.osgl.$;
+import org.osgl.logging.LogManager;
+import org.osgl.logging.Logger;
+import org.osgl.util.C;
+import org.osgl.util.E;
+import org.osgl.util.S;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link MetricStore} implementation that is designed to be updated
+ * by many threads on the request path.
+ *
+ * Each metric name is resolved once into a {@link Node} that links to
+ * the node of its parent name. Updating a metric walks the node chain
+ * and increments {@link StripedCounter} cells without any further lookup.
+ * Timers also record the durations into a {@link LatencyHistogram} so
+ * that percentiles could be reported.
+ */
+public class HistogramMetricStore implements MetricStore, Serializable {
+
+    private transient static final Logger defLogger = LogManager.get("metric.default");
+
+    private static final long serialVersionUID = -2529178011519290471L;
+
+    private transient ConcurrentMap<String, Node> nodes = new ConcurrentHashMap<>();
+
+    private transient SimpleMetricPlugin plugin;
+    private transient MetricFileSynchronizer synchronizer;
+    private transient boolean dataSync = true;
+    // the data read from the persisted file, replayed by the store
+    // that has the plugin bound, see #restore(HistogramMetricStore)
+    private transient Map<String, long[]> persistedData;
+
+    public HistogramMetricStore(SimpleMetricPlugin plugin) {
+        this.plugin = $.requireNotNull(plugin);
+        synchronizer = new MetricFileSynchronizer();
+        restore(synchronizer.read(HistogramMetricStore.class));
+    }
+
+    /**
+     * Load the data of a store read from the persisted file.
+     *
+     * The nodes are created by this store instead of the persisted one
+     * as the latter is deserialized without the plugin and thus cannot
+     * resolve the logger of the metric names.
+     *
+     * @param persisted the persisted store, could be `null`
+     */
+    void restore(HistogramMetricStore persisted) {
+        if (null == persisted || null == persisted.persistedData) {
+            return;
+        }
+        for (Map.Entry<String, long[]> entry : persisted.persistedData.entrySet()) {
+            long[] la = entry.getValue();
+            Node node = node(entry.getKey());
+            node.count.add(la[0]);
+            node.ns.add(la[1]);
+            if (0 != la[2]) {
+                node.histogram();
+            }
+        }
+    }
+
+    @Override
+    public void countOnce(String name) {
+        E.illegalArgumentIf(S.blank(name), "name expected");
+        node(name).countOnce();
+    }
+
+    public void enableDataSync(boolean enabled) {
+        dataSync = enabled;
+    }
+
+    @Override
+    public void onTimerStart(String name) {
+        E.illegalArgumentIf(S.blank(name), "name expected");
+        Node node = node(name);
+        node.countOnce();
+        if (node.logger.isTraceEnabled()) {
+            node.logger.trace("Timer[%s] started", name);
+        }
+    }
+
+    @Override
+    public void onTimerStop(Timer timer) {
+        String name = timer.name();
+        long ns = timer.ns();
+        Node node = node(name);
+        if (node.logger.isTraceEnabled()) {
+            node.logger.trace("Timer[%s] stopped. Time elapsed: %sns", name, ns);
+        }
+        node.record(ns);
+    }
+
+    @Override
+    public Long count(String name) {
+        Node node = nodes.get(name);
+        return null == node ? null : node.count.sum();
+    }
+
+    @Override
+    public Long ns(String name) {
+        Node node = nodes.get(name);
+        return null == node || null == node.histogram ? null : node.ns.sum();
+    }
+
+    @Override
+    public List<MetricInfo> counters() {
+        List<MetricInfo> list = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            list.add(new MetricInfo(node.name, node.count.sum()));
+        }
+        return list;
+    }
+
+    @Override
+    public List<MetricInfo> timers() {
+        Set<MetricInfo> set = C.newSet();
+        for (Node node : nodes.values()) {
+            LatencyHistogram histogram = node.histogram;
+            if (null != histogram) {
+                set.add(new MetricInfo(node.name, node.ns.sum(), node.count.sum(), histogram.snapshot()));
+            }
+        }
+        return C.list(set);
+    }
+
+    /**
+     * Reset all metric data.
+     *
+     * Note the nodes are kept so that any reference to a
+     * node remains valid after data cleared.
+     */
+    @Override
+    public void clear() {
+        for (Node node : nodes.values()) {
+            node.reset();
+        }
+    }
+
+    public void takeSnapshot() {
+        if (dataSync) {
+            synchronizer.write(this);
+        }
+    }
+
+    /**
+     * Returns a {@link MetricHandle} bound to the node of the name specified.
+     *
+     * @param name the metric name
+     * @return the metric handle
+     */
+    public MetricHandle handle(String name) {
+        E.illegalArgumentIf(S.blank(name), "name expected");
+        return node(name);
+    }
+
+    /**
+     * Returns the node of the metric name specified. The node and
+     * all its ancestors are created on the first call.
+     *
+     * @param name the metric name
+     * @return the node of the name
+     */
+    Node node(String name) {
+        Node node = nodes.get(name);
+        if (null == node) {
+            String parentName = S.beforeLast(name, Metric.PATH_SEPARATOR);
+            Node parent = S.blank(parentName) ? null : node(parentName);
+            Node newNode = new Node(name, parent, logger(name));
+            node = nodes.putIfAbsent(name, newNode);
+            if (null == node) {
+                node = newNode;
+            }
+        }
+        return node;
+    }
+
+    private Logger logger(String name) {
+        Logger logger = null == plugin ? null : plugin.logger(name);
+        return null == logger ? defLogger : logger;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        Map<String, long[]> data = new HashMap<>();
+        for (Node node : nodes.values()) {
+            data.put(node.name, new long[]{node.count.sum(), node.ns.sum(), null == node.histogram ? 0 : 1});
+        }
+        out.writeObject(data);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        persistedData = $.cast(in.readObject());
+        nodes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * The pre-resolved counter and timer cells of a metric name.
+     */
+    static final class Node implements MetricHandle {
+        final String name;
+        final Node parent;
+        final Logger logger;
+        final StripedCounter count = new StripedCounter();
+        final StripedCounter ns = new StripedCounter();
+        volatile LatencyHistogram histogram;
+
+        Node(String name, Node parent, Logger logger) {
+            this.name = name;
+            this.parent = parent;
+            this.logger = logger;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void countOnce() {
+            for (Node node = this; null != node; node = node.parent) {
+                node.count.increment();
+            }
+        }
+
+        @Override
+        public Timer startTimer() {
+            countOnce();
+            if (logger.isTraceEnabled()) {
+                logger.trace("Timer[%s] started", name);
+            }
+            return new NodeTimer(this);
+        }
+
+        void record(long duration) {
+            for (Node node = this; null != node; node = node.parent) {
+                node.ns.add(duration);
+                node.histogram().record(duration);
+            }
+        }
+
+        LatencyHistogram histogram() {
+            LatencyHistogram histogram = this.histogram;
+            if (null == histogram) {
+                synchronized (this) {
+                    histogram = this.histogram;
+                    if (null == histogram) {
+                        histogram = new LatencyHistogram();
+                        this.histogram = histogram;
+                    }
+                }
+            }
+            return histogram;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+
+        void reset() {
+            count.reset();
+            ns.reset();
+            LatencyHistogram histogram = this.histogram;
+            if (null != histogram) {
+                histogram.reset();
+            }
+        }
+    }
+
+    private static final class NodeTimer implements Timer {
+        private final Node node;
+        private final long start;
+        private long duration;
+
+        NodeTimer(Node node) {
+            this.node = node;
+            this.start = $.ns();
+        }
+
+        @Override
+        public String name() {
+            return node.name;
+        }
+
+        @Override
+        public void stop() {
+            duration = $.ns() - start;
+            if (node.logger.isTraceEnabled()) {
+                node.logger.trace("Timer[%s] stopped. Time elapsed: %sns", node.name, duration);
+            }
+            node.record(duration);
+        }
+
+        @Override
+        public long ns() {
+            return duration;
+        }
+
+        @Override
+        public void close() {
+            stop();
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+package act.metric;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A log-linear latency histogram in the spirit of HdrHistogram.
+ *
+ * Durations are recorded in nanoseconds into buckets spanning about
+ * 6% of the value. Each thread records into its own stripe of bucket
+ * counters, stripes are merged when a {@link Snapshot} is taken.
+ */
+class LatencyHistogram {
+
+    // 16 sub buckets for each power of two
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    // values below 2^MIN_EXP ns (~1us) are recorded linearly
+    private static final int MIN_EXP = 10;
+    // values above 2^MAX_EXP ns (~9.7h) are recorded into the last bucket
+    private static final int MAX_EXP = 45;
+
+    static final int BUCKETS = (MAX_EXP - MIN_EXP + 2) << SUB_BITS;
+
+    private static final int STRIPES = stripes();
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long ns) {
+        if (ns < 0) {
+            ns = 0;
+        }
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        AtomicLongArray counts = stripes.get(stripe);
+        if (null == counts) {
+            stripes.compareAndSet(stripe, null, new AtomicLongArray(BUCKETS));
+            counts = stripes.get(stripe);
+        }
+        counts.incrementAndGet(index(ns));
+        long curMax = max.get();
+        while (ns > curMax && !max.compareAndSet(curMax, ns)) {
+            curMax = max.get();
+        }
+    }
+
+    void reset() {
+        for (int i = 0; i < STRIPES; ++i) {
+            stripes.set(i, null);
+        }
+        max.set(0);
+    }
+
+    Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < STRIPES; ++i) {
+            AtomicLongArray stripe = stripes.get(i);
+            if (null == stripe) {
+                continue;
+            }
+            for (int j = 0; j < BUCKETS; ++j) {
+                long n = stripe.get(j);
+                counts[j] += n;
+                total += n;
+            }
+        }
+        return new Snapshot(counts, total, max.get());
+    }
+
+    static int index(long ns) {
+        if (ns < (1L << MIN_EXP)) {
+            return (int) (ns >>> (MIN_EXP - SUB_BITS));
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(ns);
+        if (exp > MAX_EXP) {
+            return BUCKETS - 1;
+        }
+        return ((exp - MIN_EXP + 1) << SUB_BITS) + (int) ((ns >>> (exp - SUB_BITS)) & (SUB_COUNT - 1));
+    }
+
+    /**
+     * Returns the value in the middle of the bucket specified
+     */
+    static long valueOf(int index) {
+        int group = index >>> SUB_BITS;
+        int sub = index & (SUB_COUNT - 1);
+        if (0 == group) {
+            long width = 1L << (MIN_EXP - SUB_BITS);
+            return sub * width + (width >> 1);
+        }
+        int exp = group + MIN_EXP - 1;
+        long width = 1L << (exp - SUB_BITS);
+        return (1L << exp) + sub * width + (width >> 1);
+    }
+
+    private static int stripes() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int n = 1;
+        while (n < cpus && n < 32) {
+            n <<= 1;
+        }
+        return n;
+    }
+
+    static class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long max;
+
+        Snapshot(long[] counts, long count, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.max = max;
+        }
+
+        long count() {
+            return count;
+        }
+
+        long max() {
+            return max;
+        }
+
+        /**
+         * Returns the value at the percentile specified
+         *
+         * @param percentile the percentile, e.g. `99.0`
+         * @return the value in nanoseconds
+         */
+        long percentile(double percentile) {
+            if (0 == count) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile / 100.0d * count);
+            if (rank < 1) {
+                rank = 1;
+            }
+            long seen = 0;
+            for (int i = 0; i < counts.length; ++i) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(valueOf(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
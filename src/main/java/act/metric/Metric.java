@@ -97,4 +97,45 @@ public interface Metric {
      */
     Timer startTimer(String name);
 
+    enum Util {
+        ;
+
+        /**
+         * Returns a {@link MetricHandle} of the name specified on a metric.
+         *
+         * Calling {@link MetricHandle#countOnce()} and {@link MetricHandle#startTimer()}
+         * on the handle returned has the same effect as calling {@link #countOnce(String)}
+         * and {@link #startTimer(String)} with the `name`. The built-in metric resolves
+         * the name in advance, other implementations are called by name.
+         *
+         * @param metric the metric
+         * @param name A string specifies the counter and timer
+         * @return the metric handle
+         */
+        public static MetricHandle handle(final Metric metric, final String name) {
+            if (metric instanceof SimpleMetric) {
+                return ((SimpleMetric) metric).handle(name);
+            }
+            if (NULL_METRIC == metric) {
+                return NullMetric.NULL_HANDLE;
+            }
+            return new MetricHandle() {
+                @Override
+                public String name() {
+                    return name;
+                }
+
+                @Override
+                public void countOnce() {
+                    metric.countOnce(name);
+                }
+
+                @Override
+                public Timer startTimer() {
+                    return metric.startTimer(name);
+                }
+            };
+        }
+    }
+
 }
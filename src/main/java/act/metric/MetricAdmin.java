@@ -63,7 +63,7 @@ public class MetricAdmin {
     }
 
     @Command(name = "act.metric.timer.list", help = "list all timers")
-    @PropertySpec("name,accumulated,count,avg")
+    @PropertySpec("name,accumulated,count,avg,p50,p95,p99,max")
     public Object getTimers(
             @Optional("specify maximum items returned") Integer limit,
             @Optional("display in tree view") boolean tree,
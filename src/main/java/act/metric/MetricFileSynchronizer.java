@@ -0,0 +1,87 @@
+package act.metric;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.util.LogSupport;
+import org.osgl.util.E;
+import org.osgl.util.IO;
+
+import java.io.*;
+
+/**
+ * Persist metric store into a local file
+ */
+class MetricFileSynchronizer extends LogSupport {
+    private static final String FILE_NAME = ".act.metric";
+    private boolean ioError = false;
+
+    void write(Serializable store) {
+        if (ioError) {
+            return;
+        }
+        ObjectOutputStream oos = null;
+        try {
+            File file = new File(FILE_NAME);
+            oos = new ObjectOutputStream(new FileOutputStream(file));
+            oos.writeObject(store);
+        } catch (IOException e) {
+            ioError = true;
+            throw E.ioException(e);
+        } finally {
+            IO.close(oos);
+        }
+    }
+
+    <T extends MetricStore> T read(Class<T> storeType) {
+        File file = new File(FILE_NAME);
+        if (file.exists() && file.canRead()) {
+            ObjectInputStream ois = null;
+            try {
+                ois = new ObjectInputStream(new FileInputStream(file));
+                Object store = ois.readObject();
+                if (storeType.isInstance(store)) {
+                    return storeType.cast(store);
+                }
+                warn("Persisted metric store type mismatch: %s. Will reset file: %s", store.getClass().getName(), file.getAbsolutePath());
+                reset(file);
+                return null;
+            } catch (IOException e) {
+                ioError = true;
+                error(e, "Error reading simple metric store persisted file:%s. Will reset this file", file.getAbsolutePath());
+                reset(file);
+                return null;
+            } catch (ClassNotFoundException e) {
+                throw E.unexpected(e);
+            } finally {
+                IO.close(ois);
+            }
+        } else {
+            return null;
+        }
+    }
+
+    private void reset(File file) {
+        if (!file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+}
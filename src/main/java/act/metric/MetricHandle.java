@@ -0,0 +1,55 @@
+package act.metric;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * A `MetricHandle` is a metric name resolved in advance.
+ *
+ * Use a handle when the same metric is updated very frequently, e.g.
+ * on every request. It saves the cost of looking up the metric
+ * by name on each update.
+ *
+ * @see Metric.Util#handle(Metric, String)
+ */
+public interface MetricHandle {
+
+    /**
+     * Returns the metric name of this handle
+     *
+     * @return the metric name
+     */
+    String name();
+
+    /**
+     * Increase one time for the counter of this handle
+     */
+    void countOnce();
+
+    /**
+     * Start a {@link Timer} of this handle.
+     *
+     * Note calling this method shall also increase the counter of this handle
+     *
+     * @return a Timer instance
+     */
+    Timer startTimer();
+
+}
@@ -36,6 +36,10 @@ public class MetricInfo {
     private String name;
     private long count;
     private Long ns;
+    private Long p50;
+    private Long p95;
+    private Long p99;
+    private Long max;
 
     MetricInfo(String name, long count) {
         this.name = name;
@@ -48,6 +52,16 @@ public class MetricInfo {
         this.count = count;
     }
 
+    MetricInfo(String name, long ns, long count, LatencyHistogram.Snapshot histogram) {
+        this(name, ns, count);
+        if (histogram.count() > 0) {
+            this.p50 = histogram.percentile(50);
+            this.p95 = histogram.percentile(95);
+            this.p99 = histogram.percentile(99);
+            this.max = histogram.max();
+        }
+    }
+
     public String getName() {
         return name;
     }
@@ -84,6 +98,22 @@ public class MetricInfo {
         return DurationScale.format(ns / count);
     }
 
+    public String getP50() {
+        return null == p50 ? null : DurationScale.format(p50);
+    }
+
+    public String getP95() {
+        return null == p95 ? null : DurationScale.format(p95);
+    }
+
+    public String getP99() {
+        return null == p99 ? null : DurationScale.format(p99);
+    }
+
+    public String getMax() {
+        return null == max ? null : DurationScale.format(max);
+    }
+
     @Override
     public int hashCode() {
         return $.hc(name);
@@ -171,7 +171,11 @@ public class MetricInfoTree {
     static final NodeDecorator TIMER = new NodeDecorator(new $.Transformer<MetricInfo, String>() {
         @Override
         public String transform(MetricInfo metricInfo) {
-            return S.fmt("%s: %s / %s = %s", metricInfo.getName(), metricInfo.getAccumulated(), metricInfo.getCountAsStr(), metricInfo.getAvg());
+            String s = S.fmt("%s: %s / %s = %s", metricInfo.getName(), metricInfo.getAccumulated(), metricInfo.getCountAsStr(), metricInfo.getAvg());
+            if (null != metricInfo.getP50()) {
+                s = S.fmt("%s (p50: %s, p95: %s, p99: %s, max: %s)", s, metricInfo.getP50(), metricInfo.getP95(), metricInfo.getP99(), metricInfo.getMax());
+            }
+            return s;
         }
     });
 
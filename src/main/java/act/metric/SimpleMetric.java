@@ -42,4 +42,33 @@ public class SimpleMetric implements Metric {
         metricStore.countOnce(name);
     }
 
+    /**
+     * Returns a {@link MetricHandle} of the name specified.
+     *
+     * @param name A string specifies the counter and timer
+     * @return the metric handle
+     * @see Metric.Util#handle(Metric, String)
+     */
+    public MetricHandle handle(final String name) {
+        if (metricStore instanceof HistogramMetricStore) {
+            return ((HistogramMetricStore) metricStore).handle(name);
+        }
+        return new MetricHandle() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public void countOnce() {
+                metricStore.countOnce(name);
+            }
+
+            @Override
+            public Timer startTimer() {
+                return new SimpleTimer(name, metricStore);
+            }
+        };
+    }
+
 }
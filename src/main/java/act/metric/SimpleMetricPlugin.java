@@ -36,7 +36,7 @@ import java.util.Map;
 public class SimpleMetricPlugin implements MetricPlugin {
 
     private Map<String, Logger> enabledMap = new HashMap<>();
-    private SimpleMetricStore defaultMetricStore = new SimpleMetricStore(this);
+    private HistogramMetricStore defaultMetricStore = new HistogramMetricStore(this);
     private Metric defaultMetric = new SimpleMetric(defaultMetricStore);
 
     public SimpleMetricPlugin() {
@@ -83,7 +83,7 @@ public class SimpleMetricPlugin implements MetricPlugin {
             MetricPlugin plugin = Act.metricPlugin();
             if (plugin instanceof SimpleMetricPlugin) {
                 SimpleMetricPlugin smp = (SimpleMetricPlugin) plugin;
-                final SimpleMetricStore store = $.cast(smp.defaultMetricStore);
+                final HistogramMetricStore store = smp.defaultMetricStore;
                 final Runnable takeSnapshot = new Runnable() {
                     @Override
                     public void run() {
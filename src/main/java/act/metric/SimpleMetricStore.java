@@ -20,16 +20,14 @@ package act.metric;
  * #L%
  */
 
-import act.util.LogSupport;
 import org.osgl.$;
 import org.osgl.logging.LogManager;
 import org.osgl.logging.Logger;
 import org.osgl.util.C;
 import org.osgl.util.E;
-import org.osgl.util.IO;
 import org.osgl.util.S;
 
-import java.io.*;
+import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -52,13 +50,13 @@ public class SimpleMetricStore implements MetricStore, Serializable {
     private ConcurrentMap<String, AtomicLong> timers = new ConcurrentHashMap<String, AtomicLong>();
 
     private transient SimpleMetricPlugin plugin;
-    private transient FileSynchronizer synchronizer;
+    private transient MetricFileSynchronizer synchronizer;
     private transient boolean dataSync = true;
 
     public SimpleMetricStore(SimpleMetricPlugin plugin) {
         this.plugin = $.requireNotNull(plugin);
-        synchronizer = new FileSynchronizer();
-        SimpleMetricStore persisted = synchronizer.read();
+        synchronizer = new MetricFileSynchronizer();
+        SimpleMetricStore persisted = synchronizer.read(SimpleMetricStore.class);
         if (null != persisted) {
             counters = persisted.counters;
             timers = persisted.timers;
@@ -173,53 +171,4 @@ public class SimpleMetricStore implements MetricStore, Serializable {
         return S.beforeLast(name, ":");
     }
 
-    private static class FileSynchronizer extends LogSupport {
-        private static final String FILE_NAME = ".act.metric";
-        private boolean ioError = false;
-
-        void write(SimpleMetricStore store) {
-            if (ioError) {
-                return;
-            }
-            ObjectOutputStream oos = null;
-            try {
-                File file = new File(FILE_NAME);
-                oos = new ObjectOutputStream(new FileOutputStream(file));
-                oos.writeObject(store);
-            } catch (IOException e) {
-                ioError = true;
-                throw E.ioException(e);
-            } finally {
-                IO.close(oos);
-            }
-        }
-
-        SimpleMetricStore read() {
-            File file = new File(FILE_NAME);
-            if (file.exists() && file.canRead()) {
-                ObjectInputStream ois = null;
-                try {
-                    ois = new ObjectInputStream(new FileInputStream(file));
-                    SimpleMetricStore store = $.cast(ois.readObject());
-                    return store;
-                } catch (IOException e) {
-                    ioError = true;
-                    error(e, "Error reading simple metric store persisted file:%s. Will reset this file", file.getAbsolutePath());
-                    if (!file.delete()) {
-                        file.deleteOnExit();
-                    }
-                    return null;
-                } catch (ClassNotFoundException e) {
-                    throw E.unexpected(e);
-                } finally {
-                    IO.close(ois);
-                }
-            } else {
-                return null;
-            }
-        }
-
-
-    }
-
 }
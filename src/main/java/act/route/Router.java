@@ -100,6 +100,10 @@ public class Router extends AppHolderBase<Router> {
     private int port;
     private OptionsInfoBase optionHandlerFactory;
     private Set<RequestHandler> requireBodyParsing = new HashSet<>();
+    private boolean compiledRouting;
+    // compiled route trees indexed the same way as `targetMethods`
+    // will be reset to `null` whenever route mapping changed
+    private volatile CompiledNode[] compiledRoots;
 
     public Router(App app) {
         this(null, app, null);
@@ -124,6 +128,7 @@ public class Router extends AppHolderBase<Router> {
             this.port = appConfig.httpSecure() ? appConfig.httpExternalSecurePort() : appConfig.httpExternalPort();
         }
         this.optionHandlerFactory = new OptionsInfoBase(this);
+        this.compiledRouting = appConfig.compiledRouterEnabled();
         _GET = Node.newRoot("GET", appConfig);
         _PUT = Node.newRoot("PUT", appConfig);
         _POST = Node.newRoot("POST", appConfig);
@@ -138,6 +143,7 @@ public class Router extends AppHolderBase<Router> {
         _POST.destroy();
         _PUT.destroy();
         _PATCH.destroy();
+        compiledRoots = null;
         handlerLookup.destroy();
         actionNames.clear();
         appConfig = null;
@@ -225,8 +231,15 @@ public class Router extends AppHolderBase<Router> {
         if (null == node) {
             return UnknownHttpMethodHandler.INSTANCE;
         }
-        node = search(node, Path.tokenizer(Unsafe.bufOf(path)), context);
-        RequestHandler handler = getInvokerFrom(node);
+        RequestHandler handler;
+        if (compiledRouting) {
+            CompiledNode compiled = compiledRoot(method).search(Unsafe.bufOf(path), context);
+            node = null == compiled ? null : compiled.node;
+            handler = null == compiled ? notFound() : compiled.handler;
+        } else {
+            node = search(node, Path.tokenizer(Unsafe.bufOf(path)), context);
+            handler = getInvokerFrom(node);
+        }
         RequestHandler blockIssueHandler = app().blockIssueHandler();
         if (null == blockIssueHandler || (handler instanceof FileGetter || handler instanceof ResourceGetter)) {
             if (null != node) {
@@ -250,7 +263,7 @@ public class Router extends AppHolderBase<Router> {
         return null == node ? null : node.handler;
     }
 
-    private RequestHandler getInvokerFrom(Node node) {
+    private static RequestHandler getInvokerFrom(Node node) {
         if (null == node) {
             return notFound();
         }
@@ -318,7 +331,6 @@ public class Router extends AppHolderBase<Router> {
         addMapping(method, path, handler, RouteSource.ROUTE_TABLE);
     }
 
-    @SuppressWarnings("FallThrough")
     public void addMapping(final H.Method method, final String path, RequestHandler handler, final RouteSource source) {
         if (isTraceEnabled()) {
             trace("R+ %s %s | %s (%s)", method, path, handler, source);
@@ -333,6 +345,19 @@ public class Router extends AppHolderBase<Router> {
                 }
             }
         }
+        // mutate the route tree under the lock of compile() and invalidate the
+        // compiled snapshot afterwards, so no snapshot misses the new route
+        synchronized (this) {
+            try {
+                _addMapping(method, path, handler, source);
+            } finally {
+                compiledRoots = null;
+            }
+        }
+    }
+
+    @SuppressWarnings("FallThrough")
+    private void _addMapping(final H.Method method, final String path, RequestHandler handler, final RouteSource source) {
         Node node = _locate(method, path, handler.toString());
         if (null == node.handler) {
             Set<Node> conflicts = node.conflicts();
@@ -715,6 +740,39 @@ public class Router extends AppHolderBase<Router> {
         return targetMethods;
     }
 
+    private CompiledNode compiledRoot(H.Method method) {
+        CompiledNode[] roots = compiledRoots;
+        if (null == roots) {
+            roots = compile();
+        }
+        switch (method) {
+            case GET:
+                return roots[0];
+            case POST:
+                return roots[1];
+            case DELETE:
+                return roots[2];
+            case PUT:
+                return roots[3];
+            case PATCH:
+                return roots[4];
+            default:
+                throw E.unexpected("HTTP Method not supported: %s", method);
+        }
+    }
+
+    private synchronized CompiledNode[] compile() {
+        CompiledNode[] roots = compiledRoots;
+        if (null == roots) {
+            roots = new CompiledNode[targetMethods.length];
+            for (int i = 0; i < roots.length; ++i) {
+                roots[i] = CompiledNode.compile(root(targetMethods[i]));
+            }
+            compiledRoots = roots;
+        }
+        return roots;
+    }
+
     private Node search(Node rootNode, Iterator<String> path, ActionContext context) {
         Node node = rootNode;
         if (node.terminateRouteSearch() && !context.urlPath().isBuiltIn()) {
@@ -1067,41 +1125,49 @@ public class Router extends AppHolderBase<Router> {
                             break;
                         }
                     }
-                    if (MATCH_ALL == targetNode.patternTrait) {
-                        context.urlPathParam(targetNode.varNames.get(0), name);
+                    if (targetNode.bindIfMatches(name, context)) {
                         return targetNode;
                     }
-                    Pattern pattern = targetNode.pattern;
-                    Matcher matcher = null == pattern ? null : pattern.matcher(name);
-                    if (null != matcher && matcher.matches()) {
-                        if (!targetNode.nodeValueBuilders.isEmpty()) {
-                            for (String varName : targetNode.varNames) {
-                                String varNameStr = varName;
-                                try {
-                                    String varValue = matcher.group(varNameStr);
-                                    if (S.notBlank(varValue)) {
-                                        context.urlPathParam(varNameStr, S.string(varValue));
-                                    }
-                                } catch (IllegalArgumentException e) {
-                                    if (e.getMessage().contains("No group with name")) {
-                                        String escaped = escapeUnderscore(varNameStr);
-                                        String varValue = matcher.group(escaped);
-                                        if (S.notBlank(varValue)) {
-                                            context.urlPathParam(varNameStr, S.string(varValue));
-                                        }
-                                    }
-                                }
+                }
+                return Node.BADREQUEST;
+            }
+            return node;
+        }
+
+        // match a dynamic node against a URL path element and
+        // populate URL path params to the context if matched
+        boolean bindIfMatches(String name, ActionContext context) {
+            if (MATCH_ALL == patternTrait) {
+                context.urlPathParam(varNames.get(0), name);
+                return true;
+            }
+            Matcher matcher = null == pattern ? null : pattern.matcher(name);
+            if (null == matcher || !matcher.matches()) {
+                return false;
+            }
+            if (!nodeValueBuilders.isEmpty()) {
+                for (String varName : varNames) {
+                    String varNameStr = varName;
+                    try {
+                        String varValue = matcher.group(varNameStr);
+                        if (S.notBlank(varValue)) {
+                            context.urlPathParam(varNameStr, S.string(varValue));
+                        }
+                    } catch (IllegalArgumentException e) {
+                        if (e.getMessage().contains("No group with name")) {
+                            String escaped = escapeUnderscore(varNameStr);
+                            String varValue = matcher.group(escaped);
+                            if (S.notBlank(varValue)) {
+                                context.urlPathParam(varNameStr, S.string(varValue));
                             }
-                        } else {
-                            String varName = targetNode.varNames.get(0);
-                            context.urlPathParam(varName, S.string(name));
                         }
-                        return targetNode;
                     }
                 }
-                return Node.BADREQUEST;
+            } else {
+                String varName = varNames.get(0);
+                context.urlPathParam(varName, S.string(name));
             }
-            return node;
+            return true;
         }
 
         @Override
@@ -1475,6 +1541,255 @@ public class Router extends AppHolderBase<Router> {
         }
     }
 
+    /**
+     * A read-only, flattened snapshot of a {@link Node} tree.
+     *
+     * The compiled tree matches directly against the chars of the
+     * request path: static children are kept in an open addressing table
+     * keyed by the raw chars of the path element, thus routing through
+     * static path elements does not allocate any String. Keyword matching
+     * and dynamic matching work exactly the same way as {@link Node#child(String, ActionContext)}
+     * does, with the dynamic children and their aliases pre-ordered into arrays.
+     */
+    private static final class CompiledNode {
+
+        private static final CompiledNode BADREQUEST = new CompiledNode(Node.BADREQUEST);
+
+        private static final char[][] NO_KEYS = new char[0][];
+        private static final CompiledNode[] NO_NODES = new CompiledNode[0];
+
+        private final Node node;
+        // the handler resolved by `getInvokerFrom(node)`
+        private final RequestHandler handler;
+        private final boolean ignoreRestParts;
+
+        private char[][] staticKeys = NO_KEYS;
+        private CompiledNode[] staticChildren = NO_NODES;
+        private int staticMask;
+        private int staticShift;
+
+        private Map<Keyword, CompiledNode> keywordMatchingChildren;
+
+        private CompiledNode[] dynamicChildren = NO_NODES;
+        // element is `null` if the dynamic child does not have alias other than itself
+        private UrlPath[][] dynamicAliasPaths;
+        private CompiledNode[][] dynamicAliasNodes;
+
+        private CompiledNode(Node node) {
+            this.node = node;
+            this.handler = getInvokerFrom(node);
+            this.ignoreRestParts = node.ignoreRestParts();
+        }
+
+        static CompiledNode compile(Node root) {
+            return compile(root, new IdentityHashMap<Node, CompiledNode>());
+        }
+
+        private static CompiledNode compile(Node node, Map<Node, CompiledNode> registry) {
+            CompiledNode compiled = registry.get(node);
+            if (null == compiled) {
+                compiled = new CompiledNode(node);
+                registry.put(node, compiled);
+                compiled.compileChildren(registry);
+            }
+            return compiled;
+        }
+
+        private void compileChildren(Map<Node, CompiledNode> registry) {
+            int size = node.staticChildren.size();
+            if (size > 0) {
+                int bits = 1;
+                while ((1 << bits) < size * 2) {
+                    bits++;
+                }
+                int capacity = 1 << bits;
+                staticKeys = new char[capacity][];
+                staticChildren = new CompiledNode[capacity];
+                staticMask = capacity - 1;
+                staticShift = 32 - bits;
+                for (Map.Entry<String, Node> entry : node.staticChildren.entrySet()) {
+                    String key = entry.getKey();
+                    int slot = slot(key.hashCode());
+                    while (null != staticKeys[slot]) {
+                        slot = (slot + 1) & staticMask;
+                    }
+                    staticKeys[slot] = key.toCharArray();
+                    staticChildren[slot] = compile(entry.getValue(), registry);
+                }
+            }
+            if (node.hasKeywordMatchingChild) {
+                keywordMatchingChildren = new HashMap<>();
+                for (Map.Entry<Keyword, Node> entry : node.keywordMatchingChildren.entrySet()) {
+                    keywordMatchingChildren.put(entry.getKey(), compile(entry.getValue(), registry));
+                }
+            }
+            size = node.dynamicChilds.size();
+            if (size > 0) {
+                dynamicChildren = new CompiledNode[size];
+                dynamicAliasPaths = new UrlPath[size][];
+                dynamicAliasNodes = new CompiledNode[size][];
+                for (int i = 0; i < size; ++i) {
+                    Node child = node.dynamicChilds.get(i);
+                    dynamicChildren[i] = compile(child, registry);
+                    Map<UrlPath, Node> aliases = child.dynamicAliases;
+                    if (aliases.size() == 1 && aliases.values().iterator().next() == child) {
+                        continue;
+                    }
+                    UrlPath[] paths = new UrlPath[aliases.size()];
+                    CompiledNode[] nodes = new CompiledNode[aliases.size()];
+                    int j = 0;
+                    for (Map.Entry<UrlPath, Node> entry : aliases.entrySet()) {
+                        paths[j] = entry.getKey();
+                        nodes[j++] = compile(entry.getValue(), registry);
+                    }
+                    dynamicAliasPaths[i] = paths;
+                    dynamicAliasNodes[i] = nodes;
+                }
+            }
+        }
+
+        /**
+         * Search the compiled tree for the node matches the path specified.
+         *
+         * This method shall be called on a compiled root node only. Path elements
+         * are separated by `/` and the search stops at `?`, the same as
+         * {@link Path#tokenizer(char[])} does.
+         *
+         * @param path
+         *         the chars of the request path
+         * @param context
+         *         the action context
+         * @return the node matches the path or `null` if not found
+         */
+        CompiledNode search(char[] path, ActionContext context) {
+            if (node.terminateRouteSearch() && !context.urlPath().isBuiltIn()) {
+                context.param(ParamNames.PATH, remaining(path, 0));
+                return this;
+            }
+            final int len = path.length;
+            int cursor = 0;
+            CompiledNode node = this;
+            while (null != node) {
+                while (cursor < len && '/' == path[cursor]) {
+                    cursor++;
+                }
+                if (cursor >= len || '?' == path[cursor]) {
+                    break;
+                }
+                int end = cursor + 1;
+                while (end < len) {
+                    char c = path[end];
+                    if ('/' == c || '?' == c) {
+                        break;
+                    }
+                    end++;
+                }
+                node = node.child(path, cursor, end, context);
+                cursor = end;
+                // note `terminateRouteSearch()` is not cached as it might
+                // depend on file system state, e.g. `FileGetter`
+                if (null != node && (node.node.terminateRouteSearch() || node.ignoreRestParts)) {
+                    context.param(ParamNames.PATH, remaining(path, cursor));
+                    break;
+                }
+            }
+            return node;
+        }
+
+        private CompiledNode child(char[] path, int start, int end, ActionContext context) {
+            if (staticChildren.length > 0) {
+                int hash = 0;
+                for (int i = start; i < end; ++i) {
+                    hash = 31 * hash + path[i];
+                }
+                int slot = slot(hash);
+                char[] key;
+                while (null != (key = staticKeys[slot])) {
+                    if (matches(key, path, start, end)) {
+                        return staticChildren[slot];
+                    }
+                    slot = (slot + 1) & staticMask;
+                }
+            }
+            if (null == keywordMatchingChildren && dynamicChildren.length == 0) {
+                return null;
+            }
+            String name = new String(path, start, end - start);
+            if (null != keywordMatchingChildren) {
+                CompiledNode node = keywordMatchingChildren.get(Keyword.of(name));
+                if (null != node) {
+                    return node;
+                }
+            }
+            if (dynamicChildren.length == 0) {
+                return null;
+            }
+            UrlPath urlPath = null;
+            for (int i = 0, n = dynamicChildren.length; i < n; ++i) {
+                CompiledNode target = dynamicChildren[i];
+                UrlPath[] aliasPaths = dynamicAliasPaths[i];
+                if (null != aliasPaths) {
+                    if (null == urlPath) {
+                        urlPath = context.urlPath();
+                    }
+                    for (int j = 0; j < aliasPaths.length; ++j) {
+                        if (aliasPaths[j].equals(urlPath)) {
+                            target = dynamicAliasNodes[i][j];
+                            break;
+                        }
+                    }
+                }
+                if (target.node.bindIfMatches(name, context)) {
+                    return target;
+                }
+            }
+            return BADREQUEST;
+        }
+
+        private static boolean matches(char[] key, char[] path, int start, int end) {
+            if (key.length != end - start) {
+                return false;
+            }
+            for (int i = key.length - 1; i >= 0; --i) {
+                if (key[i] != path[start + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // path elements like `order1`, `order2` ... come with sequential hash codes,
+        // use fibonacci hashing to scatter them and avoid long probing sequence
+        private int slot(int hash) {
+            return (hash * 0x9E3779B9) >>> staticShift;
+        }
+
+        // build the rest of the path starting from the position specified
+        private static String remaining(char[] path, int from) {
+            final int len = path.length;
+            S.Buffer sb = null;
+            int cursor = from;
+            while (true) {
+                while (cursor < len && '/' == path[cursor]) {
+                    cursor++;
+                }
+                if (cursor >= len || '?' == path[cursor]) {
+                    break;
+                }
+                int end = cursor + 1;
+                while (end < len && '/' != path[end] && '?' != path[end]) {
+                    end++;
+                }
+                if (null == sb) {
+                    sb = S.buffer();
+                }
+                sb.append('/').append(path, cursor, end - cursor);
+                cursor = end;
+            }
+            return null == sb ? "" : sb.toString();
+        }
+    }
+
     private enum BuiltInHandlerDecorator {
         authenticated, external, throttled
     }
@@ -0,0 +1,129 @@
+package act.session;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.app.App;
+import org.osgl.$;
+import org.osgl.cache.CacheService;
+import org.osgl.util.S;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Implement {@link SessionStore} with the application's session
+ * {@link CacheService}, as configured by {@link act.conf.AppConfigKey#CACHE_NAME_SESSION}.
+ *
+ * Use this store when the session shall be shared by multiple
+ * application instances, e.g. with memcached or redis cache service.
+ *
+ * As cache services cannot extend the expiration of an item, the data
+ * is stored along with the time it was written and {@link #touch(String, int)}
+ * only rewrites it once a quarter of the TTL has passed since. This keeps
+ * unchanged sessions from being rewritten on every request and narrows the
+ * window in which a touch could overwrite a concurrent update.
+ */
+@Singleton
+public class CacheServiceSessionStore implements SessionStore {
+
+    private static final String KEY_PREFIX = "act_session:";
+
+    // separates the write time from the session data
+    private static final char STAMP = '\u0001';
+
+    private CacheService cache;
+
+    @Inject
+    public CacheServiceSessionStore(App app) {
+        this(app.cache(app.config().cacheNameSession()));
+    }
+
+    public CacheServiceSessionStore(CacheService cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public String get(String id) {
+        String stamped = cache.get(key(id));
+        return null == stamped ? null : data(stamped);
+    }
+
+    @Override
+    public void put(String id, String data, int ttl) {
+        cache.put(key(id), stamp($.ms(), data), ttl);
+    }
+
+    @Override
+    public void touch(String id, int ttl) {
+        if (ttl <= 0) {
+            return;
+        }
+        String key = key(id);
+        String stamped = cache.get(key);
+        if (null == stamped) {
+            return;
+        }
+        long now = $.ms();
+        if (now - writtenAt(stamped) < ttl * 1000L / 4) {
+            return;
+        }
+        // cache service does not support updating expiration, skip the
+        // rewrite if the session has been updated in the meantime
+        if (stamped.equals(cache.get(key))) {
+            cache.put(key, stamp(now, data(stamped)), ttl);
+        }
+    }
+
+    @Override
+    public void remove(String id) {
+        cache.evict(key(id));
+    }
+
+    private static String key(String id) {
+        return S.concat(KEY_PREFIX, id);
+    }
+
+    private static String stamp(long now, String data) {
+        return new StringBuilder(data.length() + 16).append(STAMP).append(now).append(STAMP).append(data).toString();
+    }
+
+    // returns `0` if stored without write time
+    private static long writtenAt(String stamped) {
+        int pos = stamped.indexOf(STAMP, 1);
+        if (stamped.isEmpty() || STAMP != stamped.charAt(0) || pos < 0) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(stamped.substring(1, pos));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String data(String stamped) {
+        int pos = stamped.indexOf(STAMP, 1);
+        if (stamped.isEmpty() || STAMP != stamped.charAt(0) || pos < 0) {
+            return stamped;
+        }
+        return stamped.substring(pos + 1);
+    }
+
+}
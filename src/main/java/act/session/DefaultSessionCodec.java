@@ -32,6 +32,8 @@ import org.osgl.http.H;
 import org.osgl.util.*;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -41,21 +43,29 @@ public class DefaultSessionCodec extends LogSupportedDestroyableBase implements
     private final boolean sessionWillExpire;
     private final boolean encryptSession;
     private final int ttlInMillis;
+    private final int refreshThresholdInMillis;
     private final String pingPath;
     private RotateSecretCrypto crypto;
+    private DecodeCache decodeCache;
 
     @Inject
     public DefaultSessionCodec(AppConfig conf, RotateSecretCrypto crypto) {
         ttlInMillis = conf.sessionTtl() * 1000;
         sessionWillExpire = ttlInMillis > 0;
+        refreshThresholdInMillis = (int) ((long) ttlInMillis * conf.sessionRefreshThreshold() / 100);
         pingPath = conf.pingPath();
         encryptSession = conf.encryptSession();
         this.crypto = $.requireNotNull(crypto);
+        int decodeCacheSize = conf.sessionDecodeCacheSize();
+        if (decodeCacheSize > 0) {
+            decodeCache = new DecodeCache(decodeCacheSize);
+        }
     }
 
     @Override
     protected void releaseResources() {
         crypto = null;
+        decodeCache = null;
     }
 
     @Override
@@ -64,8 +74,10 @@ public class DefaultSessionCodec extends LogSupportedDestroyableBase implements
             return null;
         }
         boolean sessionChanged = session.changed();
-        if (!sessionChanged && (session.empty() || !sessionWillExpire)) {
+        if (!sessionChanged && (session.empty() || !sessionWillExpire || refreshThresholdInMillis > 0)) {
             // Nothing changed and no cookie-expire or empty, consequently send nothing back.
+            // When refresh threshold is set the expiration is refreshed by `processExpiration`
+            // which marks the session as changed
             return null;
         }
         session.id(); // ensure session ID is generated
@@ -92,7 +104,7 @@ public class DefaultSessionCodec extends LogSupportedDestroyableBase implements
             resolveFromCookieContent(session, encodedSession, true);
             newSession = false;
         }
-        session = processExpiration(session, $.ms(), newSession, sessionWillExpire, ttlInMillis, pingPath, request);
+        session = processExpiration(session, $.ms(), newSession, sessionWillExpire, ttlInMillis, refreshThresholdInMillis, pingPath, request);
         return session;
     }
 
@@ -107,6 +119,15 @@ public class DefaultSessionCodec extends LogSupportedDestroyableBase implements
     }
 
     private void resolveFromCookieContent(H.KV<?> kv, String content, boolean isSession) {
+        Object epoch = null;
+        if (isSession && null != decodeCache) {
+            epoch = crypto.secretEpoch();
+            String[] cached = decodeCache.get(content, epoch);
+            if (null != cached) {
+                load(kv, cached);
+                return;
+            }
+        }
         String data = Codec.decodeUrl(content, Charsets.UTF_8);
         if (isSession) {
             if (encryptSession) {
@@ -128,6 +149,16 @@ public class DefaultSessionCodec extends LogSupportedDestroyableBase implements
         }
         List<char[]> pairs = split(data.toCharArray(), '\u0000');
         if (pairs.isEmpty()) return;
+        if (isSession) {
+            // load session data without marking the session as changed, so
+            // the cookie is not signed and sent again unless required
+            String[] decoded = decode(pairs);
+            load(kv, decoded);
+            if (null != decodeCache) {
+                decodeCache.put(content, decoded, epoch);
+            }
+            return;
+        }
         for (char[] pair: pairs) {
             List<char[]> kAndV = split(pair, '\u0001');
             int sz = kAndV.size();
@@ -144,6 +175,26 @@ public class DefaultSessionCodec extends LogSupportedDestroyableBase implements
         }
     }
 
+    private String[] decode(List<char[]> pairs) {
+        List<String> list = new ArrayList<>(pairs.size() * 2);
+        for (char[] pair: pairs) {
+            List<char[]> kAndV = split(pair, '\u0001');
+            if (kAndV.size() != 2) {
+                warn("unexpected KV string: %s", new String(pair));
+            } else {
+                list.add(new String(kAndV.get(0)));
+                list.add(new String(kAndV.get(1)));
+            }
+        }
+        return list.toArray(new String[list.size()]);
+    }
+
+    private static void load(H.KV<?> kv, String[] decoded) {
+        for (int i = 0; i < decoded.length; i += 2) {
+            kv.load(decoded[i], decoded[i + 1]);
+        }
+    }
+
     private List<char[]> split(char[] content, char separator) {
         int len = content.length;
         if (0 == len) {
@@ -201,6 +252,10 @@ public class DefaultSessionCodec extends LogSupportedDestroyableBase implements
     }
 
     static H.Session processExpiration(H.Session session, long now, boolean newSession, boolean sessionWillExpire, int ttlInMillis, String pingPath, H.Request request) {
+        return processExpiration(session, now, newSession, sessionWillExpire, ttlInMillis, 0, pingPath, request);
+    }
+
+    static H.Session processExpiration(H.Session session, long now, boolean newSession, boolean sessionWillExpire, int ttlInMillis, int refreshThresholdInMillis, String pingPath, H.Request request) {
         if (!sessionWillExpire) return session;
         long expiration = now + ttlInMillis;
         if (newSession) {
@@ -223,9 +278,13 @@ public class DefaultSessionCodec extends LogSupportedDestroyableBase implements
                     session.put(KEY_EXPIRE_INDICATOR, true);
                 } else {
                     session.remove(KEY_EXPIRE_INDICATOR);
-                    boolean skipUpdateExpiration = S.eq(pingPath, request.url());
+                    // the time elapsed since the expiration was refreshed last time
+                    long elapsed = newTimestamp - oldTimestamp;
+                    boolean skipUpdateExpiration = elapsed < refreshThresholdInMillis || S.eq(pingPath, request.url());
                     if (skipUpdateExpiration) {
-                        newTimestamp = oldTimestamp;
+                        // keep the session untouched so that the cookie
+                        // does not need to be signed and sent again
+                        return session;
                     }
                 }
             }
@@ -234,6 +293,67 @@ public class DefaultSessionCodec extends LogSupportedDestroyableBase implements
         return session;
     }
 
+    /**
+     * A bounded cache of verified session cookie values to decoded
+     * session key/value pairs.
+     *
+     * Entries are kept in two generations: when the young generation is
+     * full it becomes the old generation, and entries hit in the old
+     * generation get promoted back. The cache is dropped when the secret
+     * is rotated.
+     */
+    private static class DecodeCache {
+        private final int generationSize;
+        private volatile Object epoch;
+        private volatile ConcurrentMap<String, String[]> young = new ConcurrentHashMap<>();
+        private volatile ConcurrentMap<String, String[]> old = new ConcurrentHashMap<>();
+
+        DecodeCache(int size) {
+            this.generationSize = Math.max(1, size / 2);
+        }
+
+        String[] get(String content, Object epoch) {
+            if (epoch != this.epoch) {
+                reset(epoch);
+                return null;
+            }
+            String[] decoded = young.get(content);
+            if (null == decoded) {
+                decoded = old.get(content);
+                if (null != decoded) {
+                    put(content, decoded, epoch);
+                }
+            }
+            return decoded;
+        }
+
+        void put(String content, String[] decoded, Object epoch) {
+            if (epoch != this.epoch) {
+                // secret rotated since the content was verified
+                return;
+            }
+            ConcurrentMap<String, String[]> map = young;
+            if (map.size() >= generationSize) {
+                synchronized (this) {
+                    if (map == young) {
+                        old = map;
+                        young = new ConcurrentHashMap<>();
+                    }
+                    map = young;
+                }
+            }
+            map.put(content, decoded);
+        }
+
+        private synchronized void reset(Object epoch) {
+            if (epoch != this.epoch) {
+                young = new ConcurrentHashMap<>();
+                old = new ConcurrentHashMap<>();
+                this.epoch = epoch;
+            }
+        }
+    }
+
     public static void main(String[] args) {
         AppCrypto crypto = new AppCrypto("abc");
         String s = "hello world";
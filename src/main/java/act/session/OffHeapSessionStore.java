@@ -0,0 +1,357 @@
+package act.session;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.conf.AppConfig;
+import org.osgl.$;
+import org.osgl.util.Charsets;
+import org.osgl.util.E;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * The default {@link SessionStore} implementation keeps session data
+ * in direct byte buffers of this process so that the session data does
+ * not add up to the heap to be scanned by GC.
+ *
+ * Expired entries are dropped when accessed and swept periodically
+ * along with storing new entries.
+ *
+ * The store is bounded by the number of entries and the total bytes of
+ * session data. When either limit is exceeded, expired entries are swept
+ * and then the least recently used entries are evicted.
+ *
+ * Buffers are allocated in power of two size classes. Updating a session
+ * rewrites its buffer in place when the new data fits, and buffers of
+ * removed entries are kept in a pool, up to a tenth of the byte limit,
+ * for new entries, so direct memory is not left for GC to reclaim.
+ *
+ * @see act.conf.AppConfigKey#SESSION_STORE_MAX_ENTRIES
+ * @see act.conf.AppConfigKey#SESSION_STORE_MAX_SIZE
+ */
+@Singleton
+public class OffHeapSessionStore implements SessionStore {
+
+    private static final long SWEEP_INTERVAL = 60 * 1000;
+
+    private static class Entry {
+        // guarded by this entry, `null` once released to the pool
+        private ByteBuffer data;
+        private final int capacity;
+        volatile long expireAt;
+        volatile long lastAccess;
+
+        Entry(ByteBuffer data, long expireAt, long now) {
+            this.data = data;
+            this.capacity = data.capacity();
+            this.expireAt = expireAt;
+            this.lastAccess = now;
+        }
+
+        boolean expired(long now) {
+            return expireAt > 0 && expireAt < now;
+        }
+
+        int size() {
+            return capacity;
+        }
+
+        synchronized String read() {
+            if (null == data) {
+                return null;
+            }
+            ByteBuffer buffer = data.duplicate();
+            byte[] ba = new byte[buffer.remaining()];
+            buffer.get(ba);
+            return new String(ba, Charsets.UTF_8);
+        }
+
+        /*
+         * Rewrite the data in place, returns `false` if the entry has
+         * been released or the data does not fit
+         */
+        synchronized boolean write(byte[] ba) {
+            if (null == data || ba.length > capacity) {
+                return false;
+            }
+            data.clear();
+            data.put(ba).flip();
+            return true;
+        }
+
+        synchronized ByteBuffer release() {
+            ByteBuffer buffer = data;
+            data = null;
+            return buffer;
+        }
+    }
+
+    /**
+     * Keeps released buffers by size class. Buffers larger than the
+     * largest class are not pooled.
+     */
+    private static class BufferPool {
+        private static final int MIN_CLASS = 7;
+        private static final int MAX_CLASS = 16;
+
+        private final List<Queue<ByteBuffer>> classes = new ArrayList<>();
+        private final long maxPooled;
+        private final AtomicLong pooled = new AtomicLong();
+
+        BufferPool(long maxPooled) {
+            this.maxPooled = maxPooled;
+            for (int i = MIN_CLASS; i <= MAX_CLASS; ++i) {
+                classes.add(new ConcurrentLinkedQueue<ByteBuffer>());
+            }
+        }
+
+        ByteBuffer allocate(int size) {
+            int sizeClass = sizeClass(size);
+            if (sizeClass > MAX_CLASS) {
+                return ByteBuffer.allocateDirect(size);
+            }
+            ByteBuffer buffer = classes.get(sizeClass - MIN_CLASS).poll();
+            if (null == buffer) {
+                return ByteBuffer.allocateDirect(1 << sizeClass);
+            }
+            pooled.addAndGet(-buffer.capacity());
+            buffer.clear();
+            return buffer;
+        }
+
+        void release(ByteBuffer buffer) {
+            int capacity = buffer.capacity();
+            if (Integer.bitCount(capacity) != 1) {
+                return;
+            }
+            int sizeClass = Integer.numberOfTrailingZeros(capacity);
+            if (sizeClass < MIN_CLASS || sizeClass > MAX_CLASS) {
+                return;
+            }
+            if (pooled.addAndGet(capacity) > maxPooled) {
+                pooled.addAndGet(-capacity);
+                return;
+            }
+            classes.get(sizeClass - MIN_CLASS).offer(buffer);
+        }
+
+        private static int sizeClass(int size) {
+            return size <= (1 << MIN_CLASS) ? MIN_CLASS : 32 - Integer.numberOfLeadingZeros(size - 1);
+        }
+    }
+
+    private static class Candidate implements Comparable<Candidate> {
+        final String id;
+        final Entry entry;
+        final long lastAccess;
+
+        Candidate(String id, Entry entry) {
+            this.id = id;
+            this.entry = entry;
+            this.lastAccess = entry.lastAccess;
+        }
+
+        @Override
+        public int compareTo(Candidate o) {
+            return lastAccess < o.lastAccess ? -1 : lastAccess == o.lastAccess ? 0 : 1;
+        }
+    }
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final BufferPool pool;
+    private volatile long nextSweep = $.ms() + SWEEP_INTERVAL;
+
+    public OffHeapSessionStore() {
+        this(100000, 64L * 1024 * 1024);
+    }
+
+    @Inject
+    public OffHeapSessionStore(AppConfig config) {
+        this(config.sessionStoreMaxEntries(), config.sessionStoreMaxSize());
+    }
+
+    /**
+     * Construct an off heap session store.
+     *
+     * @param maxEntries
+     *      the maximum number of entries
+     * @param maxBytes
+     *      the maximum number of bytes of session data
+     */
+    public OffHeapSessionStore(int maxEntries, long maxBytes) {
+        E.illegalArgumentIf(maxEntries < 1, "max entries must be positive");
+        E.illegalArgumentIf(maxBytes < 1, "max bytes must be positive");
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.pool = new BufferPool(maxBytes / 10);
+    }
+
+    @Override
+    public String get(String id) {
+        Entry entry = entries.get(id);
+        if (null == entry) {
+            return null;
+        }
+        long now = $.ms();
+        if (entry.expired(now)) {
+            drop(id, entry);
+            return null;
+        }
+        entry.lastAccess = now;
+        return entry.read();
+    }
+
+    @Override
+    public void put(String id, String data, int ttl) {
+        byte[] ba = data.getBytes(Charsets.UTF_8);
+        long now = $.ms();
+        Entry entry = entries.get(id);
+        if (null != entry && entry.write(ba)) {
+            entry.expireAt = expireAt(now, ttl);
+            entry.lastAccess = now;
+        } else {
+            ByteBuffer buffer = pool.allocate(ba.length);
+            buffer.put(ba).flip();
+            entry = new Entry(buffer, expireAt(now, ttl), now);
+            bytes.addAndGet(entry.size());
+            Entry old = entries.put(id, entry);
+            if (null != old) {
+                bytes.addAndGet(-old.size());
+                release(old);
+            }
+        }
+        if (entries.size() > maxEntries || bytes.get() > maxBytes) {
+            evict(now);
+        } else if (now > nextSweep) {
+            sweep(now);
+        }
+    }
+
+    @Override
+    public void touch(String id, int ttl) {
+        Entry entry = entries.get(id);
+        if (null != entry) {
+            long now = $.ms();
+            entry.expireAt = expireAt(now, ttl);
+            entry.lastAccess = now;
+        }
+    }
+
+    @Override
+    public void remove(String id) {
+        Entry entry = entries.remove(id);
+        if (null != entry) {
+            bytes.addAndGet(-entry.size());
+            release(entry);
+        }
+    }
+
+    /**
+     * Returns the number of entries in the store, including the expired
+     * entries not swept yet.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of bytes of session data in the store, including
+     * the expired entries not swept yet.
+     */
+    public long bytes() {
+        return bytes.get();
+    }
+
+    private synchronized void sweep(long now) {
+        if (now <= nextSweep) {
+            return;
+        }
+        nextSweep = now + SWEEP_INTERVAL;
+        dropExpired(now);
+    }
+
+    /**
+     * Drop expired entries and then evict the least recently used entries
+     * until the store is under 90% of both limits, so that eviction does not
+     * run on every put when the store is full.
+     */
+    private synchronized void evict(long now) {
+        if (entries.size() <= maxEntries && bytes.get() <= maxBytes) {
+            return;
+        }
+        nextSweep = now + SWEEP_INTERVAL;
+        dropExpired(now);
+        int entriesTarget = maxEntries - maxEntries / 10;
+        long bytesTarget = maxBytes - maxBytes / 10;
+        if (entries.size() <= entriesTarget && bytes.get() <= bytesTarget) {
+            return;
+        }
+        // snapshot the access time so the order is stable while sorting
+        List<Candidate> candidates = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            candidates.add(new Candidate(e.getKey(), e.getValue()));
+        }
+        Collections.sort(candidates);
+        for (Candidate candidate : candidates) {
+            if (entries.size() <= entriesTarget && bytes.get() <= bytesTarget) {
+                break;
+            }
+            drop(candidate.id, candidate.entry);
+        }
+    }
+
+    private void dropExpired(long now) {
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            if (e.getValue().expired(now)) {
+                drop(e.getKey(), e.getValue());
+            }
+        }
+    }
+
+    private void drop(String id, Entry entry) {
+        if (entries.remove(id, entry)) {
+            bytes.addAndGet(-entry.size());
+            release(entry);
+        }
+    }
+
+    private void release(Entry entry) {
+        ByteBuffer buffer = entry.release();
+        if (null != buffer) {
+            pool.release(buffer);
+        }
+    }
+
+    private static long expireAt(long now, int ttl) {
+        return ttl > 0 ? now + ttl * 1000L : 0;
+    }
+
+}
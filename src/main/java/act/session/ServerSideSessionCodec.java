@@ -0,0 +1,177 @@
+package act.session;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.osgl.http.H.Session.KEY_EXPIRE_INDICATOR;
+
+import act.conf.AppConfig;
+import act.crypto.RotateSecretCrypto;
+import org.osgl.$;
+import org.osgl.http.H;
+import org.osgl.util.S;
+
+import java.util.List;
+import java.util.Map;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * A {@link SessionCodec} keeps session data in a {@link SessionStore} on
+ * the server side and encodes only a signed session ID into the session
+ * cookie or header token.
+ *
+ * Session data is written to the store only when the session has been
+ * changed, otherwise the stored session expiration is extended if session
+ * expiration is enabled.
+ *
+ * Flash is encoded the same way {@link DefaultSessionCodec} does.
+ *
+ * To use this codec set {@link act.conf.AppConfigKey#SESSION_CODEC} to
+ * `act.session.ServerSideSessionCodec`.
+ */
+@Singleton
+public class ServerSideSessionCodec implements SessionCodec {
+
+    private final int ttl;
+    private final boolean sessionWillExpire;
+    private SessionStore store;
+    private RotateSecretCrypto crypto;
+    private DefaultSessionCodec flashCodec;
+
+    @Inject
+    public ServerSideSessionCodec(AppConfig conf, RotateSecretCrypto crypto, DefaultSessionCodec flashCodec) {
+        this(conf, conf.sessionStore(), crypto, flashCodec);
+    }
+
+    public ServerSideSessionCodec(AppConfig conf, SessionStore store, RotateSecretCrypto crypto, DefaultSessionCodec flashCodec) {
+        ttl = conf.sessionTtl();
+        sessionWillExpire = ttl > 0;
+        this.store = $.requireNotNull(store);
+        this.crypto = $.requireNotNull(crypto);
+        this.flashCodec = $.requireNotNull(flashCodec);
+    }
+
+    @Override
+    public String encodeSession(H.Session session) {
+        if (null == session) {
+            return null;
+        }
+        boolean sessionChanged = session.changed();
+        if (!sessionChanged && (session.empty() || !sessionWillExpire)) {
+            // Nothing changed and no cookie-expire or empty, consequently send nothing back.
+            return null;
+        }
+        String id = session.id(); // ensure session ID is generated
+        if (session.changed()) {
+            store.put(id, serialize(session), ttl);
+        } else {
+            store.touch(id, ttl);
+        }
+        return S.concat(crypto.sign(id), "-", id);
+    }
+
+    @Override
+    public String encodeFlash(H.Flash flash) {
+        return flashCodec.encodeFlash(flash);
+    }
+
+    @Override
+    public H.Session decodeSession(String encodedSession, H.Request request) {
+        H.Session session = new H.Session();
+        if (S.blank(encodedSession)) {
+            return session;
+        }
+        String id = verify(encodedSession);
+        if (null == id) {
+            return session;
+        }
+        String data = store.get(id);
+        if (null == data) {
+            if (sessionWillExpire) {
+                // Session expired
+                session.put(KEY_EXPIRE_INDICATOR, true);
+            }
+            return session;
+        }
+        deserialize(data, session);
+        if (!session.contains(H.Session.KEY_ID)) {
+            // the session has been cleared before
+            session.load(H.Session.KEY_ID, id);
+        }
+        // pin the loaded ID so the stored entry is overwritten instead of
+        // being orphaned if the application clears the session
+        session.id();
+        return session;
+    }
+
+    @Override
+    public H.Flash decodeFlash(String encodedFlash) {
+        return flashCodec.decodeFlash(encodedFlash);
+    }
+
+    /**
+     * Remove the session data of a session from the store, e.g. when the
+     * session logged out.
+     *
+     * @param session
+     *      the session
+     */
+    public void invalidate(H.Session session) {
+        String id = session.get(H.Session.KEY_ID);
+        if (null != id) {
+            store.remove(id);
+        }
+    }
+
+    private String verify(String encodedSession) {
+        int pos = encodedSession.indexOf('-');
+        if (pos < 1) {
+            return null;
+        }
+        String sign = encodedSession.substring(0, pos);
+        String id = encodedSession.substring(pos + 1);
+        return crypto.verifySignature(id, sign) ? id : null;
+    }
+
+    private static String serialize(H.Session session) {
+        S.Buffer sb = S.buffer();
+        int i = 0;
+        for (Map.Entry<String, String> entry : session.entrySet()) {
+            if (i++ > 0) {
+                sb.append("\u0000");
+            }
+            sb.append(entry.getKey()).append("\u0001").append(entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    private static void deserialize(String data, H.Session session) {
+        List<String> pairs = S.fastSplit(data, "\u0000");
+        for (String pair : pairs) {
+            int pos = pair.indexOf('\u0001');
+            if (pos > 0) {
+                // load the data without marking the session as changed
+                session.load(pair.substring(0, pos), pair.substring(pos + 1));
+            }
+        }
+    }
+
+}
@@ -49,6 +49,9 @@ public class SessionManager extends LogSupportedDestroyableBase {
         if (sessionTimeout > 0) {
             logoutSessionCache.put(session.id(), "", sessionTimeout);
         }
+        if (codec instanceof ServerSideSessionCodec) {
+            ((ServerSideSessionCodec) codec).invalidate(session);
+        }
         session.clear();
     }
 
@@ -0,0 +1,70 @@
+package act.session;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * A `SessionStore` keeps serialized session data on the server side.
+ *
+ * @see ServerSideSessionCodec
+ */
+public interface SessionStore {
+
+    /**
+     * Returns the session data stored with the session ID.
+     *
+     * @param id
+     *      the session ID
+     * @return the session data or `null` if not found or expired
+     */
+    String get(String id);
+
+    /**
+     * Store the session data with the session ID.
+     *
+     * @param id
+     *      the session ID
+     * @param data
+     *      the serialized session data
+     * @param ttl
+     *      the time to live in seconds, `0` or negative number means never expire
+     */
+    void put(String id, String data, int ttl);
+
+    /**
+     * Extend the expiration of the session data stored with the session ID
+     * without rewriting the data.
+     *
+     * @param id
+     *      the session ID
+     * @param ttl
+     *      the time to live in seconds from now
+     */
+    void touch(String id, int ttl);
+
+    /**
+     * Remove the session data stored with the session ID.
+     *
+     * @param id
+     *      the session ID
+     */
+    void remove(String id);
+
+}
@@ -33,6 +33,16 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ElementType.TYPE, ElementType.METHOD})
 public @interface Async {
+
+    /**
+     * Specify the name of the {@link act.job.JobPool} the async work shall run in.
+     *
+     * Default value: empty string, i.e. the default job pool
+     *
+     * @return the job pool name
+     */
+    String pool() default "";
+
     /**
      * When a `public void` method has been annotated as `@Async`, ActFramework will
      * enhance the class by adding an new method as a copy of the original method, the name
@@ -0,0 +1,99 @@
+package act.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded pool of fixed size byte arrays used as IO buffers.
+ *
+ * Arrays are created on demand when the pool is empty, and dropped
+ * when released to a full pool.
+ */
+public class ByteArrayPool {
+
+    /**
+     * The pool of 8KB arrays shared by request body parsers and
+     * streaming template rendering
+     */
+    public static final ByteArrayPool SHARED = new ByteArrayPool(1024 * 8, 256);
+
+    private final int arraySize;
+    private final int capacity;
+    private final ConcurrentLinkedQueue<byte[]> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Construct a byte array pool.
+     *
+     * @param arraySize
+     *      the length of the arrays
+     * @param capacity
+     *      the maximum number of arrays kept in the pool
+     */
+    public ByteArrayPool(int arraySize, int capacity) {
+        this.arraySize = arraySize;
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return an array from the pool or a new one if the pool is empty
+     */
+    public byte[] borrow() {
+        byte[] ba = pool.poll();
+        if (null == ba) {
+            return new byte[arraySize];
+        }
+        size.decrementAndGet();
+        return ba;
+    }
+
+    /**
+     * Return an array to the pool. The array must not be used
+     * by the caller afterwards.
+     *
+     * @param ba
+     *      the array borrowed from this pool
+     */
+    public void release(byte[] ba) {
+        if (null == ba || ba.length != arraySize) {
+            return;
+        }
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            return;
+        }
+        pool.offer(ba);
+    }
+
+    public int arraySize() {
+        return arraySize;
+    }
+
+    /**
+     * @return the number of arrays in the pool
+     */
+    public int size() {
+        return size.get();
+    }
+
+}
@@ -0,0 +1,212 @@
+package act.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A byte range of a resource requested with the `Range` header,
+ * see [RFC 7233](https://tools.ietf.org/html/rfc7233)
+ */
+public final class ByteRange {
+
+    /**
+     * The maximum number of ranges accepted in a single `Range` header.
+     *
+     * Requests with more ranges are served with the full resource as
+     * a client that splits a resource into so many pieces is not
+     * resuming a download.
+     */
+    public static final int MAX_RANGES = 16;
+
+    /**
+     * The first byte position, inclusive
+     */
+    public final long start;
+
+    /**
+     * The last byte position, inclusive
+     */
+    public final long end;
+
+    public ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * @return the number of bytes in the range
+     */
+    public long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * Returns the `Content-Range` header value of this range.
+     *
+     * @param total
+     *      the length of the whole resource
+     * @return the `Content-Range` header value
+     */
+    public String contentRange(long total) {
+        return "bytes " + start + "-" + end + "/" + total;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj instanceof ByteRange) {
+            ByteRange that = (ByteRange) obj;
+            return that.start == start && that.end == end;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (start ^ (start >>> 32)) * 31 + (int) (end ^ (end >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return start + "-" + end;
+    }
+
+    private static final Comparator<ByteRange> BY_START = new Comparator<ByteRange>() {
+        @Override
+        public int compare(ByteRange o1, ByteRange o2) {
+            return o1.start < o2.start ? -1 : o1.start == o2.start ? 0 : 1;
+        }
+    };
+
+    /**
+     * Parse the `Range` header against a resource of `length` bytes.
+     *
+     * Satisfiable ranges are sorted and overlapping or adjacent ranges
+     * are coalesced, so a header can never make the server send a byte
+     * more than once.
+     *
+     * @param header
+     *      the `Range` header value
+     * @param length
+     *      the length of the resource
+     * @return
+     *      * `null` if the header shall be ignored, i.e. it is malformed, uses
+     *        a unit other than `bytes` or has too many ranges
+     *      * an empty list if none of the ranges is satisfiable
+     *      * the satisfiable ranges otherwise
+     */
+    public static List<ByteRange> parse(String header, long length) {
+        if (null == header || !header.regionMatches(true, 0, "bytes=", 0, 6)) {
+            return null;
+        }
+        List<ByteRange> ranges = new ArrayList<>(1);
+        int count = 0;
+        int pos = 6, len = header.length();
+        while (pos < len) {
+            int comma = header.indexOf(',', pos);
+            if (comma < 0) {
+                comma = len;
+            }
+            String spec = header.substring(pos, comma).trim();
+            pos = comma + 1;
+            if (spec.isEmpty()) {
+                continue;
+            }
+            if (++count > MAX_RANGES) {
+                return null;
+            }
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            long first = dash == 0 ? -1 : parseLong(spec.substring(0, dash).trim());
+            long last = dash == spec.length() - 1 ? -1 : parseLong(spec.substring(dash + 1).trim());
+            if (first == -2 || last == -2 || (first < 0 && last < 0)) {
+                return null;
+            }
+            if (first < 0) {
+                // suffix range: the last `last` bytes
+                if (last > 0 && length > 0) {
+                    ranges.add(new ByteRange(Math.max(0, length - last), length - 1));
+                }
+                continue;
+            }
+            if (last >= 0 && last < first) {
+                return null;
+            }
+            if (first < length) {
+                ranges.add(new ByteRange(first, last < 0 ? length - 1 : Math.min(last, length - 1)));
+            }
+        }
+        if (0 == count) {
+            return null;
+        }
+        if (ranges.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return ranges.size() > 1 ? coalesce(ranges) : ranges;
+    }
+
+    // the merged ranges are disjoint and all within the resource, thus
+    // never add up to more than the resource length
+    private static List<ByteRange> coalesce(List<ByteRange> ranges) {
+        Collections.sort(ranges, BY_START);
+        List<ByteRange> merged = new ArrayList<>(ranges.size());
+        ByteRange current = ranges.get(0);
+        for (int i = 1, sz = ranges.size(); i < sz; ++i) {
+            ByteRange next = ranges.get(i);
+            if (next.start <= current.end + 1) {
+                if (next.end > current.end) {
+                    current = new ByteRange(current.start, next.end);
+                }
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        return merged;
+    }
+
+    // returns `-2` if not a valid non-negative number
+    private static long parseLong(String s) {
+        int len = s.length();
+        if (0 == len || len > 18) {
+            return -2;
+        }
+        long n = 0;
+        for (int i = 0; i < len; ++i) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -2;
+            }
+            n = n * 10 + (c - '0');
+        }
+        return n;
+    }
+
+}
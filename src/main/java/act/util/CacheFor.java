@@ -25,8 +25,8 @@ import org.osgl.util.E;
 import org.osgl.util.S;
 
 import java.lang.annotation.*;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.inject.Singleton;
 
 /**
@@ -82,10 +82,47 @@ public @interface CacheFor {
      */
     boolean noCacheControl() default false;
 
+    /**
+     * Specify whether concurrent requests of the same cache key shall be
+     * coalesced.
+     *
+     * When enabled only one request per cache key runs the handler while other
+     * requests with the same cache key wait for it to finish and get served with the
+     * cached response. This prevents the expensive handler from being executed
+     * by many requests at the same time once the cache expired.
+     *
+     * @return `true` if requests of the same cache key shall be coalesced
+     * @see act.conf.AppConfigKey#CACHE_FOR_SINGLE_FLIGHT_TIMEOUT
+     */
+    boolean singleFlight() default false;
+
+    /**
+     * Specify the grace window in seconds after the cache expired during
+     * which the stale response is still served while the handler is
+     * re-run in a background job to refresh the cache.
+     *
+     * Default value: `0`, i.e. stale response is never served
+     *
+     * @return the stale-while-revalidate window in seconds
+     */
+    int staleWhileRevalidate() default 0;
+
+    /**
+     * Specify the grace window in seconds after the cache expired during
+     * which the stale response is served in case the handler raised an
+     * exception.
+     *
+     * Default value: `0`, i.e. stale response is never served
+     *
+     * @return the stale-if-error window in seconds
+     */
+    int staleIfError() default 0;
+
     @Singleton
     class Manager extends LogSupportedDestroyableBase {
 
-        private Map<String, RequestHandlerProxy> proxyLookup = new HashMap<>();
+        // proxies might get registered lazily while handling requests
+        private ConcurrentMap<String, RequestHandlerProxy> proxyLookup = new ConcurrentHashMap<>();
 
         @Override
         protected void releaseResources() {
@@ -94,7 +131,7 @@ public @interface CacheFor {
         }
 
         public void register(String key, RequestHandlerProxy proxy) {
-            RequestHandlerProxy existing = proxyLookup.put(key, proxy);
+            RequestHandlerProxy existing = proxyLookup.putIfAbsent(key, proxy);
             E.illegalStateIf(null != existing, "proxy already registered with key[%s]: %s", key, proxy);
         }
 
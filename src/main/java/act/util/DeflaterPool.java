@@ -0,0 +1,102 @@
+package act.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+/**
+ * A bounded pool of {@link Deflater} instances.
+ *
+ * Creating a `Deflater` allocates native zlib memory which is only
+ * released by {@link Deflater#end()} or finalization, pooling them
+ * avoids the native allocation per compressed response.
+ */
+public class DeflaterPool {
+
+    private final int level;
+    private final boolean nowrap;
+    private final int maxIdle;
+    private final Queue<Deflater> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    /**
+     * Construct a deflater pool.
+     *
+     * @param level
+     *      the compression level
+     * @param nowrap
+     *      if `true` then the deflaters produce raw deflate data without zlib header/trailer,
+     *      as required by GZIP format
+     * @param maxIdle
+     *      the maximum number of idle deflaters kept in the pool
+     */
+    public DeflaterPool(int level, boolean nowrap, int maxIdle) {
+        this.level = level;
+        this.nowrap = nowrap;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Borrow a deflater from the pool. The deflater must be
+     * returned with {@link #release(Deflater)}.
+     *
+     * @return a deflater ready to use
+     */
+    public Deflater borrow() {
+        Deflater deflater = idle.poll();
+        if (null == deflater) {
+            return new Deflater(level, nowrap);
+        }
+        idleCount.decrementAndGet();
+        return deflater;
+    }
+
+    /**
+     * Return a deflater to the pool.
+     *
+     * @param deflater
+     *      the deflater borrowed from this pool
+     */
+    public void release(Deflater deflater) {
+        deflater.reset();
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offer(deflater);
+        } else {
+            idleCount.decrementAndGet();
+            deflater.end();
+        }
+    }
+
+    /**
+     * Release all idle deflaters.
+     */
+    public void clear() {
+        Deflater deflater;
+        while (null != (deflater = idle.poll())) {
+            idleCount.decrementAndGet();
+            deflater.end();
+        }
+    }
+
+}
@@ -25,28 +25,147 @@ import act.data.DataPropertyRepository;
 import act.data.util.StringOrPattern;
 import com.alibaba.fastjson.serializer.JSONSerializer;
 import com.alibaba.fastjson.serializer.PropertyPreFilter;
-import org.osgl.util.FastStr;
+import com.alibaba.fastjson.serializer.SerialContext;
+import org.osgl.$;
 import org.osgl.util.S;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 /**
  * Extend the function of {@link com.alibaba.fastjson.serializer.SimplePropertyPreFilter}
  * so it can properly handle the property filters defined with hierarchies, e.g. "foo.bar.name"
+ *
+ * The decision for a property path is made once and stored in a path tree. When serializing,
+ * the path tree node of a property is reached by following the {@link SerialContext}
+ * field names, thus no path string is built and no pattern is matched once the tree
+ * is warmed up. Filters created for the same bean class and property spec share the
+ * same tree.
  */
 public class FastJsonPropertyPreFilter implements PropertyPreFilter {
 
+    // the maximum number of children a path tree node keeps, protect
+    // the tree from growing with map keys
+    private static final int MAX_CHILDREN = 1024;
+
+    // the maximum number of compiled filters kept
+    private static final int MAX_COMPILED = 1024;
+
+    private static final class PathNode {
+        private static final byte UNKNOWN = 0;
+        private static final byte INCLUDED = 1;
+        private static final byte EXCLUDED = 2;
+
+        final String path;
+        final ConcurrentMap<String, PathNode> children = new ConcurrentHashMap<>();
+        volatile byte decision = UNKNOWN;
+
+        PathNode(String path) {
+            this.path = path;
+        }
+
+        PathNode child(String name) {
+            PathNode child = children.get(name);
+            if (null == child) {
+                child = new PathNode(path.isEmpty() ? name : S.concat(path, ".", name));
+                if (children.size() < MAX_CHILDREN) {
+                    PathNode existing = children.putIfAbsent(name, child);
+                    if (null != existing) {
+                        child = existing;
+                    }
+                }
+            }
+            return child;
+        }
+
+        boolean included(FastJsonPropertyPreFilter filter) {
+            byte decision = this.decision;
+            if (UNKNOWN == decision) {
+                decision = filter.matches(path) ? INCLUDED : EXCLUDED;
+                this.decision = decision;
+            }
+            return INCLUDED == decision;
+        }
+    }
+
+    // remembers the path tree node of the last serial context
+    private static final class ContextNode {
+        final SerialContext context;
+        final PathNode node;
+
+        ContextNode(SerialContext context, PathNode node) {
+            this.context = context;
+            this.node = node;
+        }
+    }
+
+    private static final class CompiledKey {
+        final Class<?> beanClass;
+        final List<String> outputs;
+        final Set<String> excluded;
+
+        CompiledKey(Class<?> beanClass, List<String> outputs, Set<String> excluded) {
+            this.beanClass = beanClass;
+            this.outputs = outputs;
+            this.excluded = excluded;
+        }
+
+        @Override
+        public int hashCode() {
+            return $.hc(beanClass, outputs, excluded);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof CompiledKey) {
+                CompiledKey that = (CompiledKey) obj;
+                return beanClass == that.beanClass && $.eq(outputs, that.outputs) && $.eq(excluded, that.excluded);
+            }
+            return false;
+        }
+    }
+
     /**
      * The properties separator pattern {@code [,;:]+}
      */
     public static final Pattern PROPERTY_SEPARATOR = Pattern.compile("[,;:]+");
 
-    private final Set<String> includes = new HashSet<String>();
-    private final Set<String> excludes = new HashSet<String>();
-    private final List<String> fullPaths = new ArrayList<>();
+    private Set<String> includes = new HashSet<String>();
+    private Set<String> excludes = new HashSet<String>();
+    private List<String> fullPaths = new ArrayList<>();
+    private boolean includesHasPattern;
+    private boolean excludesHasPattern;
+
+    // the state above is shared with other filters and must be copied before changing it
+    private boolean shared;
+    private volatile PathNode root;
+    private volatile ContextNode lastContext;
 
     public FastJsonPropertyPreFilter(Class<?> beanClass, List<String> outputs, Set<String> excluded, DataPropertyRepository dataPropertyRepository) {
+        CompiledKey key = new CompiledKey(beanClass, outputs, excluded);
+        FastJsonPropertyPreFilter compiled = compiledCache.get(key);
+        if (null != compiled) {
+            shareFrom(compiled);
+            return;
+        }
+        init(beanClass, outputs, excluded, dataPropertyRepository);
+        if (compiledCache.size() < MAX_COMPILED) {
+            key = new CompiledKey(beanClass, new ArrayList<>(outputs), new HashSet<>(excluded));
+            compiledCache.put(key, this);
+        }
+    }
+
+    public FastJsonPropertyPreFilter(String... properties) {
+        super();
+        addIncludes(properties);
+    }
+
+    private void init(Class<?> beanClass, List<String> outputs, Set<String> excluded, DataPropertyRepository dataPropertyRepository) {
         if (excluded.isEmpty()) {
             if (outputs.isEmpty()) {
                 return; // no filter defined actually
@@ -67,12 +186,31 @@ public class FastJsonPropertyPreFilter implements PropertyPreFilter {
         }
     }
 
-    public FastJsonPropertyPreFilter(String... properties) {
-        super();
-        addIncludes(properties);
+    private void shareFrom(FastJsonPropertyPreFilter compiled) {
+        includes = compiled.includes;
+        excludes = compiled.excludes;
+        fullPaths = compiled.fullPaths;
+        includesHasPattern = compiled.includesHasPattern;
+        excludesHasPattern = compiled.excludesHasPattern;
+        root = compiled.root();
+        compiled.shared = true;
+        shared = true;
+    }
+
+    // called before changing filter state
+    private void changing() {
+        if (shared) {
+            includes = new HashSet<>(includes);
+            excludes = new HashSet<>(excludes);
+            fullPaths = new ArrayList<>(fullPaths);
+            shared = false;
+        }
+        root = null;
+        lastContext = null;
     }
 
     public void setFullPaths(List<String> ls) {
+        changing();
         fullPaths.clear();
         fullPaths.addAll(ls);
     }
@@ -91,7 +229,9 @@ public class FastJsonPropertyPreFilter implements PropertyPreFilter {
      * @param properties the properties
      */
     public void addIncludes(String... properties) {
+        changing();
         addTo(includes, properties);
+        includesHasPattern = hasPattern(includes);
     }
 
     /**
@@ -126,7 +266,9 @@ public class FastJsonPropertyPreFilter implements PropertyPreFilter {
      * @param properties the properties
      */
     public void addExcludes(String... properties) {
+        changing();
         addTo(excludes, properties);
+        excludesHasPattern = hasPattern(excludes);
     }
 
     /**
@@ -144,7 +286,7 @@ public class FastJsonPropertyPreFilter implements PropertyPreFilter {
      */
     public void addExcludes(Set<String> properties) {
         String[] sa = new String[properties.size()];
-        addTo(excludes, properties.toArray(sa));
+        addExcludes(properties.toArray(sa));
     }
 
     private void addTo(Set<String> set, String... properties) {
@@ -175,17 +317,41 @@ public class FastJsonPropertyPreFilter implements PropertyPreFilter {
 
         // if context path is "$.bar.zee" or "$[0].bar.zee" and name is "foo"
         // then path should be "bar.zee.foo"
-        String path;
-        FastStr fs = FastStr.of(serializer.getContext().toString()).append('.').append(name);
-        path = fs.substring(fs.indexOf('.') + 1); // skip the first "."
-
-        return matches(path);
+        SerialContext context = serializer.getContext();
+        ContextNode last = lastContext;
+        PathNode node;
+        if (null != last && last.context == context) {
+            node = last.node;
+        } else {
+            node = nodeOf(context);
+            lastContext = new ContextNode(context, node);
+        }
+        return node.child(name).included(this);
     }
 
     public boolean matches(String path) {
         return !matches(excludes, path, true) && (includes.isEmpty() || matches(includes, path, false));
     }
 
+    private PathNode root() {
+        PathNode root = this.root;
+        if (null == root) {
+            root = new PathNode("");
+            this.root = root;
+        }
+        return root;
+    }
+
+    private PathNode nodeOf(SerialContext context) {
+        if (null == context || null == context.parent) {
+            return root();
+        }
+        PathNode parent = nodeOf(context.parent);
+        Object fieldName = context.fieldName;
+        // array/list element share the path of the array/list
+        return fieldName instanceof Integer ? parent : parent.child(S.string(fieldName));
+    }
+
     private static final Pattern SQUARE_BLOCK = Pattern.compile("\\[.*\\]");
     private boolean matches(Set<String> paths, String path, boolean exclude) {
         if (path.contains("[")) {
@@ -199,7 +365,7 @@ public class FastJsonPropertyPreFilter implements PropertyPreFilter {
                 return true;
             }
         }
-        if (hasPattern(paths)) {
+        if (exclude ? excludesHasPattern : includesHasPattern) {
             return patternMatches(paths, path, exclude);
         }
         if (exclude) {
@@ -219,13 +385,16 @@ public class FastJsonPropertyPreFilter implements PropertyPreFilter {
     }
 
     private static Map<Collection<String>, List<StringOrPattern>> spCache;
+    private static ConcurrentMap<CompiledKey, FastJsonPropertyPreFilter> compiledCache;
 
     public static void classInit(App app) {
         spCache = app.createMap();
+        compiledCache = app.createConcurrentMap();
     }
 
     public static void testClassInit() {
         spCache = new HashMap<>();
+        compiledCache = new ConcurrentHashMap<>();
     }
 
     private boolean patternMatches(Set<String> paths, String path, boolean exclude) {
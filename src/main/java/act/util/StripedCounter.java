@@ -0,0 +1,97 @@
+package act.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter that spreads updates across cells picked by the updating
+ * thread, so threads updating the counter concurrently do not contend on
+ * the same memory location. Reading the value sums up all cells.
+ *
+ * This serves the purpose of `java.util.concurrent.atomic.LongAdder`,
+ * which is not available on Java 7.
+ */
+public class StripedCounter {
+
+    // cells are 8 longs (64 bytes) apart to avoid false sharing
+    private static final int STRIDE = 8;
+
+    private static final int MASK;
+
+    static {
+        int n = 1;
+        while (n < Runtime.getRuntime().availableProcessors() * 2) {
+            n <<= 1;
+        }
+        MASK = n - 1;
+    }
+
+    private final AtomicLongArray cells = new AtomicLongArray((MASK + 1) * STRIDE);
+
+    public void increment() {
+        add(1L);
+    }
+
+    public void decrement() {
+        add(-1L);
+    }
+
+    public void add(long x) {
+        cells.getAndAdd(cell(), x);
+    }
+
+    /**
+     * Returns the current sum. The sum is not an atomic snapshot when
+     * updates happen concurrently.
+     *
+     * @return the sum of all cells
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0, n = cells.length(); i < n; i += STRIDE) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Reset all cells to zero. Updates that happen concurrently
+     * might get lost.
+     */
+    public void reset() {
+        for (int i = 0, n = cells.length(); i < n; i += STRIDE) {
+            cells.set(i, 0L);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(sum());
+    }
+
+    private static int cell() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return ((h ^ (h >>> 16)) & MASK) * STRIDE;
+    }
+
+}
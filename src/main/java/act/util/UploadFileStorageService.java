@@ -119,6 +119,7 @@ public class UploadFileStorageService extends FileSystemService {
      * stream also
      */
     private static class ThresholdingByteArrayOutputStream extends ByteArrayOutputStream {
+        private static final int INITIAL_BUF_SIZE = 256;
         private int threshold;
         private int written;
         private boolean exceedThreshold;
@@ -126,16 +127,17 @@ public class UploadFileStorageService extends FileSystemService {
         private OutputStream fileOutputStream;
 
         public ThresholdingByteArrayOutputStream(int threshold, File file) {
+            // grow the buffer on demand, most form fields are much smaller than the threshold
+            super(INITIAL_BUF_SIZE);
             if (threshold < 1024) {
                 threshold = 1024;
             }
-            buf = new byte[threshold];
             this.threshold = threshold;
             this.file = $.requireNotNull(file);
         }
 
         @Override
-        public synchronized void write(int b) {
+        public void write(int b) {
             if (!checkThresholding(1)) {
                 super.write(b);
             } else {
@@ -149,7 +151,7 @@ public class UploadFileStorageService extends FileSystemService {
         }
 
         @Override
-        public synchronized void write(byte[] b, int off, int len) {
+        public void write(byte[] b, int off, int len) {
             if (!checkThresholding(len)) {
                 super.write(b, off, len);
             } else {
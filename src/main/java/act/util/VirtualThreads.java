@@ -0,0 +1,105 @@
+package act.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.app.AppThreadFactory;
+import org.osgl.logging.LogManager;
+import org.osgl.logging.Logger;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+
+/**
+ * Create executors running tasks on virtual threads.
+ *
+ * Virtual threads are available since JDK 21. As the framework is built
+ * for older JDK, they are looked up via reflection. When running on
+ * JDK without virtual thread support, an elastic thread pool which grows
+ * up to the fallback pool size and shrinks when idle is used instead.
+ */
+public final class VirtualThreads {
+
+    private static final Logger LOGGER = LogManager.get(VirtualThreads.class);
+
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null, name = null, factory = null, newExecutor = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            name = builderClass.getMethod("name", String.class, long.class);
+            factory = builderClass.getMethod("factory");
+            newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (Exception e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = name;
+        BUILDER_FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newExecutor;
+    }
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Check if the running JDK supports virtual threads.
+     *
+     * @return `true` if virtual threads are supported
+     */
+    public static boolean supported() {
+        return null != OF_VIRTUAL;
+    }
+
+    /**
+     * Create an executor that runs each task on a new virtual thread.
+     *
+     * @param name
+     *      the thread name prefix
+     * @param fallbackPoolSize
+     *      the max number of threads of the elastic pool used when
+     *      virtual threads are not supported
+     * @return the executor
+     */
+    public static ExecutorService newExecutor(String name, int fallbackPoolSize) {
+        if (supported()) {
+            try {
+                Object builder = OF_VIRTUAL.invoke(null);
+                builder = BUILDER_NAME.invoke(builder, name + "-vthread-", 0L);
+                ThreadFactory factory = (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+                return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+            } catch (Exception e) {
+                LOGGER.warn(e, "error creating virtual thread executor, fall back to elastic thread pool");
+            }
+        } else {
+            LOGGER.warn("virtual thread not supported by the running JDK, fall back to elastic thread pool: %s", name);
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(fallbackPoolSize, fallbackPoolSize,
+                60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new AppThreadFactory(name, true));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+}
@@ -0,0 +1,212 @@
+package act.view;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActResponse;
+import org.osgl.util.E;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * A writer that buffers the rendered template content and switches to
+ * the response {@link ActResponse#outputStream() output stream} once the
+ * buffered content reaches the flush threshold. From then on the content
+ * is encoded straight to the response and flushed each time another
+ * threshold worth of characters has been written. Thus large pages start
+ * flowing to the client before rendering finished.
+ *
+ * In case the whole content is smaller than the threshold, the buffered
+ * String is written with {@link ActResponse#writeContent(String)} when this
+ * writer is closed, so small pages take exactly the same path as the
+ * non-streaming rendering: sent with content length and could be cached by
+ * {@link act.controller.ResponseCache} as usual.
+ */
+class StreamingTemplateOutput extends Writer {
+
+    private final ActResponse resp;
+    private final int threshold;
+    private final Charset charset;
+
+    private StringBuilder buf = new StringBuilder();
+    // the encoder to the response output stream, created upon the first flush
+    private Writer out;
+    // number of characters written to out since last flush
+    private int unflushed;
+    private boolean closed;
+
+    /**
+     * Construct a streaming template output
+     *
+     * @param resp
+     *      the response
+     * @param threshold
+     *      the number of characters buffered to trigger flushing to the response
+     * @param charset
+     *      the charset the content is encoded with when streamed
+     */
+    StreamingTemplateOutput(ActResponse resp, int threshold, Charset charset) {
+        E.illegalArgumentIf(threshold < 1, "threshold must be positive");
+        this.resp = resp;
+        this.threshold = threshold;
+        this.charset = charset;
+    }
+
+    @Override
+    public void write(int c) {
+        ensureOpen();
+        if (null == out) {
+            buf.append((char) c);
+            if (buf.length() >= threshold) {
+                startStreaming();
+            }
+        } else {
+            try {
+                out.write(c);
+            } catch (IOException e) {
+                throw E.ioException(e);
+            }
+            written(1);
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+        ensureOpen();
+        if (null == out) {
+            buf.append(cbuf, off, len);
+            if (buf.length() >= threshold) {
+                startStreaming();
+            }
+        } else {
+            try {
+                out.write(cbuf, off, len);
+            } catch (IOException e) {
+                throw E.ioException(e);
+            }
+            written(len);
+        }
+    }
+
+    @Override
+    public void write(String str) {
+        write(str, 0, str.length());
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+        ensureOpen();
+        if (null == out) {
+            buf.append(str, off, off + len);
+            if (buf.length() >= threshold) {
+                startStreaming();
+            }
+        } else {
+            try {
+                out.write(str, off, len);
+            } catch (IOException e) {
+                throw E.ioException(e);
+            }
+            written(len);
+        }
+    }
+
+    /**
+     * This method does nothing. Content is flushed to the response
+     * only when the threshold is reached or this writer is closed.
+     */
+    @Override
+    public void flush() {
+    }
+
+    /**
+     * Write the remaining content to the response and commit the response.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (null == out) {
+            String content = buf.toString();
+            buf = null;
+            resp.writeContent(content);
+        } else {
+            if (unflushed > 0) {
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    throw E.ioException(e);
+                }
+            }
+            resp.afterWritingContent();
+        }
+    }
+
+    /**
+     * Drop the buffered content without writing it. This is called when
+     * rendering failed.
+     */
+    void discard() {
+        closed = true;
+        buf = null;
+    }
+
+    /**
+     * @return `true` if any content has been written to the response
+     */
+    boolean streamed() {
+        return null != out;
+    }
+
+    private void ensureOpen() {
+        E.illegalStateIf(closed, "output closed");
+    }
+
+    private void startStreaming() {
+        resp.beforeWritingContent();
+        out = new OutputStreamWriter(resp.outputStream(), charset);
+        String content = buf.toString();
+        buf = null;
+        try {
+            out.write(content);
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
+        written(content.length());
+    }
+
+    private void written(int len) {
+        unflushed += len;
+        if (unflushed >= threshold) {
+            unflushed = 0;
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw E.ioException(e);
+            }
+        }
+    }
+
+}
@@ -26,7 +26,9 @@ import act.app.ActionContext;
 import act.mail.MailerContext;
 import org.osgl.http.H;
 import org.osgl.util.Charsets;
+import org.osgl.util.E;
 
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.Map;
 
@@ -45,7 +47,12 @@ public abstract class TemplateBase implements Template {
         }
         beforeRender(context);
         ActResponse resp = context.resp();
-        merge(renderArgs, resp);
+        int threshold = context.config().templateStreamThreshold();
+        if (threshold > 0 && supportStreaming() && resp.streamingSupported()) {
+            stream(renderArgs, resp, threshold);
+        } else {
+            merge(renderArgs, resp);
+        }
         //resp.commit();
     }
 
@@ -93,6 +100,52 @@ public abstract class TemplateBase implements Template {
 
     protected abstract String render(Map<String, Object> renderArgs);
 
+    /**
+     * Check if this template could render into a {@link Writer} progressively.
+     *
+     * Sub class shall return `true` only if the engine writes to the writer
+     * while rendering. An engine that builds the whole content first and
+     * then copies it to the writer gains nothing from streaming.
+     *
+     * Sub class that returns `true` must implement
+     * {@link #render(Map, Writer)}.
+     *
+     * @return `true` if this template supports streaming rendering
+     */
+    protected boolean supportStreaming() {
+        return false;
+    }
+
+    /**
+     * Render the template into the writer. The content shall be written
+     * to the writer while rendering instead of being buffered up.
+     *
+     * @param renderArgs
+     *      the render arguments
+     * @param writer
+     *      the writer to render the content into
+     */
+    protected void render(Map<String, Object> renderArgs, Writer writer) {
+        throw E.unsupport();
+    }
+
+    private void stream(Map<String, Object> renderArgs, ActResponse resp, int threshold) {
+        StreamingTemplateOutput output = new StreamingTemplateOutput(resp, threshold, UTF8);
+        try {
+            render(renderArgs, output);
+        } catch (RuntimeException e) {
+            output.discard();
+            if (output.streamed()) {
+                // the response has been committed, there is no way
+                // to send an error page. Drop the connection so the
+                // client could tell the content is incomplete
+                resp.abort();
+            }
+            throw e;
+        }
+        output.close();
+    }
+
     private void exposeImplicitVariables(Map<String, Object> renderArgs, ActionContext context) {
         for (ActionViewVarDef var : Act.viewManager().implicitActionViewVariables()) {
             Object val = var.eval(context);
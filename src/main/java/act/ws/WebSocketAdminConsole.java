@@ -49,4 +49,15 @@ public class WebSocketAdminConsole {
         return S.blank(sessionId) ? registry.count() : registry.count(sessionId);
     }
 
+    @Command(name = "act.ws.send-queue", help = "report websocket send queue statistics")
+    public String sendQueueStats(@Optional("reset the counters after report") boolean reset) {
+        WebSocketSendQueue.Stats stats = manager.sendQueueStats();
+        String report = S.fmt("pending: %s, max depth: %s, dropped: %s, closed on overflow: %s",
+                stats.pending(), stats.maxDepth(), stats.dropped(), stats.overflowClosed());
+        if (reset) {
+            stats.reset();
+        }
+        return report;
+    }
+
 }
@@ -22,6 +22,7 @@ package act.ws;
 
 import act.app.*;
 import act.app.event.SysEventId;
+import act.util.ByteBuffers;
 import act.util.Stateless;
 import act.xio.WebSocketConnection;
 import com.alibaba.fastjson.JSON;
@@ -31,8 +32,8 @@ import org.osgl.logging.LogManager;
 import org.osgl.logging.Logger;
 import org.osgl.util.C;
 
-import java.util.Collection;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.util.*;
 import java.util.concurrent.*;
 
 /**
@@ -50,6 +51,8 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
 
     private final ConcurrentMap<WebSocketConnection, WebSocketConnection> closed = new ConcurrentHashMap<>();
 
+    private final WebSocketSendQueue.Stats sendQueueStats = new WebSocketSendQueue.Stats();
+
     private String wsTicketKey;
 
     public WebSocketConnectionManager(final App app) {
@@ -96,6 +99,14 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
         return byTag;
     }
 
+    /**
+     * Returns the send queue statistics of all connections
+     * @return the send queue stats
+     */
+    public WebSocketSendQueue.Stats sendQueueStats() {
+        return sendQueueStats;
+    }
+
     /**
      * Add tag to any websocket connection linked to the session specified
      * @param session the session used to find websocket connections
@@ -145,9 +156,7 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
      * @param labels the tag labels
      */
     public void sendToTagged(String message, String ... labels) {
-        for (String label : labels) {
-            sendToTagged(message, label);
-        }
+        sendToTagged(message, C.listOf(labels));
     }
 
     /**
@@ -156,9 +165,13 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
      * @param labels the tag labels
      */
     public void sendToTagged(String message, Collection<String> labels) {
+        // a connection tagged with more than one label gets the message only once
+        Set<WebSocketConnection> connections = Collections.newSetFromMap(new IdentityHashMap<WebSocketConnection, Boolean>());
+        $.Function<WebSocketConnection, ?> addToConnections = C.F.addTo(connections);
         for (String label : labels) {
-            sendToTagged(message, label);
+            tagRegistry().accept(label, addToConnections);
         }
+        broadcast(message, connections);
     }
 
     /**
@@ -177,9 +190,7 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
      * @param labels the tag labels
      */
     public void sendJsonToTagged(Object data, String ... labels) {
-        for (String label : labels) {
-            sendJsonToTagged(data, label);
-        }
+        sendToTagged(JSON.toJSONString(data), labels);
     }
 
     /**
@@ -188,9 +199,7 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
      * @param labels the tag labels
      */
     public void sendJsonToTagged(Object data, Collection<String> labels) {
-        for (String label : labels) {
-            sendJsonToTagged(data, label);
-        }
+        sendToTagged(JSON.toJSONString(data), labels);
     }
 
     /**
@@ -211,6 +220,31 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
         sendToUser(JSON.toJSONString(data), username);
     }
 
+    /**
+     * Send message to all connections specified.
+     *
+     * The message is encoded once into a read-only buffer which
+     * is shared by all connections.
+     *
+     * @param message the message
+     * @param connections the connections
+     */
+    public void broadcast(String message, Collection<? extends WebSocketConnection> connections) {
+        broadcast(message, connections, null);
+    }
+
+    void broadcast(String message, Collection<? extends WebSocketConnection> connections, WebSocketConnection exclude) {
+        if (connections.isEmpty()) {
+            return;
+        }
+        ByteBuffer payload = ByteBuffers.wrap(message).asReadOnlyBuffer();
+        for (WebSocketConnection conn : connections) {
+            if (exclude != conn) {
+                WebSocketConnection.Util.sendText(conn, payload);
+            }
+        }
+    }
+
     public void registerNewConnection(WebSocketConnection connection, ActionContext context) {
         bySessionId.register(context.session().id(), connection);
         String username = context.username();
@@ -253,11 +287,10 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
     }
 
     private void sendToConnections(String message, WebSocketConnectionRegistry registry, String key) {
-        for (WebSocketConnection conn : registry.get(key)) {
-            if (logger.isTraceEnabled()) {
-                logger.trace("send to websocket connection by key: %s", key);
-            }
-            conn.send(message);
+        List<WebSocketConnection> connections = registry.get(key);
+        if (logger.isTraceEnabled()) {
+            logger.trace("send to %s websocket connections by key: %s", connections.size(), key);
         }
+        broadcast(message, connections);
     }
 }
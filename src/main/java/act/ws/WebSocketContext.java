@@ -31,9 +31,10 @@ import org.osgl.http.H;
 import org.osgl.util.E;
 import org.osgl.util.S;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 
-public class WebSocketContext extends ActContext.Base<WebSocketContext> implements WebSocketConnection {
+public class WebSocketContext extends ActContext.Base<WebSocketContext> implements WebSocketConnection, WebSocketConnection.EncodedTextSender {
 
     private WebSocketConnection connection;
     private WebSocketConnectionManager manager;
@@ -282,11 +283,7 @@ public class WebSocketContext extends ActContext.Base<WebSocketContext> implemen
     }
 
     private WebSocketContext sendToConnections(String message, String key, WebSocketConnectionRegistry registry, boolean excludeSelf) {
-        for (WebSocketConnection conn : registry.get(key)) {
-            if (!excludeSelf || connection != conn) {
-                conn.send(message);
-            }
-        }
+        manager.broadcast(message, registry.get(key), excludeSelf ? connection : null);
         return this;
     }
 
@@ -295,6 +292,11 @@ public class WebSocketContext extends ActContext.Base<WebSocketContext> implemen
         connection.send(message);
     }
 
+    @Override
+    public void sendText(ByteBuffer utf8Text) {
+        WebSocketConnection.Util.sendText(connection, utf8Text);
+    }
+
     @Override
     public void close() {
         connection.close();
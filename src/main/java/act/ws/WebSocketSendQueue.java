@@ -0,0 +1,233 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.util.StripedCounter;
+import org.osgl.util.S;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded outbound message queue of a websocket connection.
+ *
+ * Messages are handed over to the network layer in batches and there
+ * is at most one batch in flight. While a batch is being written, new
+ * messages are kept in the queue. Once the queue reached the limit the
+ * {@link OverflowPolicy} applies. When the batch in flight is done all
+ * queued messages are written as the next batch, thus a slow client
+ * get queued messages flushed together and never holds more than
+ * twice of the limit messages in memory.
+ */
+public abstract class WebSocketSendQueue {
+
+    /**
+     * Specifies what to do when a message is sent to a full queue
+     */
+    public enum OverflowPolicy {
+        /**
+         * Discard the oldest queued message to make room for the new one
+         */
+        DROP_OLDEST,
+
+        /**
+         * Discard the new message
+         */
+        DROP_NEWEST,
+
+        /**
+         * Close the connection
+         */
+        CLOSE;
+
+        public static OverflowPolicy valueOfIgnoreCase(String s) {
+            return valueOf(S.string(s).trim().replace('-', '_').toUpperCase());
+        }
+    }
+
+    /**
+     * Send queue statistics aggregated on all connections.
+     */
+    public static class Stats {
+        private final StripedCounter pending = new StripedCounter();
+        private final StripedCounter dropped = new StripedCounter();
+        private final StripedCounter overflowClosed = new StripedCounter();
+        private final AtomicInteger maxDepth = new AtomicInteger();
+
+        /**
+         * Returns the number of messages queued or being written on all connections
+         */
+        public long pending() {
+            return pending.sum();
+        }
+
+        /**
+         * Returns the number of messages dropped due to queue overflow
+         */
+        public long dropped() {
+            return dropped.sum();
+        }
+
+        /**
+         * Returns the number of connections closed due to queue overflow
+         */
+        public long overflowClosed() {
+            return overflowClosed.sum();
+        }
+
+        /**
+         * Returns the max depth ever reached by a connection send queue
+         */
+        public int maxDepth() {
+            return maxDepth.get();
+        }
+
+        public void reset() {
+            dropped.reset();
+            overflowClosed.reset();
+            maxDepth.set(0);
+        }
+
+        void depth(int depth) {
+            int max = maxDepth.get();
+            while (depth > max && !maxDepth.compareAndSet(max, depth)) {
+                max = maxDepth.get();
+            }
+        }
+    }
+
+    private final ArrayDeque<ByteBuffer> queue = new ArrayDeque<>();
+    private final int limit;
+    private final OverflowPolicy overflowPolicy;
+    private final Stats stats;
+    private int inFlight;
+    private boolean closed;
+
+    protected WebSocketSendQueue(int limit, OverflowPolicy overflowPolicy, Stats stats) {
+        this.limit = Math.max(1, limit);
+        this.overflowPolicy = null == overflowPolicy ? OverflowPolicy.DROP_OLDEST : overflowPolicy;
+        this.stats = null == stats ? new Stats() : stats;
+    }
+
+    /**
+     * Send a message through this queue.
+     *
+     * @param payload the UTF-8 encoded text message
+     */
+    public void offer(ByteBuffer payload) {
+        boolean write = false;
+        boolean overflow = false;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (0 == inFlight && queue.isEmpty()) {
+                inFlight = 1;
+                write = true;
+                stats.pending.increment();
+            } else if (queue.size() < limit) {
+                queue.add(payload);
+                stats.pending.increment();
+                stats.depth(queue.size() + inFlight);
+            } else {
+                switch (overflowPolicy) {
+                    case DROP_OLDEST:
+                        queue.poll();
+                        queue.add(payload);
+                        stats.dropped.increment();
+                        break;
+                    case DROP_NEWEST:
+                        stats.dropped.increment();
+                        break;
+                    default:
+                        overflow = true;
+                }
+            }
+        }
+        if (write) {
+            write(payload);
+        } else if (overflow) {
+            stats.overflowClosed.increment();
+            close();
+            onOverflow();
+        }
+    }
+
+    /**
+     * Returns the number of messages queued or being written.
+     */
+    public synchronized int depth() {
+        return queue.size() + inFlight;
+    }
+
+    /**
+     * Discard all queued messages and stop accepting new messages.
+     */
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            stats.pending.add(-queue.size());
+            stats.dropped.add(queue.size());
+            queue.clear();
+        }
+    }
+
+    /**
+     * Network layer shall call this method once a message has been
+     * written or failed to write.
+     */
+    protected void onSent() {
+        List<ByteBuffer> batch;
+        synchronized (this) {
+            stats.pending.decrement();
+            if (--inFlight > 0 || queue.isEmpty() || closed) {
+                return;
+            }
+            batch = new ArrayList<>(queue);
+            queue.clear();
+            inFlight = batch.size();
+        }
+        for (ByteBuffer payload : batch) {
+            write(payload);
+        }
+    }
+
+    /**
+     * Write the message to the network. Implementation shall call
+     * {@link #onSent()} once the write is done or failed.
+     *
+     * @param payload the UTF-8 encoded text message
+     */
+    protected abstract void write(ByteBuffer payload);
+
+    /**
+     * Called when the queue is overflowed with {@link OverflowPolicy#CLOSE} policy.
+     * Implementation shall close the connection.
+     */
+    protected abstract void onOverflow();
+
+}
@@ -20,6 +20,8 @@ package act.xio;
  * #L%
  */
 
+import java.util.concurrent.Executor;
+
 /**
  * An `NetworkDispatcher` can dispatch a network computation context to a worker thread
  */
@@ -41,4 +43,37 @@ public interface NetworkDispatcher {
      */
     void keep();
 
+    /**
+     * Implemented by dispatchers that can dispatch a job to an executor
+     * other than the worker thread pool.
+     */
+    interface ExecutorDispatcher {
+        /**
+         * Dispatch handling request job to the executor specified
+         * @param job the request handling job
+         * @param executor the executor to run the job
+         */
+        void dispatch(NetworkJob job, Executor executor);
+    }
+
+    enum Util {
+        ;
+
+        /**
+         * Dispatch handling request job to the executor specified, or to
+         * the worker thread if the dispatcher is not an {@link ExecutorDispatcher}.
+         *
+         * @param dispatcher the dispatcher
+         * @param job the request handling job
+         * @param executor the executor to run the job
+         */
+        public static void dispatch(NetworkDispatcher dispatcher, NetworkJob job, Executor executor) {
+            if (dispatcher instanceof ExecutorDispatcher) {
+                ((ExecutorDispatcher) dispatcher).dispatch(job, executor);
+            } else {
+                dispatcher.dispatch(job);
+            }
+        }
+    }
+
 }
@@ -27,6 +27,7 @@ import act.app.event.SysEventId;
 import act.app.util.NamedPort;
 import act.event.EventBus;
 import act.handler.RequestHandler;
+import act.handler.RequestHandlerBase;
 import act.handler.builtin.*;
 import act.handler.builtin.controller.FastRequestHandler;
 import act.handler.builtin.controller.RequestHandlerProxy;
@@ -35,6 +36,7 @@ import act.handler.event.PreHandle;
 import act.metric.*;
 import act.route.Router;
 import act.util.LogSupportedDestroyableBase;
+import act.util.VirtualThreads;
 import act.view.ActErrorResult;
 import org.osgl.$;
 import org.osgl.exception.NotAppliedException;
@@ -45,6 +47,8 @@ import org.osgl.mvc.result.*;
 import org.osgl.util.E;
 import org.osgl.util.S;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * A `NetworkHandler` can be registered to an {@link Network} and get invoked when
  * there are network event (e.g. an HTTP request) incoming
@@ -56,13 +60,16 @@ public class NetworkHandler extends LogSupportedDestroyableBase {
     final private App app;
     private NamedPort port;
     private Metric metric;
+    private MetricHandle routingMetric;
     private $.Func2<H.Request, String, String> contentSuffixProcessor;
     private $.Func2<H.Request, String, String> urlContextProcessor;
+    private volatile ExecutorService virtualThreadExecutor;
 
     public NetworkHandler(App app) {
         E.NPE(app);
         this.app = app;
         this.metric = Act.metricPlugin().metric("act.http");
+        this.routingMetric = Metric.Util.handle(metric, MetricInfo.ROUTING);
         this.initUrlProcessors();
         app.registerHotReloadListener(new App.HotReloadListener() {
             @Override
@@ -133,7 +140,7 @@ public class NetworkHandler extends LogSupportedDestroyableBase {
         // otherwise it might cause
         // https://github.com/actframework/actframework/issues
         ctx.saveLocal();
-        Timer timer = metric.startTimer(MetricInfo.ROUTING);
+        Timer timer = routingMetric.startTimer();
         final RequestHandler requestHandler = router().getInvoker(method, url, ctx);
         ctx.handler(requestHandler);
         timer.stop();
@@ -146,11 +153,7 @@ public class NetworkHandler extends LogSupportedDestroyableBase {
         NetworkJob job = new NetworkJob() {
             @Override
             public void run() {
-                Timer timer = Metric.NULL_METRIC.startTimer("null");
-                if (metric != Metric.NULL_METRIC) {
-                    String key = S.concat(MetricInfo.HTTP_HANDLER, ":", requestHandler.toString());
-                    timer = metric.startTimer(key);
-                }
+                Timer timer = metricHandle(requestHandler).startTimer();
                 EventBus eventBus = app.eventBus();
                 // need to set ActionContext.current before calling ctx.skipEvents() as the later
                 //      one will call into ReflectedHandlerInvoker.init() will in turn try to
@@ -209,12 +212,56 @@ public class NetworkHandler extends LogSupportedDestroyableBase {
             }
         };
         if (method.unsafe() || !requestHandler.express(ctx)) {
-            dispatcher.dispatch(job);
+            if (useVirtualThread(requestHandler, ctx)) {
+                NetworkDispatcher.Util.dispatch(dispatcher, job, virtualThreadExecutor());
+            } else {
+                dispatcher.dispatch(job);
+            }
         } else {
             job.run();
         }
     }
 
+    private MetricHandle metricHandle(RequestHandler requestHandler) {
+        if (requestHandler instanceof RequestHandlerBase) {
+            return ((RequestHandlerBase) requestHandler).metricHandle(metric);
+        }
+        if (Metric.NULL_METRIC == metric) {
+            return Metric.Util.handle(metric, MetricInfo.HTTP_HANDLER);
+        }
+        return Metric.Util.handle(metric, S.concat(MetricInfo.HTTP_HANDLER, Metric.PATH_SEPARATOR, requestHandler.toString()));
+    }
+
+    private boolean useVirtualThread(RequestHandler requestHandler, ActionContext ctx) {
+        if (app.config().handlerVirtualThread()) {
+            return !(requestHandler instanceof ResourceGetter || requestHandler instanceof FileGetter);
+        }
+        return requestHandler instanceof RequestHandlerProxy && ((RequestHandlerProxy) requestHandler).virtualThread(ctx);
+    }
+
+    private ExecutorService virtualThreadExecutor() {
+        ExecutorService executor = virtualThreadExecutor;
+        if (null == executor) {
+            synchronized (this) {
+                executor = virtualThreadExecutor;
+                if (null == executor) {
+                    executor = VirtualThreads.newExecutor("handler", app.config().virtualThreadFallbackPoolSize());
+                    virtualThreadExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    @Override
+    protected void releaseResources() {
+        if (null != virtualThreadExecutor) {
+            virtualThreadExecutor.shutdown();
+            virtualThreadExecutor = null;
+        }
+        super.releaseResources();
+    }
+
     private boolean isError(Result r) {
         return r instanceof ErrorResult;
     }
@@ -0,0 +1,340 @@
+package act.xio;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.util.DeflaterPool;
+import org.osgl.util.E;
+import org.osgl.util.S;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Response compression policy and encoders.
+ *
+ * A response is compressed when the request `Accept-Encoding` allows
+ * `gzip` or `deflate`, the response content type matches one of the
+ * configured rules and the content is not smaller than the minimum size.
+ * Deflaters are pooled so that no native zlib memory is allocated per
+ * response.
+ *
+ * @see act.conf.AppConfigKey#RESP_COMPRESSION
+ */
+public class ResponseCompression {
+
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+    public static final String BROTLI = "br";
+
+    private static final byte[] GZIP_HEADER = {
+            (byte) 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    private final int minSize;
+    private final List<String> exactTypes = new ArrayList<>();
+    private final List<String> typePrefixes = new ArrayList<>();
+    private final ConcurrentMap<String, Boolean> compressible = new ConcurrentHashMap<>();
+    private final DeflaterPool gzipPool;
+    private final DeflaterPool deflatePool;
+
+    /**
+     * Construct a response compression.
+     *
+     * @param level
+     *      the compression level, `1` to `9`
+     * @param minSize
+     *      responses smaller than this number of bytes are not compressed
+     * @param contentTypes
+     *      comma separated content type rules, e.g. `text/*,application/json`
+     */
+    public ResponseCompression(int level, int minSize, String contentTypes) {
+        E.illegalArgumentIf(level < 1 || level > 9, "compression level shall be between 1 and 9");
+        this.minSize = minSize;
+        for (String type : S.fastSplit(contentTypes, ",")) {
+            type = type.trim().toLowerCase();
+            if (type.endsWith("*")) {
+                typePrefixes.add(type.substring(0, type.length() - 1));
+            } else if (S.notBlank(type)) {
+                exactTypes.add(type);
+            }
+        }
+        int maxIdle = Runtime.getRuntime().availableProcessors() * 4;
+        this.gzipPool = new DeflaterPool(level, true, maxIdle);
+        this.deflatePool = new DeflaterPool(level, false, maxIdle);
+    }
+
+    public int minSize() {
+        return minSize;
+    }
+
+    /**
+     * Check if a content type is subject to compression.
+     *
+     * @param contentType
+     *      the content type, might contain parameters, e.g. `text/html; charset=utf-8`
+     * @return `true` if the content type matches the compression rules
+     */
+    public boolean compressible(String contentType) {
+        if (null == contentType) {
+            return false;
+        }
+        Boolean b = compressible.get(contentType);
+        if (null == b) {
+            b = matches(contentType);
+            if (compressible.size() < 256) {
+                compressible.put(contentType, b);
+            }
+        }
+        return b;
+    }
+
+    private boolean matches(String contentType) {
+        int pos = contentType.indexOf(';');
+        String type = (pos < 0 ? contentType : contentType.substring(0, pos)).trim().toLowerCase();
+        if (exactTypes.contains(type)) {
+            return true;
+        }
+        for (String prefix : typePrefixes) {
+            if (type.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Choose the encoding supported by this class for a response.
+     *
+     * @param acceptEncoding
+     *      the request `Accept-Encoding` header
+     * @return `gzip`, `deflate` or `null` if the request does not accept any of them
+     */
+    public static String negotiate(String acceptEncoding) {
+        if (accepts(acceptEncoding, GZIP)) {
+            return GZIP;
+        }
+        return accepts(acceptEncoding, DEFLATE) ? DEFLATE : null;
+    }
+
+    /**
+     * Check if an encoding is accepted by the request `Accept-Encoding` header.
+     *
+     * @param acceptEncoding
+     *      the `Accept-Encoding` header
+     * @param encoding
+     *      the encoding, e.g. `gzip`
+     * @return `true` if the encoding or `*` is listed with a non zero quality value
+     */
+    public static boolean accepts(String acceptEncoding, String encoding) {
+        if (S.blank(acceptEncoding)) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String part : S.fastSplit(acceptEncoding, ",")) {
+            int pos = part.indexOf(';');
+            String name = (pos < 0 ? part : part.substring(0, pos)).trim();
+            boolean matches = name.equalsIgnoreCase(encoding);
+            if (matches || "*".equals(name)) {
+                boolean accepted = pos < 0 || !zeroQuality(part.substring(pos + 1));
+                if (matches) {
+                    return accepted;
+                }
+                wildcard = accepted;
+            }
+        }
+        return wildcard;
+    }
+
+    private static boolean zeroQuality(String params) {
+        int pos = params.indexOf("q=");
+        if (pos < 0) {
+            return false;
+        }
+        String q = params.substring(pos + 2).trim();
+        try {
+            return Float.parseFloat(q) <= 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Compress a buffer.
+     *
+     * @param src
+     *      the content to be compressed
+     * @param encoding
+     *      `gzip` or `deflate`
+     * @return the compressed content
+     */
+    public ByteBuffer compress(ByteBuffer src, String encoding) {
+        byte[] input;
+        int off, len = src.remaining();
+        if (src.hasArray()) {
+            input = src.array();
+            off = src.arrayOffset() + src.position();
+        } else {
+            input = new byte[len];
+            src.duplicate().get(input);
+            off = 0;
+        }
+        boolean gzip = GZIP.equals(encoding);
+        DeflaterPool pool = gzip ? gzipPool : deflatePool;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, len / 3));
+        Deflater deflater = pool.borrow();
+        try {
+            if (gzip) {
+                out.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+            }
+            deflater.setInput(input, off, len);
+            deflater.finish();
+            byte[] buf = new byte[Math.min(8192, Math.max(64, len))];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buf);
+                out.write(buf, 0, n);
+            }
+            if (gzip) {
+                CRC32 crc = new CRC32();
+                crc.update(input, off, len);
+                writeTrailer(out, crc.getValue(), len);
+            }
+        } finally {
+            pool.release(deflater);
+        }
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    /**
+     * Wrap an output stream so that content written to it get compressed.
+     *
+     * Closing the returned stream finishes the compression, closes the
+     * wrapped stream and returns the deflater to the pool.
+     *
+     * @param os
+     *      the output stream
+     * @param encoding
+     *      `gzip` or `deflate`
+     * @return the compressing output stream
+     */
+    public OutputStream compress(OutputStream os, String encoding) {
+        boolean gzip = GZIP.equals(encoding);
+        return new CompressingOutputStream(os, gzip ? gzipPool : deflatePool, gzip);
+    }
+
+    /**
+     * Release pooled deflaters.
+     */
+    public void clear() {
+        gzipPool.clear();
+        deflatePool.clear();
+    }
+
+    private static void writeTrailer(OutputStream out, long crc, long len) throws IOException {
+        writeInt(out, (int) crc);
+        writeInt(out, (int) len);
+    }
+
+    private static void writeTrailer(ByteArrayOutputStream out, long crc, long len) {
+        try {
+            writeTrailer((OutputStream) out, crc, len);
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
+    }
+
+    // little endian as required by GZIP
+    private static void writeInt(OutputStream out, int i) throws IOException {
+        out.write(i & 0xff);
+        out.write((i >>> 8) & 0xff);
+        out.write((i >>> 16) & 0xff);
+        out.write((i >>> 24) & 0xff);
+    }
+
+    private static final class CompressingOutputStream extends DeflaterOutputStream {
+
+        private final DeflaterPool pool;
+        private final CRC32 crc;
+        private boolean headerWritten;
+        private long len;
+        private boolean closed;
+
+        CompressingOutputStream(OutputStream out, DeflaterPool pool, boolean gzip) {
+            super(out, pool.borrow(), 8192);
+            this.pool = pool;
+            this.crc = gzip ? new CRC32() : null;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureHeader();
+            super.write(b, off, len);
+            if (null != crc) {
+                crc.update(b, off, len);
+            }
+            this.len += len;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (def.finished()) {
+                return;
+            }
+            ensureHeader();
+            super.finish();
+            if (null != crc) {
+                writeTrailer(out, crc.getValue(), len);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                finish();
+                out.close();
+            } finally {
+                pool.release(def);
+            }
+        }
+
+        private void ensureHeader() throws IOException {
+            if (!headerWritten) {
+                headerWritten = true;
+                if (null != crc) {
+                    out.write(GZIP_HEADER);
+                }
+            }
+        }
+    }
+
+}
@@ -22,6 +22,9 @@ package act.xio;
 
 import act.Destroyable;
 import act.conf.AppConfig;
+import org.osgl.util.Charsets;
+
+import java.nio.ByteBuffer;
 
 /**
  * A WebSocket connection
@@ -61,4 +64,42 @@ public interface WebSocketConnection extends Destroyable {
      */
     boolean closed();
 
+    /**
+     * Implemented by connections that can send a text message which
+     * has already been encoded in UTF-8 without decoding it again.
+     */
+    interface EncodedTextSender {
+        /**
+         * Send a text message that has already been encoded in UTF-8.
+         *
+         * The buffer might be shared by many connections, thus implementation
+         * shall neither modify the content nor the position of the buffer.
+         *
+         * @param utf8Text the UTF-8 encoded text message
+         */
+        void sendText(ByteBuffer utf8Text);
+    }
+
+    enum Util {
+        ;
+
+        /**
+         * Send a text message that has already been encoded in UTF-8 through
+         * a connection.
+         *
+         * If the connection is not an {@link EncodedTextSender} the message
+         * is decoded and sent with {@link WebSocketConnection#send(String)}.
+         *
+         * @param connection the connection
+         * @param utf8Text the UTF-8 encoded text message, not modified
+         */
+        public static void sendText(WebSocketConnection connection, ByteBuffer utf8Text) {
+            if (connection instanceof EncodedTextSender) {
+                ((EncodedTextSender) connection).sendText(utf8Text);
+            } else {
+                connection.send(Charsets.UTF_8.decode(utf8Text.duplicate()).toString());
+            }
+        }
+    }
+
 }
@@ -0,0 +1,130 @@
+package act.xio.undertow;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.util.ByteRange;
+import io.undertow.server.HttpServerExchange;
+import org.osgl.logging.LogManager;
+import org.osgl.logging.Logger;
+import org.osgl.util.IO;
+import org.xnio.ChannelListener;
+import org.xnio.IoUtils;
+import org.xnio.channels.StreamSinkChannel;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+/**
+ * Writes the segments of a partial content response to the response
+ * channel without blocking. File regions are transferred with
+ * {@link StreamSinkChannel#transferFrom(FileChannel, long, long)}, which
+ * uses `sendfile` when the connection allows it.
+ *
+ * The exchange is ended once all segments are written. If the file is
+ * truncated while being sent the connection is closed, as the response
+ * headers already promised more bytes than are left.
+ */
+public class FileRegionTransfer implements ChannelListener<StreamSinkChannel> {
+
+    private static final Logger LOGGER = LogManager.get(FileRegionTransfer.class);
+
+    private final HttpServerExchange exchange;
+    private final FileChannel file;
+    private final List<?> segments;
+    private int cursor;
+    // position and remaining bytes of the file region being transferred
+    private long position = -1;
+    private long remaining;
+
+    public FileRegionTransfer(HttpServerExchange exchange, FileChannel file, List<?> segments) {
+        this.exchange = exchange;
+        this.file = file;
+        this.segments = segments;
+    }
+
+    public void start() {
+        handleEvent(exchange.getResponseChannel());
+    }
+
+    @Override
+    public void handleEvent(StreamSinkChannel channel) {
+        try {
+            if (write(channel)) {
+                channel.suspendWrites();
+                channel.getWriteSetter().set(null);
+                IO.close(file);
+                exchange.endExchange();
+            } else {
+                channel.getWriteSetter().set(this);
+                channel.resumeWrites();
+            }
+        } catch (EOFException e) {
+            LOGGER.warn(e.getMessage());
+            IO.close(file);
+            IoUtils.safeClose(exchange.getConnection());
+        } catch (IOException e) {
+            LOGGER.debug(e, "error transferring file regions");
+            IO.close(file);
+            IoUtils.safeClose(exchange.getConnection());
+        }
+    }
+
+    /*
+     * Returns `true` if all segments are written or `false` if
+     * the channel cannot accept more bytes for now
+     */
+    private boolean write(StreamSinkChannel channel) throws IOException {
+        while (cursor < segments.size()) {
+            Object segment = segments.get(cursor);
+            if (segment instanceof ByteBuffer) {
+                ByteBuffer buffer = (ByteBuffer) segment;
+                channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    return false;
+                }
+            } else {
+                if (position < 0) {
+                    ByteRange range = (ByteRange) segment;
+                    position = range.start;
+                    remaining = range.length();
+                }
+                while (remaining > 0) {
+                    long n = channel.transferFrom(file, position, remaining);
+                    if (n <= 0) {
+                        if (position >= file.size()) {
+                            throw new EOFException("file truncated during transfer at position " + position);
+                        }
+                        return false;
+                    }
+                    position += n;
+                    remaining -= n;
+                }
+                position = -1;
+            }
+            cursor++;
+        }
+        return true;
+    }
+
+}
@@ -21,6 +21,7 @@ package act.xio.undertow;
  */
 
 import act.Act;
+import act.conf.ActConfig;
 import act.controller.meta.ActionMethodMetaInfo;
 import act.ws.WebSocketConnectionManager;
 import act.xio.Network;
@@ -32,7 +33,11 @@ import io.undertow.connector.ByteBufferPool;
 import io.undertow.protocols.ssl.UndertowXnioSsl;
 import io.undertow.server.DefaultByteBufferPool;
 import io.undertow.server.HttpHandler;
+import io.undertow.server.OpenListener;
+import io.undertow.server.protocol.http.AlpnOpenListener;
 import io.undertow.server.protocol.http.HttpOpenListener;
+import io.undertow.server.protocol.http2.Http2OpenListener;
+import io.undertow.server.protocol.http2.Http2UpgradeHandler;
 import org.osgl.logging.LogManager;
 import org.osgl.logging.Logger;
 import org.osgl.util.E;
@@ -64,6 +69,7 @@ public class UndertowNetwork extends NetworkBase {
     private XnioWorker worker;
     private OptionMap socketOptions;
     private OptionMap serverOptions;
+    private boolean http2;
     private List<AcceptingChannel<? extends StreamConnection>> channels;
 
     @Override
@@ -73,14 +79,7 @@ public class UndertowNetwork extends NetworkBase {
             // abcdefgdgd1234566789(dddd)
             worker = createWorker();
             socketOptions = createSocketOptions();
-            serverOptions = OptionMap.builder()
-                    .set(UndertowOptions.BUFFER_PIPELINED_DATA, true)
-                    .set(UndertowOptions.ALWAYS_SET_KEEP_ALIVE, false)
-                    .set(UndertowOptions.ALWAYS_SET_DATE, true)
-                    .set(UndertowOptions.RECORD_REQUEST_START_TIME, false)
-                    .set(UndertowOptions.NO_REQUEST_TIMEOUT, 60 * 1000)
-                    .set(UndertowOptions.ENABLE_STATISTICS, Act.conf().xioStatistics())
-                    .getMap();
+            serverOptions = createServerOptions(Act.conf());
             channels = new ArrayList<>();
         } catch (Exception e) {
             throw E.unexpected(e, "Error booting up Undertow service: %s", e.getMessage());
@@ -91,7 +90,11 @@ public class UndertowNetwork extends NetworkBase {
     protected void setUpClient(NetworkHandler client, int port, boolean secure) throws IOException {
         HttpHandler handler = new ActHttpHandler(client);
         ByteBufferPool buffers = new DefaultByteBufferPool(true, 16 * 1024, -1, 4);
-        HttpOpenListener openListener = new HttpOpenListener(buffers, serverOptions);
+        OpenListener openListener = createOpenListener(buffers, secure);
+        if (http2 && !secure) {
+            // h2c through `Upgrade: h2c`, other upgrade requests, e.g. websocket, pass through
+            handler = new Http2UpgradeHandler(handler);
+        }
         openListener.setRootHandler(handler);
         ChannelListener<AcceptingChannel<StreamConnection>> acceptListener = ChannelListeners.openListenerAdapter(openListener);
 
@@ -131,6 +134,39 @@ public class UndertowNetwork extends NetworkBase {
         worker.shutdownNow();
     }
 
+    private OptionMap createServerOptions(ActConfig config) {
+        OptionMap.Builder builder = OptionMap.builder()
+                .set(UndertowOptions.BUFFER_PIPELINED_DATA, true)
+                .set(UndertowOptions.ALWAYS_SET_KEEP_ALIVE, false)
+                .set(UndertowOptions.ALWAYS_SET_DATE, true)
+                .set(UndertowOptions.RECORD_REQUEST_START_TIME, false)
+                .set(UndertowOptions.NO_REQUEST_TIMEOUT, 60 * 1000)
+                .set(UndertowOptions.ENABLE_STATISTICS, config.xioStatistics());
+        http2 = config.xioHttp2();
+        if (http2) {
+            builder.set(UndertowOptions.ENABLE_HTTP2, true)
+                    .set(UndertowOptions.HTTP2_SETTINGS_MAX_CONCURRENT_STREAMS, config.xioHttp2MaxConcurrentStreams())
+                    .set(UndertowOptions.HTTP2_SETTINGS_HEADER_TABLE_SIZE, config.xioHttp2HeaderTableSize())
+                    .set(UndertowOptions.HTTP2_SETTINGS_INITIAL_WINDOW_SIZE, config.xioHttp2InitialWindowSize())
+                    .set(UndertowOptions.HTTP2_SETTINGS_ENABLE_PUSH, false);
+        }
+        return builder.getMap();
+    }
+
+    private OpenListener createOpenListener(ByteBufferPool buffers, boolean secure) {
+        HttpOpenListener httpOpenListener = new HttpOpenListener(buffers, serverOptions);
+        if (!http2 || !secure) {
+            // h2c prior knowledge is handled by the HTTP/1.1 listener when HTTP/2 is enabled
+            return httpOpenListener;
+        }
+        // negotiate h2 via ALPN, clients not supporting ALPN fall back to HTTP/1.1
+        Http2OpenListener http2OpenListener = new Http2OpenListener(buffers, serverOptions);
+        AlpnOpenListener alpn = new AlpnOpenListener(buffers, serverOptions, httpOpenListener);
+        alpn.addProtocol(Http2OpenListener.HTTP2, http2OpenListener, 10);
+        alpn.addProtocol(Http2OpenListener.HTTP2_14, http2OpenListener, 7);
+        return alpn;
+    }
+
     private XnioWorker createWorker() throws IOException {
         ioThreads = Act.isDev() ? 2 : Runtime.getRuntime().availableProcessors() * 2;
         int workerThreads = Act.isDev() ? 4 : ioThreads * 8;
@@ -25,7 +25,9 @@ import act.xio.NetworkJob;
 import io.undertow.server.Connectors;
 import io.undertow.server.HttpServerExchange;
 
-class UndertowNetworkDispatcher implements NetworkDispatcher {
+import java.util.concurrent.Executor;
+
+class UndertowNetworkDispatcher implements NetworkDispatcher, NetworkDispatcher.ExecutorDispatcher {
 
     final HttpServerExchange exchange;
     private boolean dispatched;
@@ -40,6 +42,12 @@ class UndertowNetworkDispatcher implements NetworkDispatcher {
         this.dispatched = true;
     }
 
+    @Override
+    public void dispatch(NetworkJob job, Executor executor) {
+        exchange.dispatch(executor, job);
+        this.dispatched = true;
+    }
+
     @Override
     public void keep() {
         if (!this.dispatched) {
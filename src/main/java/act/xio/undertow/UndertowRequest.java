@@ -133,6 +133,15 @@ public class UndertowRequest extends RequestImplBase<UndertowRequest> {
         return vals;
     }
 
+    @Override
+    public Iterable<String> headerNames() {
+        List<String> names = new ArrayList<>();
+        for (HttpString name : hse.getRequestHeaders().getHeaderNames()) {
+            names.add(name.toString());
+        }
+        return names;
+    }
+
     @Override
     public InputStream createInputStream() throws IllegalStateException {
         if (null != body) {
@@ -23,6 +23,7 @@ package act.xio.undertow;
 import act.ActResponse;
 import act.app.ActionContext;
 import act.conf.AppConfig;
+import act.xio.ResponseCompression;
 import io.undertow.io.IoCallback;
 import io.undertow.io.Sender;
 import io.undertow.server.HttpServerExchange;
@@ -37,10 +38,12 @@ import org.osgl.http.H;
 import org.osgl.logging.LogManager;
 import org.osgl.logging.Logger;
 import org.osgl.storage.ISObject;
+import org.osgl.util.Charsets;
 import org.osgl.util.E;
 import org.osgl.util.IO;
 import org.osgl.util.Output;
 import org.osgl.util.OutputStreamOutput;
+import org.xnio.IoUtils;
 
 import java.io.File;
 import java.io.IOException;
@@ -49,6 +52,7 @@ import java.io.Writer;
 import java.net.URL;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.List;
 import java.util.Locale;
 
 public class UndertowResponse extends ActResponse<UndertowResponse> {
@@ -62,11 +66,13 @@ public class UndertowResponse extends ActResponse<UndertowResponse> {
 
     private boolean endAsync;
     private Sender sender;
+    private ResponseCompression compression;
 
     public UndertowResponse(HttpServerExchange exchange, AppConfig config) {
         super(config);
         hse = $.requireNotNull(exchange);
         hse.getResponseHeaders().put(_SERVER, config.serverHeader());
+        compression = config.responseCompression();
     }
 
     @Override
@@ -101,6 +107,19 @@ public class UndertowResponse extends ActResponse<UndertowResponse> {
     @Override
     public UndertowResponse writeContent(String s) {
         beforeWritingContent();
+        // a char takes at most 3 bytes in UTF-8, skip encoding the
+        // string if it could never reach the compression threshold
+        if (null != compression && s.length() * 3L >= compression.minSize()) {
+            byte[] ba = s.getBytes(Charsets.UTF_8);
+            String encoding = contentEncoding(ba.length);
+            applyContentEncoding(ba.length, encoding);
+            ByteBuffer buffer = ByteBuffer.wrap(ba);
+            if (null != encoding) {
+                return sendCompressed(buffer, encoding);
+            }
+            hse.setResponseContentLength(ba.length);
+            return send(buffer);
+        }
         if ("" == s) {
             afterWritingContent();
         } else {
@@ -120,6 +139,22 @@ public class UndertowResponse extends ActResponse<UndertowResponse> {
     @Override
     public UndertowResponse writeContent(ByteBuffer byteBuffer) {
         beforeWritingContent();
+        int len = byteBuffer.remaining();
+        String encoding = contentEncoding(len);
+        applyContentEncoding(len, encoding);
+        if (null != encoding) {
+            return sendCompressed(byteBuffer, encoding);
+        }
+        return send(byteBuffer);
+    }
+
+    private UndertowResponse sendCompressed(ByteBuffer byteBuffer, String encoding) {
+        byteBuffer = compression.compress(byteBuffer, encoding);
+        hse.setResponseContentLength(byteBuffer.remaining());
+        return send(byteBuffer);
+    }
+
+    private UndertowResponse send(ByteBuffer byteBuffer) {
         try {
             endAsync = !blocking();
             Sender sender = sender();
@@ -146,6 +181,12 @@ public class UndertowResponse extends ActResponse<UndertowResponse> {
         }
         byte[] ba = binary.asByteArray();
         ByteBuffer buffer = ByteBuffer.wrap(ba);
+        String encoding = contentEncoding(ba.length);
+        applyContentEncoding(ba.length, encoding);
+        if (null != encoding) {
+            buffer = compression.compress(buffer, encoding);
+            hse.setResponseContentLength(buffer.remaining());
+        }
         sender().send(buffer);
         endAsync = !blocking();
         afterWritingContent();
@@ -173,6 +214,35 @@ public class UndertowResponse extends ActResponse<UndertowResponse> {
         return me();
     }
 
+    @Override
+    public boolean streamingSupported() {
+        return !isIoThread();
+    }
+
+    @Override
+    public void abort() {
+        IoUtils.safeClose(hse.getConnection());
+        super.abort();
+    }
+
+    @Override
+    protected void sendSegments(File file, List<?> segments) {
+        if (blocking()) {
+            super.sendSegments(file, segments);
+            return;
+        }
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(file.toPath());
+        } catch (IOException e) {
+            afterWritingContent();
+            throw E.ioException(e);
+        }
+        endAsync = true;
+        new FileRegionTransfer(hse, channel, segments).start();
+        afterWritingContent();
+    }
+
     @Override
     public OutputStream outputStream() throws IllegalStateException, UnexpectedIOException {
         return super.outputStream();
@@ -248,7 +318,75 @@ public class UndertowResponse extends ActResponse<UndertowResponse> {
     @Override
     protected OutputStream createOutputStream() {
         ensureBlocking();
-        return hse.getOutputStream();
+        OutputStream os = hse.getOutputStream();
+        if (null != compression) {
+            long len = hse.getResponseContentLength();
+            String encoding = contentEncoding(len);
+            applyContentEncoding(len, encoding);
+            if (null != encoding) {
+                hse.getResponseHeaders().remove(Headers.CONTENT_LENGTH);
+                os = compression.compress(os, encoding);
+            }
+        }
+        return os;
+    }
+
+    /**
+     * Decide the content encoding of the response.
+     *
+     * This method does not change the response, call
+     * {@link #applyContentEncoding(long, String)} to set the headers
+     * for the encoding decided.
+     *
+     * @param len
+     *      the content length in bytes or `-1` if not known
+     * @return the encoding or `null` if the response shall not be compressed
+     */
+    private String contentEncoding(long len) {
+        if (!compressible(len)) {
+            return null;
+        }
+        return ResponseCompression.negotiate(hse.getRequestHeaders().getFirst(Headers.ACCEPT_ENCODING));
+    }
+
+    /**
+     * Set the headers for the content encoding decided by
+     * {@link #contentEncoding(long)}.
+     *
+     * `Vary: Accept-Encoding` is added for any compressible content, even
+     * if the client does not accept a compressed response, since the
+     * encoding depends on the request header.
+     *
+     * @param len
+     *      the content length in bytes or `-1` if not known
+     * @param encoding
+     *      the encoding decided, or `null` if not compressed
+     */
+    private void applyContentEncoding(long len, String encoding) {
+        if (null == encoding && !compressible(len)) {
+            return;
+        }
+        HeaderMap headers = hse.getResponseHeaders();
+        headers.add(Headers.VARY, H.Header.Names.ACCEPT_ENCODING);
+        if (null != encoding) {
+            headers.put(Headers.CONTENT_ENCODING, encoding);
+        }
+    }
+
+    private boolean compressible(long len) {
+        if (null == compression || (len >= 0 && len < compression.minSize())) {
+            return false;
+        }
+        HeaderMap headers = hse.getResponseHeaders();
+        int status = hse.getStatusCode();
+        if (status < 200 || status == 204 || status == 206 || status == 304 || headers.contains(Headers.CONTENT_ENCODING)) {
+            return false;
+        }
+        String contentType = headers.getFirst(Headers.CONTENT_TYPE);
+        if (null == contentType) {
+            contentType = _getContentType();
+        }
+        return compression.compressible(contentType);
     }
 
     @Override
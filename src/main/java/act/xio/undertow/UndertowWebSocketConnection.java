@@ -21,25 +21,38 @@ package act.xio.undertow;
  */
 
 import act.Act;
+import act.conf.AppConfig;
 import act.util.DestroyableBase;
+import act.ws.WebSocketConnectionManager;
+import act.ws.WebSocketSendQueue;
 import act.xio.WebSocketConnection;
+import io.undertow.websockets.core.WebSocketCallback;
 import io.undertow.websockets.core.WebSocketChannel;
 import io.undertow.websockets.core.WebSockets;
 import org.osgl.$;
 import org.osgl.http.H;
+import org.osgl.util.Charsets;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
-public class UndertowWebSocketConnection extends DestroyableBase implements WebSocketConnection {
+public class UndertowWebSocketConnection extends DestroyableBase implements WebSocketConnection, WebSocketConnection.EncodedTextSender {
 
     private final WebSocketChannel channel;
     private final String sessionId;
     private final String username;
+    private final WebSocketSendQueue sendQueue;
 
     public UndertowWebSocketConnection(WebSocketChannel channel, H.Session session) {
+        this(channel, session, null);
+    }
+
+    public UndertowWebSocketConnection(WebSocketChannel channel, H.Session session, WebSocketConnectionManager manager) {
         this.channel = $.requireNotNull(channel);
         this.sessionId = session.id();
-        this.username = session.get(Act.appConfig().sessionKeyUsername());
+        AppConfig config = Act.appConfig();
+        this.username = session.get(config.sessionKeyUsername());
+        this.sendQueue = new SendQueue(config, null == manager ? null : manager.sendQueueStats());
     }
 
     @Override
@@ -54,11 +67,25 @@ public class UndertowWebSocketConnection extends DestroyableBase implements WebS
 
     @Override
     public void send(String message) {
-        WebSockets.sendText(message, channel, null);
+        sendQueue.offer(ByteBuffer.wrap(message.getBytes(Charsets.UTF_8)));
+    }
+
+    @Override
+    public void sendText(ByteBuffer utf8Text) {
+        sendQueue.offer(utf8Text.duplicate());
+    }
+
+    /**
+     * Returns the number of messages queued or being written on this connection
+     * @return the send queue depth
+     */
+    public int sendQueueDepth() {
+        return sendQueue.depth();
     }
 
     @Override
     protected void releaseResources() {
+        sendQueue.close();
         try {
             channel.sendClose();
         } catch (IOException e) {
@@ -75,4 +102,31 @@ public class UndertowWebSocketConnection extends DestroyableBase implements WebS
     public boolean closed() {
         return isDestroyed();
     }
+
+    private class SendQueue extends WebSocketSendQueue implements WebSocketCallback<Void> {
+
+        SendQueue(AppConfig config, Stats stats) {
+            super(config.wsSendQueueLimit(), config.wsSendQueueOverflowPolicy(), stats);
+        }
+
+        @Override
+        protected void write(ByteBuffer payload) {
+            WebSockets.sendText(payload, channel, this);
+        }
+
+        @Override
+        protected void onOverflow() {
+            UndertowWebSocketConnection.this.close();
+        }
+
+        @Override
+        public void complete(WebSocketChannel channel, Void context) {
+            onSent();
+        }
+
+        @Override
+        public void onError(WebSocketChannel channel, Void context, Throwable throwable) {
+            onSent();
+        }
+    }
 }
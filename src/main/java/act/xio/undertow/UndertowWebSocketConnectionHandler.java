@@ -51,7 +51,7 @@ class UndertowWebSocketConnectionHandler extends WebSocketConnectionHandler {
             Handlers.websocket(new WebSocketConnectionCallback() {
                 @Override
                 public void onConnect(WebSocketHttpExchange exchange, WebSocketChannel channel) {
-                    final WebSocketConnection connection = new UndertowWebSocketConnection(channel, context.session());
+                    final WebSocketConnection connection = new UndertowWebSocketConnection(channel, context.session(), connectionManager);
                     channel.setAttribute("act_conn", connection);
                     connectionManager.registerNewConnection(connection, context);
                     final WebSocketContext wsCtx = new WebSocketContext(req.url(), connection, connectionManager, context, connectionManager.app());
@@ -30,6 +30,7 @@ import act.app.App;
 import act.app.SingletonRegistry;
 import act.conf.AppConfig;
 import act.event.EventBus;
+import act.handler.builtin.StaticResourceCache;
 import act.job.JobManager;
 import act.metric.SimpleMetricPlugin;
 import act.route.Router;
@@ -120,6 +121,9 @@ public class ActTestBase extends TestBase {
                 if (SessionManager.class == cls) {
                     return new SessionManager(mockAppConfig, mockCacheService);
                 }
+                if (StaticResourceCache.class == cls) {
+                    return new StaticResourceCache(mockAppConfig);
+                }
                 return $.newInstance((Class)args[0]);
             }
         });
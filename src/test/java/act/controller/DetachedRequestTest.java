@@ -0,0 +1,165 @@
+package act.controller;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.RequestImplBase;
+import act.app.ActionContext;
+import act.handler.RequestHandler;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.http.H;
+import org.osgl.util.C;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DetachedRequestTest extends ActTestBase {
+
+    private Origin origin;
+
+    /**
+     * A request whose state could be wiped out, the way a network
+     * exchange is recycled once the response is sent.
+     */
+    private class Origin extends RequestImplBase<Origin> {
+        String path = "/foo";
+        String query = "x=1&x=2";
+        Map<String, List<String>> headers = new HashMap<>();
+        Map<String, String[]> params = new HashMap<>();
+
+        Origin() {
+            super(mockAppConfig);
+        }
+
+        void recycle() {
+            path = null;
+            query = null;
+            headers.clear();
+            params.clear();
+        }
+
+        @Override
+        protected Class<Origin> _impl() {
+            return Origin.class;
+        }
+
+        @Override
+        protected String methodName() {
+            return "GET";
+        }
+
+        @Override
+        public String path() {
+            return path;
+        }
+
+        @Override
+        public String query() {
+            return query;
+        }
+
+        @Override
+        public String header(String name) {
+            List<String> vals = headers.get(name);
+            return null == vals ? null : vals.get(0);
+        }
+
+        @Override
+        public Iterable<String> headers(String name) {
+            List<String> vals = headers.get(name);
+            return null == vals ? C.<String>list() : vals;
+        }
+
+        @Override
+        public Iterable<String> headerNames() {
+            return headers.keySet();
+        }
+
+        @Override
+        public String paramVal(String name) {
+            String[] vals = params.get(name);
+            return null == vals ? null : vals[0];
+        }
+
+        @Override
+        public String[] paramVals(String name) {
+            return params.get(name);
+        }
+
+        @Override
+        public Iterable<String> paramNames() {
+            return params.keySet();
+        }
+
+        @Override
+        protected String _ip() {
+            return "10.0.0.1";
+        }
+
+        @Override
+        protected void _initCookieMap() {
+        }
+
+        @Override
+        protected InputStream createInputStream() {
+            return null;
+        }
+
+        @Override
+        public void receiveFullBytesAndProceed(ActionContext context, RequestHandler handler) {
+        }
+    }
+
+    @Before
+    public void prepare() throws Exception {
+        setup();
+        origin = new Origin();
+        origin.headers.put("Accept-Language", C.list("en", "fr"));
+        origin.params.put("x", new String[]{"1", "2"});
+    }
+
+    @Test
+    public void detachedRequestShallSurviveRecycledOrigin() {
+        DetachedRequest req = new DetachedRequest(mockAppConfig, origin);
+        origin.recycle();
+        eq("/foo", req.path());
+        eq("x=1&x=2", req.query());
+        eq(H.Method.GET, req.method());
+        eq("10.0.0.1", req.ip());
+        eq("en", req.header("accept-language"));
+        eq(C.list("en", "fr"), C.list(req.headers("Accept-Language")));
+        eq("1", req.paramVal("x"));
+        eq(2, req.paramVals("x").length);
+        assertNull(req.header("X-Missing"));
+    }
+
+    @Test
+    public void changingCopiedParamValuesShallNotAffectRequest() {
+        DetachedRequest req = new DetachedRequest(mockAppConfig, origin);
+        req.paramVals("x")[0] = "9";
+        origin.params.get("x")[0] = "8";
+        eq("1", req.paramVal("x"));
+    }
+
+}
@@ -0,0 +1,112 @@
+package act.controller;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.MockResponse;
+import act.app.ActionContext;
+import org.junit.Test;
+import org.osgl.$;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ResponseCacheTest extends ActTestBase {
+
+    @Test
+    public void itShallBeFreshIfNoExpirationSet() {
+        ResponseCache cache = new ResponseCache();
+        yes(cache.staleFor() <= 0);
+    }
+
+    @Test
+    public void itShallBeFreshBeforeExpiration() {
+        ResponseCache cache = new ResponseCache().expiresIn(60);
+        yes(cache.staleFor() <= 0);
+    }
+
+    @Test
+    public void itShallBeStaleAfterExpiration() {
+        ResponseCache cache = new ResponseCache().expiresIn(-1);
+        yes(cache.staleFor() > 0);
+    }
+
+    @Test
+    public void storeTtlShallCoverTheLongestStaleWindow() {
+        CacheSupportMetaInfo meta = CacheSupportMetaInfo.enabled(new $.Transformer<ActionContext, String>() {
+            @Override
+            public String transform(ActionContext context) {
+                return "key";
+            }
+        }, "", 60, false, false, false);
+        eq(60, meta.storeTtl());
+        eq(90, meta.stale(30, 10).storeTtl());
+        eq(120, meta.stale(-1, 60).storeTtl());
+    }
+
+    @Test
+    public void frozenContentShallSurviveSerialization() throws Exception {
+        ResponseCache cache = new ResponseCache(new MockResponse());
+        cache.header("X-Test", "1");
+        cache.writeContent("hello");
+        cache.commit();
+        cache.freeze();
+        yes(cache.isFrozen());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(cache);
+        }
+        ResponseCache copy;
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            copy = (ResponseCache) ois.readObject();
+        }
+        yes(copy.isFrozen());
+        yes(copy.isValid());
+
+        RecordingResponse resp = new RecordingResponse();
+        copy.applyTo(resp);
+        eq("1", resp.headers.get("X-Test"));
+        eq("hello", resp.content);
+    }
+
+    private static class RecordingResponse extends MockResponse {
+        Map<String, String> headers = new HashMap<>();
+        String content;
+
+        @Override
+        public MockResponse header(String name, String value) {
+            headers.put(name, value);
+            return this;
+        }
+
+        @Override
+        public MockResponse writeContent(ByteBuffer byteBuffer) {
+            byte[] ba = new byte[byteBuffer.remaining()];
+            byteBuffer.get(ba);
+            content = new String(ba);
+            return this;
+        }
+    }
+
+}
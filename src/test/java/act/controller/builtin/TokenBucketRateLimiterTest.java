@@ -0,0 +1,129 @@
+package act.controller.builtin;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Test;
+import org.osgl.$;
+
+import java.util.concurrent.TimeUnit;
+
+public class TokenBucketRateLimiterTest extends ActTestBase {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void burstShallBeAdmittedAtOnce() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 5, 100);
+        long now = $.ns();
+        for (int i = 0; i < 5; ++i) {
+            yes(limiter.tryAcquire(1L, false, now));
+        }
+        no(limiter.tryAcquire(1L, false, now));
+        // other key is not affected
+        yes(limiter.tryAcquire(2L, false, now));
+    }
+
+    @Test
+    public void tokensShallBeReplenishedContinuously() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1, 100);
+        long now = $.ns();
+        yes(limiter.tryAcquire(1L, false, now));
+        no(limiter.tryAcquire(1L, false, now + SECOND / 20));
+        yes(limiter.tryAcquire(1L, false, now + SECOND / 10));
+    }
+
+    @Test
+    public void penalizedKeyShallStayLockedOut() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1, 100);
+        long now = $.ns();
+        yes(limiter.tryAcquire(1L, true, now));
+        for (int i = 0; i < 10; ++i) {
+            no(limiter.tryAcquire(1L, true, now));
+        }
+        no(limiter.tryAcquire(1L, false, now + SECOND / 2));
+        yes(limiter.tryAcquire(1L, false, now + SECOND + SECOND / 10));
+    }
+
+    @Test
+    public void idleBucketsShallBeSwept() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1, 100);
+        long now = $.ns();
+        for (long key = 0; key < 50; ++key) {
+            limiter.tryAcquire(key, false, now);
+        }
+        eq(50, limiter.size());
+        limiter.sweep(now + 10 * SECOND);
+        eq(0, limiter.size());
+    }
+
+    @Test
+    public void keysShallBeBounded() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 100);
+        long now = $.ns();
+        for (long key = 0; key < 1000; ++key) {
+            limiter.tryAcquire(key, false, now);
+        }
+        yes(limiter.size() <= 100);
+    }
+
+    @Test
+    public void evictionShallFreeRoomInBatch() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 5, 100);
+        long now = $.ns();
+        for (long key = 0; key < 101; ++key) {
+            yes(limiter.tryAcquire(key, false, now));
+        }
+        // evicted down to the low water mark before tracking the new key
+        eq(76, limiter.size());
+    }
+
+    @Test
+    public void noisyNewKeyShallNotThrottleOtherNewKeys() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 16);
+        long now = $.ns();
+        // all tracked buckets are in debt and cannot be evicted
+        for (long key = 0; key < 16; ++key) {
+            yes(limiter.tryAcquire(key, true, now));
+        }
+        eq(16, limiter.size());
+        yes(limiter.tryAcquire(1000L, false, now));
+        no(limiter.tryAcquire(1000L, false, now));
+        yes(limiter.tryAcquire(1001L, false, now));
+        eq(16, limiter.size());
+    }
+
+    @Test
+    public void floodOfNewKeysShallNotResetThrottledKey() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 5, 10);
+        long now = $.ns();
+        for (int i = 0; i < 5; ++i) {
+            yes(limiter.tryAcquire(1L, true, now));
+        }
+        no(limiter.tryAcquire(1L, true, now));
+        for (long key = 100; key < 1100; ++key) {
+            yes(limiter.tryAcquire(key, false, now));
+        }
+        yes(limiter.size() <= 10);
+        no(limiter.tryAcquire(1L, false, now));
+    }
+
+}
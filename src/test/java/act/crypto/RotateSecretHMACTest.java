@@ -0,0 +1,97 @@
+package act.crypto;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import act.ActTestBase;
+import act.session.RotationSecretProvider;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+public class RotateSecretHMACTest extends ActTestBase {
+
+    private RotationSecretProvider secretProvider;
+    private RotateSecretHMAC hmac;
+
+    @Before
+    public void prepare() {
+        secretProvider = mock(RotationSecretProvider.class);
+        when(secretProvider.isRotateEnabled()).thenReturn(true);
+        when(secretProvider.rawSecret()).thenReturn("raw");
+        rotate("s1", "s1", "s2");
+        hmac = new RotateSecretHMAC(HMAC.Algorithm.SHA256, secretProvider);
+    }
+
+    @Test
+    public void hashShallBeVerifiedAfterSecretRotated() {
+        String hash = hmac.hash("foo");
+        eq(new HMAC("s1", HMAC.Algorithm.SHA256).hash("foo"), hash);
+        yes(hmac.verifyHash("foo", hash));
+
+        rotate("s2", "s1", "s3");
+        eq(new HMAC("s2", HMAC.Algorithm.SHA256).hash("foo"), hmac.hash("foo"));
+        yes(hmac.verifyHash("foo", hash));
+
+        rotate("s3", "s2", "s4");
+        no(hmac.verifyHash("foo", hash));
+    }
+
+    @Test
+    public void hashShallBeConsistentAcrossThreads() throws Exception {
+        final HMAC hmac = new HMAC("secret", HMAC.Algorithm.SHA512);
+        final String expected = hmac.hash("foo");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 4; ++i) {
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        for (int i = 0; i < 1000; ++i) {
+                            if (!expected.equals(hmac.hash("foo")) || !hmac.verifyHash("foo", expected)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                yes(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void rotate(String cur, String last, String next) {
+        when(secretProvider.curSecret()).thenReturn(cur);
+        when(secretProvider.lastSecret()).thenReturn(last);
+        when(secretProvider.nextSecret()).thenReturn(next);
+    }
+
+}
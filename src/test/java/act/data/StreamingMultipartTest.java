@@ -0,0 +1,80 @@
+package act.data;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Iterator;
+
+public class StreamingMultipartTest extends ActTestBase {
+
+    private static final String BOUNDARY = "----act-boundary";
+
+    @Test
+    public void testStreamParts() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 2000; ++i) {
+            content.append("line ").append(i).append('\n');
+        }
+        String body = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"title\"\r\n\r\n"
+                + "bulk upload\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"data.txt\"\r\n"
+                + "Content-Type: text/plain\r\n\r\n"
+                + content + "\r\n"
+                + "--" + BOUNDARY + "--\r\n";
+        byte[] ba = body.getBytes("UTF-8");
+        StreamingMultipart parts = new StreamingMultipart(new ByteArrayInputStream(ba),
+                "multipart/form-data; boundary=" + BOUNDARY, "UTF-8");
+        Iterator<StreamingMultipart.Part> itr = parts.iterator();
+
+        yes(itr.hasNext());
+        StreamingMultipart.Part part = itr.next();
+        yes(part.isFormField());
+        eq("title", part.fieldName());
+        eq("bulk upload", part.string());
+
+        yes(itr.hasNext());
+        part = itr.next();
+        no(part.isFormField());
+        eq("file", part.fieldName());
+        eq("data.txt", part.filename());
+        eq("text/plain", part.contentType());
+        File file = File.createTempFile("act-upload", ".txt");
+        try {
+            eq((long) content.length(), part.transferTo(file));
+            eq(content.toString(), new String(Files.readAllBytes(file.toPath()), "UTF-8"));
+        } finally {
+            file.delete();
+        }
+
+        no(itr.hasNext());
+        eq(2, parts.partCount());
+        eq((long) ba.length, parts.bytesRead());
+        parts.close();
+    }
+
+}
@@ -0,0 +1,77 @@
+package act.data;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Test;
+import org.osgl.mvc.result.ErrorResult;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Map;
+
+public class UrlEncodedParserTest extends ActTestBase {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    @Test
+    public void testParse() {
+        Map<String, String[]> params = parse("a=1&b=x+y&c=%E4%B8%AD%20z&a=2&&d&=e", UTF8, 0);
+        eq(Arrays.asList("a", "b", "c", "d", "=e"), Arrays.asList(params.keySet().toArray()));
+        eq(Arrays.asList("1", "2"), Arrays.asList(params.get("a")));
+        eq("x y", params.get("b")[0]);
+        eq("中 z", params.get("c")[0]);
+        assertNull(params.get("d")[0]);
+    }
+
+    @Test
+    public void testMalformedEscape() {
+        Map<String, String[]> params = parse("a=100%&b%zz=%4", UTF8, 0);
+        eq("100%", params.get("a")[0]);
+        eq("%4", params.get("b%zz")[0]);
+    }
+
+    @Test
+    public void testCharsetParam() {
+        Map<String, String[]> params = parse("_charset_=ISO-8859-1&name=%E9", UTF8, 0);
+        eq("é", params.get("name")[0]);
+    }
+
+    @Test
+    public void testLargeValue() {
+        StringBuilder sb = new StringBuilder("v=");
+        for (int i = 0; i < UrlEncodedParser.MAX_SCRATCH_SIZE; ++i) {
+            sb.append("%41");
+        }
+        eq(UrlEncodedParser.MAX_SCRATCH_SIZE, parse(sb.toString(), UTF8, 0).get("v")[0].length());
+    }
+
+    @Test(expected = ErrorResult.class)
+    public void testMaxParams() {
+        parse("a=1&b=2&c=3", UTF8, 2);
+    }
+
+    private static Map<String, String[]> parse(String data, Charset charset, int maxParams) {
+        byte[] ba = data.getBytes(charset);
+        return UrlEncodedParser.parse(ba, ba.length, charset, maxParams);
+    }
+
+}
@@ -0,0 +1,169 @@
+package act.event;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.metric.Metric;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+public class RingBufferEventDispatcherTest extends ActTestBase {
+
+    private static class IntEvent extends ActEvent<Integer> {
+        IntEvent(int i) {
+            super(i);
+        }
+    }
+
+    private RingBufferEventDispatcher dispatcher;
+
+    @Before
+    public void prepare() {
+        // tiny rings so that producers have to wait for consumers
+        dispatcher = new RingBufferEventDispatcher(2, 8, RingBufferEventDispatcher.WaitStrategy.BLOCKING, Metric.NULL_METRIC);
+    }
+
+    @After
+    public void teardown() {
+        dispatcher.destroy();
+    }
+
+    @Test
+    public void listenerShallReceiveEventsInEmittedOrder() throws Exception {
+        final int count = 1000;
+        final CountDownLatch latch = new CountDownLatch(count * 2);
+        final List<Integer> received1 = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Integer> received2 = Collections.synchronizedList(new ArrayList<Integer>());
+        ActEventListener l1 = listener(received1, latch);
+        ActEventListener l2 = listener(received2, latch);
+        for (int i = 0; i < count; ++i) {
+            dispatcher.dispatch(l1, new IntEvent(i));
+            dispatcher.dispatch(l2, new IntEvent(i));
+        }
+        yes(latch.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < count; ++i) {
+            eq(i, received1.get(i));
+            eq(i, received2.get(i));
+        }
+        eq((long) count * 2, dispatcher.stats().dispatched());
+        eq(0, dispatcher.depth());
+    }
+
+    @Test
+    public void failedListenerShallNotStopConsumer() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        ActEventListener failing = new ActEventListenerBase<IntEvent>() {
+            @Override
+            public void on(IntEvent event) {
+                throw new IllegalStateException();
+            }
+        };
+        ActEventListener ok = listener(new ArrayList<Integer>(), latch);
+        for (int i = 0; i < 16; ++i) {
+            dispatcher.dispatch(failing, new IntEvent(i));
+        }
+        dispatcher.dispatch(ok, new IntEvent(0));
+        yes(latch.await(10, TimeUnit.SECONDS));
+        // the failing listener might be served by another consumer
+        long deadline = System.currentTimeMillis() + 10 * 1000;
+        while (dispatcher.stats().failed() < 16L && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        eq(16L, dispatcher.stats().failed());
+    }
+
+    @Test
+    public void consumerShallNotWaitForItself() throws Exception {
+        final int count = 32;
+        final CountDownLatch latch = new CountDownLatch(count + 1);
+        // the listener emits to itself from the consumer thread more events than the ring holds
+        ActEventListener l = new ActEventListenerBase<IntEvent>() {
+            @Override
+            public void on(IntEvent event) {
+                if (0 == event.source()) {
+                    for (int i = 1; i <= count; ++i) {
+                        dispatcher.dispatch(this, new IntEvent(i));
+                    }
+                }
+                latch.countDown();
+            }
+        };
+        dispatcher.dispatch(l, new IntEvent(0));
+        yes(latch.await(10, TimeUnit.SECONDS));
+        yes(dispatcher.stats().overflowed() > 0);
+    }
+
+    @Test
+    public void fullRingShallOverflowToExecutorAfterTimeout() throws Exception {
+        dispatcher.destroy();
+        final List<Runnable> overflowed = Collections.synchronizedList(new ArrayList<Runnable>());
+        dispatcher = new RingBufferEventDispatcher(1, 2, RingBufferEventDispatcher.WaitStrategy.BLOCKING, Metric.NULL_METRIC, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                overflowed.add(command);
+            }
+        });
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        ActEventListener blocking = new ActEventListenerBase<IntEvent>() {
+            @Override
+            public void on(IntEvent event) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        try {
+            dispatcher.dispatch(blocking, new IntEvent(0));
+            yes(started.await(10, TimeUnit.SECONDS));
+            // fill the ring, then one more
+            for (int i = 1; i <= 3; ++i) {
+                dispatcher.dispatch(blocking, new IntEvent(i));
+            }
+            eq(1, overflowed.size());
+            eq(1L, dispatcher.stats().overflowed());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static ActEventListener listener(final List<Integer> received, final CountDownLatch latch) {
+        return new ActEventListenerBase<IntEvent>() {
+            @Override
+            public void on(IntEvent event) {
+                received.add(event.source());
+                latch.countDown();
+            }
+        };
+    }
+
+}
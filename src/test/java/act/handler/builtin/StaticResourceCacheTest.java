@@ -0,0 +1,132 @@
+package act.handler.builtin;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.http.H;
+import org.osgl.util.IO;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+public class StaticResourceCacheTest extends ActTestBase {
+
+    private StaticResourceCache cache;
+    private File dir;
+
+    @Before
+    public void prepare() throws IOException {
+        cache = new StaticResourceCache(100, 16, 3);
+        dir = File.createTempFile("act-resource", "");
+        dir.delete();
+        dir.mkdir();
+    }
+
+    @After
+    public void clear() {
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testHitAndMiss() {
+        assertNull(cache.get("a"));
+        cache.put("a", new byte[10], "1", H.Format.TXT);
+        StaticResourceCache.Entry entry = cache.get("a");
+        eq("1", entry.etag());
+        eq(10, entry.content().remaining());
+        eq(1L, cache.hitCount());
+        eq(1L, cache.missCount());
+        eq(10L, cache.size());
+    }
+
+    @Test
+    public void testEviction() {
+        cache.put("a", new byte[40], null, H.Format.TXT);
+        cache.put("b", new byte[40], null, H.Format.TXT);
+        // a is referenced and survives the next eviction
+        cache.get("a");
+        cache.put("c", new byte[40], null, H.Format.TXT);
+        yes(cache.contains("a"));
+        no(cache.contains("b"));
+        yes(cache.contains("c"));
+        eq(80L, cache.size());
+        eq(1L, cache.evictionCount());
+    }
+
+    @Test
+    public void testOversizedEntryNotCached() {
+        StaticResourceCache.Entry entry = cache.put("a", new byte[60], null, H.Format.TXT);
+        eq(60, entry.content().remaining());
+        no(cache.contains("a"));
+    }
+
+    @Test
+    public void testLoadFile() throws IOException {
+        File small = file("small.txt", 10);
+        StaticResourceCache.Entry entry = cache.load("small", small, H.Format.TXT, true);
+        yes(entry.content().isDirect());
+        eq((byte) 9, entry.content().get(9));
+        // large files are sent from disk
+        File large = file("large.bin", 200);
+        assertNull(cache.load("large", large, H.Format.BINARY, false));
+        no(cache.contains("large"));
+    }
+
+    @Test
+    public void testStaleFileEvicted() throws IOException {
+        File small = file("small.txt", 10);
+        cache.load("small", small, H.Format.TXT, true);
+        IO.write("modified").to(small);
+        assertNull(cache.get("small"));
+        eq(0L, cache.size());
+    }
+
+    @Test
+    public void testNegativeCacheBounded() {
+        for (int i = 0; i < 5; ++i) {
+            cache.markMissing("missing" + i);
+        }
+        no(cache.isMissing("missing0"));
+        no(cache.isMissing("missing1"));
+        yes(cache.isMissing("missing2"));
+        yes(cache.isMissing("missing4"));
+    }
+
+    private File file(String name, int size) throws IOException {
+        File file = new File(dir, name);
+        byte[] ba = new byte[size];
+        for (int i = 0; i < size; ++i) {
+            ba[i] = (byte) i;
+        }
+        try (FileOutputStream os = new FileOutputStream(file)) {
+            os.write(ba);
+        }
+        return file;
+    }
+
+}
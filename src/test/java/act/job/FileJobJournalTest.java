@@ -0,0 +1,120 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.util.IO;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+public class FileJobJournalTest extends ActTestBase {
+
+    private File file;
+    private FileJobJournal journal;
+
+    @Before
+    public void prepare() throws Exception {
+        file = File.createTempFile("act-job", ".journal");
+        file.delete();
+        journal = new FileJobJournal(file);
+    }
+
+    @After
+    public void cleanup() {
+        journal.close();
+        file.delete();
+    }
+
+    @Test
+    public void testRecover() {
+        journal.scheduled("a", 100L, new byte[]{1, 2, 3});
+        journal.scheduled("b", 200L, new byte[]{4});
+        journal.done("a");
+        journal.fired("cron", 300L);
+        journal.fired("cron", 400L);
+        journal.close();
+
+        journal = new FileJobJournal(file);
+        List<JobJournal.Entry> pending = journal.pending();
+        eq(1, pending.size());
+        JobJournal.Entry entry = pending.get(0);
+        eq("b", entry.id);
+        eq(200L, entry.fireAt);
+        assertArrayEquals(new byte[]{4}, entry.payload);
+        eq(400L, journal.lastFire("cron"));
+        eq(-1L, journal.lastFire("x"));
+    }
+
+    @Test
+    public void testCompaction() {
+        for (int i = 0; i < 3000; ++i) {
+            journal.scheduled("job" + i, i, new byte[]{(byte) i});
+            journal.done("job" + i);
+        }
+        journal.scheduled("last", 1L, new byte[]{9});
+        yes(file.length() < 1000 * 20);
+        journal.close();
+
+        journal = new FileJobJournal(file);
+        eq(1, journal.pending().size());
+        eq("last", journal.pending().get(0).id);
+    }
+
+    @Test
+    public void testTruncatedRecordIgnored() throws Exception {
+        journal.scheduled("a", 100L, new byte[]{1});
+        journal.close();
+        OutputStream os = new FileOutputStream(file, true);
+        os.write("Sb\t20".getBytes("UTF-8"));
+        IO.close(os);
+
+        journal = new FileJobJournal(file);
+        eq(1, journal.pending().size());
+        journal.scheduled("c", 300L, new byte[]{3});
+        journal.close();
+
+        journal = new FileJobJournal(file);
+        eq(2, journal.pending().size());
+    }
+
+    @Test
+    public void testJobIdEscaped() {
+        String id = "a\tb\nc\\d\re";
+        journal.scheduled(id, 100L, new byte[]{1});
+        journal.fired(id, 200L);
+        journal.scheduled("x\t1", 300L, new byte[]{2});
+        journal.done("x\t1");
+        journal.close();
+
+        journal = new FileJobJournal(file);
+        List<JobJournal.Entry> pending = journal.pending();
+        eq(1, pending.size());
+        eq(id, pending.get(0).id);
+        eq(200L, journal.lastFire(id));
+    }
+
+}
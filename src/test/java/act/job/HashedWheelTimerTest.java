@@ -0,0 +1,143 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HashedWheelTimerTest extends ActTestBase {
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private HashedWheelTimer timer;
+
+    @Before
+    public void prepare() {
+        // small wheel so tasks span multiple rounds
+        timer = new HashedWheelTimer("test-timer", 5, TimeUnit.MILLISECONDS, 8);
+    }
+
+    @After
+    public void cleanup() {
+        timer.stop();
+    }
+
+    @Test
+    public void testSchedule() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        HashedWheelTimer.Timeout timeout = timer.schedule(countDown(latch), 100, TimeUnit.MILLISECONDS, DIRECT);
+        eq(1L, timer.pendingTimeouts());
+        yes(latch.await(2, TimeUnit.SECONDS));
+        yes(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+        yes(timeout.isDone());
+        no(timeout.isCancelled());
+        eq(0L, timer.pendingTimeouts());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final AtomicInteger counter = new AtomicInteger();
+        HashedWheelTimer.Timeout timeout = timer.schedule(increase(counter), 50, TimeUnit.MILLISECONDS, DIRECT);
+        yes(timeout.cancel(false));
+        no(timeout.cancel(false));
+        yes(timeout.isCancelled());
+        eq(0L, timer.pendingTimeouts());
+        Thread.sleep(150);
+        eq(0, counter.get());
+    }
+
+    @Test
+    public void testFixedRate() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(3);
+        HashedWheelTimer.Timeout timeout = timer.scheduleAtFixedRate(countDown(latch), 10, 20, TimeUnit.MILLISECONDS, DIRECT);
+        yes(latch.await(2, TimeUnit.SECONDS));
+        yes(timeout.cancel(false));
+    }
+
+    @Test
+    public void fixedRateExecutionsShallNotOverlap() throws Exception {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(3);
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            // each run takes far longer than the period
+            HashedWheelTimer.Timeout timeout = timer.scheduleAtFixedRate(new Runnable() {
+                @Override
+                public void run() {
+                    int n = inFlight.incrementAndGet();
+                    maxInFlight.set(Math.max(maxInFlight.get(), n));
+                    try {
+                        Thread.sleep(60);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    inFlight.decrementAndGet();
+                    latch.countDown();
+                }
+            }, 5, 5, TimeUnit.MILLISECONDS, executor);
+            yes(latch.await(2, TimeUnit.SECONDS));
+            yes(timeout.cancel(false));
+            eq(1, maxInFlight.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFixedDelay() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(3);
+        HashedWheelTimer.Timeout timeout = timer.scheduleWithFixedDelay(countDown(latch), 10, 20, TimeUnit.MILLISECONDS, DIRECT);
+        yes(latch.await(2, TimeUnit.SECONDS));
+        yes(timeout.cancel(false));
+        eq(0L, timer.pendingTimeouts());
+    }
+
+    private static Runnable countDown(final CountDownLatch latch) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        };
+    }
+
+    private static Runnable increase(final AtomicInteger counter) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                counter.incrementAndGet();
+            }
+        };
+    }
+
+}
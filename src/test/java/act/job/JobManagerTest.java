@@ -0,0 +1,133 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.Mockito.when;
+
+public class JobManagerTest extends ActTestBase {
+
+    private File file;
+    private FileJobJournal journal;
+    private JobManager jobManager;
+
+    @Before
+    public void prepare() throws Exception {
+        setup();
+        when(mockAppConfig.jobPoolSize()).thenReturn(2);
+        when(mockAppConfig.jobTimerWheelEnabled()).thenReturn(true);
+        when(mockAppConfig.jobTimerTick()).thenReturn(10);
+        when(mockAppConfig.jobTimerWheelSize()).thenReturn(64);
+        file = File.createTempFile("act-job", ".journal");
+        file.delete();
+        journal = new FileJobJournal(file);
+        jobManager = new JobManager(mockApp);
+        jobManager.journal(journal);
+    }
+
+    @After
+    public void cleanup() {
+        jobManager.destroy();
+        file.delete();
+    }
+
+    @Test
+    public void cancelledJobShallNotBeRecovered() {
+        jobManager.delay(new SerializableTask(), 1, TimeUnit.HOURS);
+        List<JobJournal.Entry> pending = journal.pending();
+        eq(1, pending.size());
+        jobManager.cancel(pending.get(0).id);
+        yes(journal.pending().isEmpty());
+        journal.close();
+
+        journal = new FileJobJournal(file);
+        yes(journal.pending().isEmpty());
+        journal.close();
+    }
+
+    @Test
+    public void delayedCallableShallRunInWheel() throws Exception {
+        Future<String> future = jobManager.delay(new Callable<String>() {
+            @Override
+            public String call() {
+                return "done";
+            }
+        }, 20, TimeUnit.MILLISECONDS);
+        eq("done", future.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void cancelledDelayedRunnableShallNotRun() throws Exception {
+        final AtomicBoolean ran = new AtomicBoolean();
+        Future<?> future = jobManager.delay(new Runnable() {
+            @Override
+            public void run() {
+                ran.set(true);
+            }
+        }, 50, TimeUnit.MILLISECONDS);
+        yes(future.cancel(false));
+        Thread.sleep(200);
+        no(ran.get());
+    }
+
+    @Test
+    public void cancelledDelayedCallableShallNotRun() throws Exception {
+        final AtomicBoolean ran = new AtomicBoolean();
+        Future<Boolean> future = jobManager.delay(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                ran.set(true);
+                return true;
+            }
+        }, 50, TimeUnit.MILLISECONDS);
+        yes(future.cancel(false));
+        yes(future.isCancelled());
+        Thread.sleep(200);
+        no(ran.get());
+    }
+
+    @Test
+    public void cancellingJournaledJobHandleShallRemoveItFromJournal() {
+        Future<?> future = jobManager.delay(new SerializableTask(), 1, TimeUnit.HOURS);
+        eq(1, journal.pending().size());
+        yes(future.cancel(false));
+        yes(journal.pending().isEmpty());
+    }
+
+    private static class SerializableTask implements Runnable, Serializable {
+        @Override
+        public void run() {
+        }
+    }
+
+}
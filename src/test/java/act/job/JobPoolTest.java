@@ -0,0 +1,122 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class JobPoolTest extends ActTestBase {
+
+    private JobPool pool;
+    private CountDownLatch latch = new CountDownLatch(1);
+
+    @After
+    public void cleanup() {
+        latch.countDown();
+        pool.shutdown();
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testAbort() throws Exception {
+        fill(JobPool.RejectionPolicy.ABORT);
+        pool.submit(task(null));
+    }
+
+    @Test
+    public void testCallerRuns() throws Exception {
+        fill(JobPool.RejectionPolicy.CALLER_RUNS);
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        Future<?> future = pool.submit(task(thread));
+        yes(future.isDone());
+        same(Thread.currentThread(), thread.get());
+        eq(1L, pool.rejectedCount());
+    }
+
+    @Test
+    public void testDiscard() throws Exception {
+        fill(JobPool.RejectionPolicy.DISCARD);
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        Future<?> future = pool.submit(task(thread));
+        yes(future.isCancelled());
+        assertNull(thread.get());
+        eq(1L, pool.rejectedCount());
+        eq(1L, pool.status().getLongValue("# of rejected tasks"));
+    }
+
+    @Test
+    public void scheduledTasksShallNotCountAgainstQueueSize() throws Exception {
+        pool = new JobPool("test", 1, 1, JobPool.RejectionPolicy.ABORT);
+        for (int i = 0; i < 5; ++i) {
+            pool.executor().scheduleAtFixedRate(task(null), 1, 1, TimeUnit.HOURS);
+        }
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        pool.submit(task(thread)).get(5, TimeUnit.SECONDS);
+        yes(null != thread.get());
+        eq(0L, pool.rejectedCount());
+    }
+
+    @Test
+    public void cancelledTaskShallFreeQueueSlot() throws Exception {
+        Future<?> queued = fill(JobPool.RejectionPolicy.ABORT);
+        eq(1L, pool.status().getLongValue("# of queued immediate tasks"));
+        queued.cancel(false);
+        eq(0L, pool.status().getLongValue("# of queued immediate tasks"));
+        pool.submit(task(null));
+        eq(0L, pool.rejectedCount());
+    }
+
+    private Future<?> fill(JobPool.RejectionPolicy policy) throws Exception {
+        pool = new JobPool("test", 1, 1, policy);
+        final CountDownLatch started = new CountDownLatch(1);
+        pool.submit(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        started.await();
+        // the single thread is busy, this one waits in the queue
+        Future<?> queued = pool.submit(task(null));
+        eq(0L, pool.rejectedCount());
+        return queued;
+    }
+
+    private static Runnable task(final AtomicReference<Thread> thread) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                if (null != thread) {
+                    thread.set(Thread.currentThread());
+                }
+            }
+        };
+    }
+
+}
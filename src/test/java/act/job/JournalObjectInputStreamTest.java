@@ -0,0 +1,85 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+public class JournalObjectInputStreamTest extends ActTestBase {
+
+    private static class Job implements Runnable, Serializable {
+        List<Object> args = new ArrayList<>();
+
+        @Override
+        public void run() {
+        }
+    }
+
+    private static final Set<String> NONE = Collections.emptySet();
+
+    @Test
+    public void applicationClassShallBeRestored() throws Exception {
+        Job job = new Job();
+        job.args.add("x");
+        job.args.add(1L);
+        job.args.add(new int[]{1, 2});
+        Job restored = (Job) read(write(job), NONE);
+        eq("x", restored.args.get(0));
+        eq(1L, restored.args.get(1));
+    }
+
+    @Test(expected = InvalidClassException.class)
+    public void otherClassShallBeRejected() throws Exception {
+        Job job = new Job();
+        job.args.add(new File("x"));
+        read(write(job), NONE);
+    }
+
+    @Test
+    public void registeredClassShallBeRestored() throws Exception {
+        Job job = new Job();
+        job.args.add(new File("x"));
+        Job restored = (Job) read(write(job), Collections.singleton(File.class.getName()));
+        eq(new File("x"), restored.args.get(0));
+    }
+
+    private static byte[] write(Object o) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(o);
+        }
+        return baos.toByteArray();
+    }
+
+    private Object read(byte[] ba, Set<String> jobClasses) throws Exception {
+        ClassLoader loader = getClass().getClassLoader();
+        try (ObjectInputStream ois = new JournalObjectInputStream(new ByteArrayInputStream(ba), loader, jobClasses)) {
+            return ois.readObject();
+        }
+    }
+
+}
@@ -0,0 +1,174 @@
+package act.metric;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.logging.LogManager;
+import org.osgl.logging.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+public class HistogramMetricStoreTest extends ActTestBase {
+    private HistogramMetricStore store;
+
+    @Before
+    public void prepare() {
+        store = new HistogramMetricStore(new SimpleMetricPlugin());
+        store.enableDataSync(false);
+    }
+
+    @Test
+    public void countOnceShallAggregateToParentCounter() {
+        store.countOnce("a:b:c");
+        store.countOnce("a:x:y");
+        store.countOnce("a:b:d");
+        store.countOnce("a:x:z");
+        store.countOnce("abc");
+        eq(1L, store.count("a:b:c"));
+        eq(2L, store.count("a:b"));
+        eq(1L, store.count("a:x:z"));
+        eq(2L, store.count("a:x"));
+        eq(4L, store.count("a"));
+        eq(1L, store.count("abc"));
+    }
+
+    @Test
+    public void timerShallAggregateDurationToParent() {
+        record("a:b", 1000L);
+        record("a:c", 3000L);
+        eq(1000L, store.ns("a:b"));
+        eq(4000L, store.ns("a"));
+        eq(2L, store.count("a"));
+    }
+
+    @Test
+    public void handleShallUpdateTheSameMetricAsName() {
+        MetricHandle handle = store.handle("a:b");
+        handle.countOnce();
+        store.countOnce("a:b");
+        eq(2L, store.count("a:b"));
+        eq(2L, store.count("a"));
+        Timer timer = handle.startTimer();
+        timer.stop();
+        eq(3L, store.count("a:b"));
+        eq(timer.ns(), store.ns("a:b"));
+    }
+
+    @Test
+    public void handleShallRemainValidAfterClear() {
+        MetricHandle handle = store.handle("a:b");
+        handle.countOnce();
+        store.clear();
+        handle.countOnce();
+        eq(1L, store.count("a:b"));
+        eq(1L, store.count("a"));
+    }
+
+    @Test
+    public void clearShallResetData() {
+        record("a:b", 1000L);
+        store.clear();
+        eq(0L, store.count("a:b"));
+        eq(0L, store.ns("a"));
+    }
+
+    @Test
+    public void histogramPercentileShallBeWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; ++i) {
+            histogram.record(i * 1000L);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        eq(1000L, snapshot.count());
+        eq(1000L * 1000L, snapshot.max());
+        assertWithin(500L * 1000L, snapshot.percentile(50));
+        assertWithin(990L * 1000L, snapshot.percentile(99));
+    }
+
+    @Test
+    public void histogramShallKeepSmallAndHugeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        eq(2L, snapshot.count());
+        eq(Long.MAX_VALUE, snapshot.max());
+    }
+
+    @Test
+    public void restoredNodesShallBindLoggerOfPlugin() throws Exception {
+        record("a:b", 1000L);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(store);
+        oos.close();
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        HistogramMetricStore persisted = (HistogramMetricStore) ois.readObject();
+
+        final Logger logger = LogManager.get("metric.test");
+        HistogramMetricStore restored = new HistogramMetricStore(new SimpleMetricPlugin() {
+            @Override
+            Logger logger(String name) {
+                return "a:b".equals(name) ? logger : null;
+            }
+        });
+        restored.enableDataSync(false);
+        restored.clear();
+        restored.restore(persisted);
+        same(logger, restored.node("a:b").logger);
+        eq(1L, restored.count("a:b"));
+        eq(1000L, restored.ns("a:b"));
+        eq(1000L, restored.ns("a"));
+    }
+
+    private void assertWithin(long expected, long actual) {
+        yes(Math.abs(expected - actual) <= expected / 16, "expected: %s, actual: %s", expected, actual);
+    }
+
+    private void record(final String name, final long ns) {
+        store.onTimerStart(name);
+        store.onTimerStop(new Timer() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public void stop() {
+            }
+
+            @Override
+            public long ns() {
+                return ns;
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+    }
+
+}
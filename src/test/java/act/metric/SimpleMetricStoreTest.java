@@ -53,4 +53,25 @@ public class SimpleMetricStoreTest extends ActTestBase {
         eq(2L, store.count("a:x"));
         eq(4L, store.count("a"));
     }
+
+    @Test
+    public void handleOfCustomMetricShallDelegateByName() {
+        final Metric delegate = new SimpleMetric(store);
+        Metric custom = new Metric() {
+            @Override
+            public void countOnce(String name) {
+                delegate.countOnce(name);
+            }
+
+            @Override
+            public Timer startTimer(String name) {
+                return delegate.startTimer(name);
+            }
+        };
+        MetricHandle handle = Metric.Util.handle(custom, "a:b");
+        eq("a:b", handle.name());
+        handle.countOnce();
+        handle.countOnce();
+        eq(2L, store.count("a:b"));
+    }
 }
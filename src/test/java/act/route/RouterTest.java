@@ -261,6 +261,22 @@ public class RouterTest extends RouterTestBase {
         verify(ctx).param(ParamNames.PATH, "/foo/bar.txt");
     }
 
+    @Test
+    public void searchPartialUrlWithDuplicateSlashesAndQuery() {
+        router.addMapping(GET, "/public", staticDirHandler);
+        router.getInvoker(GET, "//public//foo///bar.txt?x=/y", ctx).handle(ctx);
+        verify(staticDirHandler).handle(ctx);
+        verify(ctx).param(ParamNames.PATH, "/foo/bar.txt");
+    }
+
+    @Test
+    public void itShallRecompileRoutesAfterMappingChanged() {
+        same(AlwaysNotFound.INSTANCE, router.getInvoker(GET, "/foo", ctx));
+        router.addMapping(GET, "/foo", controller);
+        router.getInvoker(GET, "/foo", ctx).handle(ctx);
+        controllerInvoked();
+    }
+
     @Test
     public void routeWithStaticDir() {
         router.addMapping(GET, "/public", "file:/public");
@@ -0,0 +1,112 @@
+package act.session;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.osgl.http.H.Method.GET;
+import static org.osgl.http.H.Session.KEY_EXPIRATION;
+
+import act.ActTestBase;
+import act.conf.AppConfig;
+import act.conf.AppConfigKey;
+import act.crypto.RotateSecretCrypto;
+import act.route.MockRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.$;
+import org.osgl.http.H;
+
+public class DefaultSessionCodecTest extends ActTestBase {
+
+    private static class CountingCrypto extends RotateSecretCrypto {
+        int verified;
+
+        CountingCrypto(RotationSecretProvider secretProvider) {
+            super(secretProvider);
+        }
+
+        @Override
+        public boolean verifySignature(String message, String signature) {
+            verified++;
+            return super.verifySignature(message, signature);
+        }
+    }
+
+    private AppConfig config;
+    private CountingCrypto crypto;
+    private H.Request request;
+
+    @Before
+    public void prepare() {
+        RotationSecretProvider secretProvider = mock(RotationSecretProvider.class);
+        when(secretProvider.rawSecret()).thenReturn("secret-for-session-codec-test");
+        crypto = new CountingCrypto(secretProvider);
+        config = new AppConfig();
+        config.set(AppConfigKey.SESSION_TTL, 60 * 10);
+        request = new MockRequest(config, GET, "/");
+    }
+
+    @Test
+    public void sessionShallBeDecodedFromCacheForSameCookie() {
+        DefaultSessionCodec codec = new DefaultSessionCodec(config, crypto);
+        String cookie = codec.encodeSession(session());
+        eq("tom", codec.decodeSession(cookie, request).get("username"));
+        eq("tom", codec.decodeSession(cookie, request).get("username"));
+        eq(1, crypto.verified);
+    }
+
+    @Test
+    public void tamperedCookieShallNotBeDecoded() {
+        config.set(AppConfigKey.SESSION_DECODE_CACHE_SIZE, 0);
+        DefaultSessionCodec codec = new DefaultSessionCodec(config, crypto);
+        String cookie = codec.encodeSession(session());
+        eq("tom", codec.decodeSession(cookie, request).get("username"));
+        String tampered = cookie.replace("tom", "bob");
+        assertNull(codec.decodeSession(tampered, request).get("username"));
+        eq(2, crypto.verified);
+    }
+
+    @Test
+    public void expirationShallNotBeRefreshedWithinThreshold() {
+        config.set(AppConfigKey.SESSION_REFRESH_THRESHOLD, 10);
+        DefaultSessionCodec codec = new DefaultSessionCodec(config, crypto);
+        H.Session session = session();
+        // refreshed 30 seconds ago, within 10% of 10 minutes
+        session.put(KEY_EXPIRATION, $.ms() + 1000 * (60 * 10 - 30));
+        H.Session decoded = codec.decodeSession(codec.encodeSession(session), request);
+        no(decoded.changed());
+        assertNull(codec.encodeSession(decoded));
+
+        // refreshed 2 minutes ago, out of the threshold
+        session.put(KEY_EXPIRATION, $.ms() + 1000 * (60 * 10 - 120));
+        decoded = codec.decodeSession(codec.encodeSession(session), request);
+        yes(decoded.changed());
+        assertNotNull(codec.encodeSession(decoded));
+    }
+
+    private static H.Session session() {
+        H.Session session = new H.Session();
+        session.put("username", "tom");
+        return session;
+    }
+
+}
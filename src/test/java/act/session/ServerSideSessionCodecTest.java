@@ -0,0 +1,204 @@
+package act.session;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.osgl.http.H.Method.GET;
+
+import act.ActTestBase;
+import act.conf.AppConfig;
+import act.conf.AppConfigKey;
+import act.crypto.RotateSecretCrypto;
+import act.route.MockRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.osgl.cache.CacheService;
+import org.osgl.http.H;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ServerSideSessionCodecTest extends ActTestBase {
+
+    private static class CountingStore extends OffHeapSessionStore {
+        int writes;
+
+        @Override
+        public void put(String id, String data, int ttl) {
+            writes++;
+            super.put(id, data, ttl);
+        }
+    }
+
+    private CountingStore store;
+    private ServerSideSessionCodec codec;
+    private H.Request request;
+
+    @Before
+    public void prepare() {
+        RotationSecretProvider secretProvider = mock(RotationSecretProvider.class);
+        when(secretProvider.rawSecret()).thenReturn("secret-for-session-store-test");
+        RotateSecretCrypto crypto = new RotateSecretCrypto(secretProvider);
+        AppConfig config = new AppConfig();
+        config.set(AppConfigKey.SESSION_TTL, 60 * 10);
+        store = new CountingStore();
+        codec = new ServerSideSessionCodec(config, store, crypto, new DefaultSessionCodec(config, crypto));
+        request = new MockRequest(config, GET, "/");
+    }
+
+    @Test
+    public void onlySignedIdShallBeEncoded() {
+        H.Session session = new H.Session();
+        session.put("username", "tom");
+        String encoded = codec.encodeSession(session);
+        no(encoded.contains("tom"));
+        yes(encoded.endsWith(session.id()));
+        eq(1, store.size());
+
+        H.Session decoded = codec.decodeSession(encoded, request);
+        eq("tom", decoded.get("username"));
+        eq(session.id(), decoded.id());
+    }
+
+    @Test
+    public void unchangedSessionShallNotBeRewritten() {
+        H.Session session = new H.Session();
+        session.put("username", "tom");
+        String encoded = codec.encodeSession(session);
+        eq(1, store.writes);
+
+        H.Session decoded = codec.decodeSession(encoded, request);
+        no(decoded.changed());
+        eq(encoded, codec.encodeSession(decoded));
+        eq(1, store.writes);
+
+        decoded.put("role", "admin");
+        codec.encodeSession(decoded);
+        eq(2, store.writes);
+        eq("admin", codec.decodeSession(encoded, request).get("role"));
+    }
+
+    @Test
+    public void forgedIdShallBeRejected() {
+        H.Session session = new H.Session();
+        session.put("username", "tom");
+        String encoded = codec.encodeSession(session);
+        String forged = encoded.substring(0, encoded.indexOf('-') + 1) + "another-id";
+        assertNull(codec.decodeSession(forged, request).get("username"));
+    }
+
+    @Test
+    public void invalidatedSessionShallBeExpired() {
+        H.Session session = new H.Session();
+        session.put("username", "tom");
+        String encoded = codec.encodeSession(session);
+        codec.invalidate(session);
+        H.Session decoded = codec.decodeSession(encoded, request);
+        assertNull(decoded.get("username"));
+        yes(decoded.contains(H.Session.KEY_EXPIRE_INDICATOR));
+    }
+
+    @Test
+    public void clearedSessionShallReuseStoredEntry() {
+        H.Session session = new H.Session();
+        session.put("username", "tom");
+        String encoded = codec.encodeSession(session);
+        for (int i = 0; i < 3; ++i) {
+            H.Session decoded = codec.decodeSession(encoded, request);
+            decoded.clear();
+            decoded.put("visit", String.valueOf(i));
+            encoded = codec.encodeSession(decoded);
+            eq(session.id(), decoded.id());
+        }
+        eq(1, store.size());
+        eq("2", codec.decodeSession(encoded, request).get("visit"));
+    }
+
+    @Test
+    public void storeShallBeBounded() {
+        OffHeapSessionStore store = new OffHeapSessionStore(100, 1024);
+        for (int i = 0; i < 1000; ++i) {
+            store.put("id-" + i, "0123456789", 0);
+        }
+        yes(store.size() <= 100);
+        yes(store.bytes() <= 1024);
+        // the most recently stored session is kept
+        eq("0123456789", store.get("id-999"));
+        store.remove("id-999");
+        // data is kept in buffers of the smallest size class
+        eq((long) store.size() * 128, store.bytes());
+    }
+
+    @Test
+    public void updatedSessionShallBeRewrittenInPlace() {
+        OffHeapSessionStore store = new OffHeapSessionStore(100, 1024 * 1024);
+        store.put("id", "0123456789", 0);
+        long bytes = store.bytes();
+        store.put("id", "9876543210-9876543210", 0);
+        eq(bytes, store.bytes());
+        eq("9876543210-9876543210", store.get("id"));
+        store.remove("id");
+        eq(0L, store.bytes());
+        store.put("id", "0123456789", 0);
+        eq("0123456789", store.get("id"));
+    }
+
+    @Test
+    public void cacheStoreShallNotRewriteOnEveryTouch() throws Exception {
+        final Map<String, Object> map = new HashMap<>();
+        final AtomicInteger writes = new AtomicInteger();
+        CacheService cache = mock(CacheService.class);
+        when(cache.get(anyString())).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                return map.get((String) invocation.getArguments()[0]);
+            }
+        });
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                writes.incrementAndGet();
+                map.put((String) invocation.getArguments()[0], invocation.getArguments()[1]);
+                return null;
+            }
+        }).when(cache).put(anyString(), any(), anyInt());
+        CacheServiceSessionStore store = new CacheServiceSessionStore(cache);
+        store.put("id", "data", 1);
+        eq(1, writes.get());
+        store.touch("id", 1);
+        store.touch("id", 1);
+        eq(1, writes.get());
+        // a quarter of the TTL passed
+        Thread.sleep(300);
+        store.touch("id", 1);
+        eq(2, writes.get());
+        eq("data", store.get("id"));
+    }
+
+}
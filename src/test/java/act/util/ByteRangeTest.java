@@ -0,0 +1,89 @@
+package act.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class ByteRangeTest extends ActTestBase {
+
+    @Test
+    public void testSingleRange() {
+        eq(Arrays.asList(new ByteRange(0, 499)), ByteRange.parse("bytes=0-499", 1000));
+        eq(Arrays.asList(new ByteRange(500, 999)), ByteRange.parse("bytes=500-", 1000));
+        eq(Arrays.asList(new ByteRange(900, 999)), ByteRange.parse("bytes=-100", 1000));
+        eq(Arrays.asList(new ByteRange(0, 999)), ByteRange.parse("bytes=-2000", 1000));
+        eq(Arrays.asList(new ByteRange(500, 999)), ByteRange.parse("Bytes=500-5000", 1000));
+    }
+
+    @Test
+    public void testMultipleRanges() {
+        List<ByteRange> ranges = ByteRange.parse("bytes=0-9, 20-29,-5", 100);
+        eq(Arrays.asList(new ByteRange(0, 9), new ByteRange(20, 29), new ByteRange(95, 99)), ranges);
+        // unsatisfiable ranges are dropped
+        eq(Arrays.asList(new ByteRange(0, 9)), ByteRange.parse("bytes=0-9,200-300", 100));
+    }
+
+    @Test
+    public void testCoalesce() {
+        // overlapping, adjacent and out of order ranges are merged
+        eq(Arrays.asList(new ByteRange(0, 29)), ByteRange.parse("bytes=10-29,0-9,5-15", 100));
+        eq(Arrays.asList(new ByteRange(0, 9), new ByteRange(50, 99)), ByteRange.parse("bytes=-50,0-9,60-70", 100));
+        // repeated ranges never make the response larger than the resource
+        StringBuilder sb = new StringBuilder("bytes=0-");
+        for (int i = 1; i < ByteRange.MAX_RANGES; ++i) {
+            sb.append(",0-");
+        }
+        eq(Arrays.asList(new ByteRange(0, 99)), ByteRange.parse(sb.toString(), 100));
+    }
+
+    @Test
+    public void testUnsatisfiable() {
+        yes(ByteRange.parse("bytes=1000-", 1000).isEmpty());
+        yes(ByteRange.parse("bytes=-0", 1000).isEmpty());
+        yes(ByteRange.parse("bytes=0-", 0).isEmpty());
+    }
+
+    @Test
+    public void testIgnored() {
+        assertNull(ByteRange.parse(null, 1000));
+        assertNull(ByteRange.parse("items=0-9", 1000));
+        assertNull(ByteRange.parse("bytes=9-0", 1000));
+        assertNull(ByteRange.parse("bytes=a-9", 1000));
+        assertNull(ByteRange.parse("bytes=-", 1000));
+        assertNull(ByteRange.parse("bytes=", 1000));
+        StringBuilder sb = new StringBuilder("bytes=0-0");
+        for (int i = 1; i <= ByteRange.MAX_RANGES; ++i) {
+            sb.append(",").append(i).append("-").append(i);
+        }
+        assertNull(ByteRange.parse(sb.toString(), 1000));
+    }
+
+    @Test
+    public void testContentRange() {
+        eq("bytes 0-499/1000", new ByteRange(0, 499).contentRange(1000));
+        eq(500L, new ByteRange(500, 999).length());
+    }
+
+}
@@ -32,6 +32,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
 
 public class FastJsonPropertyPreFilterTest extends ActTestBase {
     private FastJsonPropertyPreFilter filter;
@@ -90,6 +91,30 @@ public class FastJsonPropertyPreFilterTest extends ActTestBase {
         eq("{\"bar\":{\"age\":5,\"zee\":{\"flag\":false}},\"barList\":[{\"age\":4,\"zee\":{\"flag\":true}},{\"age\":3}]}", s);
     }
 
+    @Test
+    public void testIncludesOnList() {
+        filter.addIncludes("name,bar.age");
+        Foo foo3 = new Foo("foo3", new Bar("bar3", 7, null));
+        String s = JSON.toJSONString(C.list(foo, foo3), filter);
+        eq("[{\"bar\":{\"age\":5},\"name\":\"foo\"},{\"bar\":{\"age\":7},\"name\":\"foo3\"}]", s);
+    }
+
+    @Test
+    public void filtersOfSameSpecShallShareCompiledTree() {
+        List<String> outputs = C.list("name", "barList.age");
+        Set<String> excluded = C.set();
+        FastJsonPropertyPreFilter f1 = new FastJsonPropertyPreFilter(Foo.class, outputs, excluded, repo);
+        FastJsonPropertyPreFilter f2 = new FastJsonPropertyPreFilter(Foo.class, outputs, excluded, repo);
+        Foo foo3 = new Foo("foo3", null, new Bar("bar3", 7, null), new Bar("bar4", 8, null));
+        String expected = "{\"barList\":[{\"age\":7},{\"age\":8}],\"name\":\"foo3\"}";
+        eq(expected, JSON.toJSONString(foo3, f1));
+        eq(expected, JSON.toJSONString(foo3, f2));
+        // changing one filter shall not impact the other
+        f2.addExcludes("name");
+        eq("{\"barList\":[{\"age\":7},{\"age\":8}]}", JSON.toJSONString(foo3, f2));
+        eq(expected, JSON.toJSONString(foo3, f1));
+    }
+
     @Test
     public void testWithIterable() {
         class Person {
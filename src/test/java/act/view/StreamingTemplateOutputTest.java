@@ -0,0 +1,139 @@
+package act.view;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActResponse;
+import act.ActTestBase;
+import act.MockResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.util.Charsets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+
+public class StreamingTemplateOutputTest extends ActTestBase {
+
+    private Response resp;
+
+    private static class Response extends MockResponse {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        String content;
+        boolean committed;
+        // the size of the stream content at each flush
+        StringBuilder flushes = new StringBuilder();
+
+        @Override
+        public OutputStream createOutputStream() {
+            return new OutputStream() {
+                @Override
+                public void write(int b) {
+                    os.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    os.write(b, off, len);
+                }
+
+                @Override
+                public void flush() {
+                    flushes.append(os.size()).append(' ');
+                }
+            };
+        }
+
+        @Override
+        public ActResponse beforeWritingContent() {
+            return this;
+        }
+
+        @Override
+        public ActResponse afterWritingContent() {
+            committed = true;
+            return this;
+        }
+
+        @Override
+        public MockResponse writeContent(String s) {
+            content = s;
+            committed = true;
+            return this;
+        }
+    }
+
+    @Before
+    public void prepare() {
+        resp = new Response();
+    }
+
+    @Test
+    public void testSmallContent() {
+        StreamingTemplateOutput output = new StreamingTemplateOutput(resp, 40, Charsets.UTF_8);
+        output.write("中文 content");
+        output.close();
+        no(output.streamed());
+        eq("中文 content", resp.content);
+        eq(0, resp.os.size());
+        yes(resp.committed);
+    }
+
+    @Test
+    public void testStreamedContent() {
+        StreamingTemplateOutput output = new StreamingTemplateOutput(resp, 40, Charsets.UTF_8);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; ++i) {
+            sb.append((char) ('a' + i % 26));
+        }
+        String s = sb.toString();
+        output.write(s, 0, 30);
+        no(output.streamed());
+        output.write(s, 30, 30);
+        yes(output.streamed());
+        no(resp.committed);
+        output.write(s.charAt(60));
+        output.write(s.toCharArray(), 61, 39);
+        output.close();
+        yes(resp.committed);
+        assertNull(resp.content);
+        eq("60 100 ", resp.flushes.toString());
+        eq(s, new String(resp.os.toByteArray(), Charsets.UTF_8));
+    }
+
+    @Test
+    public void testStreamedContentShallBeEncoded() {
+        StreamingTemplateOutput output = new StreamingTemplateOutput(resp, 4, Charsets.UTF_8);
+        output.write("中文中文中文");
+        output.close();
+        yes(output.streamed());
+        eq("中文中文中文", new String(resp.os.toByteArray(), Charsets.UTF_8));
+    }
+
+    @Test
+    public void testDiscard() {
+        StreamingTemplateOutput output = new StreamingTemplateOutput(resp, 40, Charsets.UTF_8);
+        output.write("content");
+        output.discard();
+        no(resp.committed);
+        assertNull(resp.content);
+    }
+
+}
@@ -0,0 +1,86 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+import act.ActTestBase;
+import act.xio.WebSocketConnection;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.osgl.util.Charsets;
+
+import java.nio.ByteBuffer;
+
+public class WebSocketConnectionManagerTest extends ActTestBase {
+
+    private WebSocketConnectionManager manager;
+    private WebSocketConnection conn1;
+    private WebSocketConnection conn2;
+
+    @Before
+    public void prepare() throws Exception {
+        super.setup();
+        manager = new WebSocketConnectionManager(mockApp);
+        conn1 = mock(WebSocketConnection.class, withSettings().extraInterfaces(WebSocketConnection.EncodedTextSender.class));
+        conn2 = mock(WebSocketConnection.class, withSettings().extraInterfaces(WebSocketConnection.EncodedTextSender.class));
+        manager.tagRegistry().register("a", conn1);
+        manager.tagRegistry().register("b", conn1);
+        manager.tagRegistry().register("b", conn2);
+    }
+
+    @Test
+    public void connectionTaggedWithMultipleLabelsShallReceiveMessageOnce() {
+        manager.sendToTagged("hello", "a", "b");
+        sender(verify(conn1, times(1))).sendText(any(ByteBuffer.class));
+        sender(verify(conn2, times(1))).sendText(any(ByteBuffer.class));
+    }
+
+    @Test
+    public void messageShallBeEncodedOnceAndShared() {
+        manager.sendToTagged("hello", "b");
+        ArgumentCaptor<ByteBuffer> captor1 = ArgumentCaptor.forClass(ByteBuffer.class);
+        ArgumentCaptor<ByteBuffer> captor2 = ArgumentCaptor.forClass(ByteBuffer.class);
+        sender(verify(conn1)).sendText(captor1.capture());
+        sender(verify(conn2)).sendText(captor2.capture());
+        same(captor1.getValue(), captor2.getValue());
+        ByteBuffer buffer = captor1.getValue().duplicate();
+        yes(buffer.isReadOnly());
+        byte[] ba = new byte[buffer.remaining()];
+        buffer.get(ba);
+        eq("hello", new String(ba, Charsets.UTF_8));
+    }
+
+    @Test
+    public void connectionNotSendingEncodedTextShallReceiveString() {
+        WebSocketConnection conn3 = mock(WebSocketConnection.class);
+        manager.tagRegistry().register("b", conn3);
+        manager.sendToTagged("hello", "b");
+        verify(conn3).send("hello");
+    }
+
+    private static WebSocketConnection.EncodedTextSender sender(WebSocketConnection connection) {
+        return (WebSocketConnection.EncodedTextSender) connection;
+    }
+
+}
@@ -0,0 +1,137 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Test;
+import org.osgl.util.Charsets;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class WebSocketSendQueueTest extends ActTestBase {
+
+    private static class Queue extends WebSocketSendQueue {
+        List<String> written = new ArrayList<>();
+        boolean overflowed;
+
+        Queue(int limit, OverflowPolicy policy, Stats stats) {
+            super(limit, policy, stats);
+        }
+
+        @Override
+        protected void write(ByteBuffer payload) {
+            written.add(new String(payload.array(), Charsets.UTF_8));
+        }
+
+        @Override
+        protected void onOverflow() {
+            overflowed = true;
+        }
+
+        void complete(int n) {
+            for (int i = 0; i < n; ++i) {
+                onSent();
+            }
+        }
+    }
+
+    private static ByteBuffer msg(String s) {
+        return ByteBuffer.wrap(s.getBytes(Charsets.UTF_8));
+    }
+
+    @Test
+    public void itShallWriteImmediatelyWhenIdle() {
+        Queue queue = new Queue(2, WebSocketSendQueue.OverflowPolicy.DROP_OLDEST, null);
+        queue.offer(msg("a"));
+        eq("[a]", queue.written.toString());
+        queue.complete(1);
+        queue.offer(msg("b"));
+        eq("[a, b]", queue.written.toString());
+    }
+
+    @Test
+    public void queuedMessagesShallBeWrittenInNextBatch() {
+        WebSocketSendQueue.Stats stats = new WebSocketSendQueue.Stats();
+        Queue queue = new Queue(5, WebSocketSendQueue.OverflowPolicy.DROP_OLDEST, stats);
+        queue.offer(msg("a"));
+        queue.offer(msg("b"));
+        queue.offer(msg("c"));
+        eq("[a]", queue.written.toString());
+        eq(3, queue.depth());
+        eq(3L, stats.pending());
+        queue.complete(1);
+        eq("[a, b, c]", queue.written.toString());
+        queue.complete(2);
+        eq(0, queue.depth());
+        eq(0L, stats.pending());
+        eq(3, stats.maxDepth());
+    }
+
+    @Test
+    public void dropOldest() {
+        WebSocketSendQueue.Stats stats = new WebSocketSendQueue.Stats();
+        Queue queue = new Queue(2, WebSocketSendQueue.OverflowPolicy.DROP_OLDEST, stats);
+        queue.offer(msg("a"));
+        queue.offer(msg("b"));
+        queue.offer(msg("c"));
+        queue.offer(msg("d"));
+        queue.complete(1);
+        eq("[a, c, d]", queue.written.toString());
+        eq(1L, stats.dropped());
+    }
+
+    @Test
+    public void dropNewest() {
+        WebSocketSendQueue.Stats stats = new WebSocketSendQueue.Stats();
+        Queue queue = new Queue(2, WebSocketSendQueue.OverflowPolicy.DROP_NEWEST, stats);
+        queue.offer(msg("a"));
+        queue.offer(msg("b"));
+        queue.offer(msg("c"));
+        queue.offer(msg("d"));
+        queue.complete(1);
+        eq("[a, b, c]", queue.written.toString());
+        eq(1L, stats.dropped());
+    }
+
+    @Test
+    public void closeOnOverflow() {
+        WebSocketSendQueue.Stats stats = new WebSocketSendQueue.Stats();
+        Queue queue = new Queue(1, WebSocketSendQueue.OverflowPolicy.CLOSE, stats);
+        queue.offer(msg("a"));
+        queue.offer(msg("b"));
+        queue.offer(msg("c"));
+        yes(queue.overflowed);
+        eq(1L, stats.overflowClosed());
+        queue.complete(1);
+        queue.offer(msg("d"));
+        eq("[a]", queue.written.toString());
+        eq(0L, stats.pending());
+    }
+
+    @Test
+    public void overflowPolicyShallBeParsedIgnoreCase() {
+        eq(WebSocketSendQueue.OverflowPolicy.DROP_NEWEST, WebSocketSendQueue.OverflowPolicy.valueOfIgnoreCase("drop-newest"));
+        eq(WebSocketSendQueue.OverflowPolicy.CLOSE, WebSocketSendQueue.OverflowPolicy.valueOfIgnoreCase(" close"));
+    }
+
+}
@@ -0,0 +1,113 @@
+package act.xio;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static act.xio.ResponseCompression.*;
+
+import act.ActTestBase;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.util.IO;
+import org.osgl.util.S;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+public class ResponseCompressionTest extends ActTestBase {
+
+    private ResponseCompression compression;
+
+    @Before
+    public void prepare() {
+        compression = new ResponseCompression(6, 16, "text/*, application/json");
+    }
+
+    @Test
+    public void testNegotiate() {
+        eq(GZIP, negotiate("gzip, deflate, br"));
+        eq(DEFLATE, negotiate("deflate"));
+        eq(DEFLATE, negotiate("gzip;q=0, deflate"));
+        eq(GZIP, negotiate("*"));
+        assertNull(negotiate("identity"));
+        assertNull(negotiate(null));
+    }
+
+    @Test
+    public void testAccepts() {
+        yes(accepts("gzip, deflate, br", BROTLI));
+        yes(accepts("GZIP;q=0.5", GZIP));
+        no(accepts("br;q=0, gzip", BROTLI));
+        no(accepts("gzip", BROTLI));
+        no(accepts("*, gzip;q=0", GZIP));
+    }
+
+    @Test
+    public void testCompressible() {
+        yes(compression.compressible("text/html; charset=utf-8"));
+        yes(compression.compressible("application/json"));
+        no(compression.compressible("application/javascript"));
+        no(compression.compressible("image/png"));
+        no(compression.compressible(null));
+    }
+
+    @Test
+    public void testGzipBuffer() throws Exception {
+        String content = content();
+        ByteBuffer encoded = compression.compress(ByteBuffer.wrap(content.getBytes("UTF-8")), GZIP);
+        byte[] ba = new byte[encoded.remaining()];
+        encoded.get(ba);
+        eq(content, new String(IO.readContent(new GZIPInputStream(new ByteArrayInputStream(ba))), "UTF-8"));
+    }
+
+    @Test
+    public void testDeflateBuffer() throws Exception {
+        String content = content();
+        ByteBuffer encoded = compression.compress(ByteBuffer.wrap(content.getBytes("UTF-8")), DEFLATE);
+        byte[] ba = new byte[encoded.remaining()];
+        encoded.get(ba);
+        eq(content, new String(IO.readContent(new InflaterInputStream(new ByteArrayInputStream(ba))), "UTF-8"));
+    }
+
+    @Test
+    public void testGzipStream() throws Exception {
+        String content = content();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        OutputStream os = compression.compress(baos, GZIP);
+        byte[] ba = content.getBytes("UTF-8");
+        os.write(ba, 0, 100);
+        os.write(ba, 100, ba.length - 100);
+        os.close();
+        eq(content, new String(IO.readContent(new GZIPInputStream(new ByteArrayInputStream(baos.toByteArray()))), "UTF-8"));
+    }
+
+    private static String content() {
+        StringBuilder sb = S.builder();
+        for (int i = 0; i < 200; ++i) {
+            sb.append("line ").append(i).append(": the quick brown fox jumps over the lazy dog\n");
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,103 @@
+package benchmark;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.BenchmarkBase;
+import act.util.VirtualThreads;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.osgl.util.E;
+
+import java.util.concurrent.*;
+
+/**
+ * Dispatch requests to an artificially blocking handler, e.g. one waiting
+ * on a database call, to a worker pool sized the same as the one
+ * `UndertowNetwork` creates and to the executor created by {@link VirtualThreads}
+ * used when `handler.virtual_thread.enabled` is on.
+ *
+ * On JDK without virtual thread support the latter is the fallback pool of
+ * 256 platform threads, so the result only shows how a larger pool helps
+ * blocking handlers. It says nothing about virtual threads unless run on
+ * JDK 21 or later.
+ */
+@BenchmarkOptions(warmupRounds = 2, benchmarkRounds = 10)
+public class BlockingHandlerPoolSizeBenchmark extends BenchmarkBase {
+
+    private static final int REQUESTS = 2000;
+    private static final long BLOCKING_MILLIS = 10;
+
+    private static final Runnable BLOCKING_HANDLER = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                Thread.sleep(BLOCKING_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    };
+
+    private static ExecutorService workerPool;
+    private static ExecutorService virtualThreadExecutor;
+
+    @BeforeClass
+    public static void prepare() {
+        int ioThreads = Runtime.getRuntime().availableProcessors() * 2;
+        workerPool = Executors.newFixedThreadPool(ioThreads * 8);
+        virtualThreadExecutor = VirtualThreads.newExecutor("benchmark", 256);
+    }
+
+    @AfterClass
+    public static void teardown() {
+        workerPool.shutdownNow();
+        virtualThreadExecutor.shutdownNow();
+    }
+
+    @Test
+    public void workerPool() throws Exception {
+        runTest(workerPool);
+    }
+
+    @Test
+    public void virtualThreadExecutor() throws Exception {
+        runTest(virtualThreadExecutor);
+    }
+
+    private void runTest(ExecutorService executor) throws Exception {
+        final CountDownLatch latch = new CountDownLatch(REQUESTS);
+        for (int i = 0; i < REQUESTS; ++i) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    BLOCKING_HANDLER.run();
+                    latch.countDown();
+                }
+            });
+        }
+        if (!latch.await(60, TimeUnit.SECONDS)) {
+            throw E.unexpected("requests not finished in time");
+        }
+    }
+
+}
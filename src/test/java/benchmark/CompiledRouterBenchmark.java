@@ -0,0 +1,146 @@
+package benchmark;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.osgl.http.H.Method.GET;
+
+import act.Act;
+import act.BenchmarkBase;
+import act.app.ActionContext;
+import act.app.App;
+import act.conf.AppConfigKey;
+import act.handler.RequestHandler;
+import act.handler.builtin.AlwaysBadRequest;
+import act.handler.builtin.AlwaysNotFound;
+import act.plugin.GenericPluginManager;
+import act.route.*;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.osgl.util.E;
+import org.osgl.util.S;
+
+import java.lang.reflect.Field;
+
+/**
+ * Compare the compiled route tree with the interpreted route tree
+ * on routing tables of 50, 500 and 5000 routes
+ */
+@BenchmarkOptions(warmupRounds = 2, benchmarkRounds = 20)
+public class CompiledRouterBenchmark extends BenchmarkBase {
+
+    private static final int LOOP = 1000 * 100;
+
+    private static Router[] compiled = new Router[3];
+    private static Router[] interpreted = new Router[3];
+    private static ActionContext compiledCtx;
+    private static ActionContext interpretedCtx;
+
+    @BeforeClass
+    public static void prepare() {
+        try {
+            Field f = Act.class.getDeclaredField("pluginManager");
+            f.setAccessible(true);
+            f.set(null, new GenericPluginManager());
+        } catch (Exception e) {
+            throw E.unexpected(e);
+        }
+        UrlPath.testClassInit();
+        int[] sizes = {50, 500, 5000};
+
+        App app = App.testInstance();
+        for (int i = 0; i < sizes.length; ++i) {
+            compiled[i] = router(app, sizes[i]);
+        }
+        compiledCtx = ActionContext.create(app, new MockRequest(app.config(), GET, "/"), new MockResponse());
+
+        app = App.testInstance();
+        app.config().set(AppConfigKey.ROUTER_COMPILED, false);
+        for (int i = 0; i < sizes.length; ++i) {
+            interpreted[i] = router(app, sizes[i]);
+        }
+        interpretedCtx = ActionContext.create(app, new MockRequest(app.config(), GET, "/"), new MockResponse());
+    }
+
+    private static Router router(App app, int routes) {
+        Router router = new Router(new MockRequestHandlerResolver(), app);
+        for (int i = 0; i < routes; ++i) {
+            switch (i % 3) {
+                case 0:
+                    router.addMapping(GET, S.fmt("/api/res%s/items", i), S.fmt("Res%s.items", i));
+                    break;
+                case 1:
+                    router.addMapping(GET, S.fmt("/api/res%s/{id}", i), S.fmt("Res%s.get", i));
+                    break;
+                default:
+                    router.addMapping(GET, S.fmt("/api/res%s/{<[0-9]+>id}/detail", i), S.fmt("Res%s.detail", i));
+            }
+        }
+        return router;
+    }
+
+    @Test
+    public void compiled_50() {
+        runTest(compiled[0], compiledCtx, 50);
+    }
+
+    @Test
+    public void interpreted_50() {
+        runTest(interpreted[0], interpretedCtx, 50);
+    }
+
+    @Test
+    public void compiled_500() {
+        runTest(compiled[1], compiledCtx, 500);
+    }
+
+    @Test
+    public void interpreted_500() {
+        runTest(interpreted[1], interpretedCtx, 500);
+    }
+
+    @Test
+    public void compiled_5000() {
+        runTest(compiled[2], compiledCtx, 5000);
+    }
+
+    @Test
+    public void interpreted_5000() {
+        runTest(interpreted[2], interpretedCtx, 5000);
+    }
+
+    private void runTest(Router router, ActionContext ctx, int routes) {
+        String[] urls = {
+                S.fmt("/api/res%s/items", routes - 50),
+                S.fmt("/api/res%s/abc-xyz", routes - 49),
+                S.fmt("/api/res%s/12345/detail", routes - 48),
+                S.fmt("/api/res%s/items?foo=bar", routes / 2 - routes / 2 % 3)
+        };
+        for (int i = 0; i < LOOP; ++i) {
+            String url = urls[i & 3];
+            RequestHandler handler = router.getInvoker(GET, url, ctx);
+            if (AlwaysNotFound.INSTANCE == handler || AlwaysBadRequest.INSTANCE == handler) {
+                throw E.unexpected("route not found: %s", url);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+package benchmark;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.BenchmarkBase;
+import act.event.ActEvent;
+import act.event.ActEventListener;
+import act.event.ActEventListenerBase;
+import act.event.RingBufferEventDispatcher;
+import act.metric.Metric;
+import act.util.StripedCounter;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Compare async event listener dispatching through the job executor
+ * (one task per listener per event, as `EventBus` does by default) with
+ * the ring buffer dispatcher
+ */
+@BenchmarkOptions(warmupRounds = 2, benchmarkRounds = 20)
+public class EventDispatchBenchmark extends BenchmarkBase {
+
+    private static final int EVENTS = 1000 * 100;
+    private static final int LISTENERS = 4;
+
+    private static final StripedCounter counter = new StripedCounter();
+
+    private static ScheduledThreadPoolExecutor executor;
+    private static RingBufferEventDispatcher dispatcher;
+    private static ActEventListener[] listeners = new ActEventListener[LISTENERS];
+
+    public static class MyEvent extends ActEvent<String> {
+        public MyEvent(String source) {
+            super(source);
+        }
+    }
+
+    @BeforeClass
+    public static void prepare() {
+        executor = new ScheduledThreadPoolExecutor(4);
+        dispatcher = new RingBufferEventDispatcher(2, 1024, RingBufferEventDispatcher.WaitStrategy.BLOCKING, Metric.NULL_METRIC);
+        for (int i = 0; i < LISTENERS; ++i) {
+            listeners[i] = new ActEventListenerBase<MyEvent>() {
+                @Override
+                public void on(MyEvent event) {
+                    counter.increment();
+                }
+            };
+        }
+    }
+
+    @AfterClass
+    public static void teardown() {
+        executor.shutdownNow();
+        dispatcher.destroy();
+    }
+
+    @Test
+    public void executor() {
+        counter.reset();
+        MyEvent event = new MyEvent("foo");
+        for (int i = 0; i < EVENTS; ++i) {
+            for (final ActEventListener l : listeners) {
+                final MyEvent e = event;
+                executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            l.on(e);
+                        } catch (Exception x) {
+                            throw new RuntimeException(x);
+                        }
+                    }
+                });
+            }
+        }
+        await();
+    }
+
+    @Test
+    public void ringBuffer() {
+        counter.reset();
+        MyEvent event = new MyEvent("foo");
+        for (int i = 0; i < EVENTS; ++i) {
+            for (ActEventListener l : listeners) {
+                dispatcher.dispatch(l, event);
+            }
+        }
+        await();
+    }
+
+    private static void await() {
+        while (counter.sum() < EVENTS * LISTENERS) {
+            Thread.yield();
+        }
+    }
+
+}
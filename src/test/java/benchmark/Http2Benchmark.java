@@ -0,0 +1,195 @@
+package benchmark;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.BenchmarkBase;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import io.undertow.Undertow;
+import io.undertow.UndertowOptions;
+import io.undertow.client.*;
+import io.undertow.connector.ByteBufferPool;
+import io.undertow.server.DefaultByteBufferPool;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+import io.undertow.util.StringReadChannelListener;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.osgl.util.E;
+import org.osgl.util.IO;
+import org.xnio.*;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test many small parallel API calls served over HTTP/1.1 keep-alive
+ * connections and over a single multiplexed HTTP/2 (h2c) connection. The
+ * server is set up with the same HTTP/2 options `UndertowNetwork` applies
+ * when `xio.http2.enabled` is on
+ */
+@BenchmarkOptions(warmupRounds = 2, benchmarkRounds = 20)
+public class Http2Benchmark extends BenchmarkBase {
+
+    private static final int REQUESTS = 2000;
+    private static final int CONCURRENCY = 16;
+    private static final int HTTP1_CONNECTIONS = 6;
+
+    private static Undertow server;
+    private static XnioWorker worker;
+    private static ByteBufferPool buffers;
+    private static ClientConnection[] http1;
+    private static ClientConnection http2;
+    private static String host;
+
+    @BeforeClass
+    public static void prepare() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        host = "localhost:" + port;
+        server = Undertow.builder()
+                .addHttpListener(port, "localhost")
+                .setServerOption(UndertowOptions.ENABLE_HTTP2, true)
+                .setServerOption(UndertowOptions.HTTP2_SETTINGS_MAX_CONCURRENT_STREAMS, 100)
+                .setServerOption(UndertowOptions.HTTP2_SETTINGS_HEADER_TABLE_SIZE, 4096)
+                .setServerOption(UndertowOptions.HTTP2_SETTINGS_INITIAL_WINDOW_SIZE, 65535)
+                .setHandler(new HttpHandler() {
+                    @Override
+                    public void handleRequest(HttpServerExchange exchange) {
+                        exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, "application/json");
+                        exchange.getResponseSender().send("{\"id\":1,\"name\":\"act\"}");
+                    }
+                }).build();
+        server.start();
+        worker = Xnio.getInstance().createWorker(OptionMap.create(Options.WORKER_IO_THREADS, 2));
+        buffers = new DefaultByteBufferPool(true, 16 * 1024);
+        UndertowClient client = UndertowClient.getInstance();
+        http1 = new ClientConnection[HTTP1_CONNECTIONS];
+        for (int i = 0; i < HTTP1_CONNECTIONS; ++i) {
+            http1[i] = client.connect(new URI("http://" + host), worker, buffers, OptionMap.EMPTY).get();
+        }
+        http2 = client.connect(new URI("h2c-prior://" + host), worker, buffers, OptionMap.EMPTY).get();
+    }
+
+    @AfterClass
+    public static void teardown() {
+        for (ClientConnection connection : http1) {
+            IO.close(connection);
+        }
+        IO.close(http2);
+        worker.shutdownNow();
+        server.stop();
+    }
+
+    @Test
+    public void http1KeepAlive() throws Exception {
+        // a HTTP/1.1 connection serves one request at a time
+        Load load = new Load(REQUESTS, HTTP1_CONNECTIONS);
+        for (ClientConnection connection : http1) {
+            load.next(connection);
+        }
+        load.await();
+    }
+
+    @Test
+    public void http2Multiplexing() throws Exception {
+        Load load = new Load(REQUESTS, CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; ++i) {
+            load.next(http2);
+        }
+        load.await();
+    }
+
+    private static class Load {
+        private final AtomicInteger remaining;
+        private final CountDownLatch done;
+        private volatile IOException error;
+
+        Load(int requests, int concurrency) {
+            remaining = new AtomicInteger(requests - concurrency);
+            done = new CountDownLatch(requests);
+        }
+
+        void await() throws InterruptedException {
+            if (!done.await(60, TimeUnit.SECONDS)) {
+                throw E.unexpected("load not finished in time, %s requests left", done.getCount());
+            }
+            if (null != error) {
+                throw E.ioException(error);
+            }
+        }
+
+        void next(final ClientConnection connection) {
+            ClientRequest request = new ClientRequest().setMethod(Methods.GET).setPath("/api/item");
+            request.getRequestHeaders().put(Headers.HOST, host);
+            connection.sendRequest(request, new ClientCallback<ClientExchange>() {
+                @Override
+                public void completed(ClientExchange exchange) {
+                    exchange.setResponseListener(new ClientCallback<ClientExchange>() {
+                        @Override
+                        public void completed(ClientExchange exchange) {
+                            new StringReadChannelListener(buffers) {
+                                @Override
+                                protected void stringDone(String string) {
+                                    done.countDown();
+                                    if (remaining.getAndDecrement() > 0) {
+                                        next(connection);
+                                    }
+                                }
+
+                                @Override
+                                protected void error(IOException e) {
+                                    failed(e);
+                                }
+                            }.setup(exchange.getResponseChannel());
+                        }
+
+                        @Override
+                        public void failed(IOException e) {
+                            Load.this.failed(e);
+                        }
+                    });
+                }
+
+                @Override
+                public void failed(IOException e) {
+                    Load.this.failed(e);
+                }
+            });
+        }
+
+        private void failed(IOException e) {
+            error = e;
+            while (done.getCount() > 0) {
+                done.countDown();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package benchmark;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.osgl.http.H.Method.GET;
+
+import act.BenchmarkBase;
+import act.conf.AppConfig;
+import act.crypto.HMAC;
+import act.route.MockRequest;
+import act.session.JWT;
+import act.session.JsonWebTokenSessionCodec;
+import act.session.SessionCodec;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.osgl.http.H;
+import org.osgl.util.E;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encode and decode JWT sessions from multiple threads, comparing the
+ * pooled `Mac` instances of {@link HMAC} with creating and initializing
+ * a `Mac` per hash, as `RotateSecretHMAC` used to do
+ */
+@BenchmarkOptions(warmupRounds = 2, benchmarkRounds = 20)
+public class JwtSessionCodecBenchmark extends BenchmarkBase {
+
+    private static final int THREADS = 4;
+    private static final int LOOP = 1000 * 5;
+    private static final String SECRET = "8f3ca5e2-8c4d-4d7c-9a47-1d6f0c2f7e21";
+
+    private static ExecutorService executor;
+    private static H.Request request;
+    private static SessionCodec pooled;
+    private static SessionCodec perCall;
+
+    /**
+     * Create and initialize a `Mac` for every hash.
+     */
+    private static class PerCallMacHMAC extends HMAC {
+        PerCallMacHMAC() {
+            super(SECRET, Algorithm.SHA256);
+        }
+
+        @Override
+        protected byte[] doHash(byte[] bytes) {
+            return doHash(bytes, newMac());
+        }
+
+        @Override
+        protected boolean verifyHash(byte[] payload, byte[] hash) {
+            return verifyHash(payload, hash, newMac());
+        }
+
+        private static Mac newMac() {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(new SecretKeySpec(SECRET.getBytes(Charset.forName("UTF-8")), "HmacSHA256"));
+                return mac;
+            } catch (Exception e) {
+                throw E.unexpected(e);
+            }
+        }
+    }
+
+    @BeforeClass
+    public static void prepare() {
+        AppConfig config = new AppConfig();
+        request = new MockRequest(config, GET, "/");
+        pooled = new JsonWebTokenSessionCodec(config, new JWT(new HMAC(SECRET, HMAC.Algorithm.SHA256), "act"));
+        perCall = new JsonWebTokenSessionCodec(config, new JWT(new PerCallMacHMAC(), "act"));
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterClass
+    public static void teardown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void pooledMac() throws Exception {
+        runTest(pooled);
+    }
+
+    @Test
+    public void perCallMac() throws Exception {
+        runTest(perCall);
+    }
+
+    private void runTest(final SessionCodec codec) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; ++t) {
+            futures.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < LOOP; ++i) {
+                        H.Session session = new H.Session();
+                        session.put("username", "tom@example.com");
+                        session.put("role", "admin");
+                        String encoded = codec.encodeSession(session);
+                        H.Session decoded = codec.decodeSession(encoded, request);
+                        if (!"admin".equals(decoded.get("role"))) {
+                            throw E.unexpected("session not decoded");
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+package benchmark;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.BenchmarkBase;
+import act.util.FastJsonPropertyPreFilter;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.osgl.util.FastStr;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compare rendering a list of 10k elements with the path tree based
+ * property filter and with the filter that builds the property path
+ * string from the serial context for every property
+ */
+@BenchmarkOptions(warmupRounds = 2, benchmarkRounds = 20)
+public class PropertyFilterBenchmark extends BenchmarkBase {
+
+    private static final String SPEC = "id,name,address.city,tags";
+    private static final String PATTERN_SPEC = "(.*\\.)?name";
+
+    public static class Address {
+        private String street = "1 Main St";
+        private String city = "Sydney";
+
+        public String getStreet() {
+            return street;
+        }
+
+        public String getCity() {
+            return city;
+        }
+    }
+
+    public static class Person {
+        private int id;
+        private String name;
+        private String email;
+        private Address address = new Address();
+        private List<String> tags = new ArrayList<>();
+
+        Person(int id) {
+            this.id = id;
+            this.name = "person" + id;
+            this.email = name + "@example.com";
+            tags.add("a");
+            tags.add("b");
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+    }
+
+    // property path is built and matched for every property
+    private static class PathStringFilter extends FastJsonPropertyPreFilter {
+        @Override
+        public boolean apply(JSONSerializer serializer, Object source, String name) {
+            if (source == null) {
+                return true;
+            }
+            FastStr fs = FastStr.of(serializer.getContext().toString()).append('.').append(name);
+            return matches(fs.substring(fs.indexOf('.') + 1));
+        }
+    }
+
+    private static List<Person> list = new ArrayList<>();
+
+    @BeforeClass
+    public static void prepare() {
+        FastJsonPropertyPreFilter.testClassInit();
+        for (int i = 0; i < 10000; ++i) {
+            list.add(new Person(i));
+        }
+    }
+
+    @Test
+    public void pathTree() {
+        FastJsonPropertyPreFilter filter = new FastJsonPropertyPreFilter();
+        filter.addIncludes(SPEC);
+        JSON.toJSONString(list, filter);
+    }
+
+    @Test
+    public void pathString() {
+        FastJsonPropertyPreFilter filter = new PathStringFilter();
+        filter.addIncludes(SPEC);
+        JSON.toJSONString(list, filter);
+    }
+
+    @Test
+    public void pathTreeWithPattern() {
+        FastJsonPropertyPreFilter filter = new FastJsonPropertyPreFilter();
+        filter.addExcludes(PATTERN_SPEC);
+        JSON.toJSONString(list, filter);
+    }
+
+    @Test
+    public void pathStringWithPattern() {
+        FastJsonPropertyPreFilter filter = new PathStringFilter();
+        filter.addExcludes(PATTERN_SPEC);
+        JSON.toJSONString(list, filter);
+    }
+
+}
@@ -0,0 +1,139 @@
+package benchmark;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.BenchmarkBase;
+import act.util.ByteRange;
+import act.xio.undertow.FileRegionTransfer;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import io.undertow.Undertow;
+import io.undertow.io.IoCallback;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.osgl.util.E;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Resume interrupted downloads of a large file, comparing re-sending the
+ * whole file, as `FileGetter` used to do, with serving the `Range` of the
+ * missing bytes through a {@link FileRegionTransfer}
+ */
+@BenchmarkOptions(warmupRounds = 2, benchmarkRounds = 10)
+public class RangeDownloadBenchmark extends BenchmarkBase {
+
+    private static final int FILE_SIZE = 16 * 1024 * 1024;
+    private static final int DOWNLOADS = 20;
+    // the download is resumed after 90% of the file has been received
+    private static final long RESUME_AT = FILE_SIZE / 10 * 9;
+
+    private static File file;
+    private static Undertow server;
+    private static String url;
+
+    @BeforeClass
+    public static void prepare() throws Exception {
+        file = File.createTempFile("act-range", ".bin");
+        byte[] ba = new byte[1024 * 1024];
+        new Random(1).nextBytes(ba);
+        try (FileOutputStream os = new FileOutputStream(file)) {
+            for (int i = 0; i < FILE_SIZE / ba.length; ++i) {
+                os.write(ba);
+            }
+        }
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        url = "http://localhost:" + port + "/download";
+        server = Undertow.builder()
+                .addHttpListener(port, "localhost")
+                .setHandler(new HttpHandler() {
+                    @Override
+                    public void handleRequest(HttpServerExchange exchange) throws Exception {
+                        long len = file.length();
+                        FileChannel channel = FileChannel.open(file.toPath());
+                        List<ByteRange> ranges = ByteRange.parse(exchange.getRequestHeaders().getFirst(Headers.RANGE), len);
+                        if (null == ranges || ranges.size() != 1) {
+                            exchange.getResponseSender().transferFrom(channel, IoCallback.END_EXCHANGE);
+                            return;
+                        }
+                        ByteRange range = ranges.get(0);
+                        exchange.setStatusCode(206);
+                        exchange.getResponseHeaders().put(Headers.CONTENT_RANGE, range.contentRange(len));
+                        exchange.setResponseContentLength(range.length());
+                        new FileRegionTransfer(exchange, channel, ranges).start();
+                    }
+                }).build();
+        server.start();
+    }
+
+    @AfterClass
+    public static void teardown() {
+        server.stop();
+        file.delete();
+    }
+
+    @Test
+    public void resendWholeFile() throws Exception {
+        for (int i = 0; i < DOWNLOADS; ++i) {
+            download(null, FILE_SIZE);
+        }
+    }
+
+    @Test
+    public void resumeWithRange() throws Exception {
+        for (int i = 0; i < DOWNLOADS; ++i) {
+            download("bytes=" + RESUME_AT + "-", FILE_SIZE - RESUME_AT);
+        }
+    }
+
+    private static void download(String range, long expected) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        if (null != range) {
+            conn.setRequestProperty("Range", range);
+        }
+        long n = 0;
+        byte[] buf = new byte[64 * 1024];
+        try (InputStream is = conn.getInputStream()) {
+            for (int len = is.read(buf); len >= 0; len = is.read(buf)) {
+                n += len;
+            }
+        }
+        if (n != expected) {
+            throw E.unexpected("expected %s bytes, got %s", expected, n);
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package benchmark;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.BenchmarkBase;
+import act.conf.AppConfig;
+import act.controller.DetachedResponse;
+import act.controller.ResponseCache;
+import act.route.MockResponse;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.osgl.http.H;
+import org.osgl.util.E;
+import org.osgl.util.IO;
+import org.osgl.util.S;
+
+import java.io.OutputStream;
+
+/**
+ * Compare cache hit replay of a frozen {@link ResponseCache} with
+ * the replay of the recorded headers, cookies and output
+ */
+@BenchmarkOptions(warmupRounds = 2, benchmarkRounds = 20)
+public class ResponseCacheBenchmark extends BenchmarkBase {
+
+    private static final int LOOP = 1000 * 1000;
+
+    private static ResponseCache recorded;
+    private static ResponseCache frozen;
+    private static MockResponse target = new MockResponse();
+
+    @BeforeClass
+    public static void prepare() {
+        AppConfig config = new AppConfig();
+        recorded = record(config);
+        frozen = record(config).freeze();
+        E.unexpectedIf(!frozen.isFrozen(), "response cache not frozen");
+    }
+
+    private static ResponseCache record(AppConfig config) {
+        ResponseCache cache = new ResponseCache(new DetachedResponse(config));
+        cache.status(H.Status.OK);
+        cache.contentType(H.Format.JSON.contentType());
+        cache.characterEncoding("UTF-8");
+        cache.header(H.Header.Names.CACHE_CONTROL, "public, max-age=3600");
+        cache.header(H.Header.Names.ETAG, "\"abc123\"");
+        cache.header(H.Header.Names.VARY, "Accept-Encoding");
+        cache.header("X-Request-Id", "c0ffee");
+        cache.addCookie(new H.Cookie("theme", "dark"));
+        cache.commitContentType();
+        OutputStream os = cache.outputStream();
+        IO.write(S.times("{\"id\": 1, \"name\": \"dashboard\"}", 100)).ensureCloseSink().to(os);
+        return cache;
+    }
+
+    @Test
+    public void recorded() {
+        runTest(recorded);
+    }
+
+    @Test
+    public void frozen() {
+        runTest(frozen);
+    }
+
+    private void runTest(ResponseCache cache) {
+        for (int i = 0; i < LOOP; ++i) {
+            cache.applyTo(target);
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package benchmark;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.BenchmarkBase;
+import act.job.HashedWheelTimer;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.*;
+
+/**
+ * Schedule then cancel one million pending delayed tasks with the
+ * `ScheduledThreadPoolExecutor` used by `JobManager` by default and with
+ * the {@link HashedWheelTimer} enabled by `job.timer.wheel.enabled`
+ */
+@BenchmarkOptions(warmupRounds = 2, benchmarkRounds = 10)
+public class TimingWheelBenchmark extends BenchmarkBase {
+
+    private static final int TASKS = 1000 * 1000;
+
+    private static final Runnable TASK = new Runnable() {
+        @Override
+        public void run() {
+        }
+    };
+
+    private static ScheduledThreadPoolExecutor executor;
+    private static HashedWheelTimer timer;
+
+    @BeforeClass
+    public static void prepare() {
+        executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        timer = new HashedWheelTimer("benchmark-timer", 10, TimeUnit.MILLISECONDS, 512);
+    }
+
+    @AfterClass
+    public static void teardown() {
+        executor.shutdownNow();
+        timer.stop();
+    }
+
+    @Test
+    public void scheduledThreadPool() {
+        Future<?>[] futures = new Future[TASKS];
+        for (int i = 0; i < TASKS; ++i) {
+            futures[i] = executor.schedule(TASK, 3600 + i % 3600, TimeUnit.SECONDS);
+        }
+        for (Future<?> future : futures) {
+            future.cancel(false);
+        }
+    }
+
+    @Test
+    public void hashedWheelTimer() {
+        Future<?>[] futures = new Future[TASKS];
+        for (int i = 0; i < TASKS; ++i) {
+            futures[i] = timer.schedule(TASK, 3600 + i % 3600, TimeUnit.SECONDS, executor);
+        }
+        for (Future<?> future : futures) {
+            future.cancel(false);
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package benchmark;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2018 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.BenchmarkBase;
+import act.data.MapUtil;
+import act.data.UrlEncodedParser;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.osgl.util.Codec;
+import org.osgl.util.E;
+
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parse typical and large url encoded forms with the single pass byte level
+ * parser of `UrlEncodedParser`, comparing with the previous implementation
+ * that builds the body string, splits it and URL-decodes each pair
+ */
+@BenchmarkOptions(warmupRounds = 2, benchmarkRounds = 20)
+public class UrlEncodedParserBenchmark extends BenchmarkBase {
+
+    private static final int LOOP = 1000 * 20;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static byte[] typical;
+    private static byte[] large;
+
+    @BeforeClass
+    public static void prepare() {
+        typical = ("event=order.created&id=ord_1Hx9s2&amount=1999&currency=usd&customer%5Bemail%5D=tom%40example.com"
+                + "&customer%5Bname%5D=Tom+Smith&note=Deliver+after+5pm%2C+thanks%21&token=a8f3c2e1").getBytes(UTF8);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 500; ++i) {
+            if (i > 0) {
+                sb.append('&');
+            }
+            sb.append("items%5B").append(i).append("%5D=product+name+").append(i).append("%20%E4%B8%AD");
+        }
+        large = sb.toString().getBytes(UTF8);
+    }
+
+    @Test
+    public void typicalFormSinglePass() {
+        for (int i = 0; i < LOOP; ++i) {
+            check(UrlEncodedParser.parse(typical, typical.length, UTF8, 0), 8);
+        }
+    }
+
+    @Test
+    public void typicalFormSplit() throws Exception {
+        for (int i = 0; i < LOOP; ++i) {
+            check(splitAndDecode(typical, UTF8), 8);
+        }
+    }
+
+    @Test
+    public void largeFormSinglePass() {
+        for (int i = 0; i < LOOP / 50; ++i) {
+            check(UrlEncodedParser.parse(large, large.length, UTF8, 0), 500);
+        }
+    }
+
+    @Test
+    public void largeFormSplit() throws Exception {
+        for (int i = 0; i < LOOP / 50; ++i) {
+            check(splitAndDecode(large, UTF8), 500);
+        }
+    }
+
+    private static void check(Map<String, String[]> params, int expected) {
+        if (params.size() != expected) {
+            throw E.unexpected("form not parsed");
+        }
+    }
+
+    // the parsing logic of UrlEncodedParser before switching to the single pass parser
+    private static Map<String, String[]> splitAndDecode(byte[] bytes, Charset charset) throws Exception {
+        String data = new String(bytes, charset.name());
+        Map<String, String[]> params = new LinkedHashMap<>();
+        for (String keyValue : data.split("&")) {
+            int i = keyValue.indexOf('=');
+            String key;
+            String value = null;
+            if (i > 0) {
+                key = keyValue.substring(0, i);
+                value = keyValue.substring(i + 1);
+            } else {
+                key = keyValue;
+            }
+            if (key.length() > 0) {
+                MapUtil.mergeValueInMap(params, key, value);
+            }
+        }
+        Map<String, String[]> decodedParams = new LinkedHashMap<>(params.size());
+        for (Map.Entry<String, String[]> e : params.entrySet()) {
+            String key = Codec.decodeUrl(e.getKey(), charset);
+            for (String value : e.getValue()) {
+                MapUtil.mergeValueInMap(decodedParams, key, null == value ? null : Codec.decodeUrl(value, charset));
+            }
+        }
+        return decodedParams;
+    }
+
+}